@@ -0,0 +1,69 @@
+package top.enderliquid.audioflow.common.audio;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.Tika;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.common.audio.extractor.AudioDurationExtractor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 音频文件探测器
+ * 基于文件头部数据嗅探 MIME 类型，并按文件后缀选用对应的 {@link AudioDurationExtractor} 提取时长
+ */
+@Slf4j
+@Component
+public class AudioProbe {
+
+    private static final Tika TIKA = new Tika();
+
+    private final Map<String, AudioDurationExtractor> extractorMap = new HashMap<>();
+
+    public AudioProbe(List<AudioDurationExtractor> extractors) {
+        for (AudioDurationExtractor extractor : extractors) {
+            for (String extension : extractor.supportedExtensions()) {
+                AudioDurationExtractor previous = extractorMap.put(extension, extractor);
+                if (previous != null) {
+                    throw new IllegalStateException("文件后缀[" + extension + "]存在多个时长提取器: "
+                            + previous.getClass().getSimpleName() + ", " + extractor.getClass().getSimpleName());
+                }
+            }
+        }
+        log.info("音频时长提取器加载完成，支持的文件后缀: {}", extractorMap.keySet());
+    }
+
+    /**
+     * 基于文件头部数据嗅探 MIME 类型
+     *
+     * @param head 文件头部数据
+     * @return MIME 类型
+     */
+    public String detectMimeType(byte[] head) {
+        return TIKA.detect(head);
+    }
+
+    /**
+     * 使用原生提取器读取音频时长，不支持该后缀、无法识别或读取失败时返回 null
+     *
+     * @param extension 文件后缀
+     * @param source    音频数据源
+     * @return 音频时长（毫秒）
+     */
+    @Nullable
+    public Long extractDurationInMills(String extension, AudioSource source) {
+        AudioDurationExtractor extractor = extractorMap.get(extension);
+        if (extractor == null) {
+            return null;
+        }
+        try {
+            Long duration = extractor.extractDurationInMills(source);
+            return duration != null && duration >= 0 ? duration : null;
+        } catch (Exception e) {
+            log.debug("原生提取音频时长失败，文件后缀: {}", extension, e);
+            return null;
+        }
+    }
+}
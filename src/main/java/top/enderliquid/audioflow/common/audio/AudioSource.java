@@ -0,0 +1,94 @@
+package top.enderliquid.audioflow.common.audio;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 按需读取的音频数据源
+ * 文件头部数据预先读取并缓存，超出头部的区间通过 {@link RangeReader} 按需读取，
+ * 同时统计实际传输的字节数与请求次数。非线程安全。
+ */
+public class AudioSource {
+    private final byte[] head;
+    private final long size;
+    private final RangeReader rangeReader;
+    private long bytesTransferred;
+    private int requestCount;
+
+    /**
+     * @param head        已读取的文件头部数据（从偏移量0开始）
+     * @param size        文件总大小
+     * @param rangeReader 区间读取器
+     */
+    public AudioSource(byte[] head, long size, RangeReader rangeReader) {
+        this.head = head;
+        this.size = size;
+        this.rangeReader = rangeReader;
+        this.bytesTransferred = head.length;
+        this.requestCount = 1;
+    }
+
+    /**
+     * 文件总大小（字节）
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 读取文件的指定区间，头部缓存命中时不产生网络请求
+     *
+     * @param offset 起始偏移量
+     * @param length 读取长度
+     * @return 读取到的数据，超出文件末尾时截断
+     * @throws IOException 读取失败
+     */
+    public byte[] read(long offset, int length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IOException("非法的读取区间，偏移量: " + offset + ", 长度: " + length);
+        }
+        if (offset >= size || length == 0) {
+            return new byte[0];
+        }
+        length = (int) Math.min(length, size - offset);
+        if (offset + length <= head.length) {
+            return Arrays.copyOfRange(head, (int) offset, (int) offset + length);
+        }
+        byte[] data = rangeReader.read(offset, length);
+        requestCount++;
+        if (data == null) {
+            throw new IOException("读取文件区间失败，偏移量: " + offset + ", 长度: " + length);
+        }
+        bytesTransferred += data.length;
+        return data;
+    }
+
+    /**
+     * 读取文件末尾的指定长度
+     */
+    public byte[] readTail(int length) throws IOException {
+        long offset = Math.max(0, size - length);
+        return read(offset, (int) (size - offset));
+    }
+
+    /**
+     * 文件头部缓存
+     */
+    public byte[] head() {
+        return head;
+    }
+
+    /**
+     * 累计传输的字节数（包含头部）
+     */
+    public long getBytesTransferred() {
+        return bytesTransferred;
+    }
+
+    /**
+     * 累计请求次数（包含头部）
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+}
@@ -0,0 +1,113 @@
+package top.enderliquid.audioflow.common.audio;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.tika.io.TikaInputStream;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.XMPDM;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
+import org.springframework.lang.Nullable;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 音频流单次遍历检查器
+ * 对同一个文件流依次完成时长解析与字节计数，整个过程只读取一次对象存储：
+ * <ol>
+ *     <li>parse：解析器从流起点消费数据，读取音频时长</li>
+ *     <li>drain：读完解析器未消费的剩余字节，得到文件的实际大小</li>
+ * </ol>
+ * 两个阶段读取的字节都经过同一个 {@link CountingInputStream}，超过大小上限时立即中断。
+ * 非线程安全，每个文件流创建一个实例，使用完毕后关闭。
+ */
+@Slf4j
+public class AudioStreamInspector implements AutoCloseable {
+
+    private static final Parser TIKA_PARSER = new AutoDetectParser();
+    private static final int DRAIN_BUFFER_SIZE = 8192;
+
+    private final CountingInputStream countingStream;
+    private final TikaInputStream tikaStream;
+
+    /**
+     * @param inputStream 文件流，关闭检查器时一并关闭
+     * @param maxBytes    允许读取的最大字节数
+     */
+    public AudioStreamInspector(InputStream inputStream, long maxBytes) {
+        this.countingStream = new CountingInputStream(inputStream, maxBytes);
+        this.tikaStream = TikaInputStream.get(countingStream);
+    }
+
+    /**
+     * 解析音频时长，解析失败时返回 null，不会抛出异常
+     *
+     * @return 音频时长（毫秒）
+     */
+    @Nullable
+    public Long parseDurationInMills() {
+        String durationStr;
+        try {
+            Metadata metadata = new Metadata();
+            TIKA_PARSER.parse(tikaStream, new DefaultHandler(), metadata, new ParseContext());
+            durationStr = metadata.get(XMPDM.DURATION);
+        } catch (Exception e) {
+            log.debug("解析音频时长失败", e);
+            return null;
+        }
+        if (durationStr == null || durationStr.isEmpty()) {
+            return null;
+        }
+        double durationSeconds;
+        try {
+            durationSeconds = Double.parseDouble(durationStr);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return Math.round(durationSeconds * 1000);
+    }
+
+    /**
+     * 读完剩余字节并返回文件实际大小
+     *
+     * @return 文件大小（字节）
+     * @throws IOException 读取失败或超过大小上限
+     */
+    public long drainAndCount() throws IOException {
+        if (!countingStream.isLimitExceeded()) {
+            byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+            while (tikaStream.read(buffer) != -1) {
+                // 只计数，不保留数据
+            }
+        }
+        if (countingStream.isLimitExceeded()) {
+            throw new IOException("读取字节数超过上限");
+        }
+        return countingStream.getCount();
+    }
+
+    /**
+     * 是否因超过大小上限而中断读取
+     */
+    public boolean isLimitExceeded() {
+        return countingStream.isLimitExceeded();
+    }
+
+    /**
+     * 已读取的字节数
+     */
+    public long getBytesRead() {
+        return countingStream.getCount();
+    }
+
+    @Override
+    public void close() {
+        try {
+            tikaStream.close();
+        } catch (IOException e) {
+            log.warn("关闭文件流失败", e);
+        }
+    }
+}
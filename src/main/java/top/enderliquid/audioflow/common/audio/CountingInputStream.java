@@ -0,0 +1,73 @@
+package top.enderliquid.audioflow.common.audio;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 计数输入流
+ * 统计实际从底层流读取的字节数，超过上限时立即中断读取，避免下载超限文件的剩余部分
+ */
+public class CountingInputStream extends FilterInputStream {
+    private final long limit;
+    private long count;
+    private boolean limitExceeded;
+
+    /**
+     * @param in    底层输入流
+     * @param limit 允许读取的最大字节数，小于0表示不限制
+     */
+    public CountingInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            advance(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            advance(skipped);
+        }
+        return skipped;
+    }
+
+    // 底层流的标记由上层缓冲流负责，此处不支持，避免重复计数
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void advance(long n) throws IOException {
+        count += n;
+        if (limit >= 0 && count > limit) {
+            limitExceeded = true;
+            throw new IOException("读取字节数超过上限: " + limit);
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isLimitExceeded() {
+        return limitExceeded;
+    }
+}
@@ -0,0 +1,20 @@
+package top.enderliquid.audioflow.common.audio;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * 文件区间读取器
+ * 由调用方提供具体的读取方式（如对象存储的 Range 请求）
+ */
+@FunctionalInterface
+public interface RangeReader {
+    /**
+     * 读取文件的指定区间
+     *
+     * @param start  起始偏移量（包含）
+     * @param length 读取长度
+     * @return 读取到的数据，超出文件末尾时截断，读取失败时返回 null
+     */
+    @Nullable
+    byte[] read(long start, int length);
+}
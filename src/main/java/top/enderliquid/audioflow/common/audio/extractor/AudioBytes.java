@@ -0,0 +1,59 @@
+package top.enderliquid.audioflow.common.audio.extractor;
+
+/**
+ * 音频二进制解析工具
+ */
+final class AudioBytes {
+    private AudioBytes() {
+    }
+
+    static int u8(byte[] b, int i) {
+        return b[i] & 0xFF;
+    }
+
+    static int u16le(byte[] b, int i) {
+        return u8(b, i) | (u8(b, i + 1) << 8);
+    }
+
+    static int u16be(byte[] b, int i) {
+        return (u8(b, i) << 8) | u8(b, i + 1);
+    }
+
+    static long u32le(byte[] b, int i) {
+        return (u16le(b, i) | ((long) u16le(b, i + 2) << 16)) & 0xFFFFFFFFL;
+    }
+
+    static long u32be(byte[] b, int i) {
+        return ((long) u16be(b, i) << 16) | u16be(b, i + 2);
+    }
+
+    static long s64le(byte[] b, int i) {
+        return u32le(b, i) | (u32le(b, i + 4) << 32);
+    }
+
+    static boolean matches(byte[] b, int i, String ascii) {
+        if (i < 0 || i + ascii.length() > b.length) return false;
+        for (int k = 0; k < ascii.length(); k++) {
+            if (b[i + k] != (byte) ascii.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 计算文件开头 ID3v2 标签的总长度，不存在时返回0
+     */
+    static long id3v2Length(byte[] head) {
+        if (head.length < 10 || !matches(head, 0, "ID3")) return 0;
+        long size = ((long) (u8(head, 6) & 0x7F) << 21)
+                | ((u8(head, 7) & 0x7F) << 14)
+                | ((u8(head, 8) & 0x7F) << 7)
+                | (u8(head, 9) & 0x7F);
+        boolean hasFooter = (u8(head, 5) & 0x10) != 0;
+        return 10 + size + (hasFooter ? 10 : 0);
+    }
+
+    static long toMills(long samples, long sampleRate) {
+        if (sampleRate <= 0 || samples < 0) return -1;
+        return Math.round(samples * 1000.0 / sampleRate);
+    }
+}
@@ -0,0 +1,29 @@
+package top.enderliquid.audioflow.common.audio.extractor;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.common.audio.AudioSource;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * 音频时长提取器
+ * 只读取文件头（必要时读取少量区间）解析时长，无需下载整个文件。
+ * 实现类注册为 Spring Bean 后即可按文件后缀被自动选用。
+ */
+public interface AudioDurationExtractor {
+    /**
+     * 支持的文件后缀（小写，不含点）
+     */
+    Set<String> supportedExtensions();
+
+    /**
+     * 提取音频时长
+     *
+     * @param source 音频数据源
+     * @return 音频时长（毫秒），无法识别时返回 null，由调用方回退到完整解析
+     * @throws IOException 读取数据失败
+     */
+    @Nullable
+    Long extractDurationInMills(AudioSource source) throws IOException;
+}
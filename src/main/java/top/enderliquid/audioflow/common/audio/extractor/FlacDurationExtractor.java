@@ -0,0 +1,48 @@
+package top.enderliquid.audioflow.common.audio.extractor;
+
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.common.audio.AudioSource;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static top.enderliquid.audioflow.common.audio.extractor.AudioBytes.*;
+
+/**
+ * FLAC 时长提取器
+ * 读取紧跟在 fLaC 标识后的 STREAMINFO 块，由总采样数与采样率计算时长
+ */
+@Component
+public class FlacDurationExtractor implements AudioDurationExtractor {
+
+    // fLaC(4) + 块头(4) + STREAMINFO(34)
+    private static final int HEADER_SIZE = 42;
+    private static final int STREAMINFO_TYPE = 0;
+
+    @Override
+    public Set<String> supportedExtensions() {
+        return Set.of("flac");
+    }
+
+    @Override
+    @Nullable
+    public Long extractDurationInMills(AudioSource source) throws IOException {
+        long start = id3v2Length(source.head());
+        byte[] b = source.read(start, HEADER_SIZE);
+        if (b.length < HEADER_SIZE || !matches(b, 0, "fLaC")) {
+            return null;
+        }
+        if ((u8(b, 4) & 0x7F) != STREAMINFO_TYPE) {
+            return null;
+        }
+        int si = 8;
+        long sampleRate = ((long) u8(b, si + 10) << 12) | (u8(b, si + 11) << 4) | (u8(b, si + 12) >> 4);
+        long totalSamples = ((long) (u8(b, si + 13) & 0x0F) << 32) | u32be(b, si + 14);
+        // 总采样数为0表示编码器未写入
+        if (sampleRate == 0 || totalSamples == 0) {
+            return null;
+        }
+        return toMills(totalSamples, sampleRate);
+    }
+}
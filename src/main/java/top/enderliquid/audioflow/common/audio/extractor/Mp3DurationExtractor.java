@@ -0,0 +1,195 @@
+package top.enderliquid.audioflow.common.audio.extractor;
+
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.common.audio.AudioSource;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static top.enderliquid.audioflow.common.audio.extractor.AudioBytes.*;
+
+/**
+ * MP3 时长提取器
+ * 跳过 ID3v2 标签后定位首个音频帧：
+ * <ul>
+ *     <li>存在 Xing/Info 头时，由总帧数计算时长，并按 LAME 扩展头扣除编码延迟与填充</li>
+ *     <li>存在 VBRI 头时，由总帧数计算时长</li>
+ *     <li>否则视为 CBR，由比特率与音频数据长度估算时长</li>
+ * </ul>
+ */
+@Component
+public class Mp3DurationExtractor implements AudioDurationExtractor {
+
+    private static final int SCAN_SIZE = 16 * 1024;
+    private static final int VBRI_OFFSET = 36;
+
+    private static final int VERSION_25 = 0;
+    private static final int VERSION_2 = 2;
+    private static final int VERSION_1 = 3;
+
+    private static final int LAYER_3 = 1;
+    private static final int LAYER_1 = 3;
+
+    // [MPEG1/MPEG2&2.5][层 I/II/III][比特率索引]，单位 kbps
+    private static final int[][][] BITRATES = {
+            {
+                    {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},
+                    {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},
+                    {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320}
+            },
+            {
+                    {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},
+                    {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160},
+                    {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+            }
+    };
+
+    private static final int[] SAMPLE_RATES_V1 = {44100, 48000, 32000};
+
+    @Override
+    public Set<String> supportedExtensions() {
+        return Set.of("mp3");
+    }
+
+    @Override
+    @Nullable
+    public Long extractDurationInMills(AudioSource source) throws IOException {
+        long audioStart = id3v2Length(source.head());
+        byte[] buf = source.read(audioStart, SCAN_SIZE);
+        int pos = findFrame(buf);
+        if (pos < 0) {
+            return null;
+        }
+        FrameHeader frame = FrameHeader.parse(buf, pos);
+        if (frame == null) {
+            return null;
+        }
+
+        int xing = pos + 4 + frame.sideInfoSize();
+        if (matches(buf, xing, "Xing") || matches(buf, xing, "Info")) {
+            Long duration = fromXingHeader(buf, xing, frame);
+            if (duration != null) {
+                return duration;
+            }
+        }
+        int vbri = pos + VBRI_OFFSET;
+        if (matches(buf, vbri, "VBRI") && vbri + 18 <= buf.length) {
+            long frames = u32be(buf, vbri + 14);
+            if (frames > 0) {
+                return toMills(frames * frame.samplesPerFrame(), frame.sampleRate);
+            }
+        }
+
+        // CBR：由比特率估算
+        long audioBytes = source.size() - audioStart - pos;
+        if (frame.bitrateKbps <= 0 || audioBytes <= 0) {
+            return null;
+        }
+        return Math.round(audioBytes * 8.0 / frame.bitrateKbps);
+    }
+
+    @Nullable
+    private static Long fromXingHeader(byte[] buf, int xing, FrameHeader frame) {
+        if (xing + 8 > buf.length) return null;
+        long flags = u32be(buf, xing + 4);
+        int p = xing + 8;
+        if ((flags & 0x1) == 0 || p + 4 > buf.length) {
+            return null;
+        }
+        long frames = u32be(buf, p);
+        p += 4;
+        if ((flags & 0x2) != 0) p += 4;
+        if ((flags & 0x4) != 0) p += 100;
+        if ((flags & 0x8) != 0) p += 4;
+        if (frames <= 0) {
+            return null;
+        }
+        long samples = frames * frame.samplesPerFrame();
+        // LAME 扩展头：编码器标识(9) ... 第21-23字节为 12 位编码延迟 + 12 位填充
+        if (p + 24 <= buf.length && isEncoderTag(buf, p)) {
+            int delay = (u8(buf, p + 21) << 4) | (u8(buf, p + 22) >> 4);
+            int padding = ((u8(buf, p + 22) & 0x0F) << 8) | u8(buf, p + 23);
+            if (samples > delay + padding) {
+                samples -= delay + padding;
+            }
+        }
+        return toMills(samples, frame.sampleRate);
+    }
+
+    private static boolean isEncoderTag(byte[] buf, int p) {
+        for (int i = 0; i < 4; i++) {
+            char c = (char) u8(buf, p + i);
+            if (!Character.isLetterOrDigit(c)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 查找首个有效帧头，若下一帧也在缓冲区内则一并校验，避免误判
+     */
+    private static int findFrame(byte[] buf) {
+        for (int i = 0; i + 4 <= buf.length; i++) {
+            if (u8(buf, i) != 0xFF || (u8(buf, i + 1) & 0xE0) != 0xE0) continue;
+            FrameHeader frame = FrameHeader.parse(buf, i);
+            if (frame == null) continue;
+            int next = i + frame.frameLength();
+            if (next + 4 <= buf.length) {
+                FrameHeader nextFrame = FrameHeader.parse(buf, next);
+                if (nextFrame == null || nextFrame.version != frame.version || nextFrame.layer != frame.layer) {
+                    continue;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static final class FrameHeader {
+        private int version;
+        private int layer;
+        private int bitrateKbps;
+        private int sampleRate;
+        private int padding;
+        private boolean mono;
+
+        @Nullable
+        static FrameHeader parse(byte[] b, int i) {
+            if (i + 4 > b.length || u8(b, i) != 0xFF || (u8(b, i + 1) & 0xE0) != 0xE0) return null;
+            FrameHeader h = new FrameHeader();
+            h.version = (u8(b, i + 1) >> 3) & 0x3;
+            h.layer = (u8(b, i + 1) >> 1) & 0x3;
+            int bitrateIndex = u8(b, i + 2) >> 4;
+            int sampleRateIndex = (u8(b, i + 2) >> 2) & 0x3;
+            if (h.version == 1 || h.layer == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                return null;
+            }
+            h.bitrateKbps = BITRATES[h.version == VERSION_1 ? 0 : 1][3 - h.layer][bitrateIndex];
+            int sampleRate = SAMPLE_RATES_V1[sampleRateIndex];
+            if (h.version == VERSION_2) sampleRate /= 2;
+            if (h.version == VERSION_25) sampleRate /= 4;
+            h.sampleRate = sampleRate;
+            h.padding = (u8(b, i + 2) >> 1) & 0x1;
+            h.mono = (u8(b, i + 3) >> 6) == 3;
+            return h;
+        }
+
+        int samplesPerFrame() {
+            if (layer == LAYER_1) return 384;
+            if (layer == LAYER_3 && version != VERSION_1) return 576;
+            return 1152;
+        }
+
+        int sideInfoSize() {
+            if (version == VERSION_1) return mono ? 17 : 32;
+            return mono ? 9 : 17;
+        }
+
+        int frameLength() {
+            int bitrate = bitrateKbps * 1000;
+            if (layer == LAYER_1) return (12 * bitrate / sampleRate + padding) * 4;
+            if (layer == LAYER_3 && version != VERSION_1) return 72 * bitrate / sampleRate + padding;
+            return 144 * bitrate / sampleRate + padding;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package top.enderliquid.audioflow.common.audio.extractor;
+
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.common.audio.AudioSource;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static top.enderliquid.audioflow.common.audio.extractor.AudioBytes.*;
+
+/**
+ * OGG 时长提取器
+ * 从首页的标识头获取采样率，再从文件末尾读取最后一个 Ogg 页的 granule position 计算时长。
+ * 支持 Vorbis、Opus、Speex 与 Ogg FLAC。
+ */
+@Component
+public class OggDurationExtractor implements AudioDurationExtractor {
+
+    private static final int PAGE_HEADER_SIZE = 27;
+    private static final int[] TAIL_SIZES = {64 * 1024, 1024 * 1024};
+    private static final int OPUS_SAMPLE_RATE = 48000;
+
+    @Override
+    public Set<String> supportedExtensions() {
+        return Set.of("ogg");
+    }
+
+    @Override
+    @Nullable
+    public Long extractDurationInMills(AudioSource source) throws IOException {
+        byte[] head = source.head();
+        if (head.length < PAGE_HEADER_SIZE || !matches(head, 0, "OggS")) {
+            return null;
+        }
+        long serial = u32le(head, 14);
+        int segments = u8(head, 26);
+        int body = PAGE_HEADER_SIZE + segments;
+        if (body + 40 > head.length) {
+            return null;
+        }
+        long sampleRate;
+        long preSkip = 0;
+        if (u8(head, body) == 0x01 && matches(head, body + 1, "vorbis")) {
+            sampleRate = u32le(head, body + 12);
+        } else if (matches(head, body, "OpusHead")) {
+            // Opus 的 granule position 固定以 48kHz 计
+            sampleRate = OPUS_SAMPLE_RATE;
+            preSkip = u16le(head, body + 10);
+        } else if (matches(head, body, "Speex   ")) {
+            sampleRate = u32le(head, body + 36);
+        } else if (u8(head, body) == 0x7F && matches(head, body + 1, "FLAC") && matches(head, body + 9, "fLaC")) {
+            int si = body + 17;
+            sampleRate = ((long) u8(head, si + 10) << 12) | (u8(head, si + 11) << 4) | (u8(head, si + 12) >> 4);
+        } else {
+            return null;
+        }
+        if (sampleRate <= 0) {
+            return null;
+        }
+
+        for (int tailSize : TAIL_SIZES) {
+            byte[] tail = source.readTail(tailSize);
+            long granule = findLastGranule(tail, serial);
+            if (granule >= 0) {
+                return toMills(Math.max(0, granule - preSkip), sampleRate);
+            }
+            if (tail.length >= source.size()) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 从后向前查找属于指定逻辑流、且 granule position 有效的最后一个 Ogg 页
+     */
+    private static long findLastGranule(byte[] data, long serial) {
+        for (int i = data.length - PAGE_HEADER_SIZE; i >= 0; i--) {
+            if (data[i] != 'O' || !matches(data, i, "OggS") || data[i + 4] != 0) {
+                continue;
+            }
+            long granule = s64le(data, i + 6);
+            if (granule != -1 && u32le(data, i + 14) == serial) {
+                return granule;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,61 @@
+package top.enderliquid.audioflow.common.audio.extractor;
+
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.common.audio.AudioSource;
+
+import java.io.IOException;
+import java.util.Set;
+
+import static top.enderliquid.audioflow.common.audio.extractor.AudioBytes.*;
+
+/**
+ * WAV 时长提取器
+ * 遍历 RIFF 块，由 fmt 块的字节率与 data 块的长度计算时长
+ */
+@Component
+public class WavDurationExtractor implements AudioDurationExtractor {
+
+    private static final int MAX_CHUNKS = 64;
+    private static final int CHUNK_HEADER_SIZE = 8;
+    private static final int FMT_MIN_SIZE = 16;
+    private static final long UNKNOWN_DATA_SIZE = 0xFFFFFFFFL;
+
+    @Override
+    public Set<String> supportedExtensions() {
+        return Set.of("wav");
+    }
+
+    @Override
+    @Nullable
+    public Long extractDurationInMills(AudioSource source) throws IOException {
+        byte[] riff = source.read(0, 12);
+        if (riff.length < 12 || !matches(riff, 0, "RIFF") || !matches(riff, 8, "WAVE")) {
+            return null;
+        }
+        long byteRate = -1;
+        long offset = 12;
+        for (int i = 0; i < MAX_CHUNKS && offset + CHUNK_HEADER_SIZE <= source.size(); i++) {
+            byte[] header = source.read(offset, CHUNK_HEADER_SIZE);
+            if (header.length < CHUNK_HEADER_SIZE) return null;
+            long chunkSize = u32le(header, 4);
+            long body = offset + CHUNK_HEADER_SIZE;
+            if (matches(header, 0, "fmt ")) {
+                byte[] fmt = source.read(body, FMT_MIN_SIZE);
+                if (fmt.length < FMT_MIN_SIZE) return null;
+                byteRate = u32le(fmt, 8);
+            } else if (matches(header, 0, "data")) {
+                if (byteRate <= 0) return null;
+                long dataSize = chunkSize;
+                // 流式写出的 WAV 可能未回填 data 块长度
+                if (dataSize == 0 || dataSize == UNKNOWN_DATA_SIZE || body + dataSize > source.size()) {
+                    dataSize = source.size() - body;
+                }
+                return Math.round(dataSize * 1000.0 / byteRate);
+            }
+            // RIFF 块按偶数字节对齐
+            offset = body + chunkSize + (chunkSize & 1);
+        }
+        return null;
+    }
+}
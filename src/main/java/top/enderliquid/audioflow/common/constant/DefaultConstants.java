@@ -23,6 +23,23 @@ public final class DefaultConstants {
      */
     public static final boolean PAGE_DEFAULT_ASC = false;
 
+    // 热门歌曲相关
+    /**
+     * 默认排行时间窗口
+     */
+    public static final String TRENDING_DEFAULT_WINDOW = "day";
+
+    /**
+     * 默认返回的歌曲数
+     */
+    public static final int TRENDING_DEFAULT_LIMIT = 20;
+
+    // 搜索建议相关
+    /**
+     * 默认返回的建议数
+     */
+    public static final int SUGGEST_DEFAULT_LIMIT = 10;
+
     // Redis统计数据过期时间
     /**
      * 统计数据Redis key过期天数（日活、日签到数等）
@@ -16,4 +16,13 @@ public final class ValidationConstants {
 
     // 批量上传
     public static final int BATCH_SIZE_MAX = 10;
+
+    // 热门歌曲
+    public static final String TRENDING_WINDOW_REGEXP = "^(?i)(hour|day|week)$";
+    public static final int TRENDING_LIMIT_MIN = 1;
+    public static final int TRENDING_LIMIT_MAX = 50;
+
+    // 搜索建议
+    public static final int SUGGEST_LIMIT_MIN = 1;
+    public static final int SUGGEST_LIMIT_MAX = 20;
 }
\ No newline at end of file
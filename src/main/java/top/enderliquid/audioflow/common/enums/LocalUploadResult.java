@@ -0,0 +1,12 @@
+package top.enderliquid.audioflow.common.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum LocalUploadResult {
+    SUCCESS,    // 上传成功
+    FORBIDDEN,  // 签名无效或已过期
+    TOO_LARGE,  // 超过文件大小上限
+    EXISTS,     // 文件已存在，不允许覆盖
+    FAILED      // 写入失败或分片上传不存在
+}
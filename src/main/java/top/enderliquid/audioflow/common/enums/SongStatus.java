@@ -8,6 +8,7 @@ import lombok.Getter;
 // 最大长度: 20
 public enum SongStatus {
     UPLOADING,
+    PROCESSING,
     DELETING,
     NORMAL
 }
\ No newline at end of file
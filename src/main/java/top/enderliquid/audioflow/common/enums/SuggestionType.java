@@ -0,0 +1,9 @@
+package top.enderliquid.audioflow.common.enums;
+
+/**
+ * 搜索建议的来源
+ */
+public enum SuggestionType {
+    SONG,     // 歌名
+    UPLOADER  // 上传者名
+}
@@ -0,0 +1,29 @@
+package top.enderliquid.audioflow.common.enums;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * 热门歌曲排行的时间窗口
+ * 每个窗口合并最近若干个时间桶，桶越旧权重越低，每经过一个半衰期权重减半
+ */
+@Getter
+public enum TrendingWindow {
+    HOUR(6, 30),     // 最近1小时，半衰期30分钟
+    DAY(144, 360),   // 最近1天，半衰期6小时
+    WEEK(1008, 2880); // 最近7天，半衰期2天
+
+    // 按10分钟一个桶计算的桶数
+    private final int bucketCount;
+    private final int halfLifeMinutes;
+
+    TrendingWindow(int bucketCount, int halfLifeMinutes) {
+        this.bucketCount = bucketCount;
+        this.halfLifeMinutes = halfLifeMinutes;
+    }
+
+    public static TrendingWindow fromName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,25 @@
+package top.enderliquid.audioflow.common.task;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.service.SongService;
+
+/**
+ * 歌曲播放次数刷新定时任务
+ * 定期将内存中聚合的播放次数批量写入数据库与 Redis
+ */
+@Component
+@RequiredArgsConstructor
+public class SongPlayCountFlushTask {
+
+    private final SongService songService;
+
+    /**
+     * 默认每10秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${song.play-count.flush-interval-millis:10000}")
+    public void flushPlayCounts() {
+        songService.flushPlayCounts();
+    }
+}
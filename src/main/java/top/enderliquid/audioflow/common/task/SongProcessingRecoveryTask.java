@@ -0,0 +1,30 @@
+package top.enderliquid.audioflow.common.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.service.SongService;
+
+/**
+ * 歌曲后台处理恢复定时任务
+ * 重新提交因重启、队列已满或异常而长时间停留在PROCESSING状态的歌曲
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SongProcessingRecoveryTask {
+
+    private final SongService songService;
+
+    /**
+     * 每分钟执行一次，启动后延迟30秒开始
+     */
+    @Scheduled(initialDelay = 30_000, fixedDelay = 60_000)
+    public void resumeProcessingUploads() {
+        int submittedCount = songService.resumeProcessingUploads();
+        if (submittedCount > 0) {
+            log.info("歌曲处理恢复任务执行完毕，重新提交数量: {}", submittedCount);
+        }
+    }
+}
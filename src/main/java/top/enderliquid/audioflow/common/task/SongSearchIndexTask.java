@@ -0,0 +1,25 @@
+package top.enderliquid.audioflow.common.task;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.service.SongService;
+
+/**
+ * 歌曲检索索引重建定时任务
+ * 启动后立即构建一次，之后定期全量重建，修正其他节点写入而本节点未收到增量更新的歌曲
+ */
+@Component
+@RequiredArgsConstructor
+public class SongSearchIndexTask {
+
+    private final SongService songService;
+
+    /**
+     * 默认每5分钟执行一次
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${song.search.index.rebuild-interval-millis:300000}")
+    public void rebuildSearchIndex() {
+        songService.rebuildSearchIndex();
+    }
+}
@@ -0,0 +1,25 @@
+package top.enderliquid.audioflow.common.task;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.service.SongService;
+
+/**
+ * 搜索建议索引重建定时任务
+ * 启动后立即构建一次，之后定期全量重建，同步新歌曲与最新的播放次数
+ */
+@Component
+@RequiredArgsConstructor
+public class SongSuggestTask {
+
+    private final SongService songService;
+
+    /**
+     * 默认每5分钟执行一次
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${song.suggest.rebuild-interval-millis:300000}")
+    public void rebuildSuggestIndex() {
+        songService.rebuildSuggestIndex();
+    }
+}
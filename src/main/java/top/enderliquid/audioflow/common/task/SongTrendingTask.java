@@ -0,0 +1,25 @@
+package top.enderliquid.audioflow.common.task;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.service.SongService;
+
+/**
+ * 热门歌曲排行刷新定时任务
+ * 启动后立即计算一次，之后定期按当前时间重新计算衰减权重并合并时间桶
+ */
+@Component
+@RequiredArgsConstructor
+public class SongTrendingTask {
+
+    private final SongService songService;
+
+    /**
+     * 默认每分钟执行一次
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${song.trending.refresh-interval-millis:60000}")
+    public void refreshTrendingRankings() {
+        songService.refreshTrendingRankings();
+    }
+}
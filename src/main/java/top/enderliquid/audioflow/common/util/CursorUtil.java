@@ -0,0 +1,64 @@
+package top.enderliquid.audioflow.common.util;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 游标分页的游标编解码工具类
+ * 游标为 Base64URL 编码的 "排序方向:创建时间(epoch 秒):ID"，对客户端不透明，只能原样传回。
+ * 创建时间按 UTC 换算，只用于往返编码，与时区无关。
+ */
+public final class CursorUtil {
+
+    private static final String ASC = "a";
+    private static final String DESC = "d";
+    private static final String SEPARATOR = ":";
+
+    /**
+     * 私有构造函数，防止实例化
+     */
+    private CursorUtil() {
+        throw new UnsupportedOperationException("工具类不能被实例化");
+    }
+
+    /**
+     * 编码游标
+     *
+     * @param keyset 当前页最后一条记录的位置
+     * @param asc    是否升序
+     * @return 游标
+     */
+    public static String encode(SongKeysetBO keyset, boolean asc) {
+        String raw = (asc ? ASC : DESC) + SEPARATOR
+                + keyset.getCreateTime().toEpochSecond(ZoneOffset.UTC) + SEPARATOR + keyset.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 解码游标
+     *
+     * @param cursor 游标
+     * @param asc    本次查询是否升序，与游标的排序方向不一致时视为无效
+     * @return 记录位置，游标格式错误或排序方向不一致时返回 null
+     */
+    @Nullable
+    public static SongKeysetBO decode(String cursor, boolean asc) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(SEPARATOR);
+            if (parts.length != 3 || !parts[0].equals(asc ? ASC : DESC)) {
+                return null;
+            }
+            LocalDateTime createTime = LocalDateTime.ofEpochSecond(Long.parseLong(parts[1]), 0, ZoneOffset.UTC);
+            return new SongKeysetBO(createTime, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return null;
+        }
+    }
+}
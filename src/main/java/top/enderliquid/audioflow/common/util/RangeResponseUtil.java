@@ -0,0 +1,139 @@
+package top.enderliquid.audioflow.common.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * 支持 Range 与条件请求的文件响应工具
+ * 只处理单个字节区间，多区间或格式错误的 Range 头按完整文件响应
+ */
+public final class RangeResponseUtil {
+
+    private RangeResponseUtil() {
+    }
+
+    /**
+     * 响应的字节区间
+     *
+     * @param start   起始偏移量
+     * @param length  长度
+     * @param partial 是否为部分内容（206）
+     */
+    public record ByteRange(long start, long length, boolean partial) {
+    }
+
+    /**
+     * 根据 Range 与 If-Range 请求头计算响应区间
+     *
+     * @param eTag 文件当前的 ETag，If-Range 与其不一致时忽略 Range，返回完整文件
+     * @return 响应区间，区间无法满足时返回 null
+     */
+    @Nullable
+    public static ByteRange resolveRange(@Nullable String rangeHeader, @Nullable String ifRange, String eTag, long size) {
+        ByteRange full = new ByteRange(0, size, false);
+        if (rangeHeader == null || (ifRange != null && !ifRange.trim().equals(eTag))) {
+            return full;
+        }
+        HttpRange range;
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            if (ranges.size() != 1) {
+                return full;
+            }
+            range = ranges.getFirst();
+        } catch (IllegalArgumentException e) {
+            return full;
+        }
+        long start;
+        long end;
+        try {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (start >= size || end < start) {
+            return null;
+        }
+        return new ByteRange(start, end - start + 1, true);
+    }
+
+    /**
+     * 判断 If-None-Match 请求头是否与 ETag 匹配（弱比较）
+     */
+    public static boolean matchesETag(@Nullable String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 响应 416，附带文件大小
+     */
+    public static void sendRangeNotSatisfiable(HttpServletResponse response, long size) throws IOException {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+        response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    /**
+     * 写入区间对应的状态码与内容相关的响应头
+     */
+    public static void writeHeaders(HttpServletResponse response, ByteRange range, long size, String contentType) {
+        response.setContentType(contentType);
+        response.setContentLengthLong(range.length());
+        if (range.partial()) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + (range.start() + range.length() - 1) + "/" + size);
+        }
+    }
+
+    /**
+     * 写入区间数据
+     * 本地文件使用 FileChannel.transferTo，远程数据直接转发输入流。
+     * 不使用容器的 sendfile：sendfile 在请求线程返回后才打开文件，此时数据源已关闭、并发许可已释放，
+     * 文件也可能已被删除，传输必须在调用方关闭数据源之前完成
+     */
+    public static void writeBody(FileStreamBO source, HttpServletResponse response) throws IOException {
+        FileChannel channel = source.getFileChannel();
+        if (channel != null) {
+            OutputStream outputStream = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = source.getStart();
+            long remaining = source.getLength();
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            outputStream.flush();
+            return;
+        }
+        if (source.getInputStream() != null) {
+            source.getInputStream().transferTo(response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package top.enderliquid.audioflow.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import top.enderliquid.audioflow.common.annotation.RateLimit;
+import top.enderliquid.audioflow.common.annotation.RateLimits;
+import top.enderliquid.audioflow.common.enums.LimitType;
+import top.enderliquid.audioflow.common.enums.LocalUploadResult;
+import top.enderliquid.audioflow.common.util.RangeResponseUtil;
+import top.enderliquid.audioflow.common.util.RangeResponseUtil.ByteRange;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.dto.bo.LocalFileBO;
+import top.enderliquid.audioflow.dto.request.localfile.LocalFileAccessDTO;
+import top.enderliquid.audioflow.service.LocalFileService;
+
+import java.io.IOException;
+
+/**
+ * 本地文件系统存储的签名 URL 接口
+ * 代替对象存储处理预签名的上传与下载请求，行为与 S3 的预签名 URL 保持一致：
+ * 上传使用 PUT 请求体，下载支持 Range 与条件请求。失败时直接返回 HTTP 错误状态码。
+ * 通过 file.storage.type=local 启用。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/local-files")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "local")
+public class LocalFileController {
+
+    private static final String CACHE_CONTROL_VALUE = "private, max-age=3600";
+
+    private final LocalFileService localFileService;
+
+    /**
+     * 通过签名 URL 上传文件或分片
+     */
+    @PutMapping("{fileName}")
+    @RateLimits(
+            value = @RateLimit(type = LimitType.IP, refillRate = "10/1", capacity = 50),
+            message = "上传过于频繁，请稍后再试"
+    )
+    public void uploadFile(@PathVariable String fileName, @ModelAttribute LocalFileAccessDTO dto,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        LocalUploadResult result = localFileService.uploadFile(fileName, dto, request.getContentType(),
+                request.getContentLengthLong(), request.getInputStream());
+        switch (result) {
+            case SUCCESS -> response.setStatus(HttpServletResponse.SC_OK);
+            case FORBIDDEN -> response.sendError(HttpServletResponse.SC_FORBIDDEN, "签名无效或已过期");
+            case TOO_LARGE -> response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "文件过大");
+            case EXISTS -> response.sendError(HttpServletResponse.SC_PRECONDITION_FAILED, "文件已存在");
+            case FAILED -> response.sendError(HttpServletResponse.SC_BAD_REQUEST, "上传失败");
+        }
+    }
+
+    /**
+     * 通过签名 URL 下载文件
+     * 使用 FileChannel.transferTo 发送
+     */
+    @GetMapping("{fileName}")
+    @RateLimits(
+            value = @RateLimit(type = LimitType.IP, refillRate = "5/1", capacity = 30),
+            message = "下载过于频繁，请稍后再试"
+    )
+    public void downloadFile(@PathVariable String fileName, @ModelAttribute LocalFileAccessDTO dto,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!localFileService.verifyDownload(fileName, dto)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "签名无效或已过期");
+            return;
+        }
+        LocalFileBO file = localFileService.getFile(fileName);
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "文件不存在");
+            return;
+        }
+        long size = file.getSize();
+        String eTag = file.getETag();
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_VALUE);
+        if (RangeResponseUtil.matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range = RangeResponseUtil.resolveRange(
+                request.getHeader(HttpHeaders.RANGE), request.getHeader(HttpHeaders.IF_RANGE), eTag, size);
+        if (range == null) {
+            RangeResponseUtil.sendRangeNotSatisfiable(response, size);
+            return;
+        }
+
+        FileStreamBO stream = null;
+        if (range.length() > 0 && !"HEAD".equals(request.getMethod())) {
+            stream = localFileService.openFileRange(fileName, range.start(), range.length());
+            if (stream == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "文件不存在");
+                return;
+            }
+        }
+
+        RangeResponseUtil.writeHeaders(response, range, size, file.getMimeType());
+        if (stream == null) {
+            return;
+        }
+        try (FileStreamBO source = stream) {
+            RangeResponseUtil.writeBody(source, response);
+        } catch (IOException e) {
+            log.debug("本地文件传输中断，文件名: {}", fileName, e);
+        }
+    }
+}
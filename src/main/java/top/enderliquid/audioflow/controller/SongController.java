@@ -6,11 +6,15 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import top.enderliquid.audioflow.common.annotation.RateLimit;
 import top.enderliquid.audioflow.common.annotation.RateLimits;
 import top.enderliquid.audioflow.common.enums.LimitType;
+import top.enderliquid.audioflow.common.enums.SongStatus;
 import top.enderliquid.audioflow.common.response.HttpResponseBody;
 import top.enderliquid.audioflow.dto.request.song.*;
 import top.enderliquid.audioflow.dto.response.song.*;
@@ -25,6 +29,8 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class SongController {
 
+    private static final long PROCESSING_EVENTS_TIMEOUT_MILLS = 60_000L;
+
     private final SongService songService;
 
     /**
@@ -58,22 +64,123 @@ public class SongController {
                     @RateLimit(type = LimitType.USER)
             }
     )
-    public HttpResponseBody<SongVO> completeUpload(@Valid @RequestBody SongCompleteUploadDTO dto) {
+    public HttpResponseBody<SongVO> completeUpload(@Valid @RequestBody SongCompleteUploadDTO dto, HttpServletResponse response) {
         long userId = StpUtil.getLoginIdAsLong();
         SongVO songVO = songService.completeUpload(dto, userId);
+        if (SongStatus.PROCESSING.name().equals(songVO.getStatus())) {
+            response.setStatus(HttpServletResponse.SC_ACCEPTED);
+            return HttpResponseBody.ok(songVO, "上传文件处理中");
+        }
         return HttpResponseBody.ok(songVO, "上传成功");
     }
 
+    /**
+     * 查询歌曲上传后的处理状态
+     * 需要登录
+     */
+    @SaCheckLogin
+    @GetMapping("{songId}/processing")
+    @RateLimits(
+            value = {
+                    @RateLimit(type = LimitType.IP),
+                    @RateLimit(type = LimitType.USER)
+            }
+    )
+    public HttpResponseBody<SongProcessingVO> getProcessingStatus(@PathVariable Long songId) {
+        long userId = StpUtil.getLoginIdAsLong();
+        SongProcessingVO result = songService.getProcessingStatus(songId, userId);
+        return HttpResponseBody.ok(result, "查询成功");
+    }
+
+    /**
+     * 通过SSE推送歌曲处理结果，处理完成后推送一次并关闭连接
+     * 仅能收到当前节点的处理结果，超时后客户端应回退到轮询
+     * 需要登录
+     */
+    @SaCheckLogin
+    @GetMapping(value = "{songId}/processing/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RateLimits(
+            value = {
+                    @RateLimit(type = LimitType.IP, refillRate = "1/1", capacity = 5),
+                    @RateLimit(type = LimitType.USER, refillRate = "1/1", capacity = 5)
+            },
+            message = "操作过于频繁，请稍后再试"
+    )
+    public SseEmitter subscribeProcessingResult(@PathVariable Long songId) {
+        long userId = StpUtil.getLoginIdAsLong();
+        SseEmitter emitter = new SseEmitter(PROCESSING_EVENTS_TIMEOUT_MILLS);
+        Runnable unsubscribe = songService.subscribeProcessingResult(songId, userId, result -> {
+            try {
+                emitter.send(SseEmitter.event().name("result").data(HttpResponseBody.ok(result, "处理完成")));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
     /**
      * 分页查询/搜索歌曲
+     * 匿名请求使用短时缓存的响应，登录用户总是查询最新结果
      */
     @GetMapping
     @RateLimits(
             value = @RateLimit(type = LimitType.IP, refillRate = "1/1", capacity = 5),
             message = "查询过于频繁，请稍后再试"
     )
-    public HttpResponseBody<SongPageVO> pageSongs(@Valid @ModelAttribute SongPageDTO dto) {
+    public ResponseEntity<?> pageSongs(@Valid @ModelAttribute SongPageDTO dto) {
+        if (!StpUtil.isLogin()) {
+            // 匿名请求直接返回缓存的响应字节
+            byte[] body = songService.pageSongsAsJson(dto);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        }
         SongPageVO result = songService.pageSongsByUploaderKeywordAndSongKeyword(dto);
+        return ResponseEntity.ok(HttpResponseBody.ok(result, "查询成功"));
+    }
+
+    /**
+     * 游标分页查询/搜索歌曲
+     * 不返回总数，使用上一页返回的游标获取下一页
+     */
+    @GetMapping("/cursor")
+    @RateLimits(
+            value = @RateLimit(type = LimitType.IP, refillRate = "1/1", capacity = 5),
+            message = "查询过于频繁，请稍后再试"
+    )
+    public HttpResponseBody<SongCursorPageVO> pageSongsByCursor(@Valid @ModelAttribute SongCursorPageDTO dto) {
+        SongCursorPageVO result = songService.pageSongsByCursor(dto);
+        return HttpResponseBody.ok(result, "查询成功");
+    }
+
+    /**
+     * 获取热门歌曲
+     * 按时间衰减后的播放热度排序，排行定期刷新
+     */
+    @GetMapping("/trending")
+    @RateLimits(
+            value = @RateLimit(type = LimitType.IP, refillRate = "1/1", capacity = 5),
+            message = "查询过于频繁，请稍后再试"
+    )
+    public HttpResponseBody<SongTrendingVO> getTrendingSongs(@Valid @ModelAttribute SongTrendingDTO dto) {
+        SongTrendingVO result = songService.getTrendingSongs(dto);
+        return HttpResponseBody.ok(result, "查询成功");
+    }
+
+    /**
+     * 获取搜索建议
+     * 按前缀匹配歌名与上传者名，输入时频繁调用，限流较为宽松
+     */
+    @GetMapping("/suggest")
+    @RateLimits(
+            value = @RateLimit(type = LimitType.IP, refillRate = "10/1", capacity = 20),
+            message = "查询过于频繁，请稍后再试"
+    )
+    public HttpResponseBody<SongSuggestVO> suggestSongs(@Valid @ModelAttribute SongSuggestDTO dto) {
+        SongSuggestVO result = songService.suggestSongs(dto);
         return HttpResponseBody.ok(result, "查询成功");
     }
 
@@ -0,0 +1,101 @@
+package top.enderliquid.audioflow.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import top.enderliquid.audioflow.common.annotation.RateLimit;
+import top.enderliquid.audioflow.common.annotation.RateLimits;
+import top.enderliquid.audioflow.common.enums.LimitType;
+import top.enderliquid.audioflow.common.exception.RateLimitException;
+import top.enderliquid.audioflow.common.util.RangeResponseUtil;
+import top.enderliquid.audioflow.common.util.RangeResponseUtil.ByteRange;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.dto.bo.SongFileBO;
+import top.enderliquid.audioflow.service.SongService;
+
+import java.io.IOException;
+
+/**
+ * 歌曲流式播放
+ * 由服务端代理歌曲文件，供不能正确处理跨域重定向的客户端使用，支持 Range、ETag 与条件请求。
+ * 通过 song.stream.enabled 开启。
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/songs")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "song.stream.enabled", havingValue = "true")
+public class SongStreamController {
+
+    private static final String CACHE_CONTROL_VALUE = "private, max-age=3600";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final SongService songService;
+
+    /**
+     * 流式获取歌曲文件
+     * 文件已缓存在本地时直接从本地文件传输，否则代理对象存储的区间读取
+     */
+    @GetMapping("{songId}/stream")
+    @RateLimits(
+            value = @RateLimit(type = LimitType.IP, refillRate = "5/1", capacity = 30),
+            message = "请求歌曲流过于频繁，请稍后再试"
+    )
+    public void streamSong(@PathVariable Long songId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        SongFileBO songFile = songService.getSongFile(songId);
+        if (songFile == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "歌曲不存在");
+            return;
+        }
+        long size = songFile.getSize();
+        String eTag = songFile.getETag();
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_VALUE);
+        if (RangeResponseUtil.matchesETag(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range = RangeResponseUtil.resolveRange(
+                request.getHeader(HttpHeaders.RANGE), request.getHeader(HttpHeaders.IF_RANGE), eTag, size);
+        if (range == null) {
+            RangeResponseUtil.sendRangeNotSatisfiable(response, size);
+            return;
+        }
+
+        FileStreamBO stream = null;
+        if (range.length() > 0 && !"HEAD".equals(request.getMethod())) {
+            try {
+                stream = songService.openSongFileRange(songFile, range.start(), range.length());
+            } catch (RateLimitException e) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+                return;
+            }
+            if (stream == null) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND, "获取歌曲文件失败");
+                return;
+            }
+        }
+
+        RangeResponseUtil.writeHeaders(response, range, size, songFile.getMimeType());
+        if (stream == null) {
+            return;
+        }
+        // 传输完成后才关闭数据源并释放并发许可
+        try (FileStreamBO source = stream) {
+            RangeResponseUtil.writeBody(source, response);
+        } catch (IOException e) {
+            // 客户端拖动进度或停止播放时会主动断开连接
+            log.debug("歌曲流传输中断，歌曲ID: {}", songId, e);
+        }
+    }
+}
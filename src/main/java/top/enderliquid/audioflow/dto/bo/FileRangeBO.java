@@ -0,0 +1,29 @@
+package top.enderliquid.audioflow.dto.bo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 文件区间读取结果
+ * 用于Manager层向Service层返回对象存储的范围读取数据
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileRangeBO {
+    /**
+     * 读取到的数据，文件较短时可能少于请求的长度
+     */
+    private byte[] data;
+
+    /**
+     * 数据在文件中的起始偏移量
+     */
+    private long start;
+
+    /**
+     * 文件总大小（字节）
+     */
+    private long totalSize;
+}
@@ -0,0 +1,85 @@
+package top.enderliquid.audioflow.dto.bo;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+
+/**
+ * 文件区间的数据源
+ * 用于Manager层向上层提供可流式传输的文件区间：文件已在本地磁盘时给出已打开的文件通道，调用方可零拷贝地传输，
+ * 通道打开后文件被删除（如缓存淘汰）也不影响读取；否则给出只包含所请求区间数据的输入流。使用完毕后必须关闭。
+ */
+@Slf4j
+@Data
+@NoArgsConstructor
+public class FileStreamBO implements Closeable {
+    /**
+     * 本地文件的只读通道，不为空时从该文件的 start 处读取 length 字节
+     */
+    @Nullable
+    private FileChannel fileChannel;
+
+    /**
+     * 区间数据的输入流，本地文件不可用时使用
+     */
+    @Nullable
+    private InputStream inputStream;
+
+    /**
+     * 区间在文件中的起始偏移量
+     */
+    private long start;
+
+    /**
+     * 区间长度（字节）
+     */
+    private long length;
+
+    /**
+     * 关闭时执行的回调，如释放并发许可
+     */
+    @Nullable
+    private Runnable closeHook;
+
+    public static FileStreamBO ofFileChannel(FileChannel fileChannel, long start, long length) {
+        FileStreamBO stream = new FileStreamBO();
+        stream.setFileChannel(fileChannel);
+        stream.setStart(start);
+        stream.setLength(length);
+        return stream;
+    }
+
+    public static FileStreamBO ofInputStream(InputStream inputStream, long start, long length) {
+        FileStreamBO stream = new FileStreamBO();
+        stream.setInputStream(inputStream);
+        stream.setStart(start);
+        stream.setLength(length);
+        return stream;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (inputStream != null) {
+                inputStream.close();
+            }
+            if (fileChannel != null) {
+                fileChannel.close();
+            }
+        } catch (IOException e) {
+            log.warn("关闭文件区间数据源失败", e);
+        } finally {
+            Runnable hook = closeHook;
+            closeHook = null;
+            if (hook != null) {
+                hook.run();
+            }
+        }
+    }
+}
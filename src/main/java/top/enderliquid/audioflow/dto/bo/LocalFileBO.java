@@ -0,0 +1,39 @@
+package top.enderliquid.audioflow.dto.bo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 本地存储的文件信息
+ * 用于本地文件系统存储向Controller层提供下载所需的元数据
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LocalFileBO {
+    /**
+     * 文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件大小（字节）
+     */
+    private long size;
+
+    /**
+     * 最后修改时间（epoch 毫秒）
+     */
+    private long lastModified;
+
+    /**
+     * 文件的 MIME 类型
+     */
+    private String mimeType;
+
+    /**
+     * 强 ETag（含双引号），由大小与修改时间生成，同名文件被重新上传后随之变化
+     */
+    private String eTag;
+}
@@ -0,0 +1,39 @@
+package top.enderliquid.audioflow.dto.bo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 可播放的歌曲文件信息
+ * 用于Service层向Controller层提供流式播放所需的元数据
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongFileBO {
+    /**
+     * 歌曲ID
+     */
+    private Long songId;
+
+    /**
+     * 对象存储中的文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件大小（字节）
+     */
+    private long size;
+
+    /**
+     * 文件的 MIME 类型
+     */
+    private String mimeType;
+
+    /**
+     * 强 ETag（含双引号），文件名对应的内容上传后不再变化
+     */
+    private String eTag;
+}
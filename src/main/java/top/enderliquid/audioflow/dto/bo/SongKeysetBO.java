@@ -0,0 +1,26 @@
+package top.enderliquid.audioflow.dto.bo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 歌曲键集位置
+ * 按 (create_time, id) 定位一条歌曲记录，用于分批扫描时从上一批的最后一条之后继续
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongKeysetBO {
+    /**
+     * 歌曲创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 歌曲ID，创建时间相同时用于确定先后
+     */
+    private Long id;
+}
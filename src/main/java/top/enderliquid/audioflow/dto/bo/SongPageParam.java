@@ -41,4 +41,16 @@ public class SongPageParam {
      * 是否升序排序
      */
     private boolean asc;
+
+    /**
+     * 上传者名的全文检索短语（BOOLEAN MODE），不为空时代替上传者名模糊匹配
+     */
+    @Nullable
+    private String uploaderMatch;
+
+    /**
+     * 歌名的全文检索短语（BOOLEAN MODE），不为空时代替歌名模糊匹配
+     */
+    @Nullable
+    private String songMatch;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package top.enderliquid.audioflow.dto.bo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 歌曲检索结果
+ * 用于Manager层向Service层返回内存索引命中的一页歌曲ID
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongSearchResultBO {
+    /**
+     * 当前页的歌曲ID，按相关度与创建时间排序
+     */
+    private List<Long> songIds;
+
+    /**
+     * 命中的歌曲总数
+     */
+    private long total;
+}
@@ -0,0 +1,27 @@
+package top.enderliquid.audioflow.dto.bo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.enderliquid.audioflow.common.enums.SuggestionType;
+
+/**
+ * 搜索建议
+ * 用于Manager层向Service层返回前缀匹配的歌名或上传者名
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongSuggestionBO {
+    /**
+     * 建议文本，保留原始大小写
+     */
+    private String text;
+
+    private SuggestionType type;
+
+    /**
+     * 同名歌曲（或上传者的全部歌曲）的播放次数之和，索引重建时的值
+     */
+    private long playCount;
+}
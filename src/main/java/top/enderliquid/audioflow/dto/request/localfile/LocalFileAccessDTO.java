@@ -0,0 +1,27 @@
+package top.enderliquid.audioflow.dto.request.localfile;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.lang.Nullable;
+
+/**
+ * 本地存储签名 URL 的查询参数
+ * 缺少参数时按签名无效处理，不做参数校验
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LocalFileAccessDTO {
+    @Nullable
+    private Long expires;
+
+    @Nullable
+    private String signature;
+
+    @Nullable
+    private String uploadId;
+
+    @Nullable
+    private Integer partNumber;
+}
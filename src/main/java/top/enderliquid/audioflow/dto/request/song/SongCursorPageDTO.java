@@ -0,0 +1,36 @@
+package top.enderliquid.audioflow.dto.request.song;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import static top.enderliquid.audioflow.common.constant.FieldLengthConstants.SONG_NAME_MAX;
+import static top.enderliquid.audioflow.common.constant.FieldLengthConstants.SONG_NAME_MIN;
+import static top.enderliquid.audioflow.common.constant.ValidationConstants.PAGE_SIZE_MIN;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongCursorPageDTO {
+    @Nullable
+    @Size(min = SONG_NAME_MIN, max = SONG_NAME_MAX, message = "关键字长度必须在{min}-{max}个字符之间")
+    private String uploaderKeyword;
+
+    @Nullable
+    @Size(min = SONG_NAME_MIN, max = SONG_NAME_MAX, message = "关键字长度必须在{min}-{max}个字符之间")
+    private String songKeyword;
+
+    @Nullable
+    private Boolean asc;
+
+    // 上一页返回的游标，为空时从第一页开始
+    @Nullable
+    private String cursor;
+
+    @Nullable
+    @Min(value = PAGE_SIZE_MIN, message = "分页大小不能小于{value}")
+    private Long pageSize;
+}
@@ -34,4 +34,8 @@ public class SongPageDTO {
     @Nullable
     @Min(value = PAGE_SIZE_MIN, message = "分页大小不能小于{value}")
     private Long pageSize;
+
+    // 为 true 时总是执行 COUNT 获取精确总数，否则可能返回缓存的估计值
+    @Nullable
+    private Boolean exactTotal;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package top.enderliquid.audioflow.dto.request.song;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import static top.enderliquid.audioflow.common.constant.FieldLengthConstants.SONG_NAME_MAX;
+import static top.enderliquid.audioflow.common.constant.ValidationConstants.SUGGEST_LIMIT_MAX;
+import static top.enderliquid.audioflow.common.constant.ValidationConstants.SUGGEST_LIMIT_MIN;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongSuggestDTO {
+    // 不区分大小写的名称前缀
+    @NotBlank(message = "前缀不能为空")
+    @Size(max = SONG_NAME_MAX, message = "前缀长度不能超过{max}个字符")
+    private String prefix;
+
+    @Nullable
+    @Min(value = SUGGEST_LIMIT_MIN, message = "数量不能小于{value}")
+    @Max(value = SUGGEST_LIMIT_MAX, message = "数量不能大于{value}")
+    private Integer limit;
+}
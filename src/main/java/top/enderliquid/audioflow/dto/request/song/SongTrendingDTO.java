@@ -0,0 +1,26 @@
+package top.enderliquid.audioflow.dto.request.song;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import static top.enderliquid.audioflow.common.constant.ValidationConstants.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongTrendingDTO {
+    // 时间窗口: hour, day, week
+    @Nullable
+    @Pattern(regexp = TRENDING_WINDOW_REGEXP, message = "时间窗口只能为 hour、day 或 week")
+    private String window;
+
+    @Nullable
+    @Min(value = TRENDING_LIMIT_MIN, message = "数量不能小于{value}")
+    @Max(value = TRENDING_LIMIT_MAX, message = "数量不能大于{value}")
+    private Integer limit;
+}
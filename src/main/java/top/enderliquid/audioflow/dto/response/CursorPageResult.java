@@ -0,0 +1,17 @@
+package top.enderliquid.audioflow.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResult<T> {
+    private List<T> list;
+    // 下一页的游标，没有更多数据时为空
+    private String nextCursor;
+    private Long pageSize;
+}
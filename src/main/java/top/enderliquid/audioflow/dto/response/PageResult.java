@@ -14,4 +14,6 @@ public class PageResult<T> {
     private Long total;
     private Long pageIndex;
     private Long pageSize;
+    // 总数是否为本次查询精确统计的结果，为 false 时是缓存的估计值
+    private Boolean totalExact;
 }
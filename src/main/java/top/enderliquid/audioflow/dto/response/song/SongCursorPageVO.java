@@ -0,0 +1,13 @@
+package top.enderliquid.audioflow.dto.response.song;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.enderliquid.audioflow.dto.response.CursorPageResult;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongCursorPageVO {
+    private CursorPageResult<SongVO> result;
+}
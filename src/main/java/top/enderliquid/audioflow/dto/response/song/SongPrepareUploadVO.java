@@ -4,11 +4,18 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class SongPrepareUploadVO {
     private Long id;
     private String fileName;
+    // 单次上传的URL，分片上传时为空
     private String uploadUrl;
+    // 分片大小（字节），仅分片上传时返回，最后一个分片可小于该值
+    private Long partSize;
+    // 各分片的上传URL，按分片编号排列，仅分片上传时返回
+    private List<String> partUrls;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package top.enderliquid.audioflow.dto.response.song;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongProcessingVO {
+    private Long id;
+    // PROCESSING 表示仍在处理，NORMAL 表示处理成功，UPLOADING 表示处理失败需重新完成上传
+    private String status;
+    // 处理失败原因
+    private String message;
+    // 处理成功后的歌曲信息
+    private SongVO song;
+}
@@ -0,0 +1,15 @@
+package top.enderliquid.audioflow.dto.response.song;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongSuggestVO {
+    // 按播放次数从高到低排列
+    private List<SongSuggestionVO> list;
+}
@@ -0,0 +1,14 @@
+package top.enderliquid.audioflow.dto.response.song;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongSuggestionVO {
+    private String text;
+    // SONG 或 UPLOADER
+    private String type;
+}
@@ -0,0 +1,16 @@
+package top.enderliquid.audioflow.dto.response.song;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SongTrendingVO {
+    private String window;
+    // 按热度从高到低排列
+    private List<SongVO> list;
+}
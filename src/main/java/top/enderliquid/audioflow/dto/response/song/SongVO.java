@@ -19,4 +19,6 @@ public class SongVO {
     private String uploaderName;
     private String status;
     private LocalDateTime createTime;
+    // 播放次数，仅在获取单首歌曲时返回，可能滞后于实际播放数一个刷新周期
+    private Long playCount;
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package top.enderliquid.audioflow.entity;
+
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+@TableName("audio_object")
+public class AudioObject {
+    @TableId
+    private Long id;
+
+    // 文件内容的 SHA-256，小写十六进制
+    private String sha256;
+
+    @TableField("file_name")
+    private String fileName;
+
+    private Long size;
+
+    private Long duration;
+
+    // 引用该文件的 NORMAL 歌曲数量，为0时文件可被清理
+    @TableField("ref_count")
+    private Integer refCount;
+
+    @TableField(value = "create_time", insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime createTime;
+
+    @TableField(value = "update_time", insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime updateTime;
+}
@@ -37,6 +37,18 @@ public class Song {
 
     private SongStatus status;
 
+    // 分片上传ID，单次上传或分片已合并时为空
+    // 更新时始终写入，以便合并分片后置为 NULL
+    @TableField(value = "upload_id", updateStrategy = FieldStrategy.ALWAYS)
+    private String uploadId;
+
+    // 文件内容的 SHA-256，不为空时文件由 audio_object 按引用计数管理
+    private String sha256;
+
+    // 后台处理因非业务异常失败的次数，达到上限后退回 UPLOADING
+    @TableField("process_attempts")
+    private Integer processAttempts;
+
     @TableField(value = "create_time", insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
     private LocalDateTime createTime;
 
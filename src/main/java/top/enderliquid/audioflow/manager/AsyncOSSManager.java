@@ -0,0 +1,143 @@
+package top.enderliquid.audioflow.manager;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 非阻塞的对象存储管理器
+ * 涉及网络往返的操作均返回 CompletableFuture，调用方可同时发起多个请求；
+ * 失败时与同步接口一致，以 null 或 false 正常完成，不会异常完成。
+ * 同步接口的对应方法默认等待异步结果，仅作为适配层。
+ */
+public interface AsyncOSSManager extends OSSManager {
+    /**
+     * 检查文件是否存在
+     *
+     * @param fileName 文件名
+     * @return 是否存在
+     */
+    CompletableFuture<Boolean> checkFileExistsAsync(String fileName);
+
+    /**
+     * 获取文件InputStream，响应头到达时即完成，文件内容在读取流时接收
+     *
+     * @param fileName 文件名
+     * @return 文件流，文件不存在或请求失败时为 null
+     */
+    CompletableFuture<InputStream> getFileInputStreamAsync(String fileName);
+
+    /**
+     * 删除文件
+     *
+     * @param fileName 文件名
+     * @return 删除是否成功
+     */
+    CompletableFuture<Boolean> deleteFileAsync(String fileName);
+
+    /**
+     * 批量删除文件，参见 {@link OSSManager#deleteFiles}
+     *
+     * @return 删除失败的文件名
+     */
+    CompletableFuture<Set<String>> deleteFilesAsync(Collection<String> fileNames);
+
+    /**
+     * 获取文件大小
+     *
+     * @param fileName 文件名
+     * @return 文件大小（字节），失败时为 null
+     */
+    CompletableFuture<Long> getFileSizeAsync(String fileName);
+
+    /**
+     * 读取文件的指定区间，参见 {@link OSSManager#getFileRange}
+     *
+     * @return 区间数据，文件不存在或读取失败时为 null
+     */
+    CompletableFuture<FileRangeBO> getFileRangeAsync(String fileName, long start, int length);
+
+    /**
+     * 打开文件的指定区间用于流式传输，参见 {@link OSSManager#openFileRange}
+     *
+     * @return 区间数据源，文件不存在或读取失败时为 null
+     */
+    CompletableFuture<FileStreamBO> openFileRangeAsync(String fileName, long start, long length);
+
+    /**
+     * 创建分片上传
+     *
+     * @return 分片上传ID，失败时为 null
+     */
+    CompletableFuture<String> createMultipartUploadAsync(String fileName, String mimeType);
+
+    /**
+     * 按已上传的分片完成分片上传，参见 {@link OSSManager#completeMultipartUpload}
+     */
+    CompletableFuture<Boolean> completeMultipartUploadAsync(String fileName, String uploadId);
+
+    /**
+     * 中止分片上传，分片上传不存在时视为成功
+     */
+    CompletableFuture<Boolean> abortMultipartUploadAsync(String fileName, String uploadId);
+
+    @Override
+    default boolean checkFileExists(String fileName) {
+        return checkFileExistsAsync(fileName).join();
+    }
+
+    @Override
+    @Nullable
+    default InputStream getFileInputStream(String fileName) {
+        return getFileInputStreamAsync(fileName).join();
+    }
+
+    @Override
+    default boolean deleteFile(String fileName) {
+        return deleteFileAsync(fileName).join();
+    }
+
+    @Override
+    default Set<String> deleteFiles(Collection<String> fileNames) {
+        return deleteFilesAsync(fileNames).join();
+    }
+
+    @Override
+    @Nullable
+    default Long getFileSize(String fileName) {
+        return getFileSizeAsync(fileName).join();
+    }
+
+    @Override
+    @Nullable
+    default FileRangeBO getFileRange(String fileName, long start, int length) {
+        return getFileRangeAsync(fileName, start, length).join();
+    }
+
+    @Override
+    @Nullable
+    default FileStreamBO openFileRange(String fileName, long start, long length) {
+        return openFileRangeAsync(fileName, start, length).join();
+    }
+
+    @Override
+    @Nullable
+    default String createMultipartUpload(String fileName, String mimeType) {
+        return createMultipartUploadAsync(fileName, mimeType).join();
+    }
+
+    @Override
+    default boolean completeMultipartUpload(String fileName, String uploadId) {
+        return completeMultipartUploadAsync(fileName, uploadId).join();
+    }
+
+    @Override
+    default boolean abortMultipartUpload(String fileName, String uploadId) {
+        return abortMultipartUploadAsync(fileName, uploadId).join();
+    }
+}
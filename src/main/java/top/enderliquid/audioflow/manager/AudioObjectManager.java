@@ -0,0 +1,25 @@
+package top.enderliquid.audioflow.manager;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import top.enderliquid.audioflow.entity.AudioObject;
+
+public interface AudioObjectManager extends IService<AudioObject> {
+    AudioObject getBySha256(String sha256);
+
+    AudioObject getBySha256ForUpdate(String sha256);
+
+    /**
+     * 登记文件内容，哈希已存在时仅增加引用计数
+     * 需在事务中调用
+     *
+     * @return 最终生效的文件记录，其文件名可能与传入的不同
+     */
+    AudioObject saveOrAddReference(AudioObject audioObject);
+
+    /**
+     * 释放一个引用，引用计数不会小于0
+     *
+     * @return 是否释放成功
+     */
+    boolean releaseReference(String sha256);
+}
@@ -0,0 +1,36 @@
+package top.enderliquid.audioflow.manager;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
+
+/**
+ * 过期歌曲清理的扫描检查点管理器
+ * 使用Redis记录每种状态已扫描到的位置，清理任务中断后从检查点继续扫描
+ */
+public interface CleanupCheckpointManager {
+
+    /**
+     * 获取指定状态的扫描检查点
+     *
+     * @param status 歌曲状态
+     * @return 检查点，不存在或读取失败时返回 null
+     */
+    @Nullable
+    SongKeysetBO getCheckpoint(SongStatus status);
+
+    /**
+     * 保存指定状态的扫描检查点
+     *
+     * @param status     歌曲状态
+     * @param checkpoint 已处理的最后一条记录的位置
+     */
+    void saveCheckpoint(SongStatus status, SongKeysetBO checkpoint);
+
+    /**
+     * 清除指定状态的扫描检查点，下次扫描从头开始
+     *
+     * @param status 歌曲状态
+     */
+    void clearCheckpoint(SongStatus status);
+}
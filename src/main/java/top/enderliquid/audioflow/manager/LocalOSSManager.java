@@ -0,0 +1,60 @@
+package top.enderliquid.audioflow.manager;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.dto.bo.LocalFileBO;
+
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+
+/**
+ * 本地文件系统存储管理器
+ * 预签名 URL 指向应用自身的 /api/local-files 接口，签名的校验与文件的写入也由本接口提供
+ */
+public interface LocalOSSManager extends AsyncOSSManager {
+    /**
+     * 校验签名 URL
+     *
+     * @param method      HTTP 方法（GET 或 PUT，HEAD 按 GET 校验）
+     * @param fileName    文件名
+     * @param expires     过期时间（epoch 秒）
+     * @param uploadId    分片上传ID，非分片请求为 null
+     * @param partNumber  分片编号，非分片请求为 null
+     * @param contentType 上传请求的 Content-Type，分片与下载请求为 null
+     * @param signature   签名
+     * @return 签名是否有效且未过期
+     */
+    boolean verifySignature(String method, String fileName, long expires, @Nullable String uploadId,
+                            @Nullable Integer partNumber, @Nullable String contentType, String signature);
+
+    /**
+     * 写入文件，先写入临时文件再原子地放到目标位置，不覆盖已存在的文件
+     *
+     * @param fileName    文件名
+     * @param inputStream 文件内容
+     * @param maxBytes    最大字节数，超出时放弃写入
+     * @return 是否写入成功
+     * @throws FileAlreadyExistsException 目标文件已存在
+     */
+    boolean writeFile(String fileName, InputStream inputStream, long maxBytes) throws FileAlreadyExistsException;
+
+    /**
+     * 写入分片上传的一个分片
+     *
+     * @param fileName    文件名，需与创建分片上传时一致
+     * @param uploadId    分片上传ID
+     * @param partNumber  分片编号，从 1 开始
+     * @param inputStream 分片内容
+     * @param maxBytes    最大字节数，超出时放弃写入
+     * @return 是否写入成功，分片上传不存在时返回 false
+     */
+    boolean writePart(String fileName, String uploadId, int partNumber, InputStream inputStream, long maxBytes);
+
+    /**
+     * 获取文件信息
+     *
+     * @param fileName 文件名
+     * @return 文件信息，文件不存在时为 null
+     */
+    @Nullable
+    LocalFileBO getFileInfo(String fileName);
+}
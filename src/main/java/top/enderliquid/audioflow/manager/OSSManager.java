@@ -1,9 +1,14 @@
 package top.enderliquid.audioflow.manager;
 
 import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
 
 import java.io.InputStream;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 public interface OSSManager {
     /**
@@ -40,6 +45,14 @@ public interface OSSManager {
      */
     boolean deleteFile(String fileName);
 
+    /**
+     * 批量删除文件，文件不存在视为删除成功
+     *
+     * @param fileNames 文件名
+     * @return 删除失败的文件名
+     */
+    Set<String> deleteFiles(Collection<String> fileNames);
+
     /**
      * 生成预签名上传 URL (PUT 方法)
      * 前端需使用 PUT 请求，并带上对应的 Content-Type
@@ -59,4 +72,68 @@ public interface OSSManager {
      */
     @Nullable
     Long getFileSize(String fileName);
+
+    /**
+     * 读取文件的指定区间（HTTP Range 请求）
+     * 返回结果中附带文件总大小，可替代单独的 HEAD 请求
+     *
+     * @param fileName 文件名
+     * @param start    起始偏移量（包含）
+     * @param length   读取长度，超出文件末尾时截断
+     * @return 区间数据，文件不存在或读取失败时返回 null
+     */
+    @Nullable
+    FileRangeBO getFileRange(String fileName, long start, int length);
+
+    /**
+     * 打开文件的指定区间用于流式传输，调用方负责关闭返回的数据源
+     *
+     * @param fileName 文件名
+     * @param start    起始偏移量（包含）
+     * @param length   区间长度，调用方需保证不超出文件末尾
+     * @return 区间数据源，文件不存在或读取失败时返回 null
+     */
+    @Nullable
+    FileStreamBO openFileRange(String fileName, long start, long length);
+
+    /**
+     * 创建分片上传
+     *
+     * @param fileName 文件名
+     * @param mimeType 文件类型
+     * @return 分片上传ID，失败时返回 null
+     */
+    @Nullable
+    String createMultipartUpload(String fileName, String mimeType);
+
+    /**
+     * 为分片上传的每个分片生成预签名上传 URL (PUT 方法)
+     * 分片编号从 1 开始，与返回列表的下标加 1 对应
+     *
+     * @param fileName  文件名
+     * @param uploadId  分片上传ID
+     * @param partCount 分片数量
+     * @return 预签名URL列表，失败时返回 null
+     */
+    @Nullable
+    List<String> generatePresignedPartUrls(String fileName, String uploadId, int partCount);
+
+    /**
+     * 按已上传的分片完成分片上传，无需客户端提供各分片的 ETag
+     * 分片上传已完成过（文件已存在）时同样返回 true
+     *
+     * @param fileName 文件名
+     * @param uploadId 分片上传ID
+     * @return 是否完成
+     */
+    boolean completeMultipartUpload(String fileName, String uploadId);
+
+    /**
+     * 中止分片上传并释放已上传的分片，分片上传不存在时视为成功
+     *
+     * @param fileName 文件名
+     * @param uploadId 分片上传ID
+     * @return 是否中止成功
+     */
+    boolean abortMultipartUpload(String fileName, String uploadId);
 }
\ No newline at end of file
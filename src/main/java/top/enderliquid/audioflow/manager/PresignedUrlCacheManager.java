@@ -0,0 +1,25 @@
+package top.enderliquid.audioflow.manager;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * 预签名下载 URL 缓存管理器
+ * 以文件名为键缓存播放 URL，剩余有效期足够时直接复用
+ */
+public interface PresignedUrlCacheManager {
+    /**
+     * 获取文件的预签名下载 URL，缓存未命中时重新签名
+     *
+     * @param fileName 文件名
+     * @return 预签名 URL，签名失败时返回 null
+     */
+    @Nullable
+    String getPresignedGetUrl(String fileName);
+
+    /**
+     * 使文件的缓存 URL 失效
+     *
+     * @param fileName 文件名
+     */
+    void invalidate(String fileName);
+}
@@ -0,0 +1,35 @@
+package top.enderliquid.audioflow.manager;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.entity.Song;
+
+/**
+ * 歌曲元数据两级缓存管理器
+ * 以歌曲ID与用户ID为键，依次读取进程内近端缓存、Redis 与数据库，只缓存 NORMAL 状态的歌曲
+ */
+public interface SongCacheManager {
+    /**
+     * 读取歌曲
+     *
+     * @param songId 歌曲ID
+     * @return 歌曲副本，不存在时返回 null；非 NORMAL 状态的歌曲不缓存，总是从数据库读取
+     */
+    @Nullable
+    Song getSong(Long songId);
+
+    /**
+     * 读取上传者名
+     *
+     * @param userId 用户ID
+     * @return 用户名，用户不存在时返回 null
+     */
+    @Nullable
+    String getUploaderName(Long userId);
+
+    /**
+     * 使歌曲缓存在所有节点失效，应在事务提交后调用
+     *
+     * @param songId 歌曲ID
+     */
+    void evictSong(Long songId);
+}
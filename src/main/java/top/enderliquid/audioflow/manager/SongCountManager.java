@@ -0,0 +1,35 @@
+package top.enderliquid.audioflow.manager;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+
+/**
+ * 歌曲分页总数缓存管理器
+ * 无检索条件时使用 Redis 中增量维护的 NORMAL 歌曲计数，有检索条件时按归一化的条件短时缓存 COUNT 结果
+ */
+public interface SongCountManager {
+    /**
+     * 获取缓存的总数
+     *
+     * @param dto 分页查询条件，只使用其中的检索关键字
+     * @return 总数，未缓存或缓存不可用时返回 null
+     */
+    @Nullable
+    Long getTotal(SongPageDTO dto);
+
+    /**
+     * 缓存数据库统计出的总数
+     *
+     * @param dto   分页查询条件，只使用其中的检索关键字
+     * @param total 总数
+     * @param exact 是否为按需精确统计的结果，为 true 时覆盖已有的计数
+     */
+    void putTotal(SongPageDTO dto, long total, boolean exact);
+
+    /**
+     * 增减 NORMAL 歌曲计数，应在事务提交后调用，计数尚未加载时忽略
+     *
+     * @param delta 增量
+     */
+    void addNormalCount(long delta);
+}
@@ -3,8 +3,11 @@ package top.enderliquid.audioflow.manager;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.service.IService;
+import org.springframework.lang.Nullable;
 import top.enderliquid.audioflow.common.enums.SongStatus;
 import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
+import top.enderliquid.audioflow.dto.request.song.SongCursorPageDTO;
 import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
 import top.enderliquid.audioflow.entity.Song;
 
@@ -12,9 +15,42 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SongManager extends IService<Song> {
-    IPage<SongBO> pageByUploaderKeywordAndSongKeyword(SongPageDTO dto);
+    /**
+     * 分页查询歌曲
+     *
+     * @param searchCount 是否执行 COUNT 统计总数，为 false 时返回的总数无意义
+     */
+    IPage<SongBO> pageByUploaderKeywordAndSongKeyword(SongPageDTO dto, boolean searchCount);
 
-    List<Song> listByStatusesAndBeforeTime(List<SongStatus> statuses, LocalDateTime time);
+    /**
+     * 按 (create_time, id) 顺序查询位置之后的一页歌曲，排序方向由 dto.asc 决定，不执行 COUNT
+     *
+     * @param after 上一页最后一条记录的位置，为 null 时从第一页开始
+     * @param limit 最大条数
+     */
+    List<SongBO> listByUploaderKeywordAndSongKeywordAfter(SongCursorPageDTO dto, @Nullable SongKeysetBO after, int limit);
+
+    /**
+     * 按ID批量查询 NORMAL 状态的歌曲及上传者名，结果按传入的ID顺序排列，不存在或状态已变化的歌曲被跳过
+     */
+    List<SongBO> listNormalBOByIds(List<Long> songIds);
+
+    /**
+     * 按 (create_time, id) 顺序分批读取指定状态且创建时间早于指定时间的歌曲
+     *
+     * @param after 上一批最后一条记录的位置，为 null 时从头读取
+     * @param limit 本批最大条数
+     */
+    List<Song> listByStatusAndBeforeTimeAfter(SongStatus status, LocalDateTime time, @Nullable SongKeysetBO after, int limit);
 
     Song getByIdForUpdate(Long songId);
+
+    List<Song> listByIdsForUpdate(List<Long> songIds);
+
+    /**
+     * 使用单条多行 INSERT 语句插入歌曲，调用方需预先分配ID
+     */
+    int insertMultiRow(List<Song> songs);
+
+    List<Song> listByStatusAndUpdateTimeBefore(SongStatus status, LocalDateTime time, int limit);
 }
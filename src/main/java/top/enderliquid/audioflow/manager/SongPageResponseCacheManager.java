@@ -0,0 +1,25 @@
+package top.enderliquid.audioflow.manager;
+
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+
+import java.util.function.Supplier;
+
+/**
+ * 歌曲分页响应缓存管理器
+ * 以归一化的分页条件为键短时缓存序列化后的 JSON 响应体，同一键的并发未命中只执行一次查询
+ */
+public interface SongPageResponseCacheManager {
+    /**
+     * 读取缓存的响应体，未命中时执行查询并序列化
+     *
+     * @param dto    已设置默认值的分页查询条件
+     * @param loader 查询响应体对象，同一键同时只有一个调用方执行，其余调用方等待并共享结果
+     * @return JSON 响应体
+     */
+    byte[] get(SongPageDTO dto, Supplier<?> loader);
+
+    /**
+     * 使所有节点的缓存失效，歌曲转入或转出 NORMAL 状态后应在事务提交后调用
+     */
+    void invalidateAll();
+}
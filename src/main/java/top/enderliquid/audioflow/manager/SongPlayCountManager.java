@@ -0,0 +1,44 @@
+package top.enderliquid.audioflow.manager;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import top.enderliquid.audioflow.entity.SongPlayCount;
+
+import java.util.Collection;
+
+/**
+ * 歌曲播放次数管理器
+ * 播放次数先在内存中按歌曲聚合，定期批量累加到数据库，并把累加后的总数同步到 Redis 供实时读取
+ */
+public interface SongPlayCountManager extends IService<SongPlayCount> {
+
+    /**
+     * 记录一次播放（只写内存，不访问数据库和 Redis）
+     *
+     * @param songId 歌曲ID
+     */
+    void recordPlay(Long songId);
+
+    /**
+     * 将内存中聚合的播放次数写入数据库与 Redis
+     * 写入数据库失败的计数保留在内存中，下次刷新时重试
+     *
+     * @return 写入成功的歌曲数
+     */
+    int flush();
+
+    /**
+     * 获取已刷新的播放次数，优先读取 Redis，不包含尚未刷新的内存计数
+     *
+     * @param songId 歌曲ID
+     * @return 播放次数，没有播放记录时返回 0
+     */
+    long getPlayCount(Long songId);
+
+    /**
+     * 删除歌曲的播放次数记录、Redis 缓存与本节点尚未刷新的计数
+     * 数据库删除在调用方的事务中执行
+     *
+     * @param songIds 已删除的歌曲ID
+     */
+    void removePlayCounts(Collection<Long> songIds);
+}
@@ -0,0 +1,46 @@
+package top.enderliquid.audioflow.manager;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.dto.bo.SongSearchResultBO;
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+import top.enderliquid.audioflow.entity.Song;
+
+/**
+ * 歌曲全文检索的内存索引管理器
+ * 对 NORMAL 状态歌曲的歌名与上传者名建立字符二元组（bigram）倒排索引，中文标题同样适用。
+ * 索引只保存在本节点内存中，由定时全量重建与本节点的增量更新共同维护。
+ */
+public interface SongSearchIndexManager {
+
+    /**
+     * 按上传者关键字与歌曲关键字检索，语义与数据库模糊查询一致（名称包含关键字或ID精确匹配）
+     * 有关键字时按相关度排序，相关度相同时按创建时间排序
+     *
+     * @param dto 分页参数，页码、分页大小与排序方向不能为空
+     * @return 检索结果，索引未就绪、未启用或超出内存预算时返回 null，调用方应回退到数据库查询
+     */
+    @Nullable
+    SongSearchResultBO search(SongPageDTO dto);
+
+    /**
+     * 增量更新歌曲，NORMAL 状态的歌曲加入或更新索引，其余状态从索引中移除
+     * 应在事务提交后调用
+     *
+     * @param song 歌曲
+     */
+    void indexSong(Song song);
+
+    /**
+     * 从索引中移除歌曲，应在事务提交后调用
+     *
+     * @param songId 歌曲ID
+     */
+    void removeSong(Long songId);
+
+    /**
+     * 从数据库全量重建索引，重建期间的增量更新会在重建完成后重放
+     *
+     * @return 是否重建成功
+     */
+    boolean rebuild();
+}
@@ -0,0 +1,28 @@
+package top.enderliquid.audioflow.manager;
+
+import top.enderliquid.audioflow.dto.bo.SongSuggestionBO;
+
+import java.util.List;
+
+/**
+ * 歌曲搜索建议管理器
+ * 对 NORMAL 状态歌曲的歌名与上传者名建立不可变的前缀索引，按播放次数返回前缀匹配的名称。
+ * 索引只保存在本节点内存中，由定时全量重建后整体替换，不做增量更新。
+ */
+public interface SongSuggestManager {
+    /**
+     * 按不区分大小写的前缀查询建议
+     *
+     * @param prefix 名称前缀
+     * @param limit  最多返回的数量
+     * @return 按播放次数从高到低排列的建议，索引未就绪或未启用时返回空列表
+     */
+    List<SongSuggestionBO> suggest(String prefix, int limit);
+
+    /**
+     * 从数据库全量重建索引，完成后原子替换旧索引
+     *
+     * @return 是否重建成功
+     */
+    boolean rebuild();
+}
@@ -0,0 +1,33 @@
+package top.enderliquid.audioflow.manager;
+
+import top.enderliquid.audioflow.common.enums.TrendingWindow;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热门歌曲排行管理器
+ * 播放次数写入 Redis 中按时间分桶的有序集合，定期按时间衰减加权合并为各窗口的排行
+ */
+public interface TrendingManager {
+    /**
+     * 将播放次数刷新时聚合的增量累加到当前时间桶，所有增量在一次管道请求中写入
+     *
+     * @param playCounts 歌曲ID到播放次数增量的映射
+     */
+    void addPlays(Map<Long, Long> playCounts);
+
+    /**
+     * 重新计算所有时间窗口的排行
+     */
+    void refreshRankings();
+
+    /**
+     * 获取排行中的歌曲ID
+     *
+     * @param window 时间窗口
+     * @param limit  最大数量
+     * @return 按热度从高到低排列的歌曲ID，排行尚未计算或读取失败时返回空列表
+     */
+    List<Long> listTopSongIds(TrendingWindow window, int limit);
+}
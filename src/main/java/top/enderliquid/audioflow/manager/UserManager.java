@@ -4,6 +4,8 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import top.enderliquid.audioflow.common.enums.PointsType;
 import top.enderliquid.audioflow.entity.User;
 
+import java.util.List;
+
 public interface UserManager extends IService<User> {
     User getByEmail(String email);
 
@@ -13,5 +15,12 @@ public interface UserManager extends IService<User> {
 
     int addPoints(Long userId, int delta, PointsType type, Long refId);
 
+    /**
+     * 为多个关联业务一次性变更积分，每个业务记录一条流水
+     *
+     * @return 变更后的余额，余额不足时返回 -1
+     */
+    int addPointsForEach(Long userId, int deltaPerRef, PointsType type, List<Long> refIds);
+
     User getByIdForUpdate(Long id);
 }
\ No newline at end of file
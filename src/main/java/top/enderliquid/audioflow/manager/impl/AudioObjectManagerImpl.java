@@ -0,0 +1,43 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import top.enderliquid.audioflow.entity.AudioObject;
+import top.enderliquid.audioflow.manager.AudioObjectManager;
+import top.enderliquid.audioflow.mapper.AudioObjectMapper;
+
+@Repository
+@RequiredArgsConstructor
+public class AudioObjectManagerImpl extends ServiceImpl<AudioObjectMapper, AudioObject> implements AudioObjectManager {
+    private final AudioObjectMapper audioObjectMapper;
+
+    @Override
+    public AudioObject getBySha256(String sha256) {
+        LambdaQueryWrapper<AudioObject> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(AudioObject::getSha256, sha256);
+        return getOne(wrapper);
+    }
+
+    @Override
+    public AudioObject getBySha256ForUpdate(String sha256) {
+        return audioObjectMapper.selectBySha256ForUpdate(sha256);
+    }
+
+    @Override
+    public AudioObject saveOrAddReference(AudioObject audioObject) {
+        if (audioObject.getId() == null) {
+            audioObject.setId(IdWorker.getId());
+        }
+        // 唯一键冲突时原子地增加引用计数，并发上传相同内容时只有一份文件生效
+        audioObjectMapper.insertOrIncrementRefCount(audioObject);
+        return audioObjectMapper.selectBySha256ForUpdate(audioObject.getSha256());
+    }
+
+    @Override
+    public boolean releaseReference(String sha256) {
+        return audioObjectMapper.addRefCount(sha256, -1) > 0;
+    }
+}
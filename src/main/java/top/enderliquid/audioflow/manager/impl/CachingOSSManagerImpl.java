@@ -0,0 +1,381 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import top.enderliquid.audioflow.common.audio.CountingInputStream;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.manager.AsyncOSSManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * 对象存储本地磁盘读缓存
+ * 装饰实际的 AsyncOSSManager，完整读取文件时先下载到本地缓存目录，之后的读取通过内存映射直接访问本地文件：
+ * <ul>
+ *     <li>按缓存文件的总字节数限制容量，淘汰策略使用 Caffeine 的 W-TinyLFU（LRU 窗口 + LFU 主区）</li>
+ *     <li>同一文件的并发未命中只下载一次</li>
+ *     <li>区间读取只在命中时使用缓存，未命中时直接读取对象存储，不触发整文件下载</li>
+ *     <li>下载前先查询文件大小，超过单文件上限的文件记录下来，之后直接读取对象存储</li>
+ *     <li>删除文件时立即使缓存失效</li>
+ * </ul>
+ * 命中率等指标以 cache=ossLocalFile 标签注册到 MeterRegistry。
+ * 缓存目录在启动时清空，不跨进程复用。只在使用 S3 存储时生效。
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnExpression("${file.storage.local-cache.enabled:false} and '${file.storage.type:s3}' == 's3'")
+public class CachingOSSManagerImpl implements AsyncOSSManager {
+
+    private static final String CACHE_NAME = "ossLocalFile";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String CACHE_FILE_SUFFIX = ".cache";
+    // 记录的超过单文件上限的文件数
+    private static final int OVERSIZED_FILES_MAX_SIZE = 10_000;
+
+    private final AsyncOSSManager delegate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${file.storage.local-cache.dir}")
+    private String cacheDirStr;
+    @Value("${file.storage.local-cache.max-size:1GB}")
+    private String maxSizeStr;
+    @Value("${file.storage.local-cache.max-entry-size:200MB}")
+    private String maxEntrySizeStr;
+
+    private Path cacheDir;
+    private long maxEntrySizeBytes;
+    private ExecutorService loadExecutor;
+    private AsyncCache<String, CachedFile> cache;
+    // 超过单文件上限、不写入缓存的文件，文件写入后不再变化，只在删除时移除
+    private Cache<String, Boolean> oversizedFiles;
+
+    public CachingOSSManagerImpl(@Qualifier("OSSManagerImpl") AsyncOSSManager delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.cacheDir = Paths.get(cacheDirStr).toAbsolutePath();
+        this.maxEntrySizeBytes = DataSize.parse(maxEntrySizeStr).toBytes();
+        long maxSizeBytes = DataSize.parse(maxSizeStr).toBytes();
+        if (maxEntrySizeBytes > maxSizeBytes) {
+            throw new IllegalStateException("本地缓存单个文件的大小上限不能超过缓存总容量");
+        }
+        // 单个内存映射缓冲区最大 2GB
+        if (maxEntrySizeBytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("本地缓存单个文件的大小上限不能超过2GB");
+        }
+        Files.createDirectories(cacheDir);
+        clearCacheDir();
+        // 下载为阻塞 IO，使用虚拟线程执行
+        this.loadExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("oss-cache-load-", 0).factory());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeBytes)
+                .weigher((String key, CachedFile value) -> (int) Math.min(Integer.MAX_VALUE, value.size()))
+                .executor(loadExecutor)
+                .removalListener((String key, CachedFile value, RemovalCause cause) -> {
+                    if (value != null) {
+                        deleteQuietly(value.path());
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        this.oversizedFiles = Caffeine.newBuilder()
+                .maximumSize(OVERSIZED_FILES_MAX_SIZE)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("audioflow.oss.local-cache.hit.ratio", cache, c -> c.synchronous().stats().hitRate())
+                .description("对象存储本地缓存命中率")
+                .register(meterRegistry);
+        Gauge.builder("audioflow.oss.local-cache.size", cache,
+                        c -> c.synchronous().policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .description("对象存储本地缓存占用的字节数")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        log.info("对象存储本地缓存初始化完成，目录: {}, 容量: {}, 单文件上限: {}", cacheDir, maxSizeStr, maxEntrySizeStr);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (loadExecutor != null) loadExecutor.shutdownNow();
+    }
+
+    @Override
+    @Nullable
+    public String generatePresignedPutUrl(String fileName, String mimeType) {
+        return delegate.generatePresignedPutUrl(fileName, mimeType);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkFileExistsAsync(String fileName) {
+        if (getIfCached(fileName) != null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return delegate.checkFileExistsAsync(fileName);
+    }
+
+    @Override
+    public CompletableFuture<InputStream> getFileInputStreamAsync(String fileName) {
+        if (isOversized(fileName)) {
+            return delegate.getFileInputStreamAsync(fileName);
+        }
+        return cache.get(fileName, (key, executor) -> CompletableFuture.supplyAsync(() -> download(key), executor))
+                .exceptionally(e -> {
+                    log.warn("下载文件到本地缓存失败，文件名: {}", fileName, e);
+                    return null;
+                })
+                .thenCompose(cachedFile -> {
+                    if (cachedFile != null) {
+                        try {
+                            return CompletableFuture.completedFuture(new ByteBufferInputStream(map(cachedFile)));
+                        } catch (IOException e) {
+                            // 缓存文件被外部删除等情况，丢弃缓存并回退到对象存储
+                            log.warn("读取本地缓存文件失败，文件名: {}", fileName, e);
+                            cache.synchronous().invalidate(fileName);
+                        }
+                    }
+                    return delegate.getFileInputStreamAsync(fileName);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteFileAsync(String fileName) {
+        cache.synchronous().invalidate(fileName);
+        oversizedFiles.invalidate(fileName);
+        return delegate.deleteFileAsync(fileName);
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> deleteFilesAsync(Collection<String> fileNames) {
+        cache.synchronous().invalidateAll(fileNames);
+        oversizedFiles.invalidateAll(fileNames);
+        return delegate.deleteFilesAsync(fileNames);
+    }
+
+    @Override
+    @Nullable
+    public String getPresignedGetUrl(String fileName, Duration expiration) {
+        return delegate.getPresignedGetUrl(fileName, expiration);
+    }
+
+    @Override
+    public CompletableFuture<Long> getFileSizeAsync(String fileName) {
+        CachedFile cachedFile = getIfCached(fileName);
+        if (cachedFile != null) {
+            return CompletableFuture.completedFuture(cachedFile.size());
+        }
+        return delegate.getFileSizeAsync(fileName);
+    }
+
+    @Override
+    public CompletableFuture<FileRangeBO> getFileRangeAsync(String fileName, long start, int length) {
+        CachedFile cachedFile = getIfCached(fileName);
+        if (cachedFile == null) {
+            return delegate.getFileRangeAsync(fileName, start, length);
+        }
+        if (start < 0 || length <= 0 || start >= cachedFile.size()) return CompletableFuture.completedFuture(null);
+        try {
+            ByteBuffer buffer = map(cachedFile);
+            byte[] data = new byte[(int) Math.min(length, cachedFile.size() - start)];
+            buffer.get((int) start, data);
+            return CompletableFuture.completedFuture(new FileRangeBO(data, start, cachedFile.size()));
+        } catch (IOException e) {
+            log.warn("读取本地缓存文件区间失败，文件名: {}", fileName, e);
+            cache.synchronous().invalidate(fileName);
+            return delegate.getFileRangeAsync(fileName, start, length);
+        }
+    }
+
+    @Override
+    public CompletableFuture<FileStreamBO> openFileRangeAsync(String fileName, long start, long length) {
+        CachedFile cachedFile = getIfCached(fileName);
+        if (cachedFile != null) {
+            if (start < 0 || length <= 0 || start + length > cachedFile.size()) return CompletableFuture.completedFuture(null);
+            // 在缓存命中时打开通道，之后淘汰删除文件不影响已打开的通道
+            try {
+                FileChannel channel = FileChannel.open(cachedFile.path(), StandardOpenOption.READ);
+                return CompletableFuture.completedFuture(FileStreamBO.ofFileChannel(channel, start, length));
+            } catch (IOException e) {
+                // 命中后文件恰好被淘汰删除，回退到对象存储
+                log.debug("打开本地缓存文件失败，文件名: {}", fileName, e);
+                cache.synchronous().invalidate(fileName);
+            }
+        }
+        // 未命中时直接读取对象存储的区间，同时在后台下载整个文件，之后的拖动与重播可从本地传输
+        if (!isOversized(fileName)) {
+            cache.get(fileName, (key, executor) -> CompletableFuture.supplyAsync(() -> download(key), executor));
+        }
+        return delegate.openFileRangeAsync(fileName, start, length);
+    }
+
+    @Override
+    public CompletableFuture<String> createMultipartUploadAsync(String fileName, String mimeType) {
+        return delegate.createMultipartUploadAsync(fileName, mimeType);
+    }
+
+    @Override
+    @Nullable
+    public List<String> generatePresignedPartUrls(String fileName, String uploadId, int partCount) {
+        return delegate.generatePresignedPartUrls(fileName, uploadId, partCount);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> completeMultipartUploadAsync(String fileName, String uploadId) {
+        return delegate.completeMultipartUploadAsync(fileName, uploadId);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> abortMultipartUploadAsync(String fileName, String uploadId) {
+        return delegate.abortMultipartUploadAsync(fileName, uploadId);
+    }
+
+    /**
+     * 只查询已完成下载的缓存，不触发下载
+     */
+    @Nullable
+    private CachedFile getIfCached(String fileName) {
+        CompletableFuture<CachedFile> future = cache.getIfPresent(fileName);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    private boolean isOversized(String fileName) {
+        return oversizedFiles.getIfPresent(fileName) != null;
+    }
+
+    /**
+     * 下载文件到缓存目录，先写入临时文件再原子地重命名
+     * 文件不存在或超过单文件上限时返回 null，不写入缓存
+     */
+    @Nullable
+    private CachedFile download(String fileName) {
+        // 先查询大小，避免下载注定被丢弃的大文件
+        Long size = delegate.getFileSize(fileName);
+        if (size == null) {
+            return null;
+        }
+        if (size > maxEntrySizeBytes) {
+            oversizedFiles.put(fileName, Boolean.TRUE);
+            log.info("文件超过本地缓存单文件上限，之后直接读取对象存储，文件名: {}, 大小: {}", fileName, size);
+            return null;
+        }
+        InputStream inputStream = delegate.getFileInputStream(fileName);
+        if (inputStream == null) {
+            return null;
+        }
+        String baseName = UUID.randomUUID().toString();
+        Path tempPath = cacheDir.resolve(baseName + TEMP_FILE_SUFFIX);
+        Path cachePath = cacheDir.resolve(baseName + CACHE_FILE_SUFFIX);
+        try (CountingInputStream countingStream = new CountingInputStream(inputStream, maxEntrySizeBytes)) {
+            Files.copy(countingStream, tempPath);
+            Files.move(tempPath, cachePath, StandardCopyOption.ATOMIC_MOVE);
+            return new CachedFile(cachePath, countingStream.getCount());
+        } catch (IOException e) {
+            deleteQuietly(tempPath);
+            log.info("文件未写入本地缓存，文件名: {}, 原因: {}", fileName, e.getMessage());
+            return null;
+        }
+    }
+
+    private static ByteBuffer map(CachedFile cachedFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(cachedFile.path(), StandardOpenOption.READ)) {
+            // 映射在通道关闭后依然有效，直到缓冲区被回收
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, cachedFile.size());
+        }
+    }
+
+    private void clearCacheDir() throws IOException {
+        try (Stream<Path> paths = Files.list(cacheDir)) {
+            paths.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.endsWith(TEMP_FILE_SUFFIX) || name.endsWith(CACHE_FILE_SUFFIX);
+            }).forEach(CachingOSSManagerImpl::deleteQuietly);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Windows 下仍被映射的文件无法删除，下次启动时清理
+            log.warn("删除本地缓存文件失败，路径: {}", path, e);
+        }
+    }
+
+    private record CachedFile(Path path, long size) {
+    }
+
+    /**
+     * 基于内存映射缓冲区的输入流，读取时不经过额外的用户态拷贝缓冲
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
+import top.enderliquid.audioflow.manager.CleanupCheckpointManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 过期歌曲清理的扫描检查点管理器实现
+ * 键格式: song_cleanup_checkpoint:{status}（如 song_cleanup_checkpoint:UPLOADING）
+ * 值格式: {create_time},{id}
+ * 检查点仅用于加速恢复，读写失败时只记录日志，不影响清理流程
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CleanupCheckpointManagerImpl implements CleanupCheckpointManager {
+
+    private final StringRedisTemplate redisTemplate;
+
+    private static final String KEY_PREFIX = "song_cleanup_checkpoint:";
+    // 长时间未更新的检查点自动过期，避免残留的检查点一直跳过前面的记录
+    private static final Duration EXPIRE_DURATION = Duration.ofDays(1);
+
+    @Override
+    @Nullable
+    public SongKeysetBO getCheckpoint(SongStatus status) {
+        String key = buildKey(status);
+        String value;
+        try {
+            value = redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.error("读取清理检查点失败，状态: {}", status, e);
+            return null;
+        }
+        if (value == null) {
+            return null;
+        }
+        int separator = value.lastIndexOf(',');
+        try {
+            return new SongKeysetBO(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+            log.warn("清理检查点格式异常，键: {}, 值: {}", key, value);
+            return null;
+        }
+    }
+
+    @Override
+    public void saveCheckpoint(SongStatus status, SongKeysetBO checkpoint) {
+        String value = checkpoint.getCreateTime() + "," + checkpoint.getId();
+        try {
+            redisTemplate.opsForValue().set(buildKey(status), value, EXPIRE_DURATION);
+        } catch (Exception e) {
+            log.error("保存清理检查点失败，状态: {}", status, e);
+        }
+    }
+
+    @Override
+    public void clearCheckpoint(SongStatus status) {
+        try {
+            redisTemplate.delete(buildKey(status));
+        } catch (Exception e) {
+            log.error("清除清理检查点失败，状态: {}", status, e);
+        }
+    }
+
+    private String buildKey(SongStatus status) {
+        return KEY_PREFIX + status.name();
+    }
+}
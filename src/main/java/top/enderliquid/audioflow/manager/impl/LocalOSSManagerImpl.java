@@ -0,0 +1,557 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.dto.bo.LocalFileBO;
+import top.enderliquid.audioflow.manager.LocalOSSManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 基于本地文件系统的对象存储管理器，适用于单节点与自托管部署
+ * <ul>
+ *     <li>文件按文件名的 SHA-256 分两级目录存放：{root}/objects/{2位}/{2位}/{文件名}，避免单目录文件过多</li>
+ *     <li>写入时先写入 {root}/tmp 下的临时文件并刷盘，再原子地重命名为目标文件，读取方不会看到不完整的文件</li>
+ *     <li>分片保存在 {root}/multipart/{uploadId} 下，完成时通过 FileChannel.transferTo 合并</li>
+ *     <li>上传与下载 URL 指向应用的 /api/local-files 接口，使用 HMAC-SHA256 签名并由应用校验</li>
+ *     <li>区间读取直接返回打开的文件通道，下载通过 FileChannel.transferTo 零拷贝地发送</li>
+ * </ul>
+ * 文件系统操作为阻塞 IO，异步接口在虚拟线程中执行。通过 file.storage.type=local 启用。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "local")
+public class LocalOSSManagerImpl implements LocalOSSManager {
+    public static final String URL_PATH = "/api/local-files/";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String OBJECTS_DIR = "objects";
+    private static final String TEMP_DIR = "tmp";
+    private static final String MULTIPART_DIR = "multipart";
+    // 分片上传目录中记录目标文件名的文件
+    private static final String MULTIPART_TARGET_FILE = "target";
+    private static final String PART_FILE_PREFIX = "part-";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    // 文件名与分片上传ID会拼接到路径中，只允许不含路径分隔符的安全字符
+    private static final Pattern FILE_NAME_PATTERN = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,254}");
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    @Value("${file.storage.local.root-dir}")
+    private String rootDirStr;
+
+    @Value("${file.storage.local.public-url:}")
+    private String publicUrl;
+
+    @Value("${file.storage.local.signing-secret:}")
+    private String signingSecret;
+
+    @Value("${file.storage.s3.presigned-url-expiration}")
+    private int presignedUrlExpirationSeconds;
+
+    private final Clock clock;
+
+    private Path objectsDir;
+    private Path tempDir;
+    private Path multipartDir;
+    private SecretKeySpec signingKey;
+    private ExecutorService ioExecutor;
+
+    public LocalOSSManagerImpl() {
+        this(Clock.systemUTC());
+    }
+
+    LocalOSSManagerImpl(Clock clock) {
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path rootDir = Paths.get(rootDirStr).toAbsolutePath();
+        this.objectsDir = rootDir.resolve(OBJECTS_DIR);
+        this.tempDir = rootDir.resolve(TEMP_DIR);
+        this.multipartDir = rootDir.resolve(MULTIPART_DIR);
+        Files.createDirectories(objectsDir);
+        Files.createDirectories(tempDir);
+        Files.createDirectories(multipartDir);
+        // 临时文件只可能来自上次进程中断的写入
+        deleteRecursively(tempDir, false);
+
+        byte[] secret;
+        if (signingSecret == null || signingSecret.isEmpty()) {
+            log.warn("本地存储签名密钥未配置，使用随机密钥，重启后已签发的 URL 将失效");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = signingSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.signingKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        if (publicUrl == null) publicUrl = "";
+        while (publicUrl.endsWith("/")) {
+            publicUrl = publicUrl.substring(0, publicUrl.length() - 1);
+        }
+        this.ioExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("local-oss-io-", 0).factory());
+        log.info("本地文件存储初始化完成，根目录: {}", rootDir);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (ioExecutor != null) ioExecutor.shutdown();
+    }
+
+    @Override
+    @Nullable
+    public String generatePresignedPutUrl(String fileName, String mimeType) {
+        if (!isValidFileName(fileName)) return null;
+        return signedUrl("PUT", fileName, null, null, mimeType);
+    }
+
+    @Override
+    @Nullable
+    public String getPresignedGetUrl(String fileName, Duration expiration) {
+        if (!isValidFileName(fileName)) return null;
+        long expires = clock.instant().plus(expiration).getEpochSecond();
+        return buildUrl("GET", fileName, expires, null, null, null);
+    }
+
+    @Override
+    @Nullable
+    public List<String> generatePresignedPartUrls(String fileName, String uploadId, int partCount) {
+        if (!isValidFileName(fileName) || !UPLOAD_ID_PATTERN.matcher(uploadId).matches()) return null;
+        List<String> urls = new ArrayList<>(partCount);
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            urls.add(signedUrl("PUT", fileName, uploadId, partNumber, null));
+        }
+        return urls;
+    }
+
+    @Override
+    public boolean verifySignature(String method, String fileName, long expires, @Nullable String uploadId,
+                                   @Nullable Integer partNumber, @Nullable String contentType, String signature) {
+        if (expires < clock.instant().getEpochSecond()) {
+            return false;
+        }
+        byte[] expected = sign(method, fileName, expires, uploadId, partNumber, contentType)
+                .getBytes(StandardCharsets.US_ASCII);
+        // 常量时间比较，避免通过响应时间逐字节猜测签名
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean writeFile(String fileName, InputStream inputStream, long maxBytes) throws FileAlreadyExistsException {
+        Path target = resolveObject(fileName);
+        if (target == null) return false;
+        // 已存在时不读取请求体，直接拒绝
+        if (Files.exists(target)) {
+            throw new FileAlreadyExistsException(fileName);
+        }
+        try {
+            Path tempFile = writeTempFile(inputStream, maxBytes);
+            if (tempFile == null) {
+                log.info("写入文件失败，文件超过大小上限，文件名: {}", fileName);
+                return false;
+            }
+            moveIntoPlace(tempFile, target);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (IOException e) {
+            log.error("写入文件失败，文件名: {}", fileName, e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean writePart(String fileName, String uploadId, int partNumber, InputStream inputStream, long maxBytes) {
+        Path uploadDir = resolveUpload(fileName, uploadId);
+        if (uploadDir == null || partNumber < 1) return false;
+        try {
+            Path tempFile = writeTempFile(inputStream, maxBytes);
+            if (tempFile == null) {
+                log.info("写入分片失败，分片超过大小上限，文件名: {}, 分片编号: {}", fileName, partNumber);
+                return false;
+            }
+            // 同一分片重复上传时以最后一次为准
+            Files.move(tempFile, uploadDir.resolve(partFileName(partNumber)),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            log.error("写入分片失败，文件名: {}, 分片编号: {}", fileName, partNumber, e);
+            return false;
+        }
+    }
+
+    @Override
+    @Nullable
+    public LocalFileBO getFileInfo(String fileName) {
+        Path path = resolveObject(fileName);
+        if (path == null) return null;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            LocalFileBO file = new LocalFileBO();
+            file.setFileName(fileName);
+            file.setSize(attributes.size());
+            file.setLastModified(attributes.lastModifiedTime().toMillis());
+            return file;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.error("读取文件信息失败，文件名: {}", fileName, e);
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> checkFileExistsAsync(String fileName) {
+        return async(() -> {
+            Path path = resolveObject(fileName);
+            return path != null && Files.isRegularFile(path);
+        });
+    }
+
+    @Override
+    public CompletableFuture<InputStream> getFileInputStreamAsync(String fileName) {
+        return async(() -> {
+            Path path = resolveObject(fileName);
+            if (path == null) return null;
+            try {
+                return Files.newInputStream(path);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                log.error("读取文件失败，文件名: {}", fileName, e);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteFileAsync(String fileName) {
+        return async(() -> deleteObject(fileName));
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> deleteFilesAsync(Collection<String> fileNames) {
+        return async(() -> {
+            Set<String> failed = new HashSet<>();
+            for (String fileName : fileNames) {
+                if (!deleteObject(fileName)) failed.add(fileName);
+            }
+            return failed;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> getFileSizeAsync(String fileName) {
+        return async(() -> {
+            LocalFileBO file = getFileInfo(fileName);
+            return file == null ? null : file.getSize();
+        });
+    }
+
+    @Override
+    public CompletableFuture<FileRangeBO> getFileRangeAsync(String fileName, long start, int length) {
+        return async(() -> {
+            Path path = resolveObject(fileName);
+            if (path == null || start < 0 || length <= 0) return null;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (start >= size) return null;
+                ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, size - start));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) break;
+                }
+                return new FileRangeBO(Arrays.copyOf(buffer.array(), buffer.position()), start, size);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                log.error("读取文件区间失败，文件名: {}", fileName, e);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<FileStreamBO> openFileRangeAsync(String fileName, long start, long length) {
+        return async(() -> {
+            LocalFileBO file = getFileInfo(fileName);
+            if (file == null || start < 0 || length <= 0 || start + length > file.getSize()) return null;
+            try {
+                FileChannel channel = FileChannel.open(resolveObject(fileName), StandardOpenOption.READ);
+                return FileStreamBO.ofFileChannel(channel, start, length);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                log.error("打开文件区间失败，文件名: {}", fileName, e);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> createMultipartUploadAsync(String fileName, String mimeType) {
+        return async(() -> {
+            if (!isValidFileName(fileName)) return null;
+            String uploadId = UUID.randomUUID().toString().replace("-", "");
+            try {
+                Path uploadDir = Files.createDirectory(multipartDir.resolve(uploadId));
+                Files.writeString(uploadDir.resolve(MULTIPART_TARGET_FILE), fileName);
+                return uploadId;
+            } catch (IOException e) {
+                log.error("创建分片上传失败，文件名: {}", fileName, e);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> completeMultipartUploadAsync(String fileName, String uploadId) {
+        return async(() -> {
+            Path target = resolveObject(fileName);
+            if (target == null) return false;
+            Path uploadDir = resolveUpload(fileName, uploadId);
+            if (uploadDir == null) {
+                // 分片上传已完成过
+                return Files.isRegularFile(target);
+            }
+            Path tempFile = null;
+            try {
+                List<Path> parts = listParts(uploadDir);
+                if (parts.isEmpty()) {
+                    log.info("完成分片上传失败，没有已上传的分片，文件名: {}", fileName);
+                    return false;
+                }
+                tempFile = Files.createTempFile(tempDir, "multipart-", ".tmp");
+                try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    for (Path part : parts) {
+                        try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                            transferFully(in, out);
+                        }
+                    }
+                    out.force(true);
+                }
+                moveIntoPlace(tempFile, target);
+                tempFile = null;
+                deleteRecursively(uploadDir, true);
+                return true;
+            } catch (FileAlreadyExistsException e) {
+                log.info("完成分片上传失败，目标文件已存在，文件名: {}", fileName);
+                return false;
+            } catch (IOException e) {
+                log.error("完成分片上传失败，文件名: {}", fileName, e);
+                return false;
+            } finally {
+                if (tempFile != null) deleteQuietly(tempFile);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> abortMultipartUploadAsync(String fileName, String uploadId) {
+        return async(() -> {
+            Path uploadDir = resolveUpload(fileName, uploadId);
+            if (uploadDir == null) return true;
+            try {
+                deleteRecursively(uploadDir, true);
+                return true;
+            } catch (IOException e) {
+                log.error("中止分片上传失败，文件名: {}", fileName, e);
+                return false;
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, ioExecutor);
+    }
+
+    private String signedUrl(String method, String fileName, @Nullable String uploadId,
+                             @Nullable Integer partNumber, @Nullable String contentType) {
+        long expires = clock.instant().plusSeconds(presignedUrlExpirationSeconds).getEpochSecond();
+        return buildUrl(method, fileName, expires, uploadId, partNumber, contentType);
+    }
+
+    private String buildUrl(String method, String fileName, long expires, @Nullable String uploadId,
+                            @Nullable Integer partNumber, @Nullable String contentType) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(publicUrl + URL_PATH + fileName)
+                .queryParam("expires", expires);
+        if (uploadId != null) {
+            builder.queryParam("uploadId", uploadId).queryParam("partNumber", partNumber);
+        }
+        builder.queryParam("signature", sign(method, fileName, expires, uploadId, partNumber, contentType));
+        return builder.build().toUriString();
+    }
+
+    /**
+     * 计算签名：HMAC-SHA256(方法 \n 文件名 \n 过期时间 \n 分片上传ID \n 分片编号 \n Content-Type)，Base64URL 编码
+     */
+    private String sign(String method, String fileName, long expires, @Nullable String uploadId,
+                        @Nullable Integer partNumber, @Nullable String contentType) {
+        String canonical = String.join("\n", method, fileName, Long.toString(expires),
+                Objects.toString(uploadId, ""), Objects.toString(partNumber, ""), Objects.toString(contentType, ""));
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            byte[] digest = mac.doFinal(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("计算本地存储签名失败", e);
+        }
+    }
+
+    private static boolean isValidFileName(@Nullable String fileName) {
+        return fileName != null && FILE_NAME_PATTERN.matcher(fileName).matches();
+    }
+
+    /**
+     * 文件名对应的存储路径，文件名不合法时返回 null
+     */
+    @Nullable
+    private Path resolveObject(String fileName) {
+        if (!isValidFileName(fileName)) return null;
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(fileName.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        HexFormat hex = HexFormat.of();
+        return objectsDir.resolve(hex.toHexDigits(hash[0])).resolve(hex.toHexDigits(hash[1])).resolve(fileName);
+    }
+
+    /**
+     * 分片上传的目录，分片上传不存在或文件名不一致时返回 null
+     */
+    @Nullable
+    private Path resolveUpload(String fileName, String uploadId) {
+        if (!isValidFileName(fileName) || uploadId == null || !UPLOAD_ID_PATTERN.matcher(uploadId).matches()) {
+            return null;
+        }
+        Path uploadDir = multipartDir.resolve(uploadId);
+        try {
+            return fileName.equals(Files.readString(uploadDir.resolve(MULTIPART_TARGET_FILE))) ? uploadDir : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String partFileName(int partNumber) {
+        return PART_FILE_PREFIX + String.format("%05d", partNumber);
+    }
+
+    private static List<Path> listParts(Path uploadDir) throws IOException {
+        try (Stream<Path> paths = Files.list(uploadDir)) {
+            return paths.filter(path -> path.getFileName().toString().startsWith(PART_FILE_PREFIX))
+                    .sorted(Comparator.comparingInt(path ->
+                            Integer.parseInt(path.getFileName().toString().substring(PART_FILE_PREFIX.length()))))
+                    .toList();
+        }
+    }
+
+    /**
+     * 将输入流写入临时文件并刷盘，超出大小上限时删除临时文件并返回 null
+     */
+    @Nullable
+    private Path writeTempFile(InputStream inputStream, long maxBytes) throws IOException {
+        Path tempFile = Files.createTempFile(tempDir, "upload-", ".tmp");
+        boolean completed = false;
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            OutputStream outputStream = Channels.newOutputStream(channel);
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long total = 0;
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                total += n;
+                if (total > maxBytes) {
+                    return null;
+                }
+                outputStream.write(buffer, 0, n);
+            }
+            channel.force(true);
+            completed = true;
+            return tempFile;
+        } finally {
+            if (!completed) deleteQuietly(tempFile);
+        }
+    }
+
+    /**
+     * 将临时文件放到目标位置，目标已存在时抛出 FileAlreadyExistsException，与 S3 的 If-None-Match: * 一致
+     * POSIX 的 rename 会静默覆盖目标，因此用硬链接原子地占位后再删除临时文件
+     */
+    private static void moveIntoPlace(Path tempFile, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, tempFile);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private static void transferFully(FileChannel in, FileChannel out) throws IOException {
+        long position = 0;
+        long size = in.size();
+        while (position < size) {
+            position += in.transferTo(position, size - position, out);
+        }
+    }
+
+    private boolean deleteObject(String fileName) {
+        Path path = resolveObject(fileName);
+        if (path == null) return false;
+        try {
+            Files.deleteIfExists(path);
+            return true;
+        } catch (IOException e) {
+            log.error("删除文件失败，文件名: {}", fileName, e);
+            return false;
+        }
+    }
+
+    private static void deleteRecursively(Path dir, boolean includeSelf) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                if (includeSelf || !path.equals(dir)) Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("删除临时文件失败，路径: {}", path, e);
+        }
+    }
+}
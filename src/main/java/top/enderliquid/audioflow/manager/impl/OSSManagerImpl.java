@@ -4,29 +4,49 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Configuration;
-import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
-import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
-import top.enderliquid.audioflow.manager.OSSManager;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.manager.AsyncOSSManager;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.time.Clock;
 import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * 基于 S3AsyncClient 的对象存储管理器
+ * 网络请求由 Netty 连接池异步执行，不占用调用线程；同步接口由 {@link AsyncOSSManager} 的默认方法等待异步结果。
+ * 预签名为本地计算，仍为同步方法。
+ */
 @Slf4j
 @Component
-public class OSSManagerImpl implements OSSManager {
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "s3", matchIfMissing = true)
+public class OSSManagerImpl implements AsyncOSSManager {
+    // DeleteObjects 单次请求的最大键数
+    private static final int DELETE_OBJECTS_MAX_KEYS = 1000;
+    private static final String NO_SUCH_KEY_ERROR_CODE = "NoSuchKey";
 
     @Value("${file.storage.s3.endpoint}")
     private String endpoint;
@@ -49,8 +69,25 @@ public class OSSManagerImpl implements OSSManager {
     @Value("${file.storage.s3.path-style-access}")
     private boolean pathStyleAccess;
 
-    private S3Client s3Client;
+    @Value("${file.storage.s3.fast-presign.enabled:false}")
+    private boolean fastPresignEnabled;
+
+    @Value("${file.storage.s3.async.max-concurrency:128}")
+    private int maxConcurrency;
+
+    @Value("${file.storage.s3.async.max-pending-acquires:4096}")
+    private int maxPendingAcquires;
+
+    @Value("${file.storage.s3.async.acquire-timeout-seconds:30}")
+    private int acquireTimeoutSeconds;
+
+    @Value("${file.storage.s3.async.connection-timeout-seconds:5}")
+    private int connectionTimeoutSeconds;
+
+    private S3AsyncClient s3Client;
     private S3Presigner s3Presigner;
+    // 开启快速预签名且配置了 endpoint 时不为空，优先于 s3Presigner 使用
+    private SigV4Presigner sigV4Presigner;
 
     @PostConstruct
     public void init() {
@@ -68,10 +105,19 @@ public class OSSManagerImpl implements OSSManager {
                 .chunkedEncodingEnabled(false) // 某些兼容 S3 可能需要关闭 chunked
                 .build();
 
-        // 构建 S3Client
-        software.amazon.awssdk.services.s3.S3ClientBuilder clientBuilder = S3Client.builder()
+        // 连接池：最大并发连接数之外的请求排队等待连接，排队数与等待时间均受限
+        NettyNioAsyncHttpClient.Builder httpClientBuilder = NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConcurrency)
+                .maxPendingConnectionAcquires(maxPendingAcquires)
+                .connectionAcquisitionTimeout(Duration.ofSeconds(acquireTimeoutSeconds))
+                .connectionTimeout(Duration.ofSeconds(connectionTimeoutSeconds))
+                .tcpKeepAlive(true);
+
+        // 构建 S3AsyncClient
+        S3AsyncClientBuilder clientBuilder = S3AsyncClient.builder()
                 .credentialsProvider(credentialsProvider)
                 .serviceConfiguration(s3Config)
+                .httpClientBuilder(httpClientBuilder)
                 .region(Region.of(region));
 
         // 构建 Presigner
@@ -89,8 +135,17 @@ public class OSSManagerImpl implements OSSManager {
         s3Client = clientBuilder.build();
         s3Presigner = presignerBuilder.build();
 
-        log.info("OSSManagerImpl 初始化完成. Bucket: {}, Region: {}, PathStyle: {}",
-                bucketName, region, pathStyleAccess);
+        if (fastPresignEnabled) {
+            if (endpoint != null && !endpoint.isEmpty()) {
+                sigV4Presigner = new SigV4Presigner(URI.create(endpoint), region, bucketName,
+                        accessKey, secretKey, pathStyleAccess, Clock.systemUTC());
+            } else {
+                log.warn("快速预签名需要配置 S3 endpoint，将使用 SDK 预签名");
+            }
+        }
+
+        log.info("OSSManagerImpl 初始化完成. Bucket: {}, Region: {}, PathStyle: {}, FastPresign: {}, MaxConcurrency: {}",
+                bucketName, region, pathStyleAccess, sigV4Presigner != null, maxConcurrency);
     }
 
     @PreDestroy
@@ -103,6 +158,10 @@ public class OSSManagerImpl implements OSSManager {
     @Nullable
     public String generatePresignedPutUrl(String fileName, String mimeType) {
         if (s3Presigner == null) return null;
+        if (sigV4Presigner != null) {
+            return sigV4Presigner.presignPut(fileName, mimeType, "inline", "*",
+                    Duration.ofSeconds(presignedUrlExpirationSeconds));
+        }
         try {
             Duration expiration = Duration.ofSeconds(presignedUrlExpirationSeconds);
             PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(
@@ -129,48 +188,57 @@ public class OSSManagerImpl implements OSSManager {
     }
 
     @Override
-    public boolean checkFileExists(String fileName) {
-        if (s3Client == null) return false;
-        try {
-            s3Client.headObject(builder -> builder.bucket(bucketName).key(fileName));
-            return true;
-        } catch (NoSuchKeyException e) {
-            return false;
-        } catch (SdkException e) {
-            log.error("检查文件是否存在失败，文件名: {}", fileName, e);
-            return false;
-        }
+    public CompletableFuture<Boolean> checkFileExistsAsync(String fileName) {
+        if (s3Client == null) return CompletableFuture.completedFuture(false);
+        return s3Client.headObject(builder -> builder.bucket(bucketName).key(fileName))
+                .thenApply(response -> true)
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (!(cause instanceof NoSuchKeyException)) {
+                        log.error("检查文件是否存在失败，文件名: {}", fileName, cause);
+                    }
+                    return false;
+                });
     }
 
     @Override
-    @Nullable
-    public InputStream getFileInputStream(String fileName) {
-        if (s3Client == null) return null;
-        try {
-            return s3Client.getObject(builder -> builder.bucket(bucketName).key(fileName));
-        } catch (SdkException e) {
-            log.error("获取文件流失败，文件名: {}", fileName, e);
-            return null;
-        }
+    public CompletableFuture<InputStream> getFileInputStreamAsync(String fileName) {
+        if (s3Client == null) return CompletableFuture.completedFuture(null);
+        return s3Client.getObject(builder -> builder.bucket(bucketName).key(fileName),
+                        AsyncResponseTransformer.<GetObjectResponse>toBlockingInputStream())
+                .<InputStream>thenApply(inputStream -> inputStream)
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchKeyException) {
+                        log.debug("获取文件流失败，文件不存在，文件名: {}", fileName);
+                    } else {
+                        log.error("获取文件流失败，文件名: {}", fileName, cause);
+                    }
+                    return null;
+                });
     }
 
     @Override
-    public boolean deleteFile(String fileName) {
-        if (s3Client == null) return false;
-        try {
-            s3Client.deleteObject(builder -> builder.bucket(bucketName).key(fileName));
-            log.debug("文件删除请求已发送，文件名: {}", fileName);
-            return true;
-        } catch (SdkException e) {
-            log.error("文件删除失败，文件名: {}", fileName, e);
-            return false;
-        }
+    public CompletableFuture<Boolean> deleteFileAsync(String fileName) {
+        if (s3Client == null) return CompletableFuture.completedFuture(false);
+        return s3Client.deleteObject(builder -> builder.bucket(bucketName).key(fileName))
+                .thenApply(response -> {
+                    log.debug("文件删除请求已发送，文件名: {}", fileName);
+                    return true;
+                })
+                .exceptionally(e -> {
+                    log.error("文件删除失败，文件名: {}", fileName, unwrap(e));
+                    return false;
+                });
     }
 
     @Override
     @Nullable
     public String getPresignedGetUrl(String fileName, Duration expiration) {
         if (s3Presigner == null) return null;
+        if (sigV4Presigner != null) {
+            return sigV4Presigner.presignGet(fileName, expiration);
+        }
         try {
             GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
                     .signatureDuration(expiration)
@@ -183,15 +251,232 @@ public class OSSManagerImpl implements OSSManager {
         }
     }
 
+    @Override
+    public CompletableFuture<Set<String>> deleteFilesAsync(Collection<String> fileNames) {
+        if (fileNames.isEmpty()) return CompletableFuture.completedFuture(new HashSet<>());
+        if (s3Client == null) return CompletableFuture.completedFuture(new HashSet<>(fileNames));
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(fileNames));
+        List<CompletableFuture<Set<String>>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += DELETE_OBJECTS_MAX_KEYS) {
+            futures.add(deleteObjectsAsync(keys.subList(from, Math.min(from + DELETE_OBJECTS_MAX_KEYS, keys.size()))));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Set<String> failedKeys = new HashSet<>();
+                    for (CompletableFuture<Set<String>> future : futures) {
+                        failedKeys.addAll(future.join());
+                    }
+                    return failedKeys;
+                });
+    }
+
+    /**
+     * 单次 DeleteObjects 请求，使用 quiet 模式只返回删除失败的键
+     */
+    private CompletableFuture<Set<String>> deleteObjectsAsync(List<String> keys) {
+        List<ObjectIdentifier> objects = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            objects.add(ObjectIdentifier.builder().key(key).build());
+        }
+        return s3Client.deleteObjects(builder -> builder
+                        .bucket(bucketName)
+                        .delete(delete -> delete.objects(objects).quiet(true)))
+                .thenApply(response -> {
+                    Set<String> failedKeys = new HashSet<>();
+                    for (S3Error error : response.errors()) {
+                        // 文件不存在视为删除成功
+                        if (NO_SUCH_KEY_ERROR_CODE.equals(error.code())) continue;
+                        log.error("批量删除文件失败，文件名: {}, 错误码: {}, 错误信息: {}", error.key(), error.code(), error.message());
+                        failedKeys.add(error.key());
+                    }
+                    log.debug("批量删除文件请求已完成，文件数: {}, 失败数: {}", keys.size(), failedKeys.size());
+                    return failedKeys;
+                })
+                .exceptionally(e -> {
+                    log.error("批量删除文件请求失败，文件数: {}", keys.size(), unwrap(e));
+                    return new HashSet<>(keys);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Long> getFileSizeAsync(String fileName) {
+        if (s3Client == null) return CompletableFuture.completedFuture(null);
+        return s3Client.headObject(builder -> builder.bucket(bucketName).key(fileName))
+                .thenApply(HeadObjectResponse::contentLength)
+                .exceptionally(e -> {
+                    log.error("获取文件大小失败，文件名: {}", fileName, unwrap(e));
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<FileRangeBO> getFileRangeAsync(String fileName, long start, int length) {
+        if (s3Client == null) return CompletableFuture.completedFuture(null);
+        if (start < 0 || length <= 0) return CompletableFuture.completedFuture(null);
+        String range = "bytes=" + start + "-" + (start + length - 1);
+        return s3Client.getObject(builder -> builder
+                                .bucket(bucketName)
+                                .key(fileName)
+                                .range(range),
+                        AsyncResponseTransformer.<GetObjectResponse>toBytes())
+                .thenApply(responseBytes -> {
+                    Long totalSize = parseTotalSize(responseBytes.response().contentRange());
+                    if (totalSize == null) {
+                        // 服务端忽略了 Range 头并返回整个文件
+                        totalSize = responseBytes.response().contentLength();
+                    }
+                    return new FileRangeBO(responseBytes.asByteArray(), start, totalSize);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchKeyException) {
+                        log.debug("读取文件区间失败，文件不存在，文件名: {}", fileName);
+                    } else {
+                        log.error("读取文件区间失败，文件名: {}, 区间: {}", fileName, range, cause);
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<FileStreamBO> openFileRangeAsync(String fileName, long start, long length) {
+        if (s3Client == null) return CompletableFuture.completedFuture(null);
+        if (start < 0 || length <= 0) return CompletableFuture.completedFuture(null);
+        String range = "bytes=" + start + "-" + (start + length - 1);
+        // 响应头到达即返回，区间数据在调用方读取时从连接上接收
+        return s3Client.getObject(builder -> builder
+                                .bucket(bucketName)
+                                .key(fileName)
+                                .range(range),
+                        AsyncResponseTransformer.<GetObjectResponse>toBlockingInputStream())
+                .thenApply(inputStream -> FileStreamBO.ofInputStream(inputStream, start, length))
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchKeyException) {
+                        log.debug("打开文件区间失败，文件不存在，文件名: {}", fileName);
+                    } else {
+                        log.error("打开文件区间失败，文件名: {}, 区间: {}", fileName, range, cause);
+                    }
+                    return null;
+                });
+    }
+
+    @Override
+    public CompletableFuture<String> createMultipartUploadAsync(String fileName, String mimeType) {
+        if (s3Client == null) return CompletableFuture.completedFuture(null);
+        return s3Client.createMultipartUpload(builder -> builder
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .contentType(mimeType)
+                        .contentDisposition("inline"))
+                .thenApply(CreateMultipartUploadResponse::uploadId)
+                .exceptionally(e -> {
+                    log.error("创建分片上传失败，文件名: {}", fileName, unwrap(e));
+                    return null;
+                });
+    }
+
     @Override
     @Nullable
-    public Long getFileSize(String fileName) {
-        if (s3Client == null) return null;
+    public List<String> generatePresignedPartUrls(String fileName, String uploadId, int partCount) {
+        if (s3Presigner == null) return null;
         try {
-            HeadObjectResponse response = s3Client.headObject(builder -> builder.bucket(bucketName).key(fileName));
-            return response.contentLength();
+            Duration expiration = Duration.ofSeconds(presignedUrlExpirationSeconds);
+            List<String> urls = new ArrayList<>(partCount);
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                int currentPartNumber = partNumber;
+                PresignedUploadPartRequest presignedRequest = s3Presigner.presignUploadPart(
+                        UploadPartPresignRequest.builder()
+                                .signatureDuration(expiration)
+                                .uploadPartRequest(builder -> builder
+                                        .bucket(bucketName)
+                                        .key(fileName)
+                                        .uploadId(uploadId)
+                                        .partNumber(currentPartNumber))
+                                .build());
+                urls.add(presignedRequest.url().toString());
+            }
+            return urls;
         } catch (SdkException e) {
-            log.error("获取文件大小失败，文件名: {}", fileName, e);
+            log.error("生成分片上传URL失败，文件名: {}", fileName, e);
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> completeMultipartUploadAsync(String fileName, String uploadId) {
+        if (s3Client == null) return CompletableFuture.completedFuture(false);
+        List<CompletedPart> completedParts = new ArrayList<>();
+        return s3Client.listPartsPaginator(builder -> builder
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .uploadId(uploadId))
+                .parts()
+                .subscribe(part -> completedParts.add(CompletedPart.builder()
+                        .partNumber(part.partNumber())
+                        .eTag(part.eTag())
+                        .build()))
+                .thenCompose(ignored -> {
+                    if (completedParts.isEmpty()) {
+                        log.debug("完成分片上传失败，没有已上传的分片，文件名: {}", fileName);
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    return s3Client.completeMultipartUpload(builder -> builder
+                                    .bucket(bucketName)
+                                    .key(fileName)
+                                    .uploadId(uploadId)
+                                    .multipartUpload(upload -> upload.parts(completedParts)))
+                            .thenApply(response -> true);
+                })
+                .exceptionallyCompose(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchUploadException) {
+                        // 分片上传已完成或已中止，以文件是否存在为准
+                        return checkFileExistsAsync(fileName);
+                    }
+                    log.error("完成分片上传失败，文件名: {}", fileName, cause);
+                    return CompletableFuture.completedFuture(false);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> abortMultipartUploadAsync(String fileName, String uploadId) {
+        if (s3Client == null) return CompletableFuture.completedFuture(false);
+        return s3Client.abortMultipartUpload(builder -> builder
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .uploadId(uploadId))
+                .thenApply(response -> true)
+                .exceptionally(e -> {
+                    Throwable cause = unwrap(e);
+                    if (cause instanceof NoSuchUploadException) {
+                        return true;
+                    }
+                    log.error("中止分片上传失败，文件名: {}", fileName, cause);
+                    return false;
+                });
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * 从 Content-Range 响应头（格式: bytes 0-1023/4096）解析文件总大小
+     */
+    @Nullable
+    private static Long parseTotalSize(@Nullable String contentRange) {
+        if (contentRange == null) return null;
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0 || slash == contentRange.length() - 1) return null;
+        String total = contentRange.substring(slash + 1).trim();
+        if ("*".equals(total)) return null;
+        try {
+            return Long.parseLong(total);
+        } catch (NumberFormatException e) {
             return null;
         }
     }
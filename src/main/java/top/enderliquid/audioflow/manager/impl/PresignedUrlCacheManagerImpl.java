@@ -0,0 +1,96 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.manager.OSSManager;
+import top.enderliquid.audioflow.manager.PresignedUrlCacheManager;
+
+import java.time.Duration;
+
+/**
+ * 预签名下载 URL 缓存管理器实现
+ * 使用 Caffeine 进程内缓存，按条目数淘汰；每个条目在签名有效期减去最小剩余有效期后过期，
+ * 保证返回给客户端的 URL 至少还有 min-remaining 秒可用。
+ * 命中率等指标以 cache=songPlayUrl 标签注册到 MeterRegistry。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PresignedUrlCacheManagerImpl implements PresignedUrlCacheManager {
+
+    private static final String CACHE_NAME = "songPlayUrl";
+
+    private final OSSManager ossManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${file.storage.play-url.expiration:3600}")
+    private long expirationSeconds;
+    @Value("${file.storage.play-url.cache.max-size:10000}")
+    private long maxSize;
+    @Value("${file.storage.play-url.cache.min-remaining:600}")
+    private long minRemainingSeconds;
+
+    private Cache<String, CachedUrl> cache;
+
+    @PostConstruct
+    public void init() {
+        if (minRemainingSeconds >= expirationSeconds) {
+            throw new IllegalStateException("播放URL缓存的最小剩余有效期必须小于URL有效期");
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedUrl>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedUrl value, long currentTime) {
+                        return Math.max(0, value.expiresAtNanos() - minRemainingSeconds * 1_000_000_000L - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedUrl value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedUrl value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public String getPresignedGetUrl(String fileName) {
+        CachedUrl cached = cache.get(fileName, this::presign);
+        return cached == null ? null : cached.url();
+    }
+
+    @Override
+    public void invalidate(String fileName) {
+        cache.invalidate(fileName);
+    }
+
+    // 返回 null 时不写入缓存，下次请求重新签名
+    private CachedUrl presign(String fileName) {
+        // 以签名前的时间计算过期时刻，保守估计剩余有效期
+        long signedAtNanos = System.nanoTime();
+        String url = ossManager.getPresignedGetUrl(fileName, Duration.ofSeconds(expirationSeconds));
+        if (url == null) {
+            log.warn("生成预签名下载URL失败，文件名: {}", fileName);
+            return null;
+        }
+        return new CachedUrl(url, signedAtNanos + expirationSeconds * 1_000_000_000L);
+    }
+
+    private record CachedUrl(String url, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,225 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+/**
+ * 轻量 SigV4 查询参数预签名器
+ * 针对固定 Bucket 与 Region 生成 S3 预签名 URL，输出与 AWS SDK S3Presigner 逐字节一致：
+ * <ul>
+ *     <li>按日缓存派生的签名密钥，同一天内只需一次 HMAC 计算</li>
+ *     <li>每个线程复用 Mac 与 MessageDigest 实例</li>
+ *     <li>直接拼接字符串，不构建 SDK 请求对象，不解析终端节点</li>
+ * </ul>
+ * 仅支持静态凭证（无会话令牌），线程安全。
+ */
+public class SigV4Presigner {
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final String TERMINATOR = "aws4_request";
+    private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    private static final String HMAC_SHA256 = "HmacSHA256";
+    private static final HexFormat HEX = HexFormat.of();
+    private static final DateTimeFormatter AMZ_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final char[] UPPER_HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HMAC_SHA256);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("当前环境不支持 " + HMAC_SHA256, e);
+        }
+    });
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("当前环境不支持 SHA-256", e);
+        }
+    });
+
+    private final String region;
+    private final String accessKey;
+    private final byte[] secretKeyBytes;
+    private final Clock clock;
+    // URL 前缀（scheme://host[:port]），Host 头，以及对象键之前的路径（路径风格时为 /bucket）
+    private final String urlPrefix;
+    private final String host;
+    private final String pathPrefix;
+
+    private volatile SigningKey signingKey;
+
+    public SigV4Presigner(URI endpoint, String region, String bucketName, String accessKey, String secretKey,
+                          boolean pathStyleAccess, Clock clock) {
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKeyBytes = ("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8);
+        this.clock = clock;
+        String endpointHost = endpoint.getHost();
+        int port = endpoint.getPort();
+        boolean defaultPort = port == -1
+                || ("http".equalsIgnoreCase(endpoint.getScheme()) && port == 80)
+                || ("https".equalsIgnoreCase(endpoint.getScheme()) && port == 443);
+        String hostName = pathStyleAccess ? endpointHost : bucketName + "." + endpointHost;
+        this.host = defaultPort ? hostName : hostName + ":" + port;
+        this.urlPrefix = endpoint.getScheme() + "://" + host;
+        this.pathPrefix = pathStyleAccess ? "/" + bucketName : "";
+    }
+
+    /**
+     * 生成 GET 预签名 URL
+     */
+    public String presignGet(String key, Duration expiration) {
+        return presign("GET", key, null, null, null, expiration, clock.instant());
+    }
+
+    /**
+     * 生成 PUT 预签名 URL，上传时请求头必须与签名时一致
+     */
+    public String presignPut(String key, String contentType, String contentDisposition, String ifNoneMatch,
+                             Duration expiration) {
+        return presign("PUT", key, contentType, contentDisposition, ifNoneMatch, expiration, clock.instant());
+    }
+
+    String presign(String method, String key, String contentType, String contentDisposition, String ifNoneMatch,
+                   Duration expiration, Instant now) {
+        String amzDate = AMZ_DATE_FORMAT.format(now);
+        String dateStamp = amzDate.substring(0, 8);
+        String credentialScope = dateStamp + "/" + region + "/" + SERVICE + "/" + TERMINATOR;
+        String path = pathPrefix + "/" + encodeKey(key);
+        long expiresSeconds = expiration.getSeconds();
+
+        // 签名头按名称字典序排列
+        StringBuilder canonicalHeaders = new StringBuilder(128);
+        StringBuilder signedHeaders = new StringBuilder(64);
+        if (contentDisposition != null) {
+            appendHeader(canonicalHeaders, signedHeaders, "content-disposition", contentDisposition);
+        }
+        if (contentType != null) {
+            appendHeader(canonicalHeaders, signedHeaders, "content-type", contentType);
+        }
+        appendHeader(canonicalHeaders, signedHeaders, "host", host);
+        if (ifNoneMatch != null) {
+            appendHeader(canonicalHeaders, signedHeaders, "if-none-match", ifNoneMatch);
+        }
+        String encodedCredential = encode(accessKey + "/" + credentialScope);
+        String encodedSignedHeaders = encode(signedHeaders.toString());
+
+        // 规范查询字符串按参数名字典序排列
+        StringBuilder canonicalRequest = new StringBuilder(256 + canonicalHeaders.length());
+        canonicalRequest.append(method).append('\n')
+                .append(path).append('\n')
+                .append("X-Amz-Algorithm=").append(ALGORITHM)
+                .append("&X-Amz-Credential=").append(encodedCredential)
+                .append("&X-Amz-Date=").append(amzDate)
+                .append("&X-Amz-Expires=").append(expiresSeconds)
+                .append("&X-Amz-SignedHeaders=").append(encodedSignedHeaders).append('\n')
+                .append(canonicalHeaders).append('\n')
+                .append(signedHeaders).append('\n')
+                .append(UNSIGNED_PAYLOAD);
+
+        MessageDigest sha256 = SHA256.get();
+        String canonicalRequestHash = HEX.formatHex(sha256.digest(canonicalRequest.toString().getBytes(StandardCharsets.UTF_8)));
+        String stringToSign = ALGORITHM + '\n' + amzDate + '\n' + credentialScope + '\n' + canonicalRequestHash;
+        String signature = HEX.formatHex(hmac(signingKey(dateStamp), stringToSign));
+
+        // 查询参数顺序与 SDK 输出保持一致
+        return new StringBuilder(urlPrefix.length() + path.length() + 320)
+                .append(urlPrefix).append(path)
+                .append("?X-Amz-Algorithm=").append(ALGORITHM)
+                .append("&X-Amz-Date=").append(amzDate)
+                .append("&X-Amz-SignedHeaders=").append(encodedSignedHeaders)
+                .append("&X-Amz-Credential=").append(encodedCredential)
+                .append("&X-Amz-Expires=").append(expiresSeconds)
+                .append("&X-Amz-Signature=").append(signature)
+                .toString();
+    }
+
+    /**
+     * 获取当天的签名密钥，日期变化时重新派生
+     */
+    private byte[] signingKey(String dateStamp) {
+        SigningKey cached = signingKey;
+        if (cached != null && cached.dateStamp().equals(dateStamp)) {
+            return cached.key();
+        }
+        byte[] dateKey = hmac(secretKeyBytes, dateStamp);
+        byte[] regionKey = hmac(dateKey, region);
+        byte[] serviceKey = hmac(regionKey, SERVICE);
+        byte[] key = hmac(serviceKey, TERMINATOR);
+        signingKey = new SigningKey(dateStamp, key);
+        return key;
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        Mac mac = MAC.get();
+        try {
+            mac.init(new SecretKeySpec(key, HMAC_SHA256));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化 HMAC 失败", e);
+        }
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void appendHeader(StringBuilder canonicalHeaders, StringBuilder signedHeaders, String name, String value) {
+        canonicalHeaders.append(name).append(':').append(value.trim()).append('\n');
+        if (!signedHeaders.isEmpty()) {
+            signedHeaders.append(';');
+        }
+        signedHeaders.append(name);
+    }
+
+    /**
+     * 对象键编码，保留路径分隔符
+     */
+    private static String encodeKey(String key) {
+        return percentEncode(key, true);
+    }
+
+    private static String encode(String value) {
+        return percentEncode(value, false);
+    }
+
+    /**
+     * RFC 3986 百分号编码，仅保留非保留字符 A-Z a-z 0-9 - _ . ~
+     */
+    private static String percentEncode(String value, boolean keepSlash) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        StringBuilder sb = null;
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+            boolean unreserved = (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9')
+                    || b == '-' || b == '_' || b == '.' || b == '~' || (keepSlash && b == '/');
+            if (unreserved) {
+                if (sb != null) {
+                    sb.append((char) b);
+                }
+                continue;
+            }
+            if (sb == null) {
+                // 首次遇到需要编码的字节时才分配
+                sb = new StringBuilder(bytes.length + 16);
+                for (int j = 0; j < i; j++) {
+                    sb.append((char) bytes[j]);
+                }
+            }
+            sb.append('%').append(UPPER_HEX[b >>> 4]).append(UPPER_HEX[b & 0x0F]);
+        }
+        return sb == null ? value : sb.toString();
+    }
+
+    private record SigningKey(String dateStamp, byte[] key) {
+    }
+}
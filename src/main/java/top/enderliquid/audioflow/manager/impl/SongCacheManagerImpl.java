@@ -0,0 +1,291 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.entity.Song;
+import top.enderliquid.audioflow.entity.User;
+import top.enderliquid.audioflow.manager.SongCacheManager;
+import top.enderliquid.audioflow.manager.SongManager;
+import top.enderliquid.audioflow.manager.UserManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 歌曲元数据两级缓存管理器实现
+ * 一级为 Caffeine 进程内近端缓存，按条目数淘汰并短时过期；二级为 Redis，
+ * 键格式: song_cache:{songId}（值为歌曲 JSON）与 user_name_cache:{userId}。
+ * 歌曲变更后递增版本号 song_cache_version:{songId} 并删除 Redis 键，再通过频道 cache:song:invalidate
+ * 通知所有节点清除近端缓存。回源时先读取版本号，写回 Redis 时由 Lua 脚本原子地比较版本号，
+ * 失效前已从数据库读出旧值的并发读取不会把旧值写回缓存。
+ * 近端缓存的命中率与淘汰数以 cache=songNear / uploaderNameNear 标签注册，
+ * Redis 命中情况与回源耗时分别记录为 audioflow.cache.redis 与 audioflow.cache.load。
+ * 通过 song.cache.enabled=false 关闭时直接读取数据库。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SongCacheManagerImpl implements SongCacheManager {
+
+    private static final String SONG_CACHE_NAME = "songNear";
+    private static final String UPLOADER_NAME_CACHE_NAME = "uploaderNameNear";
+    private static final String SONG_KEY_PREFIX = "song_cache:";
+    private static final String SONG_VERSION_KEY_PREFIX = "song_cache_version:";
+    private static final String UPLOADER_NAME_KEY_PREFIX = "user_name_cache:";
+    private static final String INVALIDATE_CHANNEL = "cache:song:invalidate";
+    // 缓存使用独立的 ObjectMapper，不受 Web 层字符串裁剪等定制影响
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final SongManager songManager;
+    private final UserManager userManager;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${song.cache.enabled:true}")
+    private boolean enabled;
+    @Value("${song.cache.near.max-size:10000}")
+    private long nearMaxSize;
+    @Value("${song.cache.near.ttl-seconds:60}")
+    private long nearTtlSeconds;
+    @Value("${song.cache.redis.ttl-seconds:600}")
+    private long redisTtlSeconds;
+
+    private RedisScript<Long> songCacheSetScript;
+    private Cache<Long, Song> songCache;
+    private Cache<Long, String> uploaderNameCache;
+    private Counter songRedisHitCounter;
+    private Counter songRedisMissCounter;
+    private Counter uploaderNameRedisHitCounter;
+    private Counter uploaderNameRedisMissCounter;
+    private Timer songRedisLoadTimer;
+    private Timer songDatabaseLoadTimer;
+    private Timer uploaderNameRedisLoadTimer;
+    private Timer uploaderNameDatabaseLoadTimer;
+
+    @PostConstruct
+    public void init() {
+        Resource resource = new ClassPathResource("scripts/song_cache_set.lua");
+        try {
+            String script = new String(resource.getContentAsByteArray());
+            songCacheSetScript = new DefaultRedisScript<>(script, Long.class);
+        } catch (IOException e) {
+            log.error("加载歌曲缓存 Lua 脚本失败", e);
+            throw new RuntimeException("加载歌曲缓存 Lua 脚本失败", e);
+        }
+        songCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(nearTtlSeconds))
+                .recordStats()
+                .build();
+        uploaderNameCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(nearTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, songCache, SONG_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, uploaderNameCache, UPLOADER_NAME_CACHE_NAME);
+        songRedisHitCounter = redisCounter("song", "hit");
+        songRedisMissCounter = redisCounter("song", "miss");
+        uploaderNameRedisHitCounter = redisCounter("uploaderName", "hit");
+        uploaderNameRedisMissCounter = redisCounter("uploaderName", "miss");
+        songRedisLoadTimer = loadTimer("song", "redis");
+        songDatabaseLoadTimer = loadTimer("song", "database");
+        uploaderNameRedisLoadTimer = loadTimer("uploaderName", "redis");
+        uploaderNameDatabaseLoadTimer = loadTimer("uploaderName", "database");
+        if (enabled) {
+            listenerContainer.addMessageListener(this::onInvalidateMessage, new ChannelTopic(INVALIDATE_CHANNEL));
+        }
+    }
+
+    @Override
+    @Nullable
+    public Song getSong(Long songId) {
+        if (!enabled) {
+            return songManager.getById(songId);
+        }
+        Song song = songCache.getIfPresent(songId);
+        if (song == null) {
+            song = songRedisLoadTimer.record(() -> readSongFromRedis(songId));
+            if (song != null) {
+                songRedisHitCounter.increment();
+                songCache.put(songId, song);
+            } else {
+                songRedisMissCounter.increment();
+                // 版本号必须在读取数据库之前读取，期间发生的失效会使写回被拒绝
+                String version = readFromRedis(SONG_VERSION_KEY_PREFIX + songId);
+                song = songDatabaseLoadTimer.record(() -> songManager.getById(songId));
+                if (song == null || song.getStatus() != SongStatus.NORMAL) {
+                    return song;
+                }
+                // 先写入近端缓存，写回被拒绝时再移除，避免与本节点的失效交错后留下旧值
+                songCache.put(songId, song);
+                if (!writeSongToRedis(songId, song, version)) {
+                    songCache.invalidate(songId);
+                }
+            }
+        }
+        // 缓存中的实例在节点内共享，返回副本防止调用方修改
+        Song copy = new Song();
+        BeanUtils.copyProperties(song, copy);
+        return copy;
+    }
+
+    @Override
+    @Nullable
+    public String getUploaderName(Long userId) {
+        if (!enabled) {
+            User user = userManager.getById(userId);
+            return user == null ? null : user.getName();
+        }
+        String name = uploaderNameCache.getIfPresent(userId);
+        if (name != null) {
+            return name;
+        }
+        String key = UPLOADER_NAME_KEY_PREFIX + userId;
+        name = uploaderNameRedisLoadTimer.record(() -> readFromRedis(key));
+        if (name != null) {
+            uploaderNameRedisHitCounter.increment();
+        } else {
+            uploaderNameRedisMissCounter.increment();
+            User user = uploaderNameDatabaseLoadTimer.record(() -> userManager.getById(userId));
+            if (user == null || user.getName() == null) {
+                return null;
+            }
+            name = user.getName();
+            writeToRedis(key, name);
+        }
+        uploaderNameCache.put(userId, name);
+        return name;
+    }
+
+    @Override
+    public void evictSong(Long songId) {
+        if (!enabled) {
+            return;
+        }
+        String versionKey = SONG_VERSION_KEY_PREFIX + songId;
+        try {
+            // 先递增版本号再删除缓存，之后完成的回源不会再写回失效前读出的旧值
+            redisTemplate.opsForValue().increment(versionKey);
+            redisTemplate.expire(versionKey, Duration.ofSeconds(redisTtlSeconds));
+            redisTemplate.delete(SONG_KEY_PREFIX + songId);
+        } catch (Exception e) {
+            log.error("删除歌曲缓存失败，歌曲ID: {}", songId, e);
+        }
+        // 在递增版本号之后清除近端缓存，与回源时先写近端缓存、再按版本号写回 Redis 的顺序配合
+        songCache.invalidate(songId);
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, String.valueOf(songId));
+        } catch (Exception e) {
+            // 其他节点的近端缓存在过期后自动刷新
+            log.error("发送歌曲缓存失效通知失败，歌曲ID: {}", songId, e);
+        }
+    }
+
+    private void onInvalidateMessage(Message message, @Nullable byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            songCache.invalidate(Long.parseLong(body));
+        } catch (NumberFormatException e) {
+            log.warn("歌曲缓存失效通知格式异常，内容: {}", body);
+        }
+    }
+
+    @Nullable
+    private Song readSongFromRedis(Long songId) {
+        String json = readFromRedis(SONG_KEY_PREFIX + songId);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, Song.class);
+        } catch (JsonProcessingException e) {
+            log.warn("歌曲缓存格式异常，歌曲ID: {}", songId);
+            return null;
+        }
+    }
+
+    @Nullable
+    private String readFromRedis(String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("读取缓存失败，键: {}", key, e);
+            return null;
+        }
+    }
+
+    /**
+     * 版本号未变化时写入歌曲缓存
+     *
+     * @param version 回源前读取的版本号，不存在时为 null
+     * @return 版本号已变化、写入被拒绝时返回 false；Redis 不可用时返回 true，由近端缓存过期时间兜底
+     */
+    private boolean writeSongToRedis(Long songId, Song song, @Nullable String version) {
+        try {
+            Long written = redisTemplate.execute(songCacheSetScript,
+                    List.of(SONG_KEY_PREFIX + songId, SONG_VERSION_KEY_PREFIX + songId),
+                    version == null ? "" : version,
+                    OBJECT_MAPPER.writeValueAsString(song),
+                    String.valueOf(redisTtlSeconds));
+            return written == null || written != 0;
+        } catch (Exception e) {
+            log.warn("写入歌曲缓存失败，歌曲ID: {}", songId, e);
+            return true;
+        }
+    }
+
+    private void writeToRedis(String key, Object value) {
+        try {
+            String content = value instanceof String str ? str : OBJECT_MAPPER.writeValueAsString(value);
+            redisTemplate.opsForValue().set(key, content, Duration.ofSeconds(redisTtlSeconds));
+        } catch (Exception e) {
+            log.warn("写入缓存失败，键: {}", key, e);
+        }
+    }
+
+    private Counter redisCounter(String cache, String result) {
+        return Counter.builder("audioflow.cache.redis")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer loadTimer(String cache, String source) {
+        return Timer.builder("audioflow.cache.load")
+                .tag("cache", cache)
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,149 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+import top.enderliquid.audioflow.manager.SongCountManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * 歌曲分页总数缓存管理器实现
+ * NORMAL 歌曲计数保存在 Redis 键 song_count:normal 中，由完成上传与删除歌曲增量维护，
+ * 键带有过期时间，过期后由下一次查询从数据库重新加载，以此限制异常情况下的计数漂移。
+ * 带检索条件的总数使用 Caffeine 进程内缓存，键为转为小写的关键字（与数据库的不区分大小写排序规则一致），
+ * 短时过期后重新统计。命中率等指标以 cache=songPageTotal 标签注册到 MeterRegistry。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SongCountManagerImpl implements SongCountManager {
+
+    private static final String CACHE_NAME = "songPageTotal";
+    private static final String NORMAL_COUNT_KEY = "song_count:normal";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${song.page.total-cache.enabled:true}")
+    private boolean enabled;
+    @Value("${song.page.total-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+    @Value("${song.page.total-cache.max-size:10000}")
+    private long maxSize;
+    @Value("${song.page.normal-count.ttl-seconds:3600}")
+    private long normalCountTtlSeconds;
+
+    private Cache<FilterKey, Long> cache;
+    private RedisScript<Long> songCountScript;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Resource resource = new ClassPathResource("scripts/song_count.lua");
+        try {
+            String script = new String(resource.getContentAsByteArray());
+            songCountScript = new DefaultRedisScript<>(script, Long.class);
+        } catch (IOException e) {
+            log.error("加载歌曲计数Lua脚本失败", e);
+            throw new RuntimeException("加载歌曲计数Lua脚本失败", e);
+        }
+    }
+
+    @Override
+    public Long getTotal(SongPageDTO dto) {
+        if (!enabled) {
+            return null;
+        }
+        if (isUnfiltered(dto)) {
+            return getNormalCount();
+        }
+        return cache.getIfPresent(toFilterKey(dto));
+    }
+
+    @Override
+    public void putTotal(SongPageDTO dto, long total, boolean exact) {
+        if (!enabled) {
+            return;
+        }
+        if (!isUnfiltered(dto)) {
+            cache.put(toFilterKey(dto), total);
+            return;
+        }
+        try {
+            Duration ttl = Duration.ofSeconds(normalCountTtlSeconds);
+            if (exact) {
+                redisTemplate.opsForValue().set(NORMAL_COUNT_KEY, String.valueOf(total), ttl);
+            } else {
+                // 并发加载时只保留先写入的值，避免覆盖已开始增量维护的计数
+                redisTemplate.opsForValue().setIfAbsent(NORMAL_COUNT_KEY, String.valueOf(total), ttl);
+            }
+        } catch (Exception e) {
+            log.warn("写入歌曲计数失败", e);
+        }
+    }
+
+    @Override
+    public void addNormalCount(long delta) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.execute(songCountScript, Collections.singletonList(NORMAL_COUNT_KEY), String.valueOf(delta));
+        } catch (Exception e) {
+            // 计数会在过期后从数据库重新加载
+            log.warn("更新歌曲计数失败，增量: {}", delta, e);
+        }
+    }
+
+    @Nullable
+    private Long getNormalCount() {
+        try {
+            String value = redisTemplate.opsForValue().get(NORMAL_COUNT_KEY);
+            return value == null ? null : Math.max(0, Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            log.warn("歌曲计数值格式异常，键: {}", NORMAL_COUNT_KEY);
+            return null;
+        } catch (Exception e) {
+            log.warn("读取歌曲计数失败", e);
+            return null;
+        }
+    }
+
+    private static boolean isUnfiltered(SongPageDTO dto) {
+        return dto.getUploaderKeyword() == null && dto.getSongKeyword() == null;
+    }
+
+    private static FilterKey toFilterKey(SongPageDTO dto) {
+        return new FilterKey(normalize(dto.getUploaderKeyword()), normalize(dto.getSongKeyword()));
+    }
+
+    @Nullable
+    private static String normalize(@Nullable String keyword) {
+        return keyword == null ? null : keyword.toLowerCase(Locale.ROOT);
+    }
+
+    private record FilterKey(@Nullable String uploaderKeyword, @Nullable String songKeyword) {
+    }
+}
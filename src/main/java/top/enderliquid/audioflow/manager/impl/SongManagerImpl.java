@@ -5,54 +5,134 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 import top.enderliquid.audioflow.common.enums.SongStatus;
 import top.enderliquid.audioflow.common.util.id.SnowflakeIdConverter;
 import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
 import top.enderliquid.audioflow.dto.bo.SongPageParam;
+import top.enderliquid.audioflow.dto.request.song.SongCursorPageDTO;
 import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
 import top.enderliquid.audioflow.entity.Song;
 import top.enderliquid.audioflow.manager.SongManager;
 import top.enderliquid.audioflow.mapper.SongMapper;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
 public class SongManagerImpl extends ServiceImpl<SongMapper, Song> implements SongManager {
+    // 与 MySQL 的 ngram_token_size 一致
+    private static final int NGRAM_TOKEN_SIZE = 2;
+
     private final SongMapper songMapper;
     private final SnowflakeIdConverter snowflakeIdConverter;
 
+    @Value("${song.search.fulltext.enabled:false}")
+    private boolean fulltextEnabled;
+
+    @Override
+    public IPage<SongBO> pageByUploaderKeywordAndSongKeyword(SongPageDTO dto, boolean searchCount) {
+        SongPageParam param = buildPageParam(dto.getUploaderKeyword(), dto.getSongKeyword(), dto.getAsc());
+        Page<SongBO> page = new Page<>(dto.getPageIndex(), dto.getPageSize(), searchCount);
+        page = (Page<SongBO>) songMapper.selectPageByUploaderInfoOrSongInfo(page, param);
+        return page;
+    }
+
     @Override
-    public IPage<SongBO> pageByUploaderKeywordAndSongKeyword(SongPageDTO dto) {
-        Long uploaderId = snowflakeIdConverter.fromString(dto.getUploaderKeyword());
-        Long songId = snowflakeIdConverter.fromString(dto.getSongKeyword());
+    public List<SongBO> listByUploaderKeywordAndSongKeywordAfter(SongCursorPageDTO dto, @Nullable SongKeysetBO after, int limit) {
+        SongPageParam param = buildPageParam(dto.getUploaderKeyword(), dto.getSongKeyword(), dto.getAsc());
+        return songMapper.selectByUploaderInfoOrSongInfoAfter(param, after, limit);
+    }
 
-        // 构建Mapper参数包装类
-        SongPageParam param = new SongPageParam(
-                dto.getUploaderKeyword(),
-                uploaderId,
-                dto.getSongKeyword(),
-                songId,
-                dto.getAsc()
+    /**
+     * 构建Mapper参数包装类，关键字可解析为ID时同时按ID精确匹配
+     */
+    private SongPageParam buildPageParam(@Nullable String uploaderKeyword, @Nullable String songKeyword, boolean asc) {
+        return new SongPageParam(
+                uploaderKeyword,
+                snowflakeIdConverter.fromString(uploaderKeyword),
+                songKeyword,
+                snowflakeIdConverter.fromString(songKeyword),
+                asc,
+                toFulltextPhrase(uploaderKeyword),
+                toFulltextPhrase(songKeyword)
         );
+    }
 
-        Page<SongBO> page = new Page<>(dto.getPageIndex(), dto.getPageSize());
-        page = (Page<SongBO>) songMapper.selectPageByUploaderInfoOrSongInfo(page, param);
-        return page;
+    /**
+     * 将关键字转为全文检索的短语查询，ngram 分词下短语匹配要求各二元组连续出现，近似于子串匹配
+     * 未开启全文检索或关键字短于分词长度（无法产生词元）时返回 null，使用模糊匹配
+     */
+    @Nullable
+    private String toFulltextPhrase(@Nullable String keyword) {
+        if (!fulltextEnabled || keyword == null) {
+            return null;
+        }
+        // 短语内只有双引号具有特殊含义
+        String phrase = keyword.replace("\"", "").trim();
+        if (phrase.length() < NGRAM_TOKEN_SIZE) {
+            return null;
+        }
+        return "\"" + phrase + "\"";
     }
 
     @Override
-    public List<Song> listByStatusesAndBeforeTime(List<SongStatus> statuses, LocalDateTime time) {
+    public List<SongBO> listNormalBOByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, SongBO> songMap = new HashMap<>();
+        for (SongBO song : songMapper.selectNormalBOByIds(ids)) {
+            songMap.put(song.getId(), song);
+        }
+        List<SongBO> songs = new ArrayList<>(songMap.size());
+        for (Long id : ids) {
+            SongBO song = songMap.get(id);
+            if (song != null) songs.add(song);
+        }
+        return songs;
+    }
+
+    @Override
+    public List<Song> listByStatusAndBeforeTimeAfter(SongStatus status, LocalDateTime time, @Nullable SongKeysetBO after, int limit) {
+        return songMapper.selectByStatusAndBeforeTimeAfter(status, time, after, limit);
+    }
+
+    @Override
+    public List<Song> listByStatusAndUpdateTimeBefore(SongStatus status, LocalDateTime time, int limit) {
         LambdaQueryWrapper<Song> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.in(Song::getStatus, statuses)
-                .lt(Song::getCreateTime, time);
+        queryWrapper.eq(Song::getStatus, status)
+                .lt(Song::getUpdateTime, time)
+                .orderByAsc(Song::getUpdateTime)
+                .last("LIMIT " + limit);
         return list(queryWrapper);
     }
 
+    @Override
+    public int insertMultiRow(List<Song> songs) {
+        if (songs.isEmpty()) {
+            return 0;
+        }
+        return songMapper.insertMultiRow(songs);
+    }
+
     @Override
     public Song getByIdForUpdate(Long id) {
         return songMapper.selectByIdForUpdate(id);
     }
+
+    @Override
+    public List<Song> listByIdsForUpdate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return songMapper.selectByIdsForUpdate(ids);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+import top.enderliquid.audioflow.manager.SongPageResponseCacheManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 歌曲分页响应缓存管理器实现
+ * 使用 Caffeine 进程内缓存保存序列化后的响应字节，键为转为小写的关键字与排序、页码、分页大小，
+ * 命中时跳过查询与序列化。要求精确总数的请求不使用缓存。
+ * 未命中时先在进行中的加载表里登记 CompletableFuture，登记成功的调用方执行查询，同一键的其余调用方等待其结果，
+ * 查询失败时异常传给所有等待方，不缓存失败结果。
+ * 失效时递增代数并清空缓存与进行中的加载表，失效前开始的加载不会写回缓存，
+ * 其他节点通过频道 cache:song-page:invalidate 收到通知后清空本地缓存。
+ * 命中率等指标以 cache=songPageResponse 标签注册，合并的并发请求数记录为 audioflow.cache.coalesced。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SongPageResponseCacheManagerImpl implements SongPageResponseCacheManager {
+
+    private static final String CACHE_NAME = "songPageResponse";
+    private static final String INVALIDATE_CHANNEL = "cache:song-page:invalidate";
+
+    // 使用 Web 层的 ObjectMapper，保证与正常返回的响应格式一致
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${song.page.response-cache.enabled:true}")
+    private boolean enabled;
+    @Value("${song.page.response-cache.ttl-seconds:5}")
+    private long ttlSeconds;
+    @Value("${song.page.response-cache.max-size:1000}")
+    private long maxSize;
+
+    private final ConcurrentHashMap<PageKey, CompletableFuture<byte[]>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private Cache<PageKey, byte[]> cache;
+    private Counter coalescedCounter;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        coalescedCounter = Counter.builder("audioflow.cache.coalesced")
+                .description("等待同一键进行中的加载而未重复查询的请求数")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        if (enabled) {
+            listenerContainer.addMessageListener(this::onInvalidateMessage, new ChannelTopic(INVALIDATE_CHANNEL));
+        }
+    }
+
+    @Override
+    public byte[] get(SongPageDTO dto, Supplier<?> loader) {
+        if (!enabled || Boolean.TRUE.equals(dto.getExactTotal())) {
+            return serialize(loader.get());
+        }
+        PageKey key = toPageKey(dto);
+        byte[] body = cache.getIfPresent(key);
+        if (body != null) {
+            return body;
+        }
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return await(existing);
+        }
+        long startGeneration = generation.get();
+        try {
+            body = serialize(loader.get());
+            cache.put(key, body);
+            // 加载期间发生过失效时移除刚写入的旧结果
+            if (generation.get() != startGeneration) {
+                cache.invalidate(key);
+            }
+            future.complete(body);
+            return body;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        invalidateLocal();
+        try {
+            redisTemplate.convertAndSend(INVALIDATE_CHANNEL, "*");
+        } catch (Exception e) {
+            // 其他节点的缓存在过期后自动刷新
+            log.error("发送歌曲分页缓存失效通知失败", e);
+        }
+    }
+
+    private void invalidateLocal() {
+        generation.incrementAndGet();
+        // 失效后的请求不再等待失效前开始的加载
+        loading.clear();
+        cache.invalidateAll();
+    }
+
+    private void onInvalidateMessage(Message message, @Nullable byte[] pattern) {
+        invalidateLocal();
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            log.error("序列化歌曲分页响应失败", e);
+            throw new IllegalStateException("序列化歌曲分页响应失败", e);
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static PageKey toPageKey(SongPageDTO dto) {
+        return new PageKey(normalize(dto.getUploaderKeyword()), normalize(dto.getSongKeyword()),
+                dto.getAsc(), dto.getPageIndex(), dto.getPageSize());
+    }
+
+    @Nullable
+    private static String normalize(@Nullable String keyword) {
+        return keyword == null ? null : keyword.toLowerCase(Locale.ROOT);
+    }
+
+    private record PageKey(@Nullable String uploaderKeyword, @Nullable String songKeyword,
+                           Boolean asc, Long pageIndex, Long pageSize) {
+    }
+}
@@ -0,0 +1,236 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.entity.SongPlayCount;
+import top.enderliquid.audioflow.manager.SongPlayCountManager;
+import top.enderliquid.audioflow.manager.TrendingManager;
+import top.enderliquid.audioflow.mapper.SongPlayCountMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 歌曲播放次数管理器实现
+ * 每首歌曲对应一个 LongAdder，高并发播放同一首歌时分散到多个单元累加，不争用同一个变量。
+ * 刷新时逐个移除计数器并取走累计值，按歌曲ID排序后使用多行 INSERT ... ON DUPLICATE KEY UPDATE 批量累加，
+ * 再读回累加后的总数写入 Redis 哈希 song_play_count（字段为歌曲ID），Redis 中的值因此可以自我修正。
+ * 写入数据库成功的增量在每次刷新结束时一并交给热门排行。
+ * 内存只保存一个刷新周期内被播放过的歌曲：数量达到上限时提前刷新，超过两倍上限时丢弃新歌曲的计数并记录指标。
+ * 应用正常关闭时执行最后一次刷新。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SongPlayCountManagerImpl extends ServiceImpl<SongPlayCountMapper, SongPlayCount> implements SongPlayCountManager {
+
+    private static final String KEY = "song_play_count";
+
+    private final SongPlayCountMapper songPlayCountMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final TrendingManager trendingManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${song.play-count.enabled:true}")
+    private boolean enabled;
+    @Value("${song.play-count.max-pending-songs:100000}")
+    private int maxPendingSongs;
+    @Value("${song.play-count.batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<Long, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean earlyFlushRunning = new AtomicBoolean();
+
+    private Counter droppedCounter;
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        droppedCounter = Counter.builder("audioflow.song.play.dropped")
+                .description("内存计数已满时丢弃的播放次数")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("audioflow.song.play.flush").register(meterRegistry);
+        Gauge.builder("audioflow.song.play.pending", pendingCounts, Map::size)
+                .description("等待刷新的歌曲数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (!enabled) {
+            return;
+        }
+        int flushed = flush();
+        log.info("关闭前刷新歌曲播放次数完成，歌曲数: {}", flushed);
+    }
+
+    @Override
+    public void recordPlay(Long songId) {
+        if (!enabled) {
+            return;
+        }
+        if (!pendingCounts.containsKey(songId) && pendingCounts.size() >= maxPendingSongs) {
+            requestEarlyFlush();
+            if (pendingCounts.size() >= 2L * maxPendingSongs) {
+                droppedCounter.increment();
+                return;
+            }
+        }
+        add(songId, 1);
+    }
+
+    @Override
+    public int flush() {
+        flushLock.lock();
+        try {
+            return flushTimer.record(this::doFlush);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public long getPlayCount(Long songId) {
+        String field = String.valueOf(songId);
+        try {
+            Object value = redisTemplate.opsForHash().get(KEY, field);
+            if (value != null) {
+                return Long.parseLong(value.toString());
+            }
+        } catch (NumberFormatException e) {
+            log.warn("播放次数格式异常，歌曲ID: {}", songId);
+        } catch (Exception e) {
+            log.warn("读取播放次数失败，歌曲ID: {}", songId, e);
+        }
+        SongPlayCount playCount = songPlayCountMapper.selectById(songId);
+        long count = playCount == null ? 0L : playCount.getPlayCount();
+        try {
+            // 没有播放记录时同样缓存 0，避免新歌曲每次读取都访问数据库；不覆盖并发刷新写入的更新值
+            redisTemplate.opsForHash().putIfAbsent(KEY, field, String.valueOf(count));
+        } catch (Exception e) {
+            log.warn("写入播放次数缓存失败，歌曲ID: {}", songId, e);
+        }
+        return count;
+    }
+
+    @Override
+    public void removePlayCounts(Collection<Long> songIds) {
+        if (songIds.isEmpty()) {
+            return;
+        }
+        songIds.forEach(pendingCounts::remove);
+        songPlayCountMapper.deleteByIds(songIds);
+        try {
+            redisTemplate.opsForHash().delete(KEY, songIds.stream().map(String::valueOf).toArray());
+        } catch (Exception e) {
+            // 残留的字段不会再被读取，只占用少量内存
+            log.warn("删除播放次数缓存失败，歌曲数: {}", songIds.size(), e);
+        }
+    }
+
+    private int doFlush() {
+        int flushed = 0;
+        Map<Long, Long> flushedCounts = new HashMap<>();
+        List<SongPlayCount> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingCounts.entrySet()) {
+            // 先移除再取值，之后落在该计数器上的播放由 add 方法转移到新计数器
+            if (!pendingCounts.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            long count = entry.getValue().sumThenReset();
+            if (count > 0) {
+                batch.add(new SongPlayCount(entry.getKey(), count, null, null));
+            }
+            if (batch.size() >= batchSize) {
+                flushed += writeBatch(batch, flushedCounts);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushed += writeBatch(batch, flushedCounts);
+        }
+        trendingManager.addPlays(flushedCounts);
+        return flushed;
+    }
+
+    /**
+     * 写入一批计数，写入数据库成功的增量记入 flushedCounts
+     */
+    private int writeBatch(List<SongPlayCount> batch, Map<Long, Long> flushedCounts) {
+        // 固定加锁顺序，避免多个节点同时刷新时死锁
+        batch.sort(Comparator.comparing(SongPlayCount::getSongId));
+        try {
+            songPlayCountMapper.upsertAddMultiRow(batch);
+        } catch (Exception e) {
+            log.error("写入歌曲播放次数失败，保留到下次刷新，歌曲数: {}", batch.size(), e);
+            for (SongPlayCount playCount : batch) {
+                add(playCount.getSongId(), playCount.getPlayCount());
+            }
+            return 0;
+        }
+        for (SongPlayCount playCount : batch) {
+            flushedCounts.put(playCount.getSongId(), playCount.getPlayCount());
+        }
+        try {
+            List<Long> songIds = batch.stream().map(SongPlayCount::getSongId).toList();
+            Map<String, String> totals = new HashMap<>();
+            for (SongPlayCount playCount : songPlayCountMapper.selectByIds(songIds)) {
+                totals.put(String.valueOf(playCount.getSongId()), String.valueOf(playCount.getPlayCount()));
+            }
+            if (!totals.isEmpty()) {
+                redisTemplate.opsForHash().putAll(KEY, totals);
+            }
+        } catch (Exception e) {
+            // 数据库已写入，Redis 中的值在下次刷新或读取时修正
+            log.warn("同步播放次数到Redis失败，歌曲数: {}", batch.size(), e);
+        }
+        return batch.size();
+    }
+
+    /**
+     * 累加计数，计数器在累加前后被刷新任务移除时，取回残留的增量重新计入
+     */
+    private void add(Long songId, long delta) {
+        while (delta > 0) {
+            LongAdder adder = pendingCounts.computeIfAbsent(songId, id -> new LongAdder());
+            adder.add(delta);
+            if (pendingCounts.get(songId) == adder) {
+                return;
+            }
+            delta = adder.sumThenReset();
+        }
+    }
+
+    private void requestEarlyFlush() {
+        if (!earlyFlushRunning.compareAndSet(false, true)) {
+            return;
+        }
+        log.info("待刷新的歌曲数达到上限，提前刷新播放次数，上限: {}", maxPendingSongs);
+        Thread.ofVirtual().name("song-play-count-flush").start(() -> {
+            try {
+                flush();
+            } finally {
+                earlyFlushRunning.set(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,455 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.unit.DataSize;
+import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.common.util.id.SnowflakeIdConverter;
+import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongSearchResultBO;
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+import top.enderliquid.audioflow.entity.Song;
+import top.enderliquid.audioflow.entity.User;
+import top.enderliquid.audioflow.manager.SongSearchIndexManager;
+import top.enderliquid.audioflow.mapper.SongMapper;
+import top.enderliquid.audioflow.mapper.UserMapper;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 基于字符二元组倒排索引的歌曲内存检索
+ * <ul>
+ *     <li>歌名与上传者名统一转为小写后切分为二元组，检索时取关键字各二元组倒排表的交集，再校验名称确实包含关键字；
+ *     单字关键字直接扫描名称</li>
+ *     <li>上传者单独建立索引，上传者名只保存一份，按上传者检索时再展开为其歌曲</li>
+ *     <li>无关键字时沿按 (create_time, id) 排序的有序集合直接分页</li>
+ *     <li>重建时在新的索引上构建后整体替换，期间的增量更新记录下来并在替换前重放</li>
+ *     <li>按条目数估算内存占用，超出 song.search.index.max-memory 时停用索引，由调用方回退到数据库查询</li>
+ * </ul>
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class SongSearchIndexManagerImpl implements SongSearchIndexManager {
+
+    private static final String METRIC_NAME = "audioflow.song.search.index";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    // 内存估算：歌曲条目（对象、HashMap 与 TreeSet 节点、装箱ID），倒排表中的一项（HashSet 节点与装箱ID），
+    // 上传者条目，以及名称中每个字符
+    private static final long SONG_ENTRY_BYTES = 200;
+    private static final long POSTING_BYTES = 48;
+    private static final long UPLOADER_ENTRY_BYTES = 160;
+    private static final long CHAR_BYTES = 2;
+
+    // 相关度：ID 精确匹配 > 名称完全一致 > 名称前缀 > 名称包含
+    private static final int SCORE_ID = 8;
+    private static final int SCORE_EXACT = 4;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_CONTAINS = 1;
+
+    private final SongMapper songMapper;
+    private final UserMapper userMapper;
+    private final SnowflakeIdConverter snowflakeIdConverter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${song.search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${song.search.index.max-memory:64MB}")
+    private String maxMemoryStr;
+
+    private long maxMemoryBytes;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // 以下字段由 lock 保护
+    @Nullable
+    private SearchIndex index;
+    // 不为 null 时表示正在重建，记录期间的增量更新
+    @Nullable
+    private List<Consumer<SearchIndex>> pendingUpdates;
+
+    private Timer rebuildSuccessTimer;
+    private Timer rebuildFailureTimer;
+    private Counter indexQueryCounter;
+    private Counter fallbackQueryCounter;
+
+    @PostConstruct
+    public void init() {
+        this.maxMemoryBytes = DataSize.parse(maxMemoryStr).toBytes();
+        this.rebuildSuccessTimer = Timer.builder(METRIC_NAME + ".rebuild")
+                .description("全量重建歌曲检索索引的耗时")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.rebuildFailureTimer = Timer.builder(METRIC_NAME + ".rebuild")
+                .description("全量重建歌曲检索索引的耗时")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        this.indexQueryCounter = Counter.builder(METRIC_NAME + ".queries")
+                .description("歌曲检索的次数")
+                .tag("source", "index")
+                .register(meterRegistry);
+        this.fallbackQueryCounter = Counter.builder(METRIC_NAME + ".queries")
+                .description("歌曲检索的次数")
+                .tag("source", "database")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".songs", this, manager -> manager.readIndex(SearchIndex::songCount, 0L))
+                .description("歌曲检索索引中的歌曲数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".memory", this, manager -> manager.readIndex(SearchIndex::estimatedBytes, 0L))
+                .description("歌曲检索索引的估算内存占用")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Nullable
+    public SongSearchResultBO search(SongPageDTO dto) {
+        lock.readLock().lock();
+        try {
+            if (index == null || index.estimatedBytes() > maxMemoryBytes) {
+                fallbackQueryCounter.increment();
+                return null;
+            }
+            indexQueryCounter.increment();
+            return index.search(
+                    normalize(dto.getUploaderKeyword()), snowflakeIdConverter.fromString(dto.getUploaderKeyword()),
+                    normalize(dto.getSongKeyword()), snowflakeIdConverter.fromString(dto.getSongKeyword()),
+                    dto.getAsc(), (dto.getPageIndex() - 1) * dto.getPageSize(), dto.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void indexSong(Song song) {
+        if (!enabled) return;
+        if (song.getStatus() != SongStatus.NORMAL) {
+            removeSong(song.getId());
+            return;
+        }
+        String uploaderName = readIndex(idx -> idx.uploaderName(song.getUploaderId()), null);
+        if (uploaderName == null) {
+            User uploader = userMapper.selectById(song.getUploaderId());
+            uploaderName = uploader == null ? null : uploader.getName();
+        }
+        String name = normalize(song.getName());
+        String uploaderNameNormalized = normalize(uploaderName);
+        update(idx -> idx.put(song.getId(), name, song.getUploaderId(), uploaderNameNormalized, song.getCreateTime()));
+    }
+
+    @Override
+    public void removeSong(Long songId) {
+        if (!enabled) return;
+        update(idx -> idx.remove(songId));
+    }
+
+    @Override
+    public boolean rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingUpdates = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        SearchIndex newIndex = null;
+        boolean overBudget = false;
+        try {
+            newIndex = buildIndex();
+            overBudget = newIndex == null;
+        } catch (RuntimeException e) {
+            // 保留旧索引继续提供检索
+            log.error("重建歌曲检索索引失败", e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (newIndex != null) {
+                    for (Consumer<SearchIndex> pendingUpdate : pendingUpdates) {
+                        pendingUpdate.accept(newIndex);
+                    }
+                    index = newIndex;
+                } else if (overBudget) {
+                    index = null;
+                }
+                pendingUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.set(false);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        boolean success = newIndex != null;
+        (success ? rebuildSuccessTimer : rebuildFailureTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (success) {
+            log.info("重建歌曲检索索引成功，歌曲数: {}, 估算内存: {}KB, 耗时: {}ms",
+                    newIndex.songCount(), newIndex.estimatedBytes() / 1024, elapsedNanos / 1_000_000);
+        }
+        return success;
+    }
+
+    /**
+     * 按ID分批读取全部 NORMAL 歌曲构建索引，超出内存预算时返回 null
+     */
+    @Nullable
+    private SearchIndex buildIndex() {
+        SearchIndex newIndex = new SearchIndex();
+        long afterId = 0;
+        while (true) {
+            List<SongBO> songs = songMapper.selectNormalSearchFieldsAfterId(afterId, REBUILD_BATCH_SIZE);
+            for (SongBO song : songs) {
+                newIndex.put(song.getId(), normalize(song.getName()), song.getUploaderId(),
+                        normalize(song.getUploaderName()), song.getCreateTime());
+            }
+            if (newIndex.estimatedBytes() > maxMemoryBytes) {
+                log.warn("歌曲检索索引超出内存预算，已停用索引并回退到数据库查询，预算: {}", maxMemoryStr);
+                return null;
+            }
+            if (songs.size() < REBUILD_BATCH_SIZE) {
+                return newIndex;
+            }
+            afterId = songs.getLast().getId();
+        }
+    }
+
+    private void update(Consumer<SearchIndex> update) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                update.accept(index);
+            }
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private <T> T readIndex(Function<SearchIndex, T> reader, T defaultValue) {
+        lock.readLock().lock();
+        try {
+            return index == null ? defaultValue : reader.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Nullable
+    private static String normalize(@Nullable String s) {
+        return s == null || s.isEmpty() ? null : s.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 两个相邻字符组成的二元组，编码为 int
+     */
+    private static int bigram(String s, int i) {
+        return (s.charAt(i) << 16) | s.charAt(i + 1);
+    }
+
+    private static int score(@Nullable String name, String keyword) {
+        if (name == null) return 0;
+        if (name.equals(keyword)) return SCORE_EXACT;
+        if (name.startsWith(keyword)) return SCORE_PREFIX;
+        return name.contains(keyword) ? SCORE_CONTAINS : 0;
+    }
+
+    private record SongEntry(long id, @Nullable String name, long uploaderId, LocalDateTime createTime) {
+    }
+
+    private static final Comparator<SongEntry> CREATE_TIME_ORDER =
+            Comparator.comparing(SongEntry::createTime).thenComparingLong(SongEntry::id);
+
+    private static class UploaderEntry {
+        @Nullable
+        private String name;
+        private final Set<Long> songIds = new HashSet<>();
+    }
+
+    /**
+     * 索引数据本身，不是线程安全的，由外层的读写锁保护
+     */
+    private static class SearchIndex {
+        private final Map<Long, SongEntry> songs = new HashMap<>();
+        private final TreeSet<SongEntry> songsByCreateTime = new TreeSet<>(CREATE_TIME_ORDER);
+        private final Map<Integer, Set<Long>> songPostings = new HashMap<>();
+        private final Map<Long, UploaderEntry> uploaders = new HashMap<>();
+        private final Map<Integer, Set<Long>> uploaderPostings = new HashMap<>();
+        private long postingCount;
+        private long charCount;
+
+        long songCount() {
+            return songs.size();
+        }
+
+        long estimatedBytes() {
+            return songs.size() * SONG_ENTRY_BYTES + uploaders.size() * UPLOADER_ENTRY_BYTES
+                    + postingCount * POSTING_BYTES + charCount * CHAR_BYTES;
+        }
+
+        @Nullable
+        String uploaderName(Long uploaderId) {
+            UploaderEntry uploader = uploaders.get(uploaderId);
+            return uploader == null ? null : uploader.name;
+        }
+
+        void put(Long songId, @Nullable String name, Long uploaderId, @Nullable String uploaderName,
+                 LocalDateTime createTime) {
+            remove(songId);
+            SongEntry entry = new SongEntry(songId, name, uploaderId, createTime);
+            songs.put(songId, entry);
+            songsByCreateTime.add(entry);
+            addPostings(songPostings, name, songId);
+            UploaderEntry uploader = uploaders.get(uploaderId);
+            if (uploader == null) {
+                uploader = new UploaderEntry();
+                uploaders.put(uploaderId, uploader);
+                uploader.name = uploaderName;
+                addPostings(uploaderPostings, uploaderName, uploaderId);
+            }
+            uploader.songIds.add(songId);
+            postingCount++;
+        }
+
+        void remove(Long songId) {
+            SongEntry entry = songs.remove(songId);
+            if (entry == null) return;
+            songsByCreateTime.remove(entry);
+            removePostings(songPostings, entry.name(), songId);
+            UploaderEntry uploader = uploaders.get(entry.uploaderId());
+            if (uploader != null) {
+                uploader.songIds.remove(songId);
+                postingCount--;
+                if (uploader.songIds.isEmpty()) {
+                    uploaders.remove(entry.uploaderId());
+                    removePostings(uploaderPostings, uploader.name, entry.uploaderId());
+                }
+            }
+        }
+
+        SongSearchResultBO search(@Nullable String uploaderKeyword, @Nullable Long uploaderId,
+                                  @Nullable String songKeyword, @Nullable Long songId,
+                                  boolean asc, long offset, long limit) {
+            if (uploaderKeyword == null && songKeyword == null) {
+                List<Long> page = new ArrayList<>();
+                Iterator<SongEntry> iterator = asc ? songsByCreateTime.iterator() : songsByCreateTime.descendingIterator();
+                long skipped = 0;
+                while (iterator.hasNext() && page.size() < limit) {
+                    SongEntry entry = iterator.next();
+                    if (skipped++ >= offset) page.add(entry.id());
+                }
+                return new SongSearchResultBO(page, songs.size());
+            }
+
+            Map<Long, Integer> scores = null;
+            if (songKeyword != null) {
+                scores = new HashMap<>();
+                for (Long id : match(songPostings, songKeyword, songs.keySet(), id -> songs.get(id).name())) {
+                    scores.put(id, score(songs.get(id).name(), songKeyword));
+                }
+                if (songId != null && songs.containsKey(songId)) {
+                    scores.merge(songId, SCORE_ID, Integer::sum);
+                }
+            }
+            if (uploaderKeyword != null) {
+                Map<Long, Integer> uploaderScores = new HashMap<>();
+                for (Long id : match(uploaderPostings, uploaderKeyword, uploaders.keySet(), id -> uploaders.get(id).name)) {
+                    uploaderScores.put(id, score(uploaders.get(id).name, uploaderKeyword));
+                }
+                if (uploaderId != null && uploaders.containsKey(uploaderId)) {
+                    uploaderScores.merge(uploaderId, SCORE_ID, Integer::sum);
+                }
+                Map<Long, Integer> merged = new HashMap<>();
+                for (Map.Entry<Long, Integer> uploaderScore : uploaderScores.entrySet()) {
+                    for (Long id : uploaders.get(uploaderScore.getKey()).songIds) {
+                        if (scores == null) {
+                            merged.put(id, uploaderScore.getValue());
+                        } else if (scores.containsKey(id)) {
+                            merged.put(id, scores.get(id) + uploaderScore.getValue());
+                        }
+                    }
+                }
+                scores = merged;
+            }
+
+            Comparator<SongEntry> timeOrder = asc ? CREATE_TIME_ORDER : CREATE_TIME_ORDER.reversed();
+            Map<Long, Integer> finalScores = scores;
+            List<Long> page = scores.keySet().stream()
+                    .map(songs::get)
+                    .sorted(Comparator.comparingInt((SongEntry entry) -> finalScores.get(entry.id())).reversed()
+                            .thenComparing(timeOrder))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(SongEntry::id)
+                    .toList();
+            return new SongSearchResultBO(page, scores.size());
+        }
+
+        /**
+         * 名称包含关键字的条目，二元组倒排表求交集后逐一校验
+         */
+        private static Set<Long> match(Map<Integer, Set<Long>> postings, String keyword, Set<Long> allIds,
+                                       Function<Long, String> nameOf) {
+            Collection<Long> candidates;
+            if (keyword.length() < 2) {
+                candidates = allIds;
+            } else {
+                List<Set<Long>> lists = new ArrayList<>(keyword.length() - 1);
+                for (int i = 0; i + 1 < keyword.length(); i++) {
+                    Set<Long> list = postings.get(bigram(keyword, i));
+                    if (list == null) return Set.of();
+                    lists.add(list);
+                }
+                lists.sort(Comparator.comparingInt(Set::size));
+                candidates = lists.getFirst();
+            }
+            Set<Long> result = new HashSet<>();
+            for (Long id : candidates) {
+                String name = nameOf.apply(id);
+                if (name != null && name.contains(keyword)) result.add(id);
+            }
+            return result;
+        }
+
+        private void addPostings(Map<Integer, Set<Long>> postings, @Nullable String name, Long id) {
+            if (name == null) return;
+            charCount += name.length();
+            for (int i = 0; i + 1 < name.length(); i++) {
+                if (postings.computeIfAbsent(bigram(name, i), k -> new HashSet<>()).add(id)) {
+                    postingCount++;
+                }
+            }
+        }
+
+        private void removePostings(Map<Integer, Set<Long>> postings, @Nullable String name, Long id) {
+            if (name == null) return;
+            charCount -= name.length();
+            for (int i = 0; i + 1 < name.length(); i++) {
+                int gram = bigram(name, i);
+                Set<Long> list = postings.get(gram);
+                if (list != null && list.remove(id)) {
+                    postingCount--;
+                    if (list.isEmpty()) postings.remove(gram);
+                }
+            }
+        }
+    }
+}
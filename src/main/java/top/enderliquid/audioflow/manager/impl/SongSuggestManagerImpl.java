@@ -0,0 +1,371 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import top.enderliquid.audioflow.common.enums.SuggestionType;
+import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongSuggestionBO;
+import top.enderliquid.audioflow.entity.SongPlayCount;
+import top.enderliquid.audioflow.manager.SongSuggestManager;
+import top.enderliquid.audioflow.mapper.SongMapper;
+import top.enderliquid.audioflow.mapper.SongPlayCountMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 基于有序词项数组的歌曲搜索建议
+ * <ul>
+ *     <li>歌名与上传者名分别去重，小写后的 UTF-8 字节作为键按无符号字节序排序，拼接存放在一个字节数组中；
+ *     前缀相同的键在数组中连续，两次二分查找即可定位匹配区间</li>
+ *     <li>词项权重为同名歌曲（或上传者全部歌曲）的播放次数之和，在权重上建立按下标取最大值的线段树，
+ *     从匹配区间中依次取出权重最大的词项并拆分区间，取前 k 个的代价与区间长度无关</li>
+ *     <li>索引构建后不再修改，重建时在新索引上构建完成后替换引用，查询无需加锁</li>
+ *     <li>内存占用按各数组的实际长度计算，超出 song.suggest.max-memory 时只保留权重最高的词项</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SongSuggestManagerImpl implements SongSuggestManager {
+
+    private static final String METRIC_NAME = "audioflow.song.suggest";
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    // 每个词项除键与文本外的固定占用：两个偏移量、权重、类型与两个线段树节点
+    private static final long TERM_FIXED_BYTES = 4 + 4 + 8 + 1 + 8;
+
+    private final SongMapper songMapper;
+    private final SongPlayCountMapper songPlayCountMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${song.suggest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${song.suggest.max-memory:32MB}")
+    private String maxMemoryStr;
+
+    private long maxMemoryBytes;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    @Nullable
+    private volatile SuggestIndex index;
+
+    private Timer rebuildSuccessTimer;
+    private Timer rebuildFailureTimer;
+    private Timer queryTimer;
+
+    @PostConstruct
+    public void init() {
+        this.maxMemoryBytes = DataSize.parse(maxMemoryStr).toBytes();
+        this.rebuildSuccessTimer = Timer.builder(METRIC_NAME + ".rebuild")
+                .description("全量重建搜索建议索引的耗时")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.rebuildFailureTimer = Timer.builder(METRIC_NAME + ".rebuild")
+                .description("全量重建搜索建议索引的耗时")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder(METRIC_NAME + ".query")
+                .description("查询搜索建议的耗时")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".terms", this, manager -> termCount(manager.index))
+                .description("搜索建议索引中的词项数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_NAME + ".memory", this, manager -> memoryBytes(manager.index))
+                .description("搜索建议索引的内存占用")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<SongSuggestionBO> suggest(String prefix, int limit) {
+        SuggestIndex current = index;
+        if (current == null || prefix.isBlank()) {
+            return new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        byte[] key = prefix.strip().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        List<SongSuggestionBO> suggestions = current.topByPrefix(key, limit);
+        queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return suggestions;
+    }
+
+    @Override
+    public boolean rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        SuggestIndex newIndex = null;
+        try {
+            newIndex = buildIndex();
+            index = newIndex;
+        } catch (RuntimeException e) {
+            // 保留旧索引继续提供建议
+            log.error("重建搜索建议索引失败", e);
+        } finally {
+            rebuilding.set(false);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        boolean success = newIndex != null;
+        (success ? rebuildSuccessTimer : rebuildFailureTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (success) {
+            log.info("重建搜索建议索引成功，词项数: {}, 内存: {}KB, 耗时: {}ms",
+                    newIndex.termCount(), newIndex.memoryBytes() / 1024, elapsedNanos / 1_000_000);
+        }
+        return success;
+    }
+
+    /**
+     * 按ID分批读取全部 NORMAL 歌曲及其播放次数，合并同名词项后构建索引
+     */
+    private SuggestIndex buildIndex() {
+        Map<String, Term> songTerms = new HashMap<>();
+        Map<Long, Term> uploaderTermsById = new HashMap<>();
+        long afterId = 0;
+        while (true) {
+            List<SongBO> songs = songMapper.selectNormalSearchFieldsAfterId(afterId, REBUILD_BATCH_SIZE);
+            if (songs.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> playCounts = new HashMap<>();
+            for (SongPlayCount playCount : songPlayCountMapper.selectByIds(songs.stream().map(SongBO::getId).toList())) {
+                playCounts.put(playCount.getSongId(), playCount.getPlayCount());
+            }
+            for (SongBO song : songs) {
+                long playCount = playCounts.getOrDefault(song.getId(), 0L);
+                addTerm(songTerms, song.getName(), SuggestionType.SONG, playCount);
+                if (song.getUploaderName() != null && !song.getUploaderName().isEmpty()) {
+                    uploaderTermsById.computeIfAbsent(song.getUploaderId(),
+                            id -> new Term(song.getUploaderName(), SuggestionType.UPLOADER)).weight += playCount;
+                }
+            }
+            if (songs.size() < REBUILD_BATCH_SIZE) {
+                break;
+            }
+            afterId = songs.getLast().getId();
+        }
+        // 同名的不同上传者合并为一个建议
+        Map<String, Term> uploaderTerms = new HashMap<>();
+        for (Term uploader : uploaderTermsById.values()) {
+            addTerm(uploaderTerms, uploader.text, SuggestionType.UPLOADER, uploader.weight);
+        }
+        List<Term> terms = new ArrayList<>(songTerms.size() + uploaderTerms.size());
+        terms.addAll(songTerms.values());
+        terms.addAll(uploaderTerms.values());
+        return new SuggestIndex(fitToBudget(terms));
+    }
+
+    /**
+     * 估算占用超出内存预算时按权重从高到低保留词项
+     */
+    private List<Term> fitToBudget(List<Term> terms) {
+        long totalBytes = 0;
+        for (Term term : terms) {
+            totalBytes += term.bytes();
+        }
+        if (totalBytes <= maxMemoryBytes) {
+            return terms;
+        }
+        terms.sort(Comparator.comparingLong((Term term) -> term.weight).reversed());
+        List<Term> kept = new ArrayList<>();
+        long keptBytes = 0;
+        for (Term term : terms) {
+            if (keptBytes + term.bytes() > maxMemoryBytes) {
+                break;
+            }
+            kept.add(term);
+            keptBytes += term.bytes();
+        }
+        log.warn("搜索建议索引超出内存预算，只保留播放次数最高的词项，预算: {}, 保留: {}/{}",
+                maxMemoryStr, kept.size(), terms.size());
+        return kept;
+    }
+
+    private static void addTerm(Map<String, Term> terms, @Nullable String text, SuggestionType type, long weight) {
+        if (text == null || text.isEmpty()) return;
+        Term term = terms.computeIfAbsent(text.toLowerCase(Locale.ROOT), k -> new Term(text, type));
+        term.weight += weight;
+    }
+
+    private static long termCount(@Nullable SuggestIndex index) {
+        return index == null ? 0 : index.termCount();
+    }
+
+    private static long memoryBytes(@Nullable SuggestIndex index) {
+        return index == null ? 0 : index.memoryBytes();
+    }
+
+    /**
+     * 构建阶段的词项，文本取首次出现时的原始大小写
+     */
+    private static class Term {
+        private final String text;
+        private final SuggestionType type;
+        private final byte[] key;
+        private long weight;
+
+        Term(String text, SuggestionType type) {
+            this.text = text;
+            this.type = type;
+            this.key = text.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        }
+
+        long bytes() {
+            return key.length + (long) text.getBytes(StandardCharsets.UTF_8).length + TERM_FIXED_BYTES;
+        }
+    }
+
+    /**
+     * 不可变的索引数据，可被多个线程同时读取
+     */
+    private static class SuggestIndex {
+        private static final SuggestionType[] TYPES = SuggestionType.values();
+
+        // 第 i 个词项的键为 keys[keyOffsets[i], keyOffsets[i + 1])，文本同理
+        private final byte[] keys;
+        private final int[] keyOffsets;
+        private final byte[] texts;
+        private final int[] textOffsets;
+        private final long[] weights;
+        private final byte[] types;
+        // 线段树，叶子位于 [n, 2n)，内部节点保存子树中权重最大（相同时下标最小）的词项下标
+        private final int[] maxTree;
+        private final int size;
+
+        SuggestIndex(List<Term> terms) {
+            terms.sort((a, b) -> {
+                int result = Arrays.compareUnsigned(a.key, b.key);
+                return result != 0 ? result : a.type.compareTo(b.type);
+            });
+            size = terms.size();
+            keyOffsets = new int[size + 1];
+            textOffsets = new int[size + 1];
+            weights = new long[size];
+            types = new byte[size];
+            int keyLength = 0;
+            int textLength = 0;
+            List<byte[]> textBytes = new ArrayList<>(size);
+            for (Term term : terms) {
+                byte[] text = term.text.getBytes(StandardCharsets.UTF_8);
+                textBytes.add(text);
+                keyLength += term.key.length;
+                textLength += text.length;
+            }
+            keys = new byte[keyLength];
+            texts = new byte[textLength];
+            for (int i = 0; i < size; i++) {
+                Term term = terms.get(i);
+                byte[] text = textBytes.get(i);
+                System.arraycopy(term.key, 0, keys, keyOffsets[i], term.key.length);
+                System.arraycopy(text, 0, texts, textOffsets[i], text.length);
+                keyOffsets[i + 1] = keyOffsets[i] + term.key.length;
+                textOffsets[i + 1] = textOffsets[i] + text.length;
+                weights[i] = term.weight;
+                types[i] = (byte) term.type.ordinal();
+            }
+            maxTree = new int[2 * size];
+            for (int i = 0; i < size; i++) {
+                maxTree[size + i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                maxTree[i] = better(maxTree[2 * i], maxTree[2 * i + 1]);
+            }
+        }
+
+        long termCount() {
+            return size;
+        }
+
+        long memoryBytes() {
+            return keys.length + texts.length + 4L * (keyOffsets.length + textOffsets.length)
+                    + 8L * weights.length + types.length + 4L * maxTree.length;
+        }
+
+        List<SongSuggestionBO> topByPrefix(byte[] prefix, int limit) {
+            List<SongSuggestionBO> result = new ArrayList<>();
+            int from = firstIndex(prefix, false);
+            int to = firstIndex(prefix, true);
+            if (from >= to) {
+                return result;
+            }
+            // 每个候选区间以其中权重最大的词项排序，取出后把区间拆为左右两部分
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> weights[a[2]] != weights[b[2]]
+                    ? Long.compare(weights[b[2]], weights[a[2]]) : Integer.compare(a[2], b[2]));
+            ranges.add(new int[]{from, to, argMax(from, to)});
+            while (!ranges.isEmpty() && result.size() < limit) {
+                int[] range = ranges.poll();
+                int best = range[2];
+                result.add(new SongSuggestionBO(
+                        new String(texts, textOffsets[best], textOffsets[best + 1] - textOffsets[best], StandardCharsets.UTF_8),
+                        TYPES[types[best]], weights[best]));
+                if (range[0] < best) {
+                    ranges.add(new int[]{range[0], best, argMax(range[0], best)});
+                }
+                if (best + 1 < range[1]) {
+                    ranges.add(new int[]{best + 1, range[1], argMax(best + 1, range[1])});
+                }
+            }
+            return result;
+        }
+
+        /**
+         * 二分查找第一个键不小于前缀（afterPrefix 为 true 时为第一个大于所有以该前缀开头的键）的词项
+         */
+        private int firstIndex(byte[] prefix, boolean afterPrefix) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = comparePrefix(mid, prefix);
+                if (cmp < 0 || (afterPrefix && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 比较词项键与前缀，键以前缀开头时返回 0
+         */
+        private int comparePrefix(int i, byte[] prefix) {
+            int start = keyOffsets[i];
+            int length = keyOffsets[i + 1] - start;
+            int cmp = Arrays.compareUnsigned(keys, start, start + Math.min(length, prefix.length),
+                    prefix, 0, Math.min(length, prefix.length));
+            if (cmp != 0) return cmp;
+            return length < prefix.length ? -1 : 0;
+        }
+
+        /**
+         * 区间 [from, to) 中权重最大的词项下标
+         */
+        private int argMax(int from, int to) {
+            int best = from;
+            for (int l = from + size, r = to + size; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) best = better(best, maxTree[l++]);
+                if ((r & 1) == 1) best = better(best, maxTree[--r]);
+            }
+            return best;
+        }
+
+        private int better(int a, int b) {
+            if (weights[a] != weights[b]) {
+                return weights[a] > weights[b] ? a : b;
+            }
+            return Math.min(a, b);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import top.enderliquid.audioflow.common.enums.TrendingWindow;
+import top.enderliquid.audioflow.manager.TrendingManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 热门歌曲排行管理器实现
+ * 播放次数刷新时把聚合后的增量按10分钟分桶写入有序集合，键格式: song_trending:bucket:{桶序号}（桶序号为 epoch 分钟数 / 10），
+ * 每次刷新只发送一次管道请求，播放请求本身不访问 Redis。桶在最长窗口结束后自动过期。
+ * 刷新时对每个窗口使用 ZUNIONSTORE 合并窗口内的所有桶，桶的权重为 0.5^(桶年龄 / 半衰期)，
+ * 只保留前 ranking-size 名后原子替换排行键 song_trending:rank:{窗口}。
+ * 多个节点同时刷新时结果相同，后写入的覆盖先写入的。
+ */
+@Slf4j
+@Component
+public class TrendingManagerImpl implements TrendingManager {
+
+    private static final String BUCKET_KEY_PREFIX = "song_trending:bucket:";
+    private static final String RANK_KEY_PREFIX = "song_trending:rank:";
+    private static final long BUCKET_MINUTES = 10;
+    private static final long BUCKET_EXPIRE_SECONDS = (TrendingWindow.WEEK.getBucketCount() + 1) * BUCKET_MINUTES * 60;
+    // 刷新任务停止后排行自动过期，不再返回过时的结果
+    private static final Duration RANK_EXPIRE_DURATION = Duration.ofDays(1);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Clock clock;
+
+    @Value("${song.trending.enabled:true}")
+    private boolean enabled;
+    @Value("${song.trending.ranking-size:200}")
+    private int rankingSize;
+
+    @Autowired
+    public TrendingManagerImpl(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, Clock.systemUTC());
+    }
+
+    TrendingManagerImpl(StringRedisTemplate redisTemplate, Clock clock) {
+        this.redisTemplate = redisTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void addPlays(Map<Long, Long> playCounts) {
+        if (!enabled || playCounts.isEmpty()) {
+            return;
+        }
+        String key = BUCKET_KEY_PREFIX + currentBucket();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Map.Entry<Long, Long> entry : playCounts.entrySet()) {
+                    stringConnection.zIncrBy(key, entry.getValue(), String.valueOf(entry.getKey()));
+                }
+                stringConnection.expire(key, BUCKET_EXPIRE_SECONDS);
+                return null;
+            });
+        } catch (Exception e) {
+            // 热度只影响排行，写入失败时不重试
+            log.warn("写入热门歌曲播放次数失败，歌曲数: {}", playCounts.size(), e);
+        }
+    }
+
+    @Override
+    public void refreshRankings() {
+        if (!enabled) {
+            return;
+        }
+        double nowMinutes = clock.millis() / 60_000.0;
+        long currentBucket = currentBucket();
+        for (TrendingWindow window : TrendingWindow.values()) {
+            try {
+                refreshRanking(window, nowMinutes, currentBucket);
+            } catch (Exception e) {
+                log.error("刷新热门歌曲排行失败，窗口: {}", window, e);
+            }
+        }
+    }
+
+    @Override
+    public List<Long> listTopSongIds(TrendingWindow window, int limit) {
+        Set<String> members;
+        try {
+            members = redisTemplate.opsForZSet().reverseRange(RANK_KEY_PREFIX + window.name(), 0, limit - 1);
+        } catch (Exception e) {
+            log.warn("读取热门歌曲排行失败，窗口: {}", window, e);
+            return new ArrayList<>();
+        }
+        List<Long> songIds = new ArrayList<>();
+        if (members == null) {
+            return songIds;
+        }
+        for (String member : members) {
+            try {
+                songIds.add(Long.parseLong(member));
+            } catch (NumberFormatException e) {
+                log.warn("热门歌曲排行成员格式异常，成员: {}", member);
+            }
+        }
+        return songIds;
+    }
+
+    private void refreshRanking(TrendingWindow window, double nowMinutes, long currentBucket) {
+        int bucketCount = window.getBucketCount();
+        List<String> otherKeys = new ArrayList<>(bucketCount - 1);
+        double[] weights = new double[bucketCount];
+        for (int age = 0; age < bucketCount; age++) {
+            long bucket = currentBucket - age;
+            if (age > 0) {
+                otherKeys.add(BUCKET_KEY_PREFIX + bucket);
+            }
+            double ageMinutes = nowMinutes - bucket * BUCKET_MINUTES;
+            weights[age] = Math.pow(0.5, ageMinutes / window.getHalfLifeMinutes());
+        }
+        String rankKey = RANK_KEY_PREFIX + window.name();
+        // 先写入临时键，裁剪后再替换，读取方不会看到未完成的排行
+        String tempKey = rankKey + ":tmp:" + UUID.randomUUID();
+        Long size = redisTemplate.opsForZSet().unionAndStore(BUCKET_KEY_PREFIX + currentBucket, otherKeys, tempKey,
+                Aggregate.SUM, Weights.of(weights));
+        if (size == null || size == 0) {
+            redisTemplate.delete(rankKey);
+            return;
+        }
+        redisTemplate.expire(tempKey, RANK_EXPIRE_DURATION);
+        if (size > rankingSize) {
+            redisTemplate.opsForZSet().removeRange(tempKey, 0, size - rankingSize - 1);
+        }
+        redisTemplate.rename(tempKey, rankKey);
+        log.debug("刷新热门歌曲排行成功，窗口: {}, 歌曲数: {}", window, Math.min(size, rankingSize));
+    }
+
+    private long currentBucket() {
+        return clock.millis() / 60_000 / BUCKET_MINUTES;
+    }
+}
@@ -1,6 +1,7 @@
 package top.enderliquid.audioflow.manager.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
@@ -11,6 +12,9 @@ import top.enderliquid.audioflow.manager.UserManager;
 import top.enderliquid.audioflow.mapper.PointsRecordMapper;
 import top.enderliquid.audioflow.mapper.UserMapper;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Repository
 @RequiredArgsConstructor
 public class UserManagerImpl extends ServiceImpl<UserMapper, User> implements UserManager {
@@ -40,16 +44,16 @@ public class UserManagerImpl extends ServiceImpl<UserMapper, User> implements Us
 
     /*
      * 原子更新积分
+     * 更新后的余额由 UPDATE 通过 LAST_INSERT_ID() 带出，不再读取用户行
      * 注意: User 对象需要手动更新
      */
     @Override
     public int addPoints(Long userId, int delta, PointsType type, Long refId) {
-        int affected = userMapper.addPoints(userId, delta);
+        int affected = userMapper.addPointsCapturingBalance(userId, delta);
         if (affected <= 0) {
             return -1;
         }
-        User user = userMapper.selectById(userId);
-        int balance = user.getPoints();
+        int balance = userMapper.selectLastInsertId();
         PointsRecord record = new PointsRecord();
         record.setUserId(userId);
         record.setDelta(delta);
@@ -60,6 +64,38 @@ public class UserManagerImpl extends ServiceImpl<UserMapper, User> implements Us
         return balance;
     }
 
+    /*
+     * 一条条件 UPDATE 完成总额变更，流水使用多行 INSERT 写入
+     * 每条流水的余额按顺序依次计算，与逐条调用 addPoints 的结果一致
+     */
+    @Override
+    public int addPointsForEach(Long userId, int deltaPerRef, PointsType type, List<Long> refIds) {
+        int count = refIds.size();
+        if (count == 0) {
+            User user = userMapper.selectById(userId);
+            return user == null ? -1 : user.getPoints();
+        }
+        int affected = userMapper.addPoints(userId, deltaPerRef * count);
+        if (affected <= 0) {
+            return -1;
+        }
+        User user = userMapper.selectById(userId);
+        int balance = user.getPoints();
+        List<PointsRecord> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PointsRecord record = new PointsRecord();
+            record.setId(IdWorker.getId());
+            record.setUserId(userId);
+            record.setDelta(deltaPerRef);
+            record.setBalance(balance - deltaPerRef * (count - 1 - i));
+            record.setType(type);
+            record.setRefId(refIds.get(i));
+            records.add(record);
+        }
+        pointsRecordMapper.insertMultiRow(records);
+        return balance;
+    }
+
     @Override
     public User getByIdForUpdate(Long id) {
         return userMapper.selectByIdForUpdate(id);
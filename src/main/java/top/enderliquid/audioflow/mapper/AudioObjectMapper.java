@@ -0,0 +1,24 @@
+package top.enderliquid.audioflow.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import top.enderliquid.audioflow.entity.AudioObject;
+
+@Mapper
+public interface AudioObjectMapper extends BaseMapper<AudioObject> {
+    @Select("SELECT * FROM audio_object WHERE sha256 = #{sha256} FOR UPDATE")
+    AudioObject selectBySha256ForUpdate(@Param("sha256") String sha256);
+
+    @Insert("INSERT INTO audio_object (id, sha256, file_name, size, duration, ref_count) " +
+            "VALUES (#{o.id}, #{o.sha256}, #{o.fileName}, #{o.size}, #{o.duration}, 1) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1")
+    int insertOrIncrementRefCount(@Param("o") AudioObject audioObject);
+
+    // 仅修改仍被引用的记录：归零的记录既不会再被引用，也不会减为负数
+    @Update("UPDATE audio_object SET ref_count = ref_count + #{delta} WHERE sha256 = #{sha256} AND ref_count > 0")
+    int addRefCount(@Param("sha256") String sha256, @Param("delta") int delta);
+}
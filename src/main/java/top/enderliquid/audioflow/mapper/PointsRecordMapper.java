@@ -1,9 +1,20 @@
 package top.enderliquid.audioflow.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import top.enderliquid.audioflow.entity.PointsRecord;
 
+import java.util.List;
+
 @Mapper
 public interface PointsRecordMapper extends BaseMapper<PointsRecord> {
-}
\ No newline at end of file
+    @Insert("<script>" +
+            "INSERT INTO points_record (id, user_id, delta, balance, type, ref_id) VALUES " +
+            "<foreach collection='records' item='r' separator=','>" +
+            "(#{r.id}, #{r.userId}, #{r.delta}, #{r.balance}, #{r.type}, #{r.refId})" +
+            "</foreach>" +
+            "</script>")
+    int insertMultiRow(@Param("records") List<PointsRecord> records);
+}
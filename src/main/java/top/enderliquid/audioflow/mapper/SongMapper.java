@@ -2,17 +2,75 @@ package top.enderliquid.audioflow.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import top.enderliquid.audioflow.common.enums.SongStatus;
 import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
 import top.enderliquid.audioflow.dto.bo.SongPageParam;
 import top.enderliquid.audioflow.entity.Song;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Mapper
 public interface SongMapper extends BaseMapper<Song> {
     IPage<SongBO> selectPageByUploaderInfoOrSongInfo(IPage<SongBO> page, @Param("param") SongPageParam param);
 
+    /**
+     * 按 (create_time, id) 顺序从位置之后读取一页检索结果，不统计总数
+     */
+    List<SongBO> selectByUploaderInfoOrSongInfoAfter(@Param("param") SongPageParam param,
+                                                     @Param("after") SongKeysetBO after,
+                                                     @Param("limit") int limit);
+
     @Select("SELECT * FROM song WHERE id = #{id} FOR UPDATE")
     Song selectByIdForUpdate(Long id);
+
+    /**
+     * 沿 idx_status_create_time 索引按 (create_time, id) 顺序读取位置之后的一批记录
+     */
+    @Select("<script>" +
+            "SELECT * FROM song WHERE status = #{status} AND create_time &lt; #{time}" +
+            "<if test='after != null'>" +
+            " AND (create_time &gt; #{after.createTime} OR (create_time = #{after.createTime} AND id &gt; #{after.id}))" +
+            "</if>" +
+            " ORDER BY create_time, id LIMIT #{limit}" +
+            "</script>")
+    List<Song> selectByStatusAndBeforeTimeAfter(@Param("status") SongStatus status,
+                                                @Param("time") LocalDateTime time,
+                                                @Param("after") SongKeysetBO after,
+                                                @Param("limit") int limit);
+
+    @Select("<script>" +
+            "SELECT * FROM song WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " FOR UPDATE" +
+            "</script>")
+    List<Song> selectByIdsForUpdate(@Param("ids") List<Long> ids);
+
+    /**
+     * 按ID顺序分批读取 NORMAL 状态歌曲的检索字段，用于重建内存索引
+     */
+    @Select("SELECT s.id, s.name, s.uploader_id, u.name AS uploaderName, s.create_time FROM song s " +
+            "LEFT JOIN user u ON s.uploader_id = u.id " +
+            "WHERE s.status = 'NORMAL' AND s.id > #{afterId} ORDER BY s.id LIMIT #{limit}")
+    List<SongBO> selectNormalSearchFieldsAfterId(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Select("<script>" +
+            "SELECT s.*, u.name AS uploaderName FROM song s LEFT JOIN user u ON s.uploader_id = u.id " +
+            "WHERE s.status = 'NORMAL' AND s.id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<SongBO> selectNormalBOByIds(@Param("ids") List<Long> ids);
+
+    @Insert("<script>" +
+            "INSERT INTO song (id, name, description, file_name, size, duration, uploader_id, status, sha256) VALUES " +
+            "<foreach collection='songs' item='s' separator=','>" +
+            "(#{s.id}, #{s.name}, #{s.description}, #{s.fileName}, #{s.size}, #{s.duration}, #{s.uploaderId}, #{s.status}, #{s.sha256})" +
+            "</foreach>" +
+            "</script>")
+    int insertMultiRow(@Param("songs") List<Song> songs);
 }
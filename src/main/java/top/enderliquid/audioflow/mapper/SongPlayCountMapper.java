@@ -0,0 +1,22 @@
+package top.enderliquid.audioflow.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import top.enderliquid.audioflow.entity.SongPlayCount;
+
+import java.util.List;
+
+@Mapper
+public interface SongPlayCountMapper extends BaseMapper<SongPlayCount> {
+    /**
+     * 使用单条多行 INSERT 累加播放次数，记录不存在时插入
+     */
+    @Insert("<script>" +
+            "INSERT INTO song_play_count (song_id, play_count) VALUES " +
+            "<foreach collection='counts' item='c' separator=','>(#{c.songId}, #{c.playCount})</foreach>" +
+            " ON DUPLICATE KEY UPDATE play_count = play_count + VALUES(play_count)" +
+            "</script>")
+    int upsertAddMultiRow(@Param("counts") List<SongPlayCount> counts);
+}
@@ -2,6 +2,7 @@ package top.enderliquid.audioflow.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
@@ -12,6 +13,18 @@ public interface UserMapper extends BaseMapper<User> {
     @Update("UPDATE user SET points = points + #{delta} WHERE id = #{userId} AND points + #{delta} >= 0")
     int addPoints(@Param("userId") Long userId, @Param("delta") int delta);
 
+    /**
+     * 条件更新积分，同时将更新后的余额记入当前连接的 LAST_INSERT_ID()，
+     * 之后通过 {@link #selectLastInsertId()} 读取余额，无需再次读取用户行
+     */
+    @Update("UPDATE user SET points = LAST_INSERT_ID(points + #{delta}) WHERE id = #{userId} AND points + #{delta} >= 0")
+    int addPointsCapturingBalance(@Param("userId") Long userId, @Param("delta") int delta);
+
+    // 清空一级缓存，同一事务内多次调用时不能读到上一次的结果
+    @Select("SELECT LAST_INSERT_ID()")
+    @Options(useCache = false, flushCache = Options.FlushCachePolicy.TRUE)
+    int selectLastInsertId();
+
     @Select("SELECT * FROM user WHERE id = #{id} FOR UPDATE")
     User selectByIdForUpdate(Long id);
 }
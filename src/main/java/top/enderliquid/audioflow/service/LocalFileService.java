@@ -0,0 +1,43 @@
+package top.enderliquid.audioflow.service;
+
+import org.springframework.lang.Nullable;
+import top.enderliquid.audioflow.common.enums.LocalUploadResult;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.dto.bo.LocalFileBO;
+import top.enderliquid.audioflow.dto.request.localfile.LocalFileAccessDTO;
+
+import java.io.InputStream;
+
+/**
+ * 本地文件系统存储的签名 URL 访问
+ * 签名校验失败等情况以返回值表示，由Controller层转换为对应的 HTTP 状态码
+ */
+public interface LocalFileService {
+    /**
+     * 通过签名 URL 上传文件或分片
+     *
+     * @param contentType   请求的 Content-Type，单次上传时参与签名校验
+     * @param contentLength 请求的 Content-Length，未知时为 -1
+     */
+    LocalUploadResult uploadFile(String fileName, LocalFileAccessDTO dto, @Nullable String contentType,
+                                 long contentLength, InputStream inputStream);
+
+    /**
+     * 校验下载签名
+     *
+     * @return 是否允许下载
+     */
+    boolean verifyDownload(String fileName, LocalFileAccessDTO dto);
+
+    /**
+     * 获取文件信息，文件不存在时返回 null
+     */
+    @Nullable
+    LocalFileBO getFile(String fileName);
+
+    /**
+     * 打开文件的指定区间，文件不存在或读取失败时返回 null
+     */
+    @Nullable
+    FileStreamBO openFileRange(String fileName, long start, long length);
+}
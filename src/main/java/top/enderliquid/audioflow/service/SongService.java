@@ -4,13 +4,28 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.lang.Nullable;
 import org.springframework.validation.annotation.Validated;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.dto.bo.SongFileBO;
 import top.enderliquid.audioflow.dto.request.song.*;
 import top.enderliquid.audioflow.dto.response.song.*;
 
+import java.util.function.Consumer;
+
 @Validated
 public interface SongService {
     SongPageVO pageSongsByUploaderKeywordAndSongKeyword(@Valid SongPageDTO dto);
 
+    /**
+     * 分页查询歌曲并返回序列化后的完整响应体，供匿名请求使用
+     * 相同条件的结果短时缓存，并发的相同查询只访问一次数据库
+     */
+    byte[] pageSongsAsJson(@Valid SongPageDTO dto);
+
+    /**
+     * 游标分页查询歌曲，按 (创建时间, ID) 排序，不统计总数
+     */
+    SongCursorPageVO pageSongsByCursor(@Valid SongCursorPageDTO dto);
+
     void removeSong(@NotNull(message = "歌曲Id不能为空") Long songId, @NotNull(message = "用户Id不能为空") Long userId);
 
     SongVO getSong(@NotNull(message = "歌曲Id不能为空") Long songId);
@@ -18,12 +33,50 @@ public interface SongService {
     @Nullable
     String getSongUrl(@NotNull(message = "歌曲Id不能为空") Long songId);
 
+    /**
+     * 获取可播放的歌曲文件信息，歌曲不存在或不可播放时返回 null
+     */
+    @Nullable
+    SongFileBO getSongFile(@NotNull(message = "歌曲Id不能为空") Long songId);
+
+    /**
+     * 打开歌曲文件的指定区间用于流式传输，同时传输的区间数受限
+     * 关闭返回的数据源时释放并发许可
+     *
+     * @return 区间数据源，文件读取失败时返回 null
+     * @throws top.enderliquid.audioflow.common.exception.RateLimitException 同时传输的区间数已达上限
+     */
+    @Nullable
+    FileStreamBO openSongFileRange(SongFileBO songFile, long start, long length);
+
     SongVO updateSong(@Valid SongUpdateDTO dto, @NotNull(message = "歌曲Id不能为空") Long songId, @NotNull(message = "用户Id不能为空") Long userId);
 
     SongPrepareUploadVO prepareUpload(@Valid SongPrepareUploadDTO dto, @NotNull(message = "用户Id不能为空") Long userId);
 
+    /**
+     * 完成上传
+     * 开启异步完成时仅将歌曲置为PROCESSING并提交后台校验，返回的歌曲状态为PROCESSING
+     */
     SongVO completeUpload(@Valid SongCompleteUploadDTO dto, @NotNull(message = "用户Id不能为空") Long userId);
 
+    SongProcessingVO getProcessingStatus(@NotNull(message = "歌曲Id不能为空") Long songId, @NotNull(message = "用户Id不能为空") Long userId);
+
+    /**
+     * 订阅本节点上的歌曲处理结果，处理完成时回调一次
+     * 订阅时已处理完成则立即回调
+     *
+     * @return 取消订阅的回调
+     */
+    Runnable subscribeProcessingResult(@NotNull(message = "歌曲Id不能为空") Long songId, @NotNull(message = "用户Id不能为空") Long userId, Consumer<SongProcessingVO> listener);
+
+    /**
+     * 重新提交长时间处于PROCESSING状态的歌曲
+     * 定时任务调用，用于恢复重启或队列已满时未被处理的歌曲，关闭异步完成后仍会处理遗留的歌曲
+     *
+     * @return 重新提交的歌曲数量
+     */
+    int resumeProcessingUploads();
+
     SongBatchPrepareUploadVO batchPrepareUpload(@Valid SongBatchPrepareDTO dto, @NotNull(message = "用户Id不能为空") Long userId);
 
     SongBatchCompleteUploadVO batchCompleteUpload(@Valid SongBatchCompleteDTO dto, @NotNull(message = "用户Id不能为空") Long userId);
@@ -41,4 +94,44 @@ public interface SongService {
      * @return 清理的记录条数
      */
     int cleanupExpiredUploads();
+
+    /**
+     * 从数据库全量重建歌曲检索的内存索引
+     * 定时任务调用，同时修正其他节点的变更造成的差异
+     *
+     * @return 是否重建成功，未启用索引或正在重建时返回 false
+     */
+    boolean rebuildSearchIndex();
+
+    /**
+     * 将内存中聚合的播放次数写入数据库与 Redis
+     * 定时任务调用
+     *
+     * @return 写入的歌曲数
+     */
+    int flushPlayCounts();
+
+    /**
+     * 获取时间窗口内的热门歌曲
+     */
+    SongTrendingVO getTrendingSongs(@Valid SongTrendingDTO dto);
+
+    /**
+     * 重新计算热门歌曲排行
+     * 定时任务调用
+     */
+    void refreshTrendingRankings();
+
+    /**
+     * 按名称前缀获取歌名与上传者名的搜索建议，按播放次数排序
+     */
+    SongSuggestVO suggestSongs(@Valid SongSuggestDTO dto);
+
+    /**
+     * 全量重建搜索建议索引
+     * 定时任务调用，期间的新歌曲与播放次数在下次重建后生效
+     *
+     * @return 是否重建成功，未启用或正在重建时返回 false
+     */
+    boolean rebuildSuggestIndex();
 }
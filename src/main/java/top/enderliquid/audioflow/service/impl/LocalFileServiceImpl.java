@@ -0,0 +1,110 @@
+package top.enderliquid.audioflow.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import top.enderliquid.audioflow.common.enums.LocalUploadResult;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.dto.bo.LocalFileBO;
+import top.enderliquid.audioflow.dto.request.localfile.LocalFileAccessDTO;
+import top.enderliquid.audioflow.manager.LocalOSSManager;
+import top.enderliquid.audioflow.service.LocalFileService;
+
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "local")
+public class LocalFileServiceImpl implements LocalFileService {
+
+    private final LocalOSSManager localOSSManager;
+
+    @Value("${file.storage.max-file-size:20MB}")
+    private String maxFileSizeStr;
+
+    private long maxFileSizeBytes;
+
+    @PostConstruct
+    public void init() {
+        this.maxFileSizeBytes = DataSize.parse(maxFileSizeStr).toBytes();
+    }
+
+    @Override
+    public LocalUploadResult uploadFile(String fileName, LocalFileAccessDTO dto, @Nullable String contentType,
+                                        long contentLength, InputStream inputStream) {
+        log.info("请求上传本地文件，文件名: {}", fileName);
+        boolean isPart = dto.getUploadId() != null || dto.getPartNumber() != null;
+        if (isPart && (dto.getUploadId() == null || dto.getPartNumber() == null)) {
+            log.info("上传本地文件失败，分片参数不完整，文件名: {}", fileName);
+            return LocalUploadResult.FORBIDDEN;
+        }
+        // 分片上传的 URL 不限定 Content-Type，与 S3 的预签名分片 URL 一致
+        if (!verify("PUT", fileName, dto, isPart ? null : contentType)) {
+            log.info("上传本地文件失败，签名无效或已过期，文件名: {}", fileName);
+            return LocalUploadResult.FORBIDDEN;
+        }
+        if (contentLength > maxFileSizeBytes) {
+            log.info("上传本地文件失败，文件超过大小上限，文件名: {}, 大小: {}", fileName, contentLength);
+            return LocalUploadResult.TOO_LARGE;
+        }
+        boolean written;
+        try {
+            written = isPart
+                    ? localOSSManager.writePart(fileName, dto.getUploadId(), dto.getPartNumber(), inputStream, maxFileSizeBytes)
+                    : localOSSManager.writeFile(fileName, inputStream, maxFileSizeBytes);
+        } catch (FileAlreadyExistsException e) {
+            // 签名 URL 在有效期内可重复使用，已完成校验的文件不能被再次覆盖
+            log.info("上传本地文件失败，文件已存在，文件名: {}", fileName);
+            return LocalUploadResult.EXISTS;
+        }
+        if (!written) {
+            log.info("上传本地文件失败，写入失败，文件名: {}", fileName);
+            return LocalUploadResult.FAILED;
+        }
+        log.info("上传本地文件成功，文件名: {}", fileName);
+        return LocalUploadResult.SUCCESS;
+    }
+
+    @Override
+    public boolean verifyDownload(String fileName, LocalFileAccessDTO dto) {
+        if (dto.getUploadId() != null || dto.getPartNumber() != null) {
+            return false;
+        }
+        return verify("GET", fileName, dto, null);
+    }
+
+    @Override
+    @Nullable
+    public LocalFileBO getFile(String fileName) {
+        LocalFileBO file = localOSSManager.getFileInfo(fileName);
+        if (file == null) {
+            return null;
+        }
+        file.setMimeType(MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        file.setETag("\"" + Long.toHexString(file.getLastModified()) + "-" + Long.toHexString(file.getSize()) + "\"");
+        return file;
+    }
+
+    @Override
+    @Nullable
+    public FileStreamBO openFileRange(String fileName, long start, long length) {
+        return localOSSManager.openFileRange(fileName, start, length);
+    }
+
+    private boolean verify(String method, String fileName, LocalFileAccessDTO dto, @Nullable String contentType) {
+        if (dto.getExpires() == null || dto.getSignature() == null) {
+            return false;
+        }
+        return localOSSManager.verifySignature(method, fileName, dto.getExpires(), dto.getUploadId(),
+                dto.getPartNumber(), contentType, dto.getSignature());
+    }
+}
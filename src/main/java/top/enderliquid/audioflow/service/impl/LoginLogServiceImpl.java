@@ -58,6 +58,7 @@ public class LoginLogServiceImpl implements LoginLogService {
         pageResult.setPageIndex(page.getCurrent());
         pageResult.setPageSize(page.getSize());
         pageResult.setTotal(page.getTotal());
+        pageResult.setTotalExact(true);
         log.info("登录流水查询成功，共 {} 条", page.getTotal());
         LoginLogPageVO vo = new LoginLogPageVO();
         vo.setResult(pageResult);
@@ -2,45 +2,78 @@ package top.enderliquid.audioflow.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.IdWorker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.tika.Tika;
-import org.apache.tika.metadata.Metadata;
-import org.apache.tika.metadata.XMPDM;
-import org.apache.tika.parser.AutoDetectParser;
-import org.apache.tika.parser.ParseContext;
-import org.apache.tika.parser.Parser;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.unit.DataSize;
-import org.xml.sax.helpers.DefaultHandler;
+import top.enderliquid.audioflow.common.audio.AudioProbe;
+import top.enderliquid.audioflow.common.audio.AudioSource;
+import top.enderliquid.audioflow.common.audio.AudioStreamInspector;
 import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.common.enums.TrendingWindow;
 import top.enderliquid.audioflow.common.exception.BusinessException;
 import top.enderliquid.audioflow.common.exception.ExceptionTranslator;
+import top.enderliquid.audioflow.common.exception.RateLimitException;
+import top.enderliquid.audioflow.common.response.HttpResponseBody;
 import top.enderliquid.audioflow.common.transaction.TransactionHelper;
+import top.enderliquid.audioflow.common.util.CursorUtil;
 import top.enderliquid.audioflow.common.util.StrFormatter;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
 import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongFileBO;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
+import top.enderliquid.audioflow.dto.bo.SongSearchResultBO;
+import top.enderliquid.audioflow.dto.bo.SongSuggestionBO;
 import top.enderliquid.audioflow.dto.request.song.*;
 import top.enderliquid.audioflow.dto.response.BatchResult;
 import top.enderliquid.audioflow.dto.response.BatchResultItem;
+import top.enderliquid.audioflow.dto.response.CursorPageResult;
 import top.enderliquid.audioflow.dto.response.PageResult;
 import top.enderliquid.audioflow.dto.response.song.*;
+import top.enderliquid.audioflow.entity.AudioObject;
 import top.enderliquid.audioflow.entity.Song;
 import top.enderliquid.audioflow.entity.User;
-import top.enderliquid.audioflow.manager.OSSManager;
+import top.enderliquid.audioflow.manager.AudioObjectManager;
+import top.enderliquid.audioflow.manager.CleanupCheckpointManager;
+import top.enderliquid.audioflow.manager.AsyncOSSManager;
+import top.enderliquid.audioflow.manager.PresignedUrlCacheManager;
+import top.enderliquid.audioflow.manager.SongCacheManager;
+import top.enderliquid.audioflow.manager.SongCountManager;
 import top.enderliquid.audioflow.manager.SongManager;
+import top.enderliquid.audioflow.manager.SongPageResponseCacheManager;
+import top.enderliquid.audioflow.manager.SongPlayCountManager;
+import top.enderliquid.audioflow.manager.SongSearchIndexManager;
+import top.enderliquid.audioflow.manager.SongSuggestManager;
+import top.enderliquid.audioflow.manager.TrendingManager;
 import top.enderliquid.audioflow.manager.UserManager;
 import top.enderliquid.audioflow.service.SongService;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.time.Duration;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 import static top.enderliquid.audioflow.common.constant.DefaultConstants.*;
 import static top.enderliquid.audioflow.common.enums.PointsType.SONG_UPLOAD;
@@ -51,9 +84,28 @@ import static top.enderliquid.audioflow.common.enums.PointsType.SONG_UPLOAD_CANC
 @RequiredArgsConstructor
 public class SongServiceImpl implements SongService {
 
-    private static final Tika TIKA = new Tika();
-    private static final Parser TIKA_PARSER = new AutoDetectParser();
+    private static final String VERIFY_TIMER_NAME = "audioflow.song.upload.verify";
+    private static final String STAGE_FETCH = "fetch";
+    private static final String STAGE_DETECT = "detect";
+    private static final String STAGE_EXTRACT = "extract";
+    private static final String STAGE_FALLBACK = "fallback";
+    private static final String STAGE_HASH = "hash";
+    private static final String CLEANUP_METRIC_NAME = "audioflow.song.cleanup";
+    private static final List<SongStatus> CLEANUP_STATUSES = List.of(SongStatus.UPLOADING, SongStatus.PROCESSING, SongStatus.DELETING);
+    // 文件头部读取长度，覆盖常见的 ID3 标签与各格式的头部信息
+    private static final int HEAD_READ_SIZE = 64 * 1024;
+    private static final int PROCESSING_MESSAGE_CACHE_SIZE = 1024;
+    // S3 单次分片上传允许的最大分片数
+    private static final int MULTIPART_MAX_PARTS = 10000;
+    // S3 要求除最后一个分片外每个分片不小于 5MB
+    private static final long MULTIPART_MIN_PART_SIZE = 5L * 1024 * 1024;
     private static final Map<String, String> MIME_TYPE_TO_EXTENSION_MAP = new HashMap<>();
+    // 流式播放时响应的 MIME 类型
+    private static final Map<String, String> EXTENSION_TO_MIME_TYPE_MAP = Map.of(
+            "mp3", "audio/mpeg",
+            "wav", "audio/wav",
+            "ogg", "audio/ogg",
+            "flac", "audio/flac");
 
     static {
         // MP3 类型
@@ -76,9 +128,21 @@ public class SongServiceImpl implements SongService {
 
     private final UserManager userManager;
     private final SongManager songManager;
-    private final OSSManager ossManager;
+    private final AsyncOSSManager ossManager;
     private final ExceptionTranslator exceptionTranslator;
     private final PlatformTransactionManager txManager;
+    private final MeterRegistry meterRegistry;
+    private final AudioProbe audioProbe;
+    private final PresignedUrlCacheManager presignedUrlCacheManager;
+    private final AudioObjectManager audioObjectManager;
+    private final CleanupCheckpointManager cleanupCheckpointManager;
+    private final SongSearchIndexManager songSearchIndexManager;
+    private final SongCountManager songCountManager;
+    private final SongCacheManager songCacheManager;
+    private final SongPlayCountManager songPlayCountManager;
+    private final TrendingManager trendingManager;
+    private final SongPageResponseCacheManager songPageResponseCacheManager;
+    private final SongSuggestManager songSuggestManager;
 
     @Value("${file.storage.max-file-size:20MB}")
     private String maxFileSizeStr;
@@ -86,12 +150,111 @@ public class SongServiceImpl implements SongService {
     private int pointsPerUpload;
     @Value("${file.storage.s3.presigned-url-expiration}")
     private int presignedUrlExpirationSeconds;
+    @Value("${file.storage.multipart.enabled:true}")
+    private boolean multipartEnabled;
+    @Value("${file.storage.multipart.threshold:16MB}")
+    private String multipartThresholdStr;
+    @Value("${file.storage.multipart.part-size:8MB}")
+    private String multipartPartSizeStr;
+    @Value("${song.upload.async-complete.enabled:false}")
+    private boolean asyncCompleteEnabled;
+    @Value("${song.upload.async-complete.concurrency:8}")
+    private int processingConcurrency;
+    @Value("${song.upload.async-complete.queue-capacity:256}")
+    private int processingQueueCapacity;
+    @Value("${song.upload.async-complete.stale-seconds:120}")
+    private int processingStaleSeconds;
+    @Value("${song.upload.async-complete.max-attempts:3}")
+    private int processingMaxAttempts;
+    @Value("${song.batch.concurrency:4}")
+    private int batchConcurrency;
+    @Value("${song.batch.global-concurrency:32}")
+    private int batchGlobalConcurrency;
+    @Value("${song.cleanup.batch-size:200}")
+    private int cleanupBatchSize;
+    @Value("${song.stream.max-concurrency:256}")
+    private int streamMaxConcurrency;
+    @Value("${song.stream.acquire-timeout-millis:200}")
+    private long streamAcquireTimeoutMillis;
+    @Value("${song.dedup.enabled:false}")
+    private boolean dedupEnabled;
+
+    // 本节点正在处理或排队中的歌曲
+    private final Set<Long> processingSongIds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, List<Consumer<SongProcessingVO>>> processingListeners = new ConcurrentHashMap<>();
+    // 最近的处理结果消息（失败原因），仅保留有限条数
+    private final Map<Long, String> processingMessages = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > PROCESSING_MESSAGE_CACHE_SIZE;
+        }
+    });
 
     private long maxFileSizeBytes;
+    private long multipartThresholdBytes;
+    private long multipartPartSizeBytes;
+    private DistributionSummary verifyBytesSummary;
+    private Timer cleanupTimer;
+    private Counter cleanupCleanedCounter;
+    private Counter cleanupFailedCounter;
+    private DistributionSummary cleanupThroughputSummary;
+    private ThreadPoolExecutor processingExecutor;
+    // 批量操作的全局并发许可，所有请求共享
+    private Semaphore batchPermits;
+    // 流式播放的并发许可，关闭区间数据源时释放
+    private Semaphore streamPermits;
+    private ExecutorService batchExecutor;
 
     @PostConstruct
     public void init() {
         this.maxFileSizeBytes = DataSize.parse(maxFileSizeStr).toBytes();
+        this.multipartThresholdBytes = DataSize.parse(multipartThresholdStr).toBytes();
+        this.multipartPartSizeBytes = DataSize.parse(multipartPartSizeStr).toBytes();
+        if (multipartPartSizeBytes < MULTIPART_MIN_PART_SIZE) {
+            throw new IllegalStateException("分片大小不能小于5MB");
+        }
+        if (cleanupBatchSize < 1) {
+            throw new IllegalStateException("清理批大小必须大于0");
+        }
+        this.verifyBytesSummary = DistributionSummary.builder(VERIFY_TIMER_NAME + ".bytes")
+                .description("上传文件校验传输的字节数")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.cleanupTimer = Timer.builder(CLEANUP_METRIC_NAME)
+                .description("单次清理过期歌曲的耗时")
+                .register(meterRegistry);
+        this.cleanupCleanedCounter = Counter.builder(CLEANUP_METRIC_NAME + ".songs")
+                .description("清理过期歌曲的条数")
+                .tag("result", "cleaned")
+                .register(meterRegistry);
+        this.cleanupFailedCounter = Counter.builder(CLEANUP_METRIC_NAME + ".songs")
+                .description("清理过期歌曲的条数")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.cleanupThroughputSummary = DistributionSummary.builder(CLEANUP_METRIC_NAME + ".throughput")
+                .description("单次清理过期歌曲的吞吐量")
+                .baseUnit("songs/s")
+                .register(meterRegistry);
+        // 有界虚拟线程池：并发数与排队数均受限，拒绝的任务由恢复任务兜底
+        this.processingExecutor = new ThreadPoolExecutor(
+                processingConcurrency, processingConcurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(processingQueueCapacity),
+                Thread.ofVirtual().name("song-processing-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.batchPermits = new Semaphore(batchGlobalConcurrency);
+        this.streamPermits = new Semaphore(streamMaxConcurrency);
+        Gauge.builder("audioflow.song.stream.active", streamPermits, permits -> streamMaxConcurrency - permits.availablePermits())
+                .description("正在传输的歌曲流数")
+                .register(meterRegistry);
+        this.batchExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("song-batch-", 0).factory());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        // 未完成的歌曲保持 PROCESSING 状态，重启后由恢复任务重新提交
+        processingExecutor.shutdownNow();
+        batchExecutor.shutdown();
     }
 
     @Override
@@ -107,54 +270,108 @@ public class SongServiceImpl implements SongService {
             log.info("准备上传失败，积分不足，当前积分: {}, 需要: {}", uploader.getPoints(), pointsPerUpload);
             throw new BusinessException("积分不足，当前积分 " + uploader.getPoints() + "，需要 " + pointsPerUpload + " 积分");
         }
-        // 初步校验文件类型
+        String extension = checkPrepareUpload(dto);
+        Song song = newUploadingSong(dto, extension, userId);
+        Long songId = song.getId();
+        String fileName = song.getFileName();
+
+        try (TransactionHelper tx = new TransactionHelper(txManager)) {
+            int balance = userManager.addPoints(userId, -pointsPerUpload, SONG_UPLOAD, songId);
+            if (balance < 0) {
+                log.info("准备上传失败，积分不足，当前积分: {}, 需要: {}", uploader.getPoints(), pointsPerUpload);
+                throw new BusinessException("积分不足，当前积分 " + uploader.getPoints() + "，需要 " + pointsPerUpload + " 积分");
+            }
+            songManager.save(song);
+            tx.commit();
+        }
+
+        SongPrepareUploadVO prepareVO = createUploadTarget(song, dto);
+
+        log.info("准备上传歌曲成功，歌曲ID: {}, 文件名: {}", songId, fileName);
+        return prepareVO;
+    }
+
+    /**
+     * 初步校验文件类型与大小
+     *
+     * @return 文件后缀名
+     */
+    private String checkPrepareUpload(SongPrepareUploadDTO dto) {
         String extension = MIME_TYPE_TO_EXTENSION_MAP.get(dto.getMimeType());
         if (extension == null) {
             log.info("准备上传失败，不支持该文件类型，MIME类型: {}", dto.getMimeType());
             throw new BusinessException("不支持该文件类型");
         }
-        // 初步校验文件大小
         if (dto.getSize() > maxFileSizeBytes) {
             log.info("准备上传失败，文件大小超过限制，文件大小: {}", dto.getSize());
             throw new BusinessException(StrFormatter.format("文件大小超过限制，最大仅允许 {}", maxFileSizeStr));
         }
+        return extension;
+    }
+
+    /**
+     * 为已保存的歌曲生成上传地址
+     * 文件大小超过分片上传阈值时创建分片上传并返回各分片的URL，否则返回单次上传的URL
+     */
+    private SongPrepareUploadVO createUploadTarget(Song song, SongPrepareUploadDTO dto) {
+        String fileName = song.getFileName();
+        SongPrepareUploadVO prepareVO = new SongPrepareUploadVO();
+        prepareVO.setId(song.getId());
+        prepareVO.setFileName(fileName);
+        if (!multipartEnabled || dto.getSize() <= multipartThresholdBytes) {
+            String uploadUrl = ossManager.generatePresignedPutUrl(fileName, dto.getMimeType());
+            if (uploadUrl == null) {
+                log.info("准备上传失败，生成上传URL失败，文件名: {}", fileName);
+                throw new BusinessException("生成上传URL失败");
+            }
+            prepareVO.setUploadUrl(uploadUrl);
+            return prepareVO;
+        }
+
+        // 分片数量不能超过 S3 的上限，必要时增大分片大小
+        long partSize = Math.max(multipartPartSizeBytes, (dto.getSize() + MULTIPART_MAX_PARTS - 1) / MULTIPART_MAX_PARTS);
+        int partCount = (int) ((dto.getSize() + partSize - 1) / partSize);
+        String uploadId = ossManager.createMultipartUpload(fileName, dto.getMimeType());
+        if (uploadId == null) {
+            log.info("准备上传失败，创建分片上传失败，文件名: {}", fileName);
+            throw new BusinessException("生成上传URL失败");
+        }
+        // 记录分片上传ID，便于完成上传时合并分片，或过期清理时中止上传
+        Song update = new Song();
+        update.setId(song.getId());
+        update.setUploadId(uploadId);
+        if (!songManager.updateById(update)) {
+            ossManager.abortMultipartUpload(fileName, uploadId);
+            log.info("准备上传失败，记录分片上传ID失败，歌曲ID: {}", song.getId());
+            throw new BusinessException("生成上传URL失败");
+        }
+        song.setUploadId(uploadId);
+        List<String> partUrls = ossManager.generatePresignedPartUrls(fileName, uploadId, partCount);
+        if (partUrls == null) {
+            log.info("准备上传失败，生成分片上传URL失败，文件名: {}", fileName);
+            throw new BusinessException("生成上传URL失败");
+        }
+        prepareVO.setPartSize(partSize);
+        prepareVO.setPartUrls(partUrls);
+        return prepareVO;
+    }
 
+    /**
+     * 创建待上传的歌曲
+     * 文件总是需要上传，开启去重时在完成上传、由服务端计算哈希后再合并相同内容的文件
+     */
+    private Song newUploadingSong(SongPrepareUploadDTO dto, String extension, Long userId) {
         Long songId = IdWorker.getId();
         Song song = new Song();
         song.setId(songId);
         song.setName(dto.getName());
         song.setDescription(dto.getDescription());
-        String fileName = songId + "." + extension;
-        song.setFileName(fileName);
+        song.setFileName(songId + "." + extension);
         song.setSize(null);
         song.setDuration(null);
         song.setUploaderId(userId);
         song.setStatus(SongStatus.UPLOADING);
-
-        try (TransactionHelper tx = new TransactionHelper(txManager)) {
-            int balance = userManager.addPoints(userId, -pointsPerUpload, SONG_UPLOAD, songId);
-            if (balance < 0) {
-                log.info("准备上传失败，积分不足，当前积分: {}, 需要: {}", uploader.getPoints(), pointsPerUpload);
-                throw new BusinessException("积分不足，当前积分 " + uploader.getPoints() + "，需要 " + pointsPerUpload + " 积分");
-            }
-            songManager.save(song);
-            tx.commit();
-        }
-
-        // 生成上传URL
-        String uploadUrl = ossManager.generatePresignedPutUrl(fileName, dto.getMimeType());
-        if (uploadUrl == null) {
-            log.info("准备上传失败，生成上传URL失败，文件名: {}", fileName);
-            throw new BusinessException("生成上传URL失败");
-        }
-
-        SongPrepareUploadVO prepareVO = new SongPrepareUploadVO();
-        prepareVO.setId(song.getId());
-        prepareVO.setFileName(fileName);
-        prepareVO.setUploadUrl(uploadUrl);
-
-        log.info("准备上传歌曲成功，歌曲ID: {}, 文件名: {}", songId, fileName);
-        return prepareVO;
+        return song;
     }
 
     @Override
@@ -182,31 +399,55 @@ public class SongServiceImpl implements SongService {
             log.info("完成上传失败，歌曲状态异常，当前状态: {}", song.getStatus());
             throw new BusinessException("歌曲状态异常，无法完成上传");
         }
-        if (!ossManager.checkFileExists(song.getFileName())) {
-            log.info("完成上传失败，上传文件不存在，文件名: {}", song.getFileName());
-            throw new BusinessException("上传文件不存在");
+
+        if (asyncCompleteEnabled) {
+            song = markProcessing(song.getId(), userId);
+            submitProcessing(song.getId());
+            SongVO songVO = toSongVO(song, uploader.getName());
+            log.info("完成上传请求已提交后台处理，歌曲ID: {}", song.getId());
+            return songVO;
         }
 
-        // 校验文件类型
-        InputStream inputStream = ossManager.getFileInputStream(song.getFileName());
-        if (inputStream == null) {
-            log.info("完成上传失败，获取文件流失败，文件名: {}", song.getFileName());
-            throw new BusinessException("获取文件流失败");
+        VerifiedFile verifiedFile = verifyUploadedFile(song);
+        song = finishUpload(song.getId(), userId, SongStatus.UPLOADING, verifiedFile);
+
+        SongVO songVO = toSongVO(song, uploader.getName());
+        log.info("完成上传歌曲成功，歌曲ID: {}", song.getId());
+        return songVO;
+    }
+
+    /**
+     * 校验已上传的文件并解析时长，校验不通过时抛出 BusinessException
+     */
+    private VerifiedFile verifyUploadedFile(Song song) {
+        String fileName = song.getFileName();
+        // 分片上传需先合并分片，重复合并时以文件是否存在为准
+        if (song.getUploadId() != null && !ossManager.completeMultipartUpload(fileName, song.getUploadId())) {
+            log.info("完成上传失败，合并分片失败，文件名: {}", fileName);
+            throw new BusinessException("分片未全部上传或合并分片失败");
         }
-        String actualMimeType;
-        try {
-            actualMimeType = TIKA.detect(inputStream);
-        } catch (IOException e) {
-            log.info("完成上传失败，无法获取文件类型，文件名: {}", song.getFileName());
-            throw new BusinessException("无法获取文件类型", e);
+        // 只读取文件头部，响应中的 Content-Range 同时给出文件大小
+        long verifyStart = System.nanoTime();
+        FileRangeBO head = ossManager.getFileRange(fileName, 0, HEAD_READ_SIZE);
+        recordVerifyStage(STAGE_FETCH, System.nanoTime() - verifyStart);
+        if (head == null) {
+            log.info("完成上传失败，上传文件不存在或读取文件失败，文件名: {}", fileName);
+            throw new BusinessException("上传文件不存在");
         }
-        try {
-            inputStream.close();
-        } catch (IOException e) {
-            log.error("关闭文件流失败", e);
+
+        // 校验文件大小
+        long fileSize = head.getTotalSize();
+        if (fileSize > maxFileSizeBytes) {
+            log.info("完成上传失败，文件大小超过限制，文件大小: {}", fileSize);
+            throw new BusinessException(StrFormatter.format("文件大小超过限制，最大仅允许 {}", maxFileSizeStr));
         }
+
+        // 校验文件类型
+        long stageStart = System.nanoTime();
+        String actualMimeType = audioProbe.detectMimeType(head.getData());
+        recordVerifyStage(STAGE_DETECT, System.nanoTime() - stageStart);
         if (actualMimeType == null) {
-            log.info("完成上传失败，无法获取文件类型（检测结果为空），文件名: {}", song.getFileName());
+            log.info("完成上传失败，无法获取文件类型（检测结果为空），文件名: {}", fileName);
             throw new BusinessException("无法获取文件类型");
         }
         String actualExtension = MIME_TYPE_TO_EXTENSION_MAP.get(actualMimeType);
@@ -214,45 +455,68 @@ public class SongServiceImpl implements SongService {
             log.info("完成上传失败，文件类型不支持，检测到的MIME类型: {}", actualMimeType);
             throw new BusinessException("文件类型不支持");
         }
-        String expectedExtension = song.getFileName().substring(song.getFileName().lastIndexOf('.') + 1);
+        String expectedExtension = fileName.substring(fileName.lastIndexOf('.') + 1);
         if (!actualExtension.equals(expectedExtension)) {
             log.info("完成上传失败，文件类型与后缀名不匹配，期望后缀: {}，实际后缀: {}", expectedExtension, actualExtension);
             throw new BusinessException("文件类型与后缀名不匹配");
         }
 
-        // 校验文件大小
-        Long fileSize = ossManager.getFileSize(song.getFileName());
-        if (fileSize == null) {
-            log.info("完成上传失败，获取文件大小失败，文件名: {}", song.getFileName());
-            throw new BusinessException("获取文件大小失败");
-        }
-        if (fileSize > maxFileSizeBytes) {
-            log.info("完成上传失败，文件大小超过限制，文件大小: {}", fileSize);
-            throw new BusinessException(StrFormatter.format("文件大小超过限制，最大仅允许 {}", maxFileSizeStr));
+        // 解析歌曲持续时长，优先使用原生提取器按需读取区间，失败时回退到完整解析
+        AudioSource audioSource = new AudioSource(head.getData(), fileSize, (offset, length) -> {
+            FileRangeBO range = ossManager.getFileRange(fileName, offset, length);
+            return range == null ? null : range.getData();
+        });
+        // 开启去重时必然完整读取文件，提前发起请求，使其与原生提取重叠
+        CompletableFuture<InputStream> prefetchedStream = dedupEnabled ? ossManager.getFileInputStreamAsync(fileName) : null;
+        Long duration;
+        stageStart = System.nanoTime();
+        try {
+            duration = audioProbe.extractDurationInMills(actualExtension, audioSource);
+        } catch (RuntimeException e) {
+            discardStream(prefetchedStream);
+            throw e;
         }
-
-        // 解析歌曲持续时长
-        Long duration = null;
-        inputStream = ossManager.getFileInputStream(song.getFileName());
-        if (inputStream == null) {
-            log.warn("获取文件失败");
-        } else {
-            duration = getAudioDurationInMills(inputStream);
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                log.warn("关闭文件流失败", e);
+        recordVerifyStage(STAGE_EXTRACT, System.nanoTime() - stageStart);
+        long bytesTransferred = audioSource.getBytesTransferred();
+        String sha256 = null;
+        // 计算内容哈希与回退解析时长共用同一次完整读取
+        if (dedupEnabled || duration == null) {
+            boolean parseDuration = duration == null;
+            if (parseDuration) {
+                log.info("原生提取歌曲持续时长失败，回退到完整解析，文件名: {}", fileName);
+            }
+            stageStart = System.nanoTime();
+            InputStream inputStream = (prefetchedStream != null
+                    ? prefetchedStream : ossManager.getFileInputStreamAsync(fileName)).join();
+            FullReadResult fullRead = readFullFile(inputStream, fileName, fileSize, parseDuration);
+            recordVerifyStage(parseDuration ? STAGE_FALLBACK : STAGE_HASH, System.nanoTime() - stageStart);
+            bytesTransferred += fileSize;
+            if (fullRead != null) {
+                if (parseDuration) duration = fullRead.getDuration();
+                sha256 = fullRead.getSha256();
             }
         }
         if (duration == null) {
             log.warn("解析歌曲持续时长失败");
         }
+        verifyBytesSummary.record(bytesTransferred);
+        log.info("上传文件校验完成，文件大小: {}, 传输字节数: {}, 耗时(ns): {}",
+                fileSize, bytesTransferred, System.nanoTime() - verifyStart);
+        return new VerifiedFile(fileSize, duration, sha256);
+    }
 
+    /**
+     * 持有行锁将歌曲从指定状态转为 NORMAL，并写入文件信息
+     * 开启去重时登记文件内容，内容已存在则改为引用已有文件并删除本次上传的文件
+     */
+    private Song finishUpload(Long songId, Long userId, SongStatus expectedStatus, VerifiedFile verifiedFile) {
+        Song song;
+        String redundantFileName = null;
         try (TransactionHelper tx = new TransactionHelper(txManager)) {
             // 再次检查
-            song = songManager.getByIdForUpdate(song.getId());
+            song = songManager.getByIdForUpdate(songId);
             if (song == null) {
-                log.info("完成上传失败，持有锁后歌曲不存在，歌曲ID: {}", dto.getSongId());
+                log.info("完成上传失败，持有锁后歌曲不存在，歌曲ID: {}", songId);
                 throw new BusinessException("歌曲不存在");
             }
             // 先检查上传者是否匹配，再检查状态是否正常，防止状态泄露
@@ -260,68 +524,372 @@ public class SongServiceImpl implements SongService {
                 log.info("完成上传失败，持有锁后非歌曲上传者，歌曲上传者ID: {}", song.getUploaderId());
                 throw new BusinessException("非歌曲上传者，无权操作");
             }
-            if (!(song.getStatus() == SongStatus.UPLOADING)) {
+            if (song.getStatus() != expectedStatus) {
                 log.info("完成上传失败，持有锁后歌曲状态异常，当前状态: {}", song.getStatus());
                 throw new BusinessException("歌曲状态异常，无法完成上传");
             }
-            song.setSize(fileSize);
-            song.setDuration(duration);
+            if (verifiedFile.getSha256() != null) {
+                AudioObject audioObject = new AudioObject();
+                audioObject.setSha256(verifiedFile.getSha256());
+                audioObject.setFileName(song.getFileName());
+                audioObject.setSize(verifiedFile.getSize());
+                audioObject.setDuration(verifiedFile.getDuration());
+                audioObject = audioObjectManager.saveOrAddReference(audioObject);
+                if (!audioObject.getFileName().equals(song.getFileName())) {
+                    log.info("上传文件内容已存在，改为引用已有文件，文件名: {}", audioObject.getFileName());
+                    redundantFileName = song.getFileName();
+                    song.setFileName(audioObject.getFileName());
+                }
+                song.setSha256(audioObject.getSha256());
+            }
+            song.setSize(verifiedFile.getSize());
+            song.setDuration(verifiedFile.getDuration());
             song.setStatus(SongStatus.NORMAL);
+            // 分片已合并，清除分片上传ID，之后不再需要中止分片上传
+            song.setUploadId(null);
             if (!songManager.updateById(song)) {
                 log.info("完成上传失败，歌曲信息更新返回失败");
                 throw new BusinessException("歌曲信息更新失败");
             }
             tx.commit();
         }
+        songCacheManager.evictSong(song.getId());
+        songCountManager.addNormalCount(1);
+        songPageResponseCacheManager.invalidateAll();
+        songSearchIndexManager.indexSong(song);
+        if (redundantFileName != null && !ossManager.deleteFile(redundantFileName)) {
+            log.error("删除重复的上传文件失败，文件名: {}", redundantFileName);
+        }
+        return song;
+    }
 
+    /**
+     * 持有行锁将歌曲从 UPLOADING 转为 PROCESSING，song 表即为持久化的待处理队列
+     */
+    private Song markProcessing(Long songId, Long userId) {
+        Song song;
+        try (TransactionHelper tx = new TransactionHelper(txManager)) {
+            song = songManager.getByIdForUpdate(songId);
+            if (song == null) {
+                log.info("完成上传失败，持有锁后歌曲不存在，歌曲ID: {}", songId);
+                throw new BusinessException("歌曲不存在");
+            }
+            if (!song.getUploaderId().equals(userId)) {
+                log.info("完成上传失败，持有锁后非歌曲上传者，歌曲上传者ID: {}", song.getUploaderId());
+                throw new BusinessException("非歌曲上传者，无权操作");
+            }
+            if (song.getStatus() != SongStatus.UPLOADING) {
+                log.info("完成上传失败，持有锁后歌曲状态异常，当前状态: {}", song.getStatus());
+                throw new BusinessException("歌曲状态异常，无法完成上传");
+            }
+            song.setStatus(SongStatus.PROCESSING);
+            song.setProcessAttempts(0);
+            if (!songManager.updateById(song)) {
+                log.info("完成上传失败，更新歌曲状态返回失败");
+                throw new BusinessException("更新歌曲状态失败");
+            }
+            tx.commit();
+        }
+        return song;
+    }
+
+    /**
+     * 将歌曲提交到后台校验线程池，队列已满时保持 PROCESSING 状态，由恢复任务稍后重新提交
+     */
+    private void submitProcessing(Long songId) {
+        if (!processingSongIds.add(songId)) {
+            return;
+        }
+        try {
+            processingExecutor.execute(() -> processUpload(songId));
+        } catch (RejectedExecutionException e) {
+            processingSongIds.remove(songId);
+            log.warn("后台处理队列已满，歌曲将由恢复任务重新提交，歌曲ID: {}", songId);
+        }
+    }
+
+    /**
+     * 后台校验已上传的文件，成功时转为 NORMAL，失败时退回 UPLOADING 以便用户重试或取消
+     */
+    private void processUpload(Long songId) {
+        try {
+            Song song = songManager.getById(songId);
+            if (song == null || song.getStatus() != SongStatus.PROCESSING) {
+                log.info("后台处理歌曲跳过，歌曲不存在或状态已变更，歌曲ID: {}", songId);
+                return;
+            }
+            SongProcessingVO result;
+            try {
+                VerifiedFile verifiedFile = verifyUploadedFile(song);
+                song = finishUpload(songId, song.getUploaderId(), SongStatus.PROCESSING, verifiedFile);
+                User uploader = userManager.getById(song.getUploaderId());
+                result = toProcessingVO(song, null, toSongVO(song, uploader == null ? null : uploader.getName()));
+                log.info("后台处理歌曲成功，歌曲ID: {}", songId);
+            } catch (BusinessException e) {
+                song = revertProcessing(songId);
+                if (song == null || song.getStatus() != SongStatus.UPLOADING) {
+                    // 已被其他节点处理完成或已删除
+                    log.info("后台处理歌曲跳过，歌曲状态已变更，歌曲ID: {}", songId);
+                    return;
+                }
+                result = toProcessingVO(song, e.getMessage(), null);
+                log.info("后台处理歌曲失败，已退回上传状态，歌曲ID: {}, 原因: {}", songId, e.getMessage());
+            }
+            publishProcessingResult(songId, result);
+        } catch (Exception e) {
+            log.error("后台处理歌曲异常，歌曲ID: {}", songId, e);
+            recordProcessingFailure(songId);
+        } finally {
+            processingSongIds.remove(songId);
+        }
+    }
+
+    /**
+     * 记录一次非业务异常导致的处理失败
+     * 未达到次数上限时保持 PROCESSING 状态并刷新更新时间，由恢复任务退避后重新提交；
+     * 达到上限时退回 UPLOADING，用户可重试或取消，过期后由清理任务返还积分
+     */
+    private void recordProcessingFailure(Long songId) {
+        Song song;
+        try (TransactionHelper tx = new TransactionHelper(txManager)) {
+            song = songManager.getByIdForUpdate(songId);
+            if (song == null || song.getStatus() != SongStatus.PROCESSING) {
+                return;
+            }
+            int attempts = song.getProcessAttempts() + 1;
+            if (attempts >= processingMaxAttempts) {
+                song.setStatus(SongStatus.UPLOADING);
+                song.setProcessAttempts(0);
+            } else {
+                song.setProcessAttempts(attempts);
+            }
+            songManager.updateById(song);
+            tx.commit();
+        } catch (RuntimeException e) {
+            log.error("记录歌曲处理失败次数失败，歌曲ID: {}", songId, e);
+            return;
+        }
+        if (song.getStatus() == SongStatus.UPLOADING) {
+            log.warn("后台处理歌曲多次异常，已退回上传状态，歌曲ID: {}", songId);
+            publishProcessingResult(songId, toProcessingVO(song, "文件处理失败，请重试", null));
+        }
+    }
+
+    /**
+     * PROCESSING 状态超过 stale-seconds 未更新且不在本节点处理中，视为处理已中断
+     */
+    private boolean isStaleProcessing(Song song) {
+        return song.getStatus() == SongStatus.PROCESSING
+                && !processingSongIds.contains(song.getId())
+                && song.getUpdateTime().isBefore(LocalDateTime.now().minusSeconds(processingStaleSeconds));
+    }
+
+    @Nullable
+    private Song revertProcessing(Long songId) {
+        Song song;
+        try (TransactionHelper tx = new TransactionHelper(txManager)) {
+            song = songManager.getByIdForUpdate(songId);
+            if (song == null || song.getStatus() != SongStatus.PROCESSING) {
+                return song;
+            }
+            song.setStatus(SongStatus.UPLOADING);
+            song.setProcessAttempts(0);
+            songManager.updateById(song);
+            tx.commit();
+        }
+        return song;
+    }
+
+    private void publishProcessingResult(Long songId, SongProcessingVO result) {
+        processingMessages.put(songId, result.getMessage() == null ? "" : result.getMessage());
+        List<Consumer<SongProcessingVO>> listeners = processingListeners.remove(songId);
+        if (listeners == null) {
+            return;
+        }
+        for (Consumer<SongProcessingVO> listener : listeners) {
+            try {
+                listener.accept(result);
+            } catch (Exception e) {
+                log.warn("推送歌曲处理结果失败，歌曲ID: {}", songId, e);
+            }
+        }
+    }
+
+    @Override
+    public int resumeProcessingUploads() {
+        // 关闭异步完成后仍需处理关闭前遗留的 PROCESSING 歌曲，否则无法完成也无法返还积分
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleTime = now.minusSeconds(processingStaleSeconds);
+        List<Song> songs = songManager.listByStatusAndUpdateTimeBefore(SongStatus.PROCESSING, staleTime, processingQueueCapacity);
+        int submitted = 0;
+        for (Song song : songs) {
+            if (processingSongIds.contains(song.getId())) {
+                continue;
+            }
+            // 每次失败后等待时间翻倍
+            long backoffSeconds = (long) processingStaleSeconds << Math.min(song.getProcessAttempts(), 16);
+            if (song.getUpdateTime().isAfter(now.minusSeconds(backoffSeconds))) {
+                continue;
+            }
+            submitProcessing(song.getId());
+            submitted++;
+        }
+        if (submitted > 0) {
+            log.info("重新提交待处理歌曲完成，提交数量: {}", submitted);
+        }
+        return submitted;
+    }
+
+    @Override
+    public SongProcessingVO getProcessingStatus(Long songId, Long userId) {
+        log.info("请求获取歌曲处理状态，用户ID: {}，歌曲ID: {}", userId, songId);
+        Song song = getOwnedSong(songId, userId);
+        String message = song.getStatus() == SongStatus.PROCESSING ? null : processingMessages.get(songId);
+        SongVO songVO = null;
+        if (song.getStatus() == SongStatus.NORMAL) {
+            User uploader = userManager.getById(userId);
+            songVO = toSongVO(song, uploader == null ? null : uploader.getName());
+        }
+        log.info("获取歌曲处理状态成功，当前状态: {}", song.getStatus());
+        return toProcessingVO(song, message == null || message.isEmpty() ? null : message, songVO);
+    }
+
+    @Override
+    public Runnable subscribeProcessingResult(Long songId, Long userId, Consumer<SongProcessingVO> listener) {
+        log.info("请求订阅歌曲处理结果，用户ID: {}，歌曲ID: {}", userId, songId);
+        getOwnedSong(songId, userId);
+        processingListeners.computeIfAbsent(songId, k -> new CopyOnWriteArrayList<>()).add(listener);
+        Runnable unsubscribe = () -> processingListeners.computeIfPresent(songId, (k, list) -> {
+            list.remove(listener);
+            return list.isEmpty() ? null : list;
+        });
+        // 注册后再次检查，避免在注册前已处理完成而错过结果
+        SongProcessingVO current = getProcessingStatus(songId, userId);
+        if (!SongStatus.PROCESSING.name().equals(current.getStatus())) {
+            unsubscribe.run();
+            listener.accept(current);
+        }
+        return unsubscribe;
+    }
+
+    private Song getOwnedSong(Long songId, Long userId) {
+        Song song = songManager.getById(songId);
+        if (song == null) {
+            log.info("获取歌曲处理状态失败，歌曲不存在，歌曲ID: {}", songId);
+            throw new BusinessException("歌曲不存在");
+        }
+        if (!song.getUploaderId().equals(userId)) {
+            log.info("获取歌曲处理状态失败，非歌曲上传者，歌曲上传者ID: {}", song.getUploaderId());
+            throw new BusinessException("非歌曲上传者，无权操作");
+        }
+        return song;
+    }
+
+    private SongProcessingVO toProcessingVO(@Nullable Song song, @Nullable String message, @Nullable SongVO songVO) {
+        SongProcessingVO vo = new SongProcessingVO();
+        if (song != null) {
+            vo.setId(song.getId());
+            vo.setStatus(song.getStatus().name());
+        }
+        vo.setMessage(message);
+        vo.setSong(songVO);
+        return vo;
+    }
+
+    private SongVO toSongVO(Song song, @Nullable String uploaderName) {
         SongVO songVO = new SongVO();
         BeanUtils.copyProperties(song, songVO);
-        songVO.setUploaderName(uploader.getName());
-        log.info("完成上传歌曲成功，歌曲ID: {}", song.getId());
+        songVO.setUploaderName(uploaderName);
         return songVO;
     }
 
+    /**
+     * 完整读取一次文件：开启去重时计算 SHA-256，需要时使用 Tika 解析时长作为原生提取器的兜底
+     * 读取失败或读取的字节数与文件大小不一致时不返回哈希
+     */
     @Nullable
-    private Long getAudioDurationInMills(InputStream inputStream) {
-        DefaultHandler handler = new DefaultHandler();
-        Metadata metadata = new Metadata();
-        ParseContext parseContext = new ParseContext();
-        String durationStr;
-        try (inputStream) {
-            TIKA_PARSER.parse(inputStream, handler, metadata, parseContext);
-            durationStr = metadata.get(XMPDM.DURATION);
-        } catch (Exception e) {
+    private FullReadResult readFullFile(@Nullable InputStream inputStream, String fileName, long fileSize, boolean parseDuration) {
+        if (inputStream == null) {
+            log.warn("获取文件流失败，文件名: {}", fileName);
             return null;
         }
-        if (durationStr == null || durationStr.isEmpty()) {
-            return null;
+        MessageDigest digest = dedupEnabled ? newSha256Digest() : null;
+        InputStream source = digest == null ? inputStream : new DigestInputStream(inputStream, digest);
+        try (AudioStreamInspector inspector = new AudioStreamInspector(source, maxFileSizeBytes)) {
+            Long duration = parseDuration ? inspector.parseDurationInMills() : null;
+            String sha256 = null;
+            if (digest != null) {
+                try {
+                    if (inspector.drainAndCount() == fileSize) {
+                        sha256 = HexFormat.of().formatHex(digest.digest());
+                    } else {
+                        log.warn("读取的字节数与文件大小不一致，跳过去重，文件名: {}", fileName);
+                    }
+                } catch (IOException e) {
+                    log.warn("读取文件计算哈希失败，跳过去重，文件名: {}", fileName, e);
+                }
+            }
+            return new FullReadResult(duration, sha256);
         }
-        double durationSeconds;
+    }
+
+    /**
+     * 关闭未被读取的预取文件流，释放底层连接
+     */
+    private static void discardStream(@Nullable CompletableFuture<InputStream> streamFuture) {
+        if (streamFuture == null) return;
+        streamFuture.thenAccept(inputStream -> {
+            if (inputStream == null) return;
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                log.warn("关闭预取文件流失败", e);
+            }
+        });
+    }
+
+    private static MessageDigest newSha256Digest() {
         try {
-            durationSeconds = Double.parseDouble(durationStr);
-        } catch (NumberFormatException e) {
-            return null;
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前运行环境不支持 SHA-256", e);
         }
-        return Math.round(durationSeconds * 1000);
+    }
+
+    private void recordVerifyStage(String stage, long nanos) {
+        Timer.builder(VERIFY_TIMER_NAME)
+                .description("上传文件校验各阶段耗时")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
     }
 
     @Override
     public SongPageVO pageSongsByUploaderKeywordAndSongKeyword(SongPageDTO dto) {
         log.info("请求分页查询歌曲");
+        applyPageDefaults(dto);
 
-        // 设置默认值
-        if (dto.getPageIndex() == null) {
-            dto.setPageIndex(PAGE_DEFAULT_INDEX);
-        }
-        if (dto.getPageSize() == null) {
-            dto.setPageSize(PAGE_DEFAULT_SIZE);
-        }
-        if (dto.getAsc() == null) {
-            dto.setAsc(PAGE_DEFAULT_ASC);
+        // 优先使用内存索引，索引不可用时回退到数据库模糊查询
+        List<SongBO> songBOList;
+        long total;
+        boolean totalExact = true;
+        SongSearchResultBO searchResult = songSearchIndexManager.search(dto);
+        if (searchResult != null) {
+            songBOList = songManager.listNormalBOByIds(searchResult.getSongIds());
+            total = searchResult.getTotal();
+        } else {
+            // 总数已缓存时跳过 COUNT，只查询当前页
+            Long cachedTotal = dto.getExactTotal() ? null : songCountManager.getTotal(dto);
+            IPage<SongBO> page = songManager.pageByUploaderKeywordAndSongKeyword(dto, cachedTotal == null);
+            songBOList = page.getRecords();
+            if (cachedTotal != null) {
+                total = cachedTotal;
+                totalExact = false;
+            } else {
+                total = page.getTotal();
+                songCountManager.putTotal(dto, total, dto.getExactTotal());
+            }
         }
-
-        IPage<SongBO> page = songManager.pageByUploaderKeywordAndSongKeyword(dto);
-        List<SongBO> songBOList = page.getRecords();
         List<SongVO> songVOList = new ArrayList<>();
         if (songBOList != null && !songBOList.isEmpty()) {
             for (SongBO songBO : songBOList) {
@@ -333,15 +901,84 @@ public class SongServiceImpl implements SongService {
         }
         PageResult<SongVO> pageResult = new PageResult<>();
         pageResult.setList(songVOList);
-        pageResult.setPageIndex(page.getCurrent());
-        pageResult.setPageSize(page.getSize());
-        pageResult.setTotal(page.getTotal());
+        pageResult.setPageIndex(dto.getPageIndex());
+        pageResult.setPageSize(dto.getPageSize());
+        pageResult.setTotal(total);
+        pageResult.setTotalExact(totalExact);
         log.info("分页查询歌曲成功");
         SongPageVO vo = new SongPageVO();
         vo.setResult(pageResult);
         return vo;
     }
 
+    @Override
+    public byte[] pageSongsAsJson(SongPageDTO dto) {
+        applyPageDefaults(dto);
+        return songPageResponseCacheManager.get(dto,
+                () -> HttpResponseBody.ok(pageSongsByUploaderKeywordAndSongKeyword(dto), "查询成功"));
+    }
+
+    private void applyPageDefaults(SongPageDTO dto) {
+        if (dto.getPageIndex() == null) {
+            dto.setPageIndex(PAGE_DEFAULT_INDEX);
+        }
+        if (dto.getPageSize() == null) {
+            dto.setPageSize(PAGE_DEFAULT_SIZE);
+        }
+        if (dto.getAsc() == null) {
+            dto.setAsc(PAGE_DEFAULT_ASC);
+        }
+        if (dto.getExactTotal() == null) {
+            dto.setExactTotal(false);
+        }
+    }
+
+    @Override
+    public SongCursorPageVO pageSongsByCursor(SongCursorPageDTO dto) {
+        log.info("请求游标分页查询歌曲");
+
+        // 设置默认值
+        if (dto.getPageSize() == null) {
+            dto.setPageSize(PAGE_DEFAULT_SIZE);
+        }
+        if (dto.getAsc() == null) {
+            dto.setAsc(PAGE_DEFAULT_ASC);
+        }
+        SongKeysetBO after = null;
+        if (dto.getCursor() != null && !dto.getCursor().isEmpty()) {
+            after = CursorUtil.decode(dto.getCursor(), dto.getAsc());
+            if (after == null) {
+                log.info("游标分页查询歌曲失败，游标无效");
+                throw new BusinessException("游标无效");
+            }
+        }
+
+        // 多查询一条用于判断是否还有下一页
+        int pageSize = (int) Math.min(dto.getPageSize(), Integer.MAX_VALUE - 1);
+        List<SongBO> songBOList = songManager.listByUploaderKeywordAndSongKeywordAfter(dto, after, pageSize + 1);
+        String nextCursor = null;
+        if (songBOList.size() > pageSize) {
+            songBOList = songBOList.subList(0, pageSize);
+            SongBO last = songBOList.getLast();
+            nextCursor = CursorUtil.encode(new SongKeysetBO(last.getCreateTime(), last.getId()), dto.getAsc());
+        }
+        List<SongVO> songVOList = new ArrayList<>();
+        for (SongBO songBO : songBOList) {
+            if (songBO == null) continue;
+            SongVO songVO = new SongVO();
+            BeanUtils.copyProperties(songBO, songVO);
+            songVOList.add(songVO);
+        }
+        CursorPageResult<SongVO> cursorPageResult = new CursorPageResult<>();
+        cursorPageResult.setList(songVOList);
+        cursorPageResult.setNextCursor(nextCursor);
+        cursorPageResult.setPageSize(dto.getPageSize());
+        log.info("游标分页查询歌曲成功");
+        SongCursorPageVO vo = new SongCursorPageVO();
+        vo.setResult(cursorPageResult);
+        return vo;
+    }
+
     @Override
     public void removeSong(Long songId, Long userId) {
         log.info("请求删除歌曲，用户ID: {}，歌曲ID: {}", userId, songId);
@@ -369,15 +1006,24 @@ public class SongServiceImpl implements SongService {
                 log.info("删除歌曲失败，数据库更新返回失败");
                 throw new BusinessException("删除歌曲失败");
             }
+            // 释放对共享文件的引用，引用归零后文件由清理任务删除
+            if (song.getSha256() != null && !audioObjectManager.releaseReference(song.getSha256())) {
+                log.warn("释放文件引用失败，引用计数已为0，哈希: {}", song.getSha256());
+            }
             tx.commit();
+            presignedUrlCacheManager.invalidate(song.getFileName());
         }
+        songCacheManager.evictSong(songId);
+        songCountManager.addNormalCount(-1);
+        songPageResponseCacheManager.invalidateAll();
+        songSearchIndexManager.removeSong(songId);
         log.info("删除歌曲成功，歌曲ID: {}", songId);
     }
 
     @Override
     public SongVO getSong(Long songId) {
         log.info("请求获取歌曲信息，歌曲ID: {}", songId);
-        Song song = songManager.getById(songId);
+        Song song = songCacheManager.getSong(songId);
         if (song == null) {
             log.info("获取歌曲信息失败，歌曲不存在，歌曲ID: {}", songId);
             throw new BusinessException("歌曲不存在");
@@ -388,8 +1034,8 @@ public class SongServiceImpl implements SongService {
         }
         SongVO songVO = new SongVO();
         BeanUtils.copyProperties(song, songVO);
-        User uploader = userManager.getById(song.getUploaderId());
-        if (uploader != null) songVO.setUploaderName(uploader.getName());
+        songVO.setUploaderName(songCacheManager.getUploaderName(song.getUploaderId()));
+        songVO.setPlayCount(songPlayCountManager.getPlayCount(songId));
         log.info("获取歌曲信息成功");
         return songVO;
     }
@@ -397,18 +1043,74 @@ public class SongServiceImpl implements SongService {
     @Override
     public String getSongUrl(Long songId) {
         log.info("请求获取歌曲播放链接，歌曲ID: {}", songId);
-        Song song = songManager.getById(songId);
+        Song song = songCacheManager.getSong(songId);
         if (song == null) {
             return null;
         }
         if (song.getStatus() != SongStatus.NORMAL) {
             return null;
         }
-        String url = ossManager.getPresignedGetUrl(song.getFileName(), Duration.ofSeconds(3600));
-        if (url != null) log.info("获取歌曲播放链接成功");
+        String url = presignedUrlCacheManager.getPresignedGetUrl(song.getFileName());
+        if (url != null) {
+            songPlayCountManager.recordPlay(songId);
+            log.info("获取歌曲播放链接成功");
+        }
         return url;
     }
 
+    @Override
+    @Nullable
+    public SongFileBO getSongFile(Long songId) {
+        log.info("请求获取歌曲文件信息，歌曲ID: {}", songId);
+        Song song = songCacheManager.getSong(songId);
+        if (song == null || song.getStatus() != SongStatus.NORMAL) {
+            return null;
+        }
+        String fileName = song.getFileName();
+        Long size = song.getSize();
+        if (size == null) {
+            size = ossManager.getFileSize(fileName);
+            if (size == null) {
+                log.warn("获取歌曲文件大小失败，文件名: {}", fileName);
+                return null;
+            }
+        }
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        String mimeType = EXTENSION_TO_MIME_TYPE_MAP.getOrDefault(extension, "application/octet-stream");
+        // 文件名在上传时由歌曲ID生成，去重后可能被多首歌曲共享，但同一文件名对应的内容不会变化，可直接作为强 ETag
+        return new SongFileBO(song.getId(), fileName, size, mimeType, "\"" + fileName + "\"");
+    }
+
+    @Override
+    @Nullable
+    public FileStreamBO openSongFileRange(SongFileBO songFile, long start, long length) {
+        boolean acquired;
+        try {
+            acquired = streamPermits.tryAcquire(streamAcquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.info("打开歌曲流失败，同时传输的歌曲流已达上限，歌曲ID: {}", songFile.getSongId());
+            throw new RateLimitException("当前播放人数过多，请稍后再试");
+        }
+        FileStreamBO stream = null;
+        try {
+            stream = ossManager.openFileRange(songFile.getFileName(), start, length);
+        } finally {
+            if (stream == null) {
+                streamPermits.release();
+            }
+        }
+        if (stream == null) {
+            log.warn("打开歌曲文件区间失败，文件名: {}", songFile.getFileName());
+            return null;
+        }
+        stream.setCloseHook(streamPermits::release);
+        return stream;
+    }
+
     @Override
     public SongVO updateSong(SongUpdateDTO dto, Long songId, Long userId) {
         log.info("请求更新歌曲信息，歌曲ID: {}，用户ID: {}", songId, userId);
@@ -444,12 +1146,12 @@ public class SongServiceImpl implements SongService {
             }
             tx.commit();
         }
+        songCacheManager.evictSong(songId);
+        songPageResponseCacheManager.invalidateAll();
+        songSearchIndexManager.indexSong(song);
         SongVO songVO = new SongVO();
         BeanUtils.copyProperties(song, songVO);
-        User uploader = userManager.getById(song.getUploaderId());
-        if (uploader != null) {
-            songVO.setUploaderName(uploader.getName());
-        }
+        songVO.setUploaderName(songCacheManager.getUploaderName(song.getUploaderId()));
         log.info("更新歌曲信息成功");
         return songVO;
     }
@@ -462,20 +1164,71 @@ public class SongServiceImpl implements SongService {
             log.info("批量准备上传失败，用户不存在");
             throw new BusinessException("用户不存在");
         }
-        BatchResult<SongPrepareUploadVO> result = new BatchResult<>();
-        List<SongPrepareUploadDTO> songs = dto.getSongs();
-        for (int i = 0; i < songs.size(); i++) {
-            SongPrepareUploadDTO songDto = songs.get(i);
+        List<SongPrepareUploadDTO> songDtos = dto.getSongs();
+        List<BatchResultItem<SongPrepareUploadVO>> items = new ArrayList<>(songDtos.size());
+
+        // 逐条校验，校验失败的条目直接计入结果
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Song> songs = new ArrayList<>();
+        for (int i = 0; i < songDtos.size(); i++) {
+            SongPrepareUploadDTO songDto = songDtos.get(i);
             try {
-                SongPrepareUploadVO prepareVO = prepareUpload(songDto, userId);
-                BatchResultItem<SongPrepareUploadVO> successItem = new BatchResultItem<>(i, true, null, prepareVO);
-                result.add(successItem);
+                String extension = checkPrepareUpload(songDto);
+                validIndexes.add(i);
+                songs.add(newUploadingSong(songDto, extension, userId));
+            } catch (BusinessException e) {
+                items.add(new BatchResultItem<>(i, false, exceptionTranslator.translate(e).getMessage(), null));
+            }
+        }
+
+        // 按当前积分决定可准备的数量，超出部分按积分不足处理，与逐条执行的结果一致
+        int affordable = Math.min(songs.size(), pointsPerUpload > 0 ? uploader.getPoints() / pointsPerUpload : songs.size());
+        List<Song> acceptedSongs = songs.subList(0, affordable);
+        String insufficientMessage = "积分不足，当前积分 " + uploader.getPoints() + "，需要 " + pointsPerUpload + " 积分";
+        if (!acceptedSongs.isEmpty()) {
+            // 一条条件 UPDATE 扣除全部积分，流水与歌曲记录各使用一条多行 INSERT 写入
+            try (TransactionHelper tx = new TransactionHelper(txManager)) {
+                List<Long> songIds = acceptedSongs.stream().map(Song::getId).toList();
+                int balance = userManager.addPointsForEach(userId, -pointsPerUpload, SONG_UPLOAD, songIds);
+                if (balance < 0) {
+                    log.info("批量准备上传失败，积分不足，当前积分: {}, 需要: {}", uploader.getPoints(), pointsPerUpload * songIds.size());
+                    acceptedSongs = List.of();
+                } else {
+                    songManager.insertMultiRow(acceptedSongs);
+                    tx.commit();
+                }
             } catch (Exception e) {
-                BatchResultItem<SongPrepareUploadVO> failureItem = new BatchResultItem<>(i, false, exceptionTranslator.translate(e).getMessage(), null);
-                result.add(failureItem);
-                if (!(e instanceof BusinessException)) break;
+                // 数据库异常时整批失败，与逐条执行时遇到非业务异常即中止的语义一致
+                String message = exceptionTranslator.translate(e).getMessage();
+                for (int index : validIndexes) {
+                    items.add(new BatchResultItem<>(index, false, message, null));
+                }
+                return toBatchPrepareUploadVO(items);
             }
         }
+        for (int j = acceptedSongs.size(); j < songs.size(); j++) {
+            items.add(new BatchResultItem<>(validIndexes.get(j), false, insufficientMessage, null));
+        }
+
+        // 并发生成上传URL
+        List<Song> presignSongs = acceptedSongs;
+        BatchResultItem<SongPrepareUploadVO>[] presignItems = executeConcurrently(presignSongs.size(), j -> {
+            Song song = presignSongs.get(j);
+            return createUploadTarget(song, songDtos.get(validIndexes.get(j)));
+        });
+        for (BatchResultItem<SongPrepareUploadVO> item : presignItems) {
+            if (item != null) {
+                item.setIndex(validIndexes.get(item.getIndex()));
+                items.add(item);
+            }
+        }
+        return toBatchPrepareUploadVO(items);
+    }
+
+    private SongBatchPrepareUploadVO toBatchPrepareUploadVO(List<BatchResultItem<SongPrepareUploadVO>> items) {
+        items.sort(Comparator.comparingInt(BatchResultItem::getIndex));
+        BatchResult<SongPrepareUploadVO> result = new BatchResult<>();
+        items.forEach(result::add);
         log.info("批量准备上传歌曲完成，成功: {}, 失败: {}", result.getSuccessCount(), result.getFailureCount());
         SongBatchPrepareUploadVO vo = new SongBatchPrepareUploadVO();
         vo.setResult(result);
@@ -485,18 +1238,12 @@ public class SongServiceImpl implements SongService {
     @Override
     public SongBatchCompleteUploadVO batchCompleteUpload(SongBatchCompleteDTO dto, Long userId) {
         log.info("请求批量确认上传歌曲，用户ID: {}, 数量: {}", userId, dto.getSongIds().size());
-        BatchResult<SongVO> result = new BatchResult<>();
         List<Long> songIds = dto.getSongIds();
-        for (int i = 0; i < songIds.size(); i++) {
-            Long songId = songIds.get(i);
-            try {
-                SongVO songVO = completeUpload(new SongCompleteUploadDTO(songId), userId);
-                BatchResultItem<SongVO> successItem = new BatchResultItem<>(i, true, null, songVO);
-                result.add(successItem);
-            } catch (Exception e) {
-                BatchResultItem<SongVO> failureItem = new BatchResultItem<>(i, false, exceptionTranslator.translate(e).getMessage(), null);
-                result.add(failureItem);
-                if (!(e instanceof BusinessException)) break;
+        BatchResult<SongVO> result = new BatchResult<>();
+        for (BatchResultItem<SongVO> item : executeConcurrently(songIds.size(),
+                i -> completeUpload(new SongCompleteUploadDTO(songIds.get(i)), userId))) {
+            if (item != null) {
+                result.add(item);
             }
         }
         log.info("批量确认上传歌曲完成，成功: {}, 失败: {}", result.getSuccessCount(), result.getFailureCount());
@@ -505,6 +1252,59 @@ public class SongServiceImpl implements SongService {
         return vo;
     }
 
+    /**
+     * 并发执行批量操作，单个请求的并发数与全局并发数均受限
+     * 结果按下标存放；出现非业务异常后不再开始新的条目，已开始的条目照常完成并计入结果，未开始的条目为 null
+     */
+    private <T> BatchResultItem<T>[] executeConcurrently(int size, IntFunction<T> action) {
+        @SuppressWarnings("unchecked")
+        BatchResultItem<T>[] items = new BatchResultItem[size];
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        Runnable worker = () -> {
+            int i;
+            while (!stopped.get() && (i = nextIndex.getAndIncrement()) < size) {
+                try {
+                    batchPermits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    stopped.set(true);
+                    break;
+                }
+                try {
+                    if (stopped.get()) {
+                        break;
+                    }
+                    T data = action.apply(i);
+                    items[i] = new BatchResultItem<>(i, true, null, data);
+                } catch (Exception e) {
+                    items[i] = new BatchResultItem<>(i, false, exceptionTranslator.translate(e).getMessage(), null);
+                    if (!(e instanceof BusinessException)) stopped.set(true);
+                } finally {
+                    batchPermits.release();
+                }
+            }
+        };
+        // 当前线程也作为一个工作线程，其余工作线程使用虚拟线程
+        int workerCount = Math.min(batchConcurrency, size);
+        List<Future<?>> futures = new ArrayList<>(workerCount);
+        for (int w = 1; w < workerCount; w++) {
+            futures.add(batchExecutor.submit(worker));
+        }
+        worker.run();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待批量操作完成时被中断", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("批量操作执行异常", e.getCause());
+            }
+        }
+        return items;
+    }
+
     @Override
     public SongBatchDeleteVO batchRemoveSongs(SongBatchDeleteDTO dto, Long userId) {
         log.info("请求批量删除歌曲，用户ID: {}, 数量: {}", userId, dto.getSongIds().size());
@@ -547,7 +1347,8 @@ public class SongServiceImpl implements SongService {
                 log.info("取消上传歌曲失败，非歌曲上传者，歌曲上传者ID: {}", song.getUploaderId());
                 throw new BusinessException("非歌曲上传者，无权操作");
             }
-            if (song.getStatus() != SongStatus.UPLOADING) {
+            // 处理已中断的 PROCESSING 歌曲同样允许取消
+            if (song.getStatus() != SongStatus.UPLOADING && !isStaleProcessing(song)) {
                 log.info("取消上传歌曲失败，歌曲状态异常，当前状态: {}", song.getStatus());
                 throw new BusinessException("歌曲状态异常，无法取消");
             }
@@ -590,43 +1391,253 @@ public class SongServiceImpl implements SongService {
         return vo;
     }
 
+    @Override
+    public SongTrendingVO getTrendingSongs(SongTrendingDTO dto) {
+        log.info("请求获取热门歌曲");
+
+        // 设置默认值
+        if (dto.getWindow() == null) {
+            dto.setWindow(TRENDING_DEFAULT_WINDOW);
+        }
+        if (dto.getLimit() == null) {
+            dto.setLimit(TRENDING_DEFAULT_LIMIT);
+        }
+        TrendingWindow window = TrendingWindow.fromName(dto.getWindow());
+
+        // 排行中可能包含已删除的歌曲，多取一些用于补足
+        List<Long> songIds = trendingManager.listTopSongIds(window, dto.getLimit() * 2);
+        List<SongBO> songBOList = songManager.listNormalBOByIds(songIds);
+        List<SongVO> songVOList = new ArrayList<>();
+        for (SongBO songBO : songBOList) {
+            if (songVOList.size() >= dto.getLimit()) break;
+            SongVO songVO = new SongVO();
+            BeanUtils.copyProperties(songBO, songVO);
+            songVOList.add(songVO);
+        }
+        log.info("获取热门歌曲成功，窗口: {}, 数量: {}", window, songVOList.size());
+        SongTrendingVO vo = new SongTrendingVO();
+        vo.setWindow(window.name().toLowerCase(Locale.ROOT));
+        vo.setList(songVOList);
+        return vo;
+    }
+
+    @Override
+    public void refreshTrendingRankings() {
+        trendingManager.refreshRankings();
+    }
+
+    @Override
+    public SongSuggestVO suggestSongs(SongSuggestDTO dto) {
+        // 输入时每次按键都会调用，只输出调试日志
+        log.debug("请求获取搜索建议");
+
+        // 设置默认值
+        if (dto.getLimit() == null) {
+            dto.setLimit(SUGGEST_DEFAULT_LIMIT);
+        }
+
+        List<SongSuggestionVO> suggestionVOList = new ArrayList<>();
+        for (SongSuggestionBO suggestion : songSuggestManager.suggest(dto.getPrefix(), dto.getLimit())) {
+            suggestionVOList.add(new SongSuggestionVO(suggestion.getText(), suggestion.getType().name()));
+        }
+        log.debug("获取搜索建议成功，数量: {}", suggestionVOList.size());
+        SongSuggestVO vo = new SongSuggestVO();
+        vo.setList(suggestionVOList);
+        return vo;
+    }
+
+    @Override
+    public boolean rebuildSuggestIndex() {
+        return songSuggestManager.rebuild();
+    }
+
+    @Override
+    public int flushPlayCounts() {
+        int flushed = songPlayCountManager.flush();
+        if (flushed > 0) log.info("刷新歌曲播放次数成功，歌曲数: {}", flushed);
+        return flushed;
+    }
+
+    @Override
+    public boolean rebuildSearchIndex() {
+        return songSearchIndexManager.rebuild();
+    }
+
     @Override
     public int cleanupExpiredUploads() {
         log.info("开始清理过期歌曲记录");
+        long runStart = System.nanoTime();
         LocalDateTime cutoffTime = LocalDateTime.now().minusSeconds(presignedUrlExpirationSeconds);
-        List<Song> expiredSongs = songManager.listByStatusesAndBeforeTime(
-                Arrays.asList(SongStatus.UPLOADING, SongStatus.DELETING), cutoffTime);
-        if (expiredSongs == null || expiredSongs.isEmpty()) {
+        int scannedCount = 0;
+        int cleanedCount = 0;
+        for (SongStatus status : CLEANUP_STATUSES) {
+            // 上次运行中断时从检查点继续扫描
+            SongKeysetBO after = cleanupCheckpointManager.getCheckpoint(status);
+            if (after != null) {
+                log.info("从检查点继续扫描过期歌曲，状态: {}, 创建时间: {}, 歌曲ID: {}", status, after.getCreateTime(), after.getId());
+            }
+            // 沿索引按键集分批读取，内存中最多保留一批记录
+            // 批内的文件使用一次批量删除请求，数据库变更在同一个事务中提交
+            while (true) {
+                List<Song> batch = songManager.listByStatusAndBeforeTimeAfter(status, cutoffTime, after, cleanupBatchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                scannedCount += batch.size();
+                // PROCESSING 歌曲仅清理处理已中断的，避免删除正在校验的文件
+                List<Song> expired = status == SongStatus.PROCESSING
+                        ? batch.stream().filter(this::isStaleProcessing).toList() : batch;
+                cleanedCount += removeExpiredSongs(cleanupSongFiles(expired));
+                Song last = batch.get(batch.size() - 1);
+                after = new SongKeysetBO(last.getCreateTime(), last.getId());
+                cleanupCheckpointManager.saveCheckpoint(status, after);
+                if (batch.size() < cleanupBatchSize) {
+                    break;
+                }
+            }
+            // 完整扫描后清除检查点，下次运行从头重试本次失败的记录
+            cleanupCheckpointManager.clearCheckpoint(status);
+        }
+        if (scannedCount == 0) {
             log.info("没有需要清理的过期歌曲记录");
             return 0;
         }
-        int cleanedCount = 0;
-        for (Song song : expiredSongs) {
-            log.info("开始尝试清除过期歌曲记录，歌曲ID: {}, 状态: {}", song.getId(), song.getStatus());
-            if (ossManager.checkFileExists(song.getFileName())) {
-                if (!ossManager.deleteFile(song.getFileName())) {
-                    log.error("从OSS删除已存在的歌曲文件失败，文件名: {}", song.getFileName());
-                    continue;
-                }
+        long elapsedNanos = System.nanoTime() - runStart;
+        int failedCount = scannedCount - cleanedCount;
+        cleanupTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        cleanupCleanedCounter.increment(cleanedCount);
+        cleanupFailedCounter.increment(failedCount);
+        cleanupThroughputSummary.record(cleanedCount * 1e9 / Math.max(elapsedNanos, 1));
+        log.info("清理过期歌曲记录完成，清理记录条数: {}，失败条数: {}，耗时(ms): {}",
+                cleanedCount, failedCount, elapsedNanos / 1_000_000);
+        return cleanedCount;
+    }
+
+    /**
+     * 清除一批过期歌曲在对象存储中的分片与文件
+     *
+     * @return 文件已清除、可以删除记录的歌曲
+     */
+    private List<Song> cleanupSongFiles(List<Song> songs) {
+        // 中止未完成的分片上传，释放已上传的分片，批内请求同时发起
+        List<CompletableFuture<Boolean>> abortFutures = new ArrayList<>(songs.size());
+        for (Song song : songs) {
+            abortFutures.add(song.getUploadId() == null
+                    ? CompletableFuture.completedFuture(true)
+                    : ossManager.abortMultipartUploadAsync(song.getFileName(), song.getUploadId()));
+        }
+        List<Song> abortedSongs = new ArrayList<>(songs.size());
+        Set<String> fileNamesToDelete = new LinkedHashSet<>();
+        for (int i = 0; i < songs.size(); i++) {
+            Song song = songs.get(i);
+            if (!abortFutures.get(i).join()) {
+                log.error("中止分片上传失败，文件名: {}", song.getFileName());
+                continue;
+            }
+            abortedSongs.add(song);
+            if (song.getSha256() != null && isSharedFileInUse(song)) {
+                log.info("歌曲文件仍被其他歌曲引用，跳过文件清除逻辑，歌曲ID: {}", song.getId());
             } else {
-                log.info("歌曲文件还未上传至OSS，跳过文件清除逻辑");
+                fileNamesToDelete.add(song.getFileName());
             }
-            try (TransactionHelper tx = new TransactionHelper(txManager)) {
-                if (song.getStatus() == SongStatus.UPLOADING) {
-                    int balance = userManager.addPoints(song.getUploaderId(), pointsPerUpload, SONG_UPLOAD_CANCEL, song.getId());
-                    if (balance < 0) {
-                        log.info("返还用户积分失败，用户可能已不存在");
-                    }
-                }
-                if (!songManager.removeById(song)) {
-                    log.info("删除歌曲记录失败");
+        }
+        // 文件不存在视为删除成功，无需预先检查文件是否存在
+        Set<String> failedFileNames = fileNamesToDelete.isEmpty()
+                ? Collections.emptySet() : ossManager.deleteFiles(fileNamesToDelete);
+        List<Song> removableSongs = new ArrayList<>(abortedSongs.size());
+        for (Song song : abortedSongs) {
+            if (failedFileNames.contains(song.getFileName())) {
+                log.error("从OSS删除歌曲文件失败，文件名: {}", song.getFileName());
+                continue;
+            }
+            removableSongs.add(song);
+        }
+        return removableSongs;
+    }
+
+    /**
+     * 在同一个事务中返还积分并删除一批过期歌曲记录
+     * 持有行锁重新读取歌曲，状态已不是 UPLOADING、DELETING 或已中断的 PROCESSING 的歌曲不做处理
+     *
+     * @return 删除的记录条数
+     */
+    private int removeExpiredSongs(List<Song> songs) {
+        if (songs.isEmpty()) {
+            return 0;
+        }
+        List<Long> songIds = new ArrayList<>(songs.size());
+        for (Song song : songs) {
+            songIds.add(song.getId());
+        }
+        try (TransactionHelper tx = new TransactionHelper(txManager)) {
+            List<Long> removableIds = new ArrayList<>(songIds.size());
+            Map<Long, List<Long>> refundSongIdsByUploader = new LinkedHashMap<>();
+            for (Song song : songManager.listByIdsForUpdate(songIds)) {
+                if (song.getStatus() != SongStatus.UPLOADING && song.getStatus() != SongStatus.DELETING
+                        && !isStaleProcessing(song)) {
+                    log.info("歌曲状态已变化，跳过删除，歌曲ID: {}, 状态: {}", song.getId(), song.getStatus());
                     continue;
                 }
-                tx.commit();
+                removableIds.add(song.getId());
+                if (song.getStatus() != SongStatus.DELETING) {
+                    refundSongIdsByUploader.computeIfAbsent(song.getUploaderId(), key -> new ArrayList<>()).add(song.getId());
+                }
+            }
+            if (removableIds.isEmpty()) {
+                return 0;
+            }
+            for (Map.Entry<Long, List<Long>> entry : refundSongIdsByUploader.entrySet()) {
+                int balance = userManager.addPointsForEach(entry.getKey(), pointsPerUpload, SONG_UPLOAD_CANCEL, entry.getValue());
+                if (balance < 0) {
+                    log.info("返还用户积分失败，用户可能已不存在，用户ID: {}", entry.getKey());
+                }
+            }
+            songManager.removeByIds(removableIds);
+            songPlayCountManager.removePlayCounts(removableIds);
+            tx.commit();
+            return removableIds.size();
+        } catch (RuntimeException e) {
+            log.error("批量删除过期歌曲记录失败，歌曲数: {}", songs.size(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * 判断歌曲引用的共享文件是否仍被使用，引用已归零时删除文件记录，随后由调用方删除文件
+     * 持有文件记录的行锁，与并发的完成上传互斥
+     */
+    private boolean isSharedFileInUse(Song song) {
+        try (TransactionHelper tx = new TransactionHelper(txManager)) {
+            AudioObject audioObject = audioObjectManager.getBySha256ForUpdate(song.getSha256());
+            if (audioObject == null || !audioObject.getFileName().equals(song.getFileName())) {
+                return false;
+            }
+            if (audioObject.getRefCount() > 0) {
+                return true;
             }
-            cleanedCount++;
+            audioObjectManager.removeById(audioObject);
+            tx.commit();
         }
-        log.info("清理过期歌曲记录完成，清理记录条数: {}", cleanedCount);
-        return cleanedCount;
+        return false;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class VerifiedFile {
+        private long size;
+        @Nullable
+        private Long duration;
+        // 未开启去重或计算失败时为 null
+        @Nullable
+        private String sha256;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class FullReadResult {
+        @Nullable
+        private Long duration;
+        @Nullable
+        private String sha256;
     }
 }
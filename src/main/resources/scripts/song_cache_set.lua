@@ -0,0 +1,14 @@
+-- 歌曲缓存版本号未变化时写入缓存，防止失效前从数据库读出的旧值在失效后写回
+-- KEYS[1]: 缓存键
+-- KEYS[2]: 版本号键
+-- ARGV[1]: 读取数据库前的版本号，版本号键不存在时为空字符串
+-- ARGV[2]: 缓存内容
+-- ARGV[3]: 过期时间（秒）
+-- 返回: 写入时返回 1，版本号已变化时返回 0
+
+local version = redis.call('GET', KEYS[2]) or ''
+if version ~= ARGV[1] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])
+return 1
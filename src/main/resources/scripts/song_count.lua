@@ -0,0 +1,9 @@
+-- 计数键存在时原子增减歌曲计数，键不存在时不做任何操作（等待下次查询时从数据库重新加载）
+-- KEYS[1]: 计数键
+-- ARGV[1]: 增量
+-- 返回: 增减后的计数值，键不存在时返回 nil
+
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return redis.call('INCRBY', KEYS[1], ARGV[1])
+end
+return nil
@@ -20,7 +20,10 @@ CREATE TABLE IF NOT EXISTS `song` (
     `size` BIGINT COMMENT '文件大小（字节）',
     `duration` BIGINT COMMENT '音频时长（毫秒）',
     `uploader_id` BIGINT NOT NULL COMMENT '上传者ID',
-    `status` VARCHAR(20) NOT NULL DEFAULT 'UPLOADING' COMMENT '歌曲状态: UPLOADING, NORMAL, DELETING',
+    `status` VARCHAR(20) NOT NULL DEFAULT 'UPLOADING' COMMENT '歌曲状态: UPLOADING, PROCESSING, NORMAL, DELETING',
+    `upload_id` VARCHAR(255) COMMENT '分片上传ID',
+    `sha256` CHAR(64) COMMENT '文件内容SHA-256，不为空时文件由音频对象表按引用计数管理',
+    `process_attempts` INT NOT NULL DEFAULT 0 COMMENT '后台处理失败次数',
     `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     PRIMARY KEY (`id`),
@@ -29,6 +32,22 @@ CREATE TABLE IF NOT EXISTS `song` (
     INDEX `idx_status_create_time` (`status`, `create_time`)
     ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='歌曲表';
 
+-- 音频对象表，相同内容的歌曲共享同一个文件
+CREATE TABLE IF NOT EXISTS `audio_object` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '对象ID',
+    `sha256` CHAR(64) NOT NULL COMMENT '文件内容SHA-256',
+    `file_name` VARCHAR(255) NOT NULL COMMENT '文件存储名',
+    `size` BIGINT NOT NULL COMMENT '文件大小（字节）',
+    `duration` BIGINT COMMENT '音频时长（毫秒）',
+    `ref_count` INT NOT NULL DEFAULT 0 COMMENT '引用该文件的歌曲数',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_sha256` (`sha256`)
+    ) ENGINE = InnoDB
+    DEFAULT CHARSET = utf8mb4
+    COLLATE = utf8mb4_unicode_ci COMMENT ='音频对象表';
+
 -- 积分流水表
 CREATE TABLE IF NOT EXISTS `points_record`(
     `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '记录ID',
@@ -118,12 +137,25 @@ CREATE TABLE IF NOT EXISTS `checkin_count` (
     DEFAULT CHARSET = utf8mb4
     COLLATE = utf8mb4_unicode_ci COMMENT ='日签到数统计表';
 
+-- 歌曲播放次数表
+CREATE TABLE IF NOT EXISTS `song_play_count` (
+    `song_id` BIGINT NOT NULL COMMENT '歌曲ID',
+    `play_count` BIGINT NOT NULL DEFAULT 0 COMMENT '播放次数',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`song_id`)
+    ) ENGINE = InnoDB
+    DEFAULT CHARSET = utf8mb4
+    COLLATE = utf8mb4_unicode_ci COMMENT ='歌曲播放次数表';
+
 -- 查看表结构
 SHOW CREATE TABLE `user`;
 SHOW CREATE TABLE `song`;
+SHOW CREATE TABLE `audio_object`;
 SHOW CREATE TABLE `points_record`;
 SHOW CREATE TABLE `checkin_log`;
 SHOW CREATE TABLE `checkin_summary`;
 SHOW CREATE TABLE `login_log`;
 SHOW CREATE TABLE `dau`;
-SHOW CREATE TABLE `checkin_count`;
\ No newline at end of file
+SHOW CREATE TABLE `checkin_count`;
+SHOW CREATE TABLE `song_play_count`;
\ No newline at end of file
@@ -0,0 +1,53 @@
+-- 已有数据库的增量变更，新建数据库无需执行（create.sql 已包含）
+-- 按顺序手动执行，文件末尾的可选变更除外
+
+-- 歌曲分片上传
+ALTER TABLE `song`
+    ADD COLUMN `upload_id` VARCHAR(255) COMMENT '分片上传ID' AFTER `status`,
+    MODIFY COLUMN `status` VARCHAR(20) NOT NULL DEFAULT 'UPLOADING' COMMENT '歌曲状态: UPLOADING, PROCESSING, NORMAL, DELETING';
+
+-- 歌曲文件按内容哈希去重
+ALTER TABLE `song`
+    ADD COLUMN `sha256` CHAR(64) COMMENT '文件内容SHA-256，不为空时文件由音频对象表按引用计数管理' AFTER `upload_id`;
+
+CREATE TABLE IF NOT EXISTS `audio_object` (
+    `id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '对象ID',
+    `sha256` CHAR(64) NOT NULL COMMENT '文件内容SHA-256',
+    `file_name` VARCHAR(255) NOT NULL COMMENT '文件存储名',
+    `size` BIGINT NOT NULL COMMENT '文件大小（字节）',
+    `duration` BIGINT COMMENT '音频时长（毫秒）',
+    `ref_count` INT NOT NULL DEFAULT 0 COMMENT '引用该文件的歌曲数',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_sha256` (`sha256`)
+    ) ENGINE = InnoDB
+    DEFAULT CHARSET = utf8mb4
+    COLLATE = utf8mb4_unicode_ci COMMENT ='音频对象表';
+
+-- 歌曲播放次数表
+CREATE TABLE IF NOT EXISTS `song_play_count` (
+    `song_id` BIGINT NOT NULL COMMENT '歌曲ID',
+    `play_count` BIGINT NOT NULL DEFAULT 0 COMMENT '播放次数',
+    `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (`song_id`)
+    ) ENGINE = InnoDB
+    DEFAULT CHARSET = utf8mb4
+    COLLATE = utf8mb4_unicode_ci COMMENT ='歌曲播放次数表';
+
+-- 歌曲后台处理失败次数
+ALTER TABLE `song`
+    ADD COLUMN `process_attempts` INT NOT NULL DEFAULT 0 COMMENT '后台处理失败次数' AFTER `sha256`;
+
+-- ---------- 以下为可选变更，不按顺序执行 ----------
+
+-- 歌名与用户名全文索引，只在开启 song.search.fulltext.enabled 前执行（新建数据库同样需要，create.sql 不包含）
+-- 大表上建立全文索引耗时较长，应在低峰期执行
+-- ngram 分词会丢弃包含停用词的词元，建索引前需关闭停用词：SET GLOBAL innodb_ft_enable_stopword = OFF;
+-- ngram_token_size 使用默认值 2
+ALTER TABLE `song`
+    ADD FULLTEXT INDEX `ft_name` (`name`) WITH PARSER ngram;
+
+ALTER TABLE `user`
+    ADD FULLTEXT INDEX `ft_name` (`name`) WITH PARSER ngram;
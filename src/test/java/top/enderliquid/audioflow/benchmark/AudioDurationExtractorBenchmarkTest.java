@@ -0,0 +1,104 @@
+package top.enderliquid.audioflow.benchmark;
+
+import org.junit.jupiter.api.Test;
+import top.enderliquid.audioflow.common.audio.AudioFixtures;
+import top.enderliquid.audioflow.common.audio.AudioSource;
+import top.enderliquid.audioflow.common.audio.AudioStreamInspector;
+import top.enderliquid.audioflow.common.audio.extractor.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 音频时长提取性能基准测试
+ * 对比原生区间读取提取器与 Tika 完整解析在各格式下的传输字节数与耗时。
+ * 网络以固定往返延迟 + 带宽模拟。
+ */
+class AudioDurationExtractorBenchmarkTest {
+
+    private static final int HEAD_SIZE = 64 * 1024;
+    private static final long RTT_MILLIS = 10;
+    private static final long BANDWIDTH_BYTES_PER_SECOND = 20L * 1024 * 1024;
+
+    @Test
+    public void benchmarkDurationExtractionPerFormat() throws Exception {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("mp3", AudioFixtures.mp3());
+        files.put("wav", AudioFixtures.wav(44100, 2, 16, 60));
+        files.put("flac", AudioFixtures.flac(44100, 44100L * 60, 8 * 1024 * 1024));
+        files.put("ogg", AudioFixtures.oggVorbis(44100, 44100L * 60, 4 * 1024 * 1024));
+
+        Map<String, AudioDurationExtractor> extractors = Map.of(
+                "mp3", new Mp3DurationExtractor(),
+                "wav", new WavDurationExtractor(),
+                "flac", new FlacDurationExtractor(),
+                "ogg", new OggDurationExtractor());
+
+        System.out.printf("%-5s %10s | %12s %8s %10s %8s | %12s %10s %8s%n",
+                "格式", "文件大小", "原生传输字节", "请求数", "原生耗时ms", "原生结果", "Tika传输字节", "Tika耗时ms", "Tika结果");
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            byte[] file = entry.getValue();
+
+            long start = System.nanoTime();
+            AudioSource source = simulatedSource(file);
+            Long nativeDuration = extractors.get(entry.getKey()).extractDurationInMills(source);
+            long nativeMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            AtomicLong tikaBytes = new AtomicLong();
+            Long tikaDuration;
+            try (AudioStreamInspector inspector = new AudioStreamInspector(simulatedStream(file, tikaBytes), file.length)) {
+                tikaDuration = inspector.parseDurationInMills();
+                inspector.drainAndCount();
+            }
+            long tikaMillis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("%-5s %10d | %12d %8d %10d %8s | %12d %10d %8s%n",
+                    entry.getKey(), file.length,
+                    source.getBytesTransferred(), source.getRequestCount(), nativeMillis, nativeDuration,
+                    tikaBytes.get(), tikaMillis, tikaDuration);
+        }
+    }
+
+    private static AudioSource simulatedSource(byte[] file) {
+        byte[] head = Arrays.copyOf(file, Math.min(HEAD_SIZE, file.length));
+        simulateTransfer(head.length);
+        return new AudioSource(head, file.length, (offset, length) -> {
+            int end = (int) Math.min(file.length, offset + length);
+            simulateTransfer(end - offset);
+            return Arrays.copyOfRange(file, (int) offset, end);
+        });
+    }
+
+    private static InputStream simulatedStream(byte[] file, AtomicLong counter) {
+        simulateTransfer(0);
+        return new ByteArrayInputStream(file) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    counter.addAndGet(n);
+                    sleepMillis(n * 1000L / BANDWIDTH_BYTES_PER_SECOND);
+                }
+                return n;
+            }
+        };
+    }
+
+    private static void simulateTransfer(long bytes) {
+        sleepMillis(RTT_MILLIS + bytes * 1000L / BANDWIDTH_BYTES_PER_SECOND);
+    }
+
+    private static void sleepMillis(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
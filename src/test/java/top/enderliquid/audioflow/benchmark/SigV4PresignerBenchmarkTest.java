@@ -0,0 +1,68 @@
+package top.enderliquid.audioflow.benchmark;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import top.enderliquid.audioflow.manager.impl.SigV4Presigner;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * 预签名性能基准测试
+ * 对比内置 SigV4Presigner 与 SDK S3Presigner 生成 GET 预签名 URL 的平均耗时。
+ * 每轮先预热再计时，结果写入 sink 防止被优化掉。
+ */
+class SigV4PresignerBenchmarkTest {
+
+    private static final String ENDPOINT = "http://s3.cn-south-1.qiniucs.com";
+    private static final String REGION = "cn-south-1";
+    private static final String BUCKET = "audioflow";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private long sink;
+
+    @Test
+    public void benchmarkPresignGetUrl() {
+        Duration expiration = Duration.ofSeconds(3600);
+        try (S3Presigner sdk = S3Presigner.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("AKID", "SECRET")))
+                .serviceConfiguration(S3Configuration.builder().chunkedEncodingEnabled(false).build())
+                .region(Region.of(REGION))
+                .endpointOverride(URI.create(ENDPOINT))
+                .build()) {
+            SigV4Presigner presigner = new SigV4Presigner(URI.create(ENDPOINT), REGION, BUCKET,
+                    "AKID", "SECRET", false, Clock.systemUTC());
+
+            Runnable sdkCall = () -> sink += sdk.presignGetObject(GetObjectPresignRequest.builder()
+                    .signatureDuration(expiration)
+                    .getObjectRequest(builder -> builder.bucket(BUCKET).key("1234567890123456789.mp3"))
+                    .build()).url().toString().length();
+            Runnable fastCall = () -> sink += presigner.presignGet("1234567890123456789.mp3", expiration).length();
+
+            double sdkNanos = measure(sdkCall);
+            double fastNanos = measure(fastCall);
+            System.out.printf("S3Presigner 平均耗时: %.0fns%n", sdkNanos);
+            System.out.printf("SigV4Presigner 平均耗时: %.0fns%n", fastNanos);
+            System.out.printf("加速比: %.1fx%n", sdkNanos / fastNanos);
+            System.out.println("sink: " + sink);
+        }
+    }
+
+    private static double measure(Runnable call) {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.run();
+        }
+        return (double) (System.nanoTime() - start) / ITERATIONS;
+    }
+}
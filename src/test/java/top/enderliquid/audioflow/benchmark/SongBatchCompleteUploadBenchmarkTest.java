@@ -0,0 +1,135 @@
+package top.enderliquid.audioflow.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import top.enderliquid.audioflow.common.MockOSSConfig.MockOSSManager;
+import top.enderliquid.audioflow.common.audio.AudioProbe;
+import top.enderliquid.audioflow.common.audio.extractor.*;
+import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.common.exception.ExceptionTranslator;
+import top.enderliquid.audioflow.dto.request.song.SongBatchCompleteDTO;
+import top.enderliquid.audioflow.dto.response.song.SongBatchCompleteUploadVO;
+import top.enderliquid.audioflow.entity.Song;
+import top.enderliquid.audioflow.entity.User;
+import top.enderliquid.audioflow.manager.AudioObjectManager;
+import top.enderliquid.audioflow.manager.CleanupCheckpointManager;
+import top.enderliquid.audioflow.manager.PresignedUrlCacheManager;
+import top.enderliquid.audioflow.manager.SongCacheManager;
+import top.enderliquid.audioflow.manager.SongCountManager;
+import top.enderliquid.audioflow.manager.SongManager;
+import top.enderliquid.audioflow.manager.SongPageResponseCacheManager;
+import top.enderliquid.audioflow.manager.SongPlayCountManager;
+import top.enderliquid.audioflow.manager.SongSearchIndexManager;
+import top.enderliquid.audioflow.manager.SongSuggestManager;
+import top.enderliquid.audioflow.manager.TrendingManager;
+import top.enderliquid.audioflow.manager.UserManager;
+import top.enderliquid.audioflow.service.impl.SongServiceImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 批量完成上传性能基准测试
+ * 使用注入固定延迟的 MockOSSManager 模拟对象存储往返，对比不同单请求并发数下的整体耗时。
+ * 数据库层使用内存模拟，不依赖外部服务。
+ */
+class SongBatchCompleteUploadBenchmarkTest {
+
+    private static final long USER_ID = 1L;
+    private static final int BATCH_SIZE = 10;
+    private static final Duration OSS_LATENCY = Duration.ofMillis(30);
+
+    @Test
+    public void benchmarkBatchCompleteUploadConcurrency() throws Exception {
+        System.out.printf("%-8s %10s %8s%n", "并发数", "耗时ms", "成功数");
+        for (int concurrency : new int[]{1, 2, 4, 10}) {
+            Map<Long, Song> songTable = new ConcurrentHashMap<>();
+            MockOSSManager ossManager = new MockOSSManager();
+            SongServiceImpl songService = createSongService(songTable, ossManager, concurrency);
+            List<Long> songIds = new ArrayList<>();
+            for (long id = 1; id <= BATCH_SIZE; id++) {
+                Song song = new Song();
+                song.setId(id);
+                song.setFileName(id + ".mp3");
+                song.setUploaderId(USER_ID);
+                song.setStatus(SongStatus.UPLOADING);
+                songTable.put(id, song);
+                ossManager.simulateUpload(song.getFileName());
+                songIds.add(id);
+            }
+            ossManager.setLatency(OSS_LATENCY);
+
+            long start = System.nanoTime();
+            SongBatchCompleteUploadVO vo = songService.batchCompleteUpload(new SongBatchCompleteDTO(songIds), USER_ID);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            songService.destroy();
+
+            assertEquals(BATCH_SIZE, vo.getResult().getSuccessCount());
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                assertEquals(i, vo.getResult().getSuccessList().get(i).getIndex());
+            }
+            System.out.printf("%-8d %10d %8d%n", concurrency, elapsedMillis, vo.getResult().getSuccessCount());
+        }
+    }
+
+    private SongServiceImpl createSongService(Map<Long, Song> songTable, MockOSSManager ossManager, int concurrency) {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setName("benchmark");
+        UserManager userManager = mock(UserManager.class);
+        when(userManager.getById(USER_ID)).thenReturn(user);
+
+        SongManager songManager = mock(SongManager.class);
+        when(songManager.getById(any())).thenAnswer(invocation -> copyOf(songTable.get((Long) invocation.getArgument(0))));
+        when(songManager.getByIdForUpdate(any())).thenAnswer(invocation -> copyOf(songTable.get((Long) invocation.getArgument(0))));
+        when(songManager.updateById(any())).thenAnswer(invocation -> {
+            Song song = invocation.getArgument(0);
+            songTable.put(song.getId(), copyOf(song));
+            return true;
+        });
+
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        AudioProbe audioProbe = new AudioProbe(List.of(
+                new Mp3DurationExtractor(), new WavDurationExtractor(),
+                new FlacDurationExtractor(), new OggDurationExtractor()));
+        SongServiceImpl songService = new SongServiceImpl(userManager, songManager, ossManager,
+                new ExceptionTranslator(), txManager, new SimpleMeterRegistry(), audioProbe,
+                mock(PresignedUrlCacheManager.class), mock(AudioObjectManager.class), mock(CleanupCheckpointManager.class),
+                mock(SongSearchIndexManager.class), mock(SongCountManager.class),
+                mock(SongCacheManager.class), mock(SongPlayCountManager.class), mock(TrendingManager.class),
+                mock(SongPageResponseCacheManager.class), mock(SongSuggestManager.class));
+        ReflectionTestUtils.setField(songService, "maxFileSizeStr", "20MB");
+        ReflectionTestUtils.setField(songService, "multipartThresholdStr", "16MB");
+        ReflectionTestUtils.setField(songService, "multipartPartSizeStr", "8MB");
+        ReflectionTestUtils.setField(songService, "processingConcurrency", 1);
+        ReflectionTestUtils.setField(songService, "processingQueueCapacity", 1);
+        ReflectionTestUtils.setField(songService, "batchConcurrency", concurrency);
+        ReflectionTestUtils.setField(songService, "batchGlobalConcurrency", 32);
+        ReflectionTestUtils.setField(songService, "cleanupBatchSize", 200);
+        songService.init();
+        return songService;
+    }
+
+    private static Song copyOf(Song song) {
+        if (song == null) {
+            return null;
+        }
+        Song copy = new Song();
+        BeanUtils.copyProperties(song, copy);
+        return copy;
+    }
+}
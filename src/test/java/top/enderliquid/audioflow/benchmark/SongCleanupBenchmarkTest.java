@@ -0,0 +1,179 @@
+package top.enderliquid.audioflow.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import top.enderliquid.audioflow.common.MockOSSConfig.MockOSSManager;
+import top.enderliquid.audioflow.common.audio.AudioProbe;
+import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.common.exception.ExceptionTranslator;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
+import top.enderliquid.audioflow.entity.Song;
+import top.enderliquid.audioflow.manager.AudioObjectManager;
+import top.enderliquid.audioflow.manager.CleanupCheckpointManager;
+import top.enderliquid.audioflow.manager.PresignedUrlCacheManager;
+import top.enderliquid.audioflow.manager.SongCacheManager;
+import top.enderliquid.audioflow.manager.SongCountManager;
+import top.enderliquid.audioflow.manager.SongManager;
+import top.enderliquid.audioflow.manager.SongPageResponseCacheManager;
+import top.enderliquid.audioflow.manager.SongPlayCountManager;
+import top.enderliquid.audioflow.manager.SongSearchIndexManager;
+import top.enderliquid.audioflow.manager.SongSuggestManager;
+import top.enderliquid.audioflow.manager.TrendingManager;
+import top.enderliquid.audioflow.manager.UserManager;
+import top.enderliquid.audioflow.service.impl.SongServiceImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 过期歌曲清理性能基准测试
+ * 使用注入固定延迟的 MockOSSManager 模拟对象存储往返，统计不同批大小下的清理耗时、批量删除请求数与事务数。
+ * 数据库层使用内存模拟，不依赖外部服务。
+ */
+@Tag("benchmark")
+class SongCleanupBenchmarkTest {
+
+    private static final int SONG_COUNT = 2000;
+    private static final int UPLOADER_COUNT = 10;
+    private static final Duration OSS_LATENCY = Duration.ofMillis(20);
+    private static final LocalDateTime CREATE_TIME_BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final Comparator<Song> KEYSET_ORDER = Comparator.comparing(Song::getCreateTime).thenComparing(Song::getId);
+
+    @Test
+    public void benchmarkCleanupBatchSize() {
+        System.out.printf("%-8s %10s %10s %10s %8s%n", "批大小", "耗时ms", "删除请求数", "事务数", "清理数");
+        for (int batchSize : new int[]{10, 50, 200, 1000}) {
+            Map<Long, Song> songTable = new ConcurrentHashMap<>();
+            CountingOSSManager ossManager = new CountingOSSManager();
+            AtomicInteger transactionCount = new AtomicInteger();
+            Map<Long, Integer> refundedCounts = new ConcurrentHashMap<>();
+            SongServiceImpl songService = createSongService(songTable, ossManager, transactionCount, refundedCounts, batchSize);
+            for (long id = 1; id <= SONG_COUNT; id++) {
+                Song song = new Song();
+                song.setId(id);
+                song.setFileName(id + ".mp3");
+                song.setUploaderId(id % UPLOADER_COUNT);
+                song.setStatus(id % 2 == 0 ? SongStatus.UPLOADING : SongStatus.DELETING);
+                // 每 10 条记录共用同一创建时间，覆盖按 ID 区分先后的情况
+                song.setCreateTime(CREATE_TIME_BASE.plusSeconds(id / 10));
+                songTable.put(id, song);
+                // 一半的文件未上传，批量删除时视为删除成功
+                if (id % 4 < 2) {
+                    ossManager.simulateUpload(song.getFileName(), new byte[16]);
+                }
+            }
+            ossManager.setLatency(OSS_LATENCY);
+
+            long start = System.nanoTime();
+            int cleanedCount = songService.cleanupExpiredUploads();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            songService.destroy();
+
+            // UPLOADING 与 DELETING 各占一半，分别按批扫描
+            int expectedBatches = 2 * ((SONG_COUNT / 2 + batchSize - 1) / batchSize);
+            assertEquals(SONG_COUNT, cleanedCount);
+            assertTrue(songTable.isEmpty());
+            assertFalse(ossManager.hasFile("1.mp3"));
+            assertEquals(expectedBatches, ossManager.deleteFilesCalls.get());
+            assertEquals(expectedBatches, transactionCount.get());
+            assertEquals(SONG_COUNT / 2, refundedCounts.values().stream().mapToInt(Integer::intValue).sum());
+            System.out.printf("%-8d %10d %10d %10d %8d%n", batchSize, elapsedMillis,
+                    ossManager.deleteFilesCalls.get(), transactionCount.get(), cleanedCount);
+        }
+    }
+
+    private SongServiceImpl createSongService(Map<Long, Song> songTable, MockOSSManager ossManager,
+                                              AtomicInteger transactionCount, Map<Long, Integer> refundedCounts,
+                                              int batchSize) {
+        UserManager userManager = mock(UserManager.class);
+        when(userManager.addPointsForEach(any(), anyInt(), any(), anyList())).thenAnswer(invocation -> {
+            List<Long> refIds = invocation.getArgument(3);
+            refundedCounts.merge(invocation.getArgument(0), refIds.size(), Integer::sum);
+            return 0;
+        });
+
+        SongManager songManager = mock(SongManager.class);
+        when(songManager.listByStatusAndBeforeTimeAfter(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            SongStatus status = invocation.getArgument(0);
+            LocalDateTime time = invocation.getArgument(1);
+            SongKeysetBO after = invocation.getArgument(2);
+            int limit = invocation.getArgument(3);
+            return songTable.values().stream()
+                    .filter(song -> song.getStatus() == status && song.getCreateTime().isBefore(time))
+                    .filter(song -> after == null || KEYSET_ORDER.compare(song, toSong(after)) > 0)
+                    .sorted(KEYSET_ORDER)
+                    .limit(limit)
+                    .toList();
+        });
+        when(songManager.listByIdsForUpdate(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            List<Song> songs = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Song song = songTable.get(id);
+                if (song != null) songs.add(song);
+            }
+            return songs;
+        });
+        when(songManager.removeByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            ids.forEach(songTable::remove);
+            return true;
+        });
+
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenAnswer(invocation -> {
+            transactionCount.incrementAndGet();
+            return new SimpleTransactionStatus();
+        });
+
+        SongServiceImpl songService = new SongServiceImpl(userManager, songManager, ossManager,
+                new ExceptionTranslator(), txManager, new SimpleMeterRegistry(), new AudioProbe(List.of()),
+                mock(PresignedUrlCacheManager.class), mock(AudioObjectManager.class), mock(CleanupCheckpointManager.class),
+                mock(SongSearchIndexManager.class), mock(SongCountManager.class),
+                mock(SongCacheManager.class), mock(SongPlayCountManager.class), mock(TrendingManager.class),
+                mock(SongPageResponseCacheManager.class), mock(SongSuggestManager.class));
+        ReflectionTestUtils.setField(songService, "maxFileSizeStr", "20MB");
+        ReflectionTestUtils.setField(songService, "multipartThresholdStr", "16MB");
+        ReflectionTestUtils.setField(songService, "multipartPartSizeStr", "8MB");
+        ReflectionTestUtils.setField(songService, "presignedUrlExpirationSeconds", 1800);
+        ReflectionTestUtils.setField(songService, "pointsPerUpload", 10);
+        ReflectionTestUtils.setField(songService, "processingConcurrency", 1);
+        ReflectionTestUtils.setField(songService, "processingQueueCapacity", 1);
+        ReflectionTestUtils.setField(songService, "batchConcurrency", 1);
+        ReflectionTestUtils.setField(songService, "batchGlobalConcurrency", 1);
+        ReflectionTestUtils.setField(songService, "cleanupBatchSize", batchSize);
+        songService.init();
+        return songService;
+    }
+
+    private static Song toSong(SongKeysetBO keyset) {
+        Song song = new Song();
+        song.setCreateTime(keyset.getCreateTime());
+        song.setId(keyset.getId());
+        return song;
+    }
+
+    private static class CountingOSSManager extends MockOSSManager {
+        private final AtomicInteger deleteFilesCalls = new AtomicInteger();
+
+        @Override
+        public Set<String> deleteFiles(Collection<String> fileNames) {
+            deleteFilesCalls.incrementAndGet();
+            return super.deleteFiles(fileNames);
+        }
+    }
+}
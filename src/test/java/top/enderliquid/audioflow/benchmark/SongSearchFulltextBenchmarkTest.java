@@ -0,0 +1,140 @@
+package top.enderliquid.audioflow.benchmark;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import top.enderliquid.audioflow.common.MockOSSConfig;
+import top.enderliquid.audioflow.common.TestDataHelper;
+import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongPageParam;
+import top.enderliquid.audioflow.mapper.SongMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 歌曲分页检索性能基准测试
+ * 在生成的大数据集上对比前导通配符模糊匹配与 FULLTEXT ngram 全文检索的查询耗时。
+ * 需要真实的 MySQL 测试库，全文索引不存在时自动创建。
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Import(MockOSSConfig.class)
+class SongSearchFulltextBenchmarkTest {
+
+    private static final int USER_COUNT = 2_000;
+    private static final int SONG_COUNT = 200_000;
+    private static final int INSERT_BATCH_SIZE = 2_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 20;
+    private static final String[] WORDS = {
+            "晴天", "七里香", "夜曲", "稻香", "告白气球", "青花瓷", "海阔天空", "光年之外", "起风了", "孤勇者",
+            "Sunny", "Night", "Love", "Dream", "River", "Summer", "Rain", "Star", "Fire", "Ocean"
+    };
+    private static final String[] KEYWORDS = {"晴天", "花瓷", "光年", "Sunny", "ream", "ocean"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SongMapper songMapper;
+
+    @Autowired
+    private TestDataHelper testDataHelper;
+
+    @BeforeEach
+    void setUp() {
+        testDataHelper.cleanDatabase();
+        ensureFulltextIndex("song");
+        ensureFulltextIndex("user");
+        generateDataset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testDataHelper.cleanDatabase();
+    }
+
+    @Test
+    public void benchmarkLikeVersusFulltext() {
+        System.out.printf("数据集: %d 首歌曲, %d 个用户%n", SONG_COUNT, USER_COUNT);
+        System.out.printf("%-10s %-8s %10s %10s %10s%n", "关键字", "方式", "平均ms", "p95ms", "命中数");
+        for (String keyword : KEYWORDS) {
+            long likeTotal = measure(keyword, false);
+            long fulltextTotal = measure(keyword, true);
+            // ngram 短语匹配近似于子串匹配，命中数应与模糊匹配一致或略少（停用词等原因）
+            assertTrue(fulltextTotal <= likeTotal);
+        }
+    }
+
+    private long measure(String keyword, boolean fulltext) {
+        SongPageParam param = new SongPageParam(null, null, keyword, null, false,
+                null, fulltext ? "\"" + keyword + "\"" : null);
+        long total = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            total = songMapper.selectPageByUploaderInfoOrSongInfo(new Page<SongBO>(1, 10), param).getTotal();
+        }
+        long[] nanos = new long[MEASURE_ROUNDS];
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            songMapper.selectPageByUploaderInfoOrSongInfo(new Page<SongBO>(1, 10), param);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double averageMillis = Arrays.stream(nanos).average().orElse(0) / 1_000_000;
+        double p95Millis = nanos[(int) Math.ceil(MEASURE_ROUNDS * 0.95) - 1] / 1_000_000.0;
+        System.out.printf("%-10s %-8s %10.2f %10.2f %10d%n", keyword, fulltext ? "FULLTEXT" : "LIKE",
+                averageMillis, p95Millis, total);
+        return total;
+    }
+
+    private void ensureFulltextIndex(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.STATISTICS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = 'ft_name'",
+                Integer.class, table);
+        if (count == null || count == 0) {
+            jdbcTemplate.execute("ALTER TABLE `" + table + "` ADD FULLTEXT INDEX `ft_name` (`name`) WITH PARSER ngram");
+        }
+    }
+
+    private void generateDataset() {
+        Random random = new Random(42);
+        List<Object[]> users = new ArrayList<>(USER_COUNT);
+        for (int i = 1; i <= USER_COUNT; i++) {
+            users.add(new Object[]{i, "bench_user_" + i + "@example.com", randomName(random, "用户"), "x", 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user (id, email, name, password, points) VALUES (?, ?, ?, ?, ?)", users);
+
+        List<Object[]> songs = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 1; i <= SONG_COUNT; i++) {
+            songs.add(new Object[]{i, randomName(random, "歌曲"), i + ".mp3", 1 + random.nextInt(USER_COUNT)});
+            if (songs.size() == INSERT_BATCH_SIZE) {
+                insertSongs(songs);
+                songs.clear();
+            }
+        }
+        insertSongs(songs);
+    }
+
+    private void insertSongs(List<Object[]> songs) {
+        if (songs.isEmpty()) return;
+        jdbcTemplate.batchUpdate("INSERT INTO song (id, name, file_name, uploader_id, status) " +
+                "VALUES (?, ?, ?, ?, 'NORMAL')", songs);
+    }
+
+    private static String randomName(Random random, String prefix) {
+        return prefix + random.nextInt(10_000) + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,173 @@
+package top.enderliquid.audioflow.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import top.enderliquid.audioflow.common.MockOSSConfig;
+import top.enderliquid.audioflow.common.TestDataHelper;
+import top.enderliquid.audioflow.common.enums.PointsType;
+import top.enderliquid.audioflow.common.transaction.TransactionHelper;
+import top.enderliquid.audioflow.entity.PointsRecord;
+import top.enderliquid.audioflow.entity.User;
+import top.enderliquid.audioflow.manager.UserManager;
+import top.enderliquid.audioflow.mapper.PointsRecordMapper;
+import top.enderliquid.audioflow.mapper.UserMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 热点用户积分变更的并发性能基准测试
+ * 多个线程在各自的事务中同时为同一用户变更积分，对比更新后重新读取用户行
+ * 与由 UPDATE 通过 LAST_INSERT_ID() 带出余额的吞吐量与延迟，并校验最终余额与流水的连续性。
+ * 需要真实的 MySQL 测试库。
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Import(MockOSSConfig.class)
+class UserAddPointsContentionBenchmarkTest {
+
+    private static final long HOT_USER_ID = 1L;
+    private static final int THREADS = 32;
+    private static final int CALLS_PER_THREAD = 200;
+    private static final int DELTA = 1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @Autowired
+    private UserManager userManager;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PointsRecordMapper pointsRecordMapper;
+
+    @Autowired
+    private TestDataHelper testDataHelper;
+
+    @BeforeEach
+    void setUp() {
+        testDataHelper.cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        testDataHelper.cleanDatabase();
+    }
+
+    @Test
+    public void benchmarkHotUserAddPoints() throws Exception {
+        System.out.printf("并发线程: %d, 每线程调用: %d%n", THREADS, CALLS_PER_THREAD);
+        System.out.printf("%-12s %12s %10s %10s %10s%n", "方式", "吞吐量/s", "平均ms", "p95ms", "p99ms");
+        // 预热连接池与语句缓存
+        run("warmup", this::addPointsInThreeStatements, false);
+        run("warmup", this::addPointsCapturingBalance, false);
+        run("读取用户行", this::addPointsInThreeStatements, true);
+        run("带出余额", this::addPointsCapturingBalance, true);
+    }
+
+    private void run(String name, LongConsumer addPoints, boolean print) throws Exception {
+        resetHotUser();
+        long[] nanos = new long[THREADS * CALLS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        long begin;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        int index = thread * CALLS_PER_THREAD + i;
+                        long callStart = System.nanoTime();
+                        addPoints.accept(index);
+                        nanos[index] = System.nanoTime() - callStart;
+                    }
+                    return null;
+                }));
+            }
+            begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        verifyLedger();
+        if (!print) {
+            return;
+        }
+        Arrays.sort(nanos);
+        double throughput = nanos.length / (elapsedNanos / 1_000_000_000.0);
+        System.out.printf("%-12s %12.0f %10.2f %10.2f %10.2f%n", name, throughput,
+                Arrays.stream(nanos).average().orElse(0) / 1_000_000,
+                nanos[(int) Math.ceil(nanos.length * 0.95) - 1] / 1_000_000.0,
+                nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1_000_000.0);
+    }
+
+    /**
+     * 原先的实现：条件 UPDATE 后读取余额，再插入流水
+     */
+    private void addPointsInThreeStatements(long refId) {
+        try (TransactionHelper tx = new TransactionHelper(txManager)) {
+            userMapper.addPoints(HOT_USER_ID, DELTA);
+            User user = userMapper.selectById(HOT_USER_ID);
+            PointsRecord record = new PointsRecord();
+            record.setUserId(HOT_USER_ID);
+            record.setDelta(DELTA);
+            record.setBalance(user.getPoints());
+            record.setType(PointsType.USER_CHECKIN);
+            record.setRefId(refId);
+            pointsRecordMapper.insert(record);
+            tx.commit();
+        }
+    }
+
+    private void addPointsCapturingBalance(long refId) {
+        try (TransactionHelper tx = new TransactionHelper(txManager)) {
+            userManager.addPoints(HOT_USER_ID, DELTA, PointsType.USER_CHECKIN, refId);
+            tx.commit();
+        }
+    }
+
+    private void resetHotUser() {
+        jdbcTemplate.update("DELETE FROM points_record WHERE user_id = ?", HOT_USER_ID);
+        jdbcTemplate.update("DELETE FROM user WHERE id = ?", HOT_USER_ID);
+        jdbcTemplate.update("INSERT INTO user (id, email, name, password, points) VALUES (?, ?, ?, ?, 0)",
+                HOT_USER_ID, "hot_user@example.com", "hot", "x");
+    }
+
+    /**
+     * 最终余额等于调用次数，且每条流水的余额各不相同、恰好覆盖 1 到调用次数
+     */
+    private void verifyLedger() {
+        int calls = THREADS * CALLS_PER_THREAD;
+        Integer points = jdbcTemplate.queryForObject("SELECT points FROM user WHERE id = ?", Integer.class, HOT_USER_ID);
+        assertEquals(calls * DELTA, points);
+        List<Integer> balances = jdbcTemplate.queryForList(
+                "SELECT balance FROM points_record WHERE user_id = ? ORDER BY balance", Integer.class, HOT_USER_ID);
+        assertEquals(calls, balances.size());
+        for (int i = 0; i < calls; i++) {
+            assertEquals((i + 1) * DELTA, balances.get(i));
+        }
+    }
+}
@@ -3,7 +3,9 @@ package top.enderliquid.audioflow.common;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
-import top.enderliquid.audioflow.manager.OSSManager;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+import top.enderliquid.audioflow.manager.AsyncOSSManager;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -12,33 +14,62 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 @TestConfiguration
 public class MockOSSConfig {
 
     @Bean
     @Primary
-    public OSSManager mockOSSManager() {
+    public MockOSSManager mockOSSManager() {
         return new MockOSSManager();
     }
 
-    public static class MockOSSManager implements OSSManager {
-        private final Map<String, byte[]> fileStorage = new HashMap<>();
+    public static class MockOSSManager implements AsyncOSSManager {
+        // 异步方法在虚拟线程中调用同步实现，使注入的延迟可以重叠
+        private static final Executor ASYNC_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+        private final Map<String, byte[]> fileStorage = new ConcurrentHashMap<>();
+        // 未完成的分片上传，uploadId -> 文件名
+        private final Map<String, String> multipartUploads = new ConcurrentHashMap<>();
+        // 每次调用注入的模拟网络延迟
+        private volatile Duration latency = Duration.ZERO;
+
+        public void setLatency(Duration latency) {
+            this.latency = latency;
+        }
+
+        private void simulateLatency() {
+            if (latency.isZero()) {
+                return;
+            }
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
 
         @Override
         public String generatePresignedPutUrl(String fileName, String mimeType) {
+            simulateLatency();
             return "https://mock-test-s3.example.com/upload/" + fileName;
         }
 
         @Override
         public boolean checkFileExists(String fileName) {
+            simulateLatency();
             return fileStorage.containsKey(fileName);
         }
 
         @Override
         public InputStream getFileInputStream(String fileName) {
+            simulateLatency();
             byte[] content = fileStorage.get(fileName);
             if (content == null) {
                 return null;
@@ -48,16 +79,26 @@ public class MockOSSConfig {
 
         @Override
         public boolean deleteFile(String fileName) {
+            simulateLatency();
             return fileStorage.remove(fileName) != null;
         }
 
+        @Override
+        public Set<String> deleteFiles(Collection<String> fileNames) {
+            simulateLatency();
+            fileNames.forEach(fileStorage::remove);
+            return new HashSet<>();
+        }
+
         @Override
         public String getPresignedGetUrl(String fileName, Duration expiration) {
+            simulateLatency();
             return "https://mock-test-s3.example.com/download/" + fileName;
         }
 
         @Override
         public Long getFileSize(String fileName) {
+            simulateLatency();
             byte[] content = fileStorage.get(fileName);
             if (content == null) {
                 return null;
@@ -65,14 +106,135 @@ public class MockOSSConfig {
             return (long) content.length;
         }
 
+        @Override
+        public FileRangeBO getFileRange(String fileName, long start, int length) {
+            simulateLatency();
+            byte[] content = fileStorage.get(fileName);
+            if (content == null || start < 0 || start >= content.length || length <= 0) {
+                return null;
+            }
+            int end = (int) Math.min(content.length, start + length);
+            return new FileRangeBO(Arrays.copyOfRange(content, (int) start, end), start, content.length);
+        }
+
+        @Override
+        public FileStreamBO openFileRange(String fileName, long start, long length) {
+            simulateLatency();
+            byte[] data = fileStorage.get(fileName);
+            if (data == null || start < 0 || length <= 0 || start + length > data.length) {
+                return null;
+            }
+            return FileStreamBO.ofInputStream(new ByteArrayInputStream(data, (int) start, (int) length), start, length);
+        }
+
+        @Override
+        public String createMultipartUpload(String fileName, String mimeType) {
+            simulateLatency();
+            String uploadId = UUID.randomUUID().toString();
+            multipartUploads.put(uploadId, fileName);
+            return uploadId;
+        }
+
+        @Override
+        public List<String> generatePresignedPartUrls(String fileName, String uploadId, int partCount) {
+            simulateLatency();
+            List<String> urls = new ArrayList<>(partCount);
+            for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+                urls.add("https://mock-test-s3.example.com/upload/" + fileName + "?uploadId=" + uploadId + "&partNumber=" + partNumber);
+            }
+            return urls;
+        }
+
+        @Override
+        public boolean completeMultipartUpload(String fileName, String uploadId) {
+            simulateLatency();
+            // 分片数据由 simulateUpload 直接写入完整文件
+            multipartUploads.remove(uploadId);
+            return fileStorage.containsKey(fileName);
+        }
+
+        @Override
+        public boolean abortMultipartUpload(String fileName, String uploadId) {
+            simulateLatency();
+            multipartUploads.remove(uploadId);
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> checkFileExistsAsync(String fileName) {
+            return async(() -> checkFileExists(fileName));
+        }
+
+        @Override
+        public CompletableFuture<InputStream> getFileInputStreamAsync(String fileName) {
+            return async(() -> getFileInputStream(fileName));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> deleteFileAsync(String fileName) {
+            return async(() -> deleteFile(fileName));
+        }
+
+        @Override
+        public CompletableFuture<Set<String>> deleteFilesAsync(Collection<String> fileNames) {
+            return async(() -> deleteFiles(fileNames));
+        }
+
+        @Override
+        public CompletableFuture<Long> getFileSizeAsync(String fileName) {
+            return async(() -> getFileSize(fileName));
+        }
+
+        @Override
+        public CompletableFuture<FileRangeBO> getFileRangeAsync(String fileName, long start, int length) {
+            return async(() -> getFileRange(fileName, start, length));
+        }
+
+        @Override
+        public CompletableFuture<FileStreamBO> openFileRangeAsync(String fileName, long start, long length) {
+            return async(() -> openFileRange(fileName, start, length));
+        }
+
+        @Override
+        public CompletableFuture<String> createMultipartUploadAsync(String fileName, String mimeType) {
+            return async(() -> createMultipartUpload(fileName, mimeType));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> completeMultipartUploadAsync(String fileName, String uploadId) {
+            return async(() -> completeMultipartUpload(fileName, uploadId));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> abortMultipartUploadAsync(String fileName, String uploadId) {
+            return async(() -> abortMultipartUpload(fileName, uploadId));
+        }
+
+        private static <T> CompletableFuture<T> async(Supplier<T> supplier) {
+            return CompletableFuture.supplyAsync(supplier, ASYNC_EXECUTOR);
+        }
+
+        public boolean hasMultipartUpload(String uploadId) {
+            return multipartUploads.containsKey(uploadId);
+        }
+
         public void simulateUpload(String fileName) throws IOException {
             Path testAudioFile = Paths.get("src/test/resources/audio/test-song.mp3");
             byte[] audioData = Files.readAllBytes(testAudioFile);
             fileStorage.put(fileName, audioData);
         }
 
+        public void simulateUpload(String fileName, byte[] data) {
+            fileStorage.put(fileName, data);
+        }
+
+        public boolean hasFile(String fileName) {
+            return fileStorage.containsKey(fileName);
+        }
+
         public void clearAll() {
             fileStorage.clear();
+            multipartUploads.clear();
         }
     }
 }
@@ -122,4 +122,14 @@ public class TestDataHelper {
         songManager.save(song);
         return song;
     }
+
+    /**
+     * 创建处理已中断的歌曲：PROCESSING 状态且长时间未更新
+     */
+    public Song createTestStaleProcessingSong(Long userId) {
+        Song song = createTestUploadingSong(userId);
+        jdbcTemplate.update("UPDATE song SET status = ?, update_time = NOW() - INTERVAL 1 HOUR WHERE id = ?",
+                SongStatus.PROCESSING.name(), song.getId());
+        return songManager.getById(song.getId());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package top.enderliquid.audioflow.common.audio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 测试用音频文件构造工具
+ * 只构造各格式头部的合法结构，音频数据部分以静音或填充字节代替
+ */
+public final class AudioFixtures {
+    private AudioFixtures() {
+    }
+
+    public static byte[] mp3() throws IOException {
+        return Files.readAllBytes(Paths.get("src/test/resources/audio/test-song.mp3"));
+    }
+
+    public static byte[] wav(int sampleRate, int channels, int bitsPerSample, double seconds) {
+        int blockAlign = channels * bitsPerSample / 8;
+        int dataSize = (int) (sampleRate * seconds) * blockAlign;
+        // 在 fmt 与 data 之间插入一个 LIST 块，验证跳块逻辑
+        byte[] list = "INFOISFT\u0008\u0000\u0000\u0000AudioFlow".getBytes();
+        ByteBuffer b = ByteBuffer.allocate(12 + 24 + 8 + list.length + (list.length & 1) + 8 + dataSize).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("RIFF".getBytes()).putInt(b.capacity() - 8).put("WAVE".getBytes());
+        b.put("fmt ".getBytes()).putInt(16).putShort((short) 1).putShort((short) channels)
+                .putInt(sampleRate).putInt(sampleRate * blockAlign).putShort((short) blockAlign).putShort((short) bitsPerSample);
+        b.put("LIST".getBytes()).putInt(list.length).put(list);
+        if ((list.length & 1) == 1) b.put((byte) 0);
+        b.put("data".getBytes()).putInt(dataSize);
+        return b.array();
+    }
+
+    public static byte[] flac(int sampleRate, long totalSamples, int audioBytes) {
+        ByteBuffer b = ByteBuffer.allocate(4 + 4 + 34 + audioBytes);
+        b.put("fLaC".getBytes());
+        // 最后一个元数据块，类型0(STREAMINFO)，长度34
+        b.put((byte) 0x80).put((byte) 0).put((byte) 0).put((byte) 34);
+        b.putShort((short) 4096).putShort((short) 4096);
+        b.put(new byte[6]);
+        long packed = ((long) sampleRate << 44) | (1L << 41) | (15L << 36) | totalSamples;
+        b.putLong(packed);
+        b.put(new byte[16]);
+        fillNoise(b.array(), 42);
+        return b.array();
+    }
+
+    public static byte[] oggVorbis(int sampleRate, long lastGranule, int audioBytes) throws IOException {
+        ByteBuffer id = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+        id.put((byte) 1).put("vorbis".getBytes()).putInt(0).put((byte) 2).putInt(sampleRate)
+                .putInt(0).putInt(128000).putInt(0).put((byte) 0xB8).put((byte) 1);
+        return ogg(id.array(), lastGranule, audioBytes);
+    }
+
+    public static byte[] oggOpus(int preSkip, long lastGranule, int audioBytes) throws IOException {
+        ByteBuffer id = ByteBuffer.allocate(19).order(ByteOrder.LITTLE_ENDIAN);
+        id.put("OpusHead".getBytes()).put((byte) 1).put((byte) 2).putShort((short) preSkip)
+                .putInt(48000).putShort((short) 0).put((byte) 0);
+        return ogg(id.array(), lastGranule, audioBytes);
+    }
+
+    private static byte[] ogg(byte[] idPacket, long lastGranule, int audioBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(oggPage(0, 0x02, 0, idPacket));
+        int pageBody = 255 * 16;
+        int pages = Math.max(1, audioBytes / pageBody);
+        byte[] body = new byte[pageBody];
+        for (int i = 1; i <= pages; i++) {
+            fillNoise(body, 0);
+            long granule = i == pages ? lastGranule : lastGranule * i / pages;
+            out.write(oggPage(i, i == pages ? 0x04 : 0, granule, body));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] oggPage(int sequence, int headerType, long granule, byte[] body) {
+        int segments = body.length / 255 + 1;
+        ByteBuffer b = ByteBuffer.allocate(27 + segments + body.length).order(ByteOrder.LITTLE_ENDIAN);
+        b.put("OggS".getBytes()).put((byte) 0).put((byte) headerType).putLong(granule)
+                .putInt(0x1234).putInt(sequence).putInt(0).put((byte) segments);
+        for (int i = 0; i < segments - 1; i++) b.put((byte) 255);
+        b.put((byte) (body.length % 255));
+        b.put(body);
+        return b.array();
+    }
+
+    private static void fillNoise(byte[] data, int from) {
+        // 避免填充数据中出现 OggS 或帧同步字
+        for (int i = from; i < data.length; i++) {
+            data[i] = (byte) (0x20 + (i * 31) % 64);
+        }
+    }
+
+    /**
+     * 基于内存数据构造音频数据源，并记录区间读取
+     */
+    public static AudioSource source(byte[] file, int headSize, AtomicLong rangeBytes) {
+        byte[] head = Arrays.copyOf(file, Math.min(headSize, file.length));
+        return new AudioSource(head, file.length, (start, length) -> {
+            if (start >= file.length) return null;
+            int end = (int) Math.min(file.length, start + length);
+            rangeBytes.addAndGet(end - start);
+            return Arrays.copyOfRange(file, (int) start, end);
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package top.enderliquid.audioflow.common.audio;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioStreamInspectorTest {
+
+    private static byte[] audioData;
+
+    @BeforeAll
+    static void loadAudio() throws IOException {
+        audioData = Files.readAllBytes(Paths.get("src/test/resources/audio/test-song.mp3"));
+    }
+
+    @Test
+    void shouldParseAndCountInSinglePass() throws IOException {
+        CountingReadsInputStream source = new CountingReadsInputStream(audioData);
+        try (AudioStreamInspector inspector = new AudioStreamInspector(source, audioData.length)) {
+            Long duration = inspector.parseDurationInMills();
+            assertNotNull(duration);
+            assertTrue(duration > 0);
+            assertEquals(audioData.length, inspector.drainAndCount());
+        }
+        // 底层流中的每个字节只被读取一次
+        assertEquals(audioData.length, source.bytesServed);
+    }
+
+    @Test
+    void shouldStopReadingWhenLimitExceeded() throws IOException {
+        long limit = audioData.length / 2;
+        try (AudioStreamInspector inspector = new AudioStreamInspector(new ByteArrayInputStream(audioData), limit)) {
+            inspector.parseDurationInMills();
+            assertThrows(IOException.class, inspector::drainAndCount);
+            assertTrue(inspector.isLimitExceeded());
+            assertTrue(inspector.getBytesRead() <= audioData.length);
+        }
+    }
+
+    private static class CountingReadsInputStream extends ByteArrayInputStream {
+        private long bytesServed;
+
+        CountingReadsInputStream(byte[] buf) {
+            super(buf);
+        }
+
+        @Override
+        public synchronized int read() {
+            int b = super.read();
+            if (b != -1) bytesServed++;
+            return b;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            int n = super.read(b, off, len);
+            if (n > 0) bytesServed += n;
+            return n;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package top.enderliquid.audioflow.common.audio.extractor;
+
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.XMPDM;
+import org.apache.tika.parser.AutoDetectParser;
+import org.apache.tika.parser.ParseContext;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.helpers.DefaultHandler;
+import top.enderliquid.audioflow.common.audio.AudioFixtures;
+import top.enderliquid.audioflow.common.audio.AudioSource;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AudioDurationExtractorTest {
+
+    private static final int HEAD_SIZE = 64 * 1024;
+
+    @Test
+    void shouldExtractMp3DurationFromInfoHeaderCloseToTika() throws Exception {
+        byte[] file = AudioFixtures.mp3();
+        AtomicLong rangeBytes = new AtomicLong();
+        Long duration = new Mp3DurationExtractor().extractDurationInMills(AudioFixtures.source(file, HEAD_SIZE, rangeBytes));
+
+        Metadata metadata = new Metadata();
+        new AutoDetectParser().parse(new ByteArrayInputStream(file), new DefaultHandler(), metadata, new ParseContext());
+        long tikaDuration = Math.round(Double.parseDouble(metadata.get(XMPDM.DURATION)) * 1000);
+
+        assertNotNull(duration);
+        assertEquals(tikaDuration, duration, 100);
+        // ID3 标签之后的帧头需要一次额外的区间读取，但远小于整个文件
+        assertTrue(rangeBytes.get() < file.length / 10);
+    }
+
+    @Test
+    void shouldFallBackToCbrEstimateWhenNoVbrHeader() throws Exception {
+        byte[] file = AudioFixtures.mp3();
+        int frame = indexOf(file, "Info") - 36;
+        // 抹掉 Info 头后按 CBR 估算
+        file[frame + 36] = 'X';
+        file[frame + 37] = 'X';
+        Long duration = new Mp3DurationExtractor().extractDurationInMills(AudioFixtures.source(file, HEAD_SIZE, new AtomicLong()));
+        assertNotNull(duration);
+        long expected = Math.round((file.length - frame) * 8.0 / 128);
+        assertEquals(expected, duration);
+    }
+
+    @Test
+    void shouldExtractWavDurationAcrossChunks() throws Exception {
+        byte[] file = AudioFixtures.wav(44100, 2, 16, 3.5);
+        Long duration = new WavDurationExtractor().extractDurationInMills(AudioFixtures.source(file, HEAD_SIZE, new AtomicLong()));
+        assertEquals(3500L, duration);
+    }
+
+    @Test
+    void shouldExtractFlacDurationFromStreamInfo() throws Exception {
+        byte[] file = AudioFixtures.flac(48000, 48000L * 125, 1024 * 1024);
+        AtomicLong rangeBytes = new AtomicLong();
+        Long duration = new FlacDurationExtractor().extractDurationInMills(AudioFixtures.source(file, HEAD_SIZE, rangeBytes));
+        assertEquals(125000L, duration);
+        assertEquals(0, rangeBytes.get());
+    }
+
+    @Test
+    void shouldReturnNullWhenFlacTotalSamplesUnknown() throws Exception {
+        byte[] file = AudioFixtures.flac(44100, 0, 1024);
+        assertNull(new FlacDurationExtractor().extractDurationInMills(AudioFixtures.source(file, HEAD_SIZE, new AtomicLong())));
+    }
+
+    @Test
+    void shouldExtractOggVorbisDurationFromTailPage() throws Exception {
+        byte[] file = AudioFixtures.oggVorbis(44100, 44100L * 200, 2 * 1024 * 1024);
+        AtomicLong rangeBytes = new AtomicLong();
+        AudioSource source = AudioFixtures.source(file, HEAD_SIZE, rangeBytes);
+        Long duration = new OggDurationExtractor().extractDurationInMills(source);
+        assertEquals(200000L, duration);
+        assertEquals(64 * 1024, rangeBytes.get());
+        assertEquals(2, source.getRequestCount());
+    }
+
+    @Test
+    void shouldSubtractPreSkipForOggOpus() throws Exception {
+        byte[] file = AudioFixtures.oggOpus(312, 48000L * 60 + 312, 512 * 1024);
+        Long duration = new OggDurationExtractor().extractDurationInMills(AudioFixtures.source(file, HEAD_SIZE, new AtomicLong()));
+        assertEquals(60000L, duration);
+    }
+
+    @Test
+    void shouldReturnNullForUnrecognizedData() throws Exception {
+        byte[] file = new byte[4096];
+        AudioSource source = AudioFixtures.source(file, HEAD_SIZE, new AtomicLong());
+        assertNull(new Mp3DurationExtractor().extractDurationInMills(source));
+        assertNull(new WavDurationExtractor().extractDurationInMills(source));
+        assertNull(new FlacDurationExtractor().extractDurationInMills(source));
+        assertNull(new OggDurationExtractor().extractDurationInMills(source));
+    }
+
+    private static int indexOf(byte[] data, String ascii) {
+        byte[] pattern = ascii.getBytes();
+        outer:
+        for (int i = 0; i + pattern.length <= data.length; i++) {
+            for (int k = 0; k < pattern.length; k++) {
+                if (data[i + k] != pattern[k]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,37 @@
+package top.enderliquid.audioflow.common.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import top.enderliquid.audioflow.dto.bo.SongKeysetBO;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorUtilTest {
+
+    @Test
+    void shouldDecodeEncodedCursor() {
+        SongKeysetBO keyset = new SongKeysetBO(LocalDateTime.of(2026, 1, 2, 3, 4, 5), 1234567890123456789L);
+
+        String cursor = CursorUtil.encode(keyset, true);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"));
+        assertEquals(keyset, CursorUtil.decode(cursor, true));
+    }
+
+    @Test
+    void shouldRejectCursorWithDifferentDirection() {
+        SongKeysetBO keyset = new SongKeysetBO(LocalDateTime.of(2026, 1, 2, 3, 4, 5), 1L);
+
+        assertNull(CursorUtil.decode(CursorUtil.encode(keyset, false), true));
+        assertEquals(keyset, CursorUtil.decode(CursorUtil.encode(keyset, false), false));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "!!!", "YTox", "YTp4OjE", "YToxOjE6MQ", "YTo5OTk5OTk5OTk5OTk5OTk5OTk6MQ"})
+    void shouldReturnNullForMalformedCursor(String cursor) {
+        assertNull(CursorUtil.decode(cursor, true));
+    }
+}
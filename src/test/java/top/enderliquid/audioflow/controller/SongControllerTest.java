@@ -8,6 +8,9 @@ import org.springframework.test.web.servlet.MvcResult;
 import top.enderliquid.audioflow.entity.Song;
 import top.enderliquid.audioflow.entity.User;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -67,6 +70,50 @@ class SongControllerTest extends BaseControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void shouldStreamPartialContentWhenRangeRequested() throws Exception {
+        byte[] data = new byte[1024];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        mockOSSManager.simulateUpload(testSong.getFileName(), data);
+
+        MvcResult result = mockMvc.perform(get("/api/songs/{songId}/stream", testSong.getId())
+                        .header("Range", "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100-199/1024"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertArrayEquals(java.util.Arrays.copyOfRange(data, 100, 200), body);
+
+        String eTag = result.getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/songs/{songId}/stream", testSong.getId())
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/songs/{songId}/stream", testSong.getId())
+                        .header("Range", "bytes=-24"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 1000-1023/1024"));
+        // If-Range 不匹配时返回完整文件
+        mockMvc.perform(get("/api/songs/{songId}/stream", testSong.getId())
+                        .header("Range", "bytes=0-9")
+                        .header("If-Range", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", 1024));
+    }
+
+    @Test
+    void shouldReturn416WhenStreamRangeNotSatisfiable() throws Exception {
+        mockOSSManager.simulateUpload(testSong.getFileName(), new byte[1024]);
+
+        mockMvc.perform(get("/api/songs/{songId}/stream", testSong.getId())
+                        .header("Range", "bytes=2048-"))
+                .andExpect(status().is(416))
+                .andExpect(header().string("Content-Range", "bytes */1024"));
+    }
+
     @Test
     void shouldDeleteSuccessfullyWhenOwner() throws Exception {
         String email = testUser.getEmail();
@@ -154,6 +201,132 @@ class SongControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.success").value(true));
     }
 
+    @Test
+    void shouldUploadLargeFileWithMultipartFlow() throws Exception {
+        String email = testUser.getEmail();
+        String password = "test_password_123";
+
+        java.util.HashMap<String, String> loginDto = new java.util.HashMap<>();
+        loginDto.put("email", email);
+        loginDto.put("password", password);
+        String loginJson = objectMapper.writeValueAsString(loginDto);
+
+        MvcResult result = mockMvc.perform(post("/api/sessions")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String cookie = result.getResponse().getCookie("satoken").getValue();
+
+        java.util.HashMap<String, Object> prepareDto = new java.util.HashMap<>();
+        prepareDto.put("name", "Large Song");
+        prepareDto.put("mimeType", "audio/mpeg");
+        prepareDto.put("size", 20L * 1024 * 1024);
+        String prepareJson = objectMapper.writeValueAsString(prepareDto);
+
+        result = mockMvc.perform(post("/api/songs/prepare")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(prepareJson)
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.uploadUrl").doesNotExist())
+                .andExpect(jsonPath("$.data.partSize").value(8L * 1024 * 1024))
+                .andExpect(jsonPath("$.data.partUrls.length()").value(3))
+                .andReturn();
+
+        String response = result.getResponse().getContentAsString();
+        com.fasterxml.jackson.databind.JsonNode jsonNode = objectMapper.readTree(response);
+        Long songId = jsonNode.get("data").get("id").asLong();
+        String fileName = jsonNode.get("data").get("fileName").asText();
+
+        mockOSSManager.simulateUpload(fileName);
+
+        java.util.HashMap<String, Object> completeDto = new java.util.HashMap<>();
+        completeDto.put("songId", songId);
+        String completeJson = objectMapper.writeValueAsString(completeDto);
+
+        mockMvc.perform(post("/api/songs/complete")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(completeJson)
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.status").value("NORMAL"));
+    }
+
+    @Test
+    void shouldShareFileWhenSameContentIsUploadedAgain() throws Exception {
+        java.util.HashMap<String, String> loginDto = new java.util.HashMap<>();
+        loginDto.put("email", testUser.getEmail());
+        loginDto.put("password", "test_password_123");
+        String loginJson = objectMapper.writeValueAsString(loginDto);
+
+        MvcResult result = mockMvc.perform(post("/api/sessions")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String cookie = result.getResponse().getCookie("satoken").getValue();
+
+        byte[] audioData = java.nio.file.Files.readAllBytes(java.nio.file.Paths.get("src/test/resources/audio/test-song.mp3"));
+
+        // 首次上传，完成上传时登记文件内容
+        java.util.HashMap<String, Object> prepareDto = new java.util.HashMap<>();
+        prepareDto.put("name", "Original Song");
+        prepareDto.put("mimeType", "audio/mpeg");
+        prepareDto.put("size", (long) audioData.length);
+        result = mockMvc.perform(post("/api/songs/prepare")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(prepareDto))
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk())
+                .andReturn();
+        com.fasterxml.jackson.databind.JsonNode jsonNode = objectMapper.readTree(result.getResponse().getContentAsString());
+        Long originalSongId = jsonNode.get("data").get("id").asLong();
+        String fileName = jsonNode.get("data").get("fileName").asText();
+        mockOSSManager.simulateUpload(fileName);
+        mockMvc.perform(post("/api/songs/complete")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content("{\"songId\": " + originalSongId + "}")
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("NORMAL"));
+
+        // 相同内容再次上传时仍需上传文件，完成上传时由服务端计算哈希后改为引用已有文件
+        prepareDto.put("name", "Duplicate Song");
+        result = mockMvc.perform(post("/api/songs/prepare")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(prepareDto))
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.uploadUrl").exists())
+                .andReturn();
+        jsonNode = objectMapper.readTree(result.getResponse().getContentAsString());
+        Long duplicateSongId = jsonNode.get("data").get("id").asLong();
+        String duplicateFileName = jsonNode.get("data").get("fileName").asText();
+        assertNotEquals(fileName, duplicateFileName);
+        mockOSSManager.simulateUpload(duplicateFileName);
+        mockMvc.perform(post("/api/songs/complete")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content("{\"songId\": " + duplicateSongId + "}")
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("NORMAL"))
+                .andExpect(jsonPath("$.data.size").value(audioData.length));
+        // 本次上传的重复文件已被删除
+        assertFalse(mockOSSManager.checkFileExists(duplicateFileName));
+
+        // 删除其中一首后另一首仍可正常播放
+        mockMvc.perform(delete("/api/songs/{songId}", originalSongId)
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/songs/{id}/play", duplicateSongId))
+                .andExpect(status().is3xxRedirection());
+    }
+
     @Test
     void shouldReturnErrorWhenPrepareUploadWithoutLogin() throws Exception {
         java.util.HashMap<String, Object> prepareDto = new java.util.HashMap<>();
@@ -292,6 +465,58 @@ class SongControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.data.result.successList").isArray());
     }
 
+    @Test
+    void shouldBatchPrepareUploadReportInvalidItemsInOrder() throws Exception {
+        String email = testUser.getEmail();
+        String password = "test_password_123";
+
+        java.util.HashMap<String, String> loginDto = new java.util.HashMap<>();
+        loginDto.put("email", email);
+        loginDto.put("password", password);
+        String loginJson = objectMapper.writeValueAsString(loginDto);
+
+        MvcResult result = mockMvc.perform(post("/api/sessions")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String cookie = result.getResponse().getCookie("satoken").getValue();
+
+        java.util.HashMap<String, Object> batchPrepareDto = new java.util.HashMap<>();
+        java.util.List<java.util.HashMap<String, Object>> songs = new java.util.ArrayList<>();
+        java.util.HashMap<String, Object> song1 = new java.util.HashMap<>();
+        song1.put("name", "Batch Song 1");
+        song1.put("mimeType", "audio/mpeg");
+        song1.put("size", 1024L);
+        songs.add(song1);
+        java.util.HashMap<String, Object> song2 = new java.util.HashMap<>();
+        song2.put("name", "Batch Song 2");
+        song2.put("mimeType", "video/mp4");
+        song2.put("size", 1024L);
+        songs.add(song2);
+        java.util.HashMap<String, Object> song3 = new java.util.HashMap<>();
+        song3.put("name", "Batch Song 3");
+        song3.put("mimeType", "audio/flac");
+        song3.put("size", 2048L);
+        songs.add(song3);
+        batchPrepareDto.put("songs", songs);
+        String prepareJson = objectMapper.writeValueAsString(batchPrepareDto);
+
+        mockMvc.perform(post("/api/songs/batch-prepare")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(prepareJson)
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.result.successCount").value(2))
+                .andExpect(jsonPath("$.data.result.successList[0].index").value(0))
+                .andExpect(jsonPath("$.data.result.successList[1].index").value(2))
+                .andExpect(jsonPath("$.data.result.failureCount").value(1))
+                .andExpect(jsonPath("$.data.result.failureList[0].index").value(1))
+                .andExpect(jsonPath("$.data.result.failureList[0].message").value("不支持该文件类型"));
+    }
+
     @Test
     void shouldBatchPrepareUploadWithoutLogin() throws Exception {
         java.util.HashMap<String, Object> batchPrepareDto = new java.util.HashMap<>();
@@ -496,6 +721,30 @@ class SongControllerTest extends BaseControllerTest {
                 .andExpect(jsonPath("$.message").value("取消上传成功"));
     }
 
+    @Test
+    void shouldCancelStaleProcessingSongSuccessfully() throws Exception {
+        Song processingSong = testDataHelper.createTestStaleProcessingSong(testUser.getId());
+
+        java.util.HashMap<String, String> loginDto = new java.util.HashMap<>();
+        loginDto.put("email", testUser.getEmail());
+        loginDto.put("password", "test_password_123");
+        String loginJson = objectMapper.writeValueAsString(loginDto);
+
+        MvcResult result = mockMvc.perform(post("/api/sessions")
+                        .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                        .content(loginJson))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String cookie = result.getResponse().getCookie("satoken").getValue();
+
+        mockMvc.perform(post("/api/songs/{songId}/cancel", processingSong.getId())
+                        .cookie(new org.springframework.mock.web.MockCookie("satoken", cookie)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("取消上传成功"));
+    }
+
     @Test
     void shouldReturnErrorWhenCancelWithoutLogin() throws Exception {
         Song uploadingSong = testDataHelper.createTestUploadingSong(testUser.getId());
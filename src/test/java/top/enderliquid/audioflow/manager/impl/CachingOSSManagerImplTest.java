@@ -0,0 +1,210 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.common.MockOSSConfig.MockOSSManager;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingOSSManagerImplTest {
+
+    private final AtomicInteger downloadCount = new AtomicInteger();
+    private final AtomicInteger rangeCount = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private MockOSSManager ossManager;
+    private CachingOSSManagerImpl cachingManager;
+    private byte[] audioData;
+
+    @TempDir
+    Path cacheDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        audioData = Files.readAllBytes(Paths.get("src/test/resources/audio/test-song.mp3"));
+        ossManager = new MockOSSManager() {
+            @Override
+            public InputStream getFileInputStream(String fileName) {
+                downloadCount.incrementAndGet();
+                return super.getFileInputStream(fileName);
+            }
+
+            @Override
+            public FileRangeBO getFileRange(String fileName, long start, int length) {
+                rangeCount.incrementAndGet();
+                return super.getFileRange(fileName, start, length);
+            }
+        };
+        meterRegistry = new SimpleMeterRegistry();
+        cachingManager = new CachingOSSManagerImpl(ossManager, meterRegistry);
+        ReflectionTestUtils.setField(cachingManager, "cacheDirStr", cacheDir.toString());
+        ReflectionTestUtils.setField(cachingManager, "maxSizeStr", "8MB");
+        ReflectionTestUtils.setField(cachingManager, "maxEntrySizeStr", "4MB");
+        cachingManager.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cachingManager.destroy();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromLocalCache() throws Exception {
+        ossManager.simulateUpload("1.mp3");
+
+        try (InputStream first = cachingManager.getFileInputStream("1.mp3");
+             InputStream second = cachingManager.getFileInputStream("1.mp3")) {
+            assertArrayEquals(audioData, first.readAllBytes());
+            assertArrayEquals(audioData, second.readAllBytes());
+        }
+        assertEquals(1, downloadCount.get());
+
+        // 命中后区间读取与文件大小均不再访问对象存储
+        FileRangeBO range = cachingManager.getFileRange("1.mp3", 100, 1024);
+        assertNotNull(range);
+        assertEquals(audioData.length, range.getTotalSize());
+        assertArrayEquals(java.util.Arrays.copyOfRange(audioData, 100, 1124), range.getData());
+        assertEquals(0, rangeCount.get());
+        assertEquals(audioData.length, cachingManager.getFileSize("1.mp3"));
+
+        assertTrue(meterRegistry.get("audioflow.oss.local-cache.hit.ratio").gauge().value() > 0);
+    }
+
+    @Test
+    void shouldInvalidateImmediatelyOnDelete() throws Exception {
+        ossManager.simulateUpload("1.mp3");
+        try (InputStream inputStream = cachingManager.getFileInputStream("1.mp3")) {
+            assertNotNull(inputStream);
+        }
+
+        assertTrue(cachingManager.deleteFile("1.mp3"));
+
+        assertNull(cachingManager.getFileInputStream("1.mp3"));
+        assertFalse(cachingManager.checkFileExists("1.mp3"));
+        awaitCacheFilesAtMost(0);
+        assertEquals(0, countCacheFiles());
+    }
+
+    @Test
+    void shouldEvictWhenExceedingMaxSize() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            ossManager.simulateUpload(i + ".mp3");
+            try (InputStream inputStream = cachingManager.getFileInputStream(i + ".mp3")) {
+                assertArrayEquals(audioData, inputStream.readAllBytes());
+            }
+        }
+        long maxFiles = 8L * 1024 * 1024 / audioData.length;
+        awaitCacheFilesAtMost(maxFiles);
+        assertTrue(countCacheFiles() * (long) audioData.length <= 8L * 1024 * 1024);
+    }
+
+    @Test
+    void shouldBypassCacheForOversizedFile() throws Exception {
+        ReflectionTestUtils.setField(cachingManager, "maxEntrySizeBytes", 1024L);
+        ossManager.simulateUpload("1.mp3");
+
+        for (int i = 0; i < 2; i++) {
+            try (InputStream inputStream = cachingManager.getFileInputStream("1.mp3")) {
+                assertArrayEquals(audioData, inputStream.readAllBytes());
+            }
+        }
+        // 先检查大小，每次读取只从对象存储下载一次，不做注定被丢弃的缓存下载
+        assertEquals(2, downloadCount.get());
+        // 已知超限的文件，区间读取不再触发后台下载
+        try (FileStreamBO remote = cachingManager.openFileRange("1.mp3", 100, 1024)) {
+            assertNull(remote.getFileChannel());
+        }
+        assertEquals(2, downloadCount.get());
+        assertEquals(0, countCacheFiles());
+    }
+
+    @Test
+    void shouldStreamFromObjectStorageThenFromLocalFile() throws Exception {
+        ossManager.simulateUpload("1.mp3");
+
+        // 未命中时代理对象存储的区间，并在后台下载整个文件
+        try (FileStreamBO remote = cachingManager.openFileRange("1.mp3", 100, 1024)) {
+            assertNotNull(remote);
+            assertNull(remote.getFileChannel());
+            assertArrayEquals(java.util.Arrays.copyOfRange(audioData, 100, 1124), remote.getInputStream().readAllBytes());
+        }
+        awaitLocalFile("1.mp3");
+
+        try (FileStreamBO local = cachingManager.openFileRange("1.mp3", 100, 1024)) {
+            assertNotNull(local.getFileChannel());
+            assertEquals(100, local.getStart());
+            assertEquals(1024, local.getLength());
+            assertArrayEquals(audioData, readAll(local.getFileChannel()));
+        }
+        assertEquals(1, downloadCount.get());
+        assertNull(cachingManager.openFileRange("1.mp3", audioData.length - 10, 20));
+    }
+
+    @Test
+    void shouldKeepStreamingWhenCachedFileIsDeleted() throws Exception {
+        ossManager.simulateUpload("1.mp3");
+        cachingManager.openFileRange("1.mp3", 0, 1).close();
+        awaitLocalFile("1.mp3");
+
+        try (FileStreamBO local = cachingManager.openFileRange("1.mp3", 0, audioData.length)) {
+            assertNotNull(local.getFileChannel());
+            // 传输过程中缓存项被删除，已打开的通道仍可读取完整数据
+            cachingManager.deleteFile("1.mp3");
+            awaitCacheFilesAtMost(0);
+            assertEquals(0, countCacheFiles());
+            assertArrayEquals(audioData, readAll(local.getFileChannel()));
+        }
+    }
+
+    // 后台下载为异步执行，等待区间读取改为从本地文件传输
+    private void awaitLocalFile(String fileName) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            try (FileStreamBO stream = cachingManager.openFileRange(fileName, 0, 1)) {
+                if (stream.getFileChannel() != null) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static byte[] readAll(FileChannel channel) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.array();
+    }
+
+    // 淘汰与删除文件为异步执行，等待其完成
+    private void awaitCacheFilesAtMost(long count) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (countCacheFiles() > count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private long countCacheFiles() throws Exception {
+        try (Stream<Path> paths = Files.list(cacheDir)) {
+            return paths.count();
+        }
+    }
+}
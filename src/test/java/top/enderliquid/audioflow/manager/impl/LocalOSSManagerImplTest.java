@@ -0,0 +1,208 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import top.enderliquid.audioflow.dto.bo.FileRangeBO;
+import top.enderliquid.audioflow.dto.bo.FileStreamBO;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalOSSManagerImplTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private LocalOSSManagerImpl localManager;
+    private byte[] audioData;
+
+    @TempDir
+    Path rootDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        audioData = Files.readAllBytes(Paths.get("src/test/resources/audio/test-song.mp3"));
+        localManager = createManager(Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        localManager.destroy();
+    }
+
+    @Test
+    void shouldWriteAtomicallyIntoShardedDirectory() throws Exception {
+        assertTrue(localManager.writeFile("1.mp3", new ByteArrayInputStream(audioData), audioData.length));
+
+        assertTrue(localManager.checkFileExists("1.mp3"));
+        assertEquals(audioData.length, localManager.getFileSize("1.mp3"));
+        try (InputStream inputStream = localManager.getFileInputStream("1.mp3")) {
+            assertArrayEquals(audioData, inputStream.readAllBytes());
+        }
+        // {root}/objects/xx/yy/1.mp3，临时目录不残留文件
+        try (Stream<Path> paths = Files.walk(rootDir.resolve("objects"))) {
+            List<Path> files = paths.filter(Files::isRegularFile).toList();
+            assertEquals(1, files.size());
+            assertEquals(3, rootDir.resolve("objects").relativize(files.getFirst()).getNameCount());
+        }
+        try (Stream<Path> paths = Files.list(rootDir.resolve("tmp"))) {
+            assertEquals(0, paths.count());
+        }
+    }
+
+    @Test
+    void shouldRejectOversizedFileAndUnsafeFileName() throws Exception {
+        assertFalse(localManager.writeFile("1.mp3", new ByteArrayInputStream(audioData), audioData.length - 1));
+        assertFalse(localManager.checkFileExists("1.mp3"));
+        assertFalse(localManager.writeFile("../1.mp3", new ByteArrayInputStream(audioData), audioData.length));
+        assertFalse(localManager.writeFile("a/1.mp3", new ByteArrayInputStream(audioData), audioData.length));
+        try (Stream<Path> paths = Files.list(rootDir.resolve("tmp"))) {
+            assertEquals(0, paths.count());
+        }
+    }
+
+    @Test
+    void shouldRefuseToOverwriteExistingFile() throws Exception {
+        assertTrue(localManager.writeFile("1.mp3", new ByteArrayInputStream(audioData), audioData.length));
+
+        // 同一签名 URL 再次上传不能替换已校验过的文件
+        byte[] other = new byte[]{1, 2, 3};
+        assertThrows(FileAlreadyExistsException.class,
+                () -> localManager.writeFile("1.mp3", new ByteArrayInputStream(other), other.length));
+        try (InputStream inputStream = localManager.getFileInputStream("1.mp3")) {
+            assertArrayEquals(audioData, inputStream.readAllBytes());
+        }
+        // 分片上传完成时目标已存在同样失败，原文件保持不变
+        String uploadId = localManager.createMultipartUpload("1.mp3", "audio/mpeg");
+        assertTrue(localManager.writePart("1.mp3", uploadId, 1, new ByteArrayInputStream(other), other.length));
+        assertFalse(localManager.completeMultipartUpload("1.mp3", uploadId));
+        assertEquals(audioData.length, localManager.getFileSize("1.mp3"));
+        try (Stream<Path> paths = Files.list(rootDir.resolve("tmp"))) {
+            assertEquals(0, paths.count());
+        }
+    }
+
+    @Test
+    void shouldReadRangesFromLocalFile() throws Exception {
+        localManager.writeFile("1.mp3", new ByteArrayInputStream(audioData), audioData.length);
+
+        FileRangeBO range = localManager.getFileRange("1.mp3", 100, 50);
+        assertNotNull(range);
+        assertEquals(audioData.length, range.getTotalSize());
+        assertArrayEquals(Arrays.copyOfRange(audioData, 100, 150), range.getData());
+
+        try (FileStreamBO stream = localManager.openFileRange("1.mp3", 10, 20)) {
+            assertNotNull(stream);
+            assertNotNull(stream.getFileChannel());
+            assertEquals(10, stream.getStart());
+            assertEquals(20, stream.getLength());
+        }
+        assertNull(localManager.openFileRange("1.mp3", audioData.length - 10, 20));
+        assertNull(localManager.openFileRange("2.mp3", 0, 20));
+    }
+
+    @Test
+    void shouldMergePartsInOrderOnComplete() throws Exception {
+        String uploadId = localManager.createMultipartUpload("1.mp3", "audio/mpeg");
+        assertNotNull(uploadId);
+        int partSize = audioData.length / 3 + 1;
+        // 乱序上传分片
+        for (int partNumber = 3; partNumber >= 1; partNumber--) {
+            int from = (partNumber - 1) * partSize;
+            byte[] part = Arrays.copyOfRange(audioData, from, Math.min(audioData.length, from + partSize));
+            assertTrue(localManager.writePart("1.mp3", uploadId, partNumber, new ByteArrayInputStream(part), partSize));
+        }
+        assertFalse(localManager.writePart("2.mp3", uploadId, 1, new ByteArrayInputStream(new byte[1]), partSize));
+
+        assertTrue(localManager.completeMultipartUpload("1.mp3", uploadId));
+        try (InputStream inputStream = localManager.getFileInputStream("1.mp3")) {
+            assertArrayEquals(audioData, inputStream.readAllBytes());
+        }
+        // 重复完成视为成功，分片目录已清理
+        assertTrue(localManager.completeMultipartUpload("1.mp3", uploadId));
+        assertFalse(Files.exists(rootDir.resolve("multipart").resolve(uploadId)));
+    }
+
+    @Test
+    void shouldAbortMultipartUploadAndDeleteFiles() throws Exception {
+        String uploadId = localManager.createMultipartUpload("1.mp3", "audio/mpeg");
+        localManager.writePart("1.mp3", uploadId, 1, new ByteArrayInputStream(audioData), audioData.length);
+        assertTrue(localManager.abortMultipartUpload("1.mp3", uploadId));
+        assertTrue(localManager.abortMultipartUpload("1.mp3", uploadId));
+        assertFalse(localManager.completeMultipartUpload("1.mp3", uploadId));
+
+        localManager.writeFile("1.mp3", new ByteArrayInputStream(audioData), audioData.length);
+        localManager.writeFile("2.mp3", new ByteArrayInputStream(audioData), audioData.length);
+        assertEquals(Set.of(), localManager.deleteFiles(List.of("1.mp3", "2.mp3", "3.mp3")));
+        assertFalse(localManager.checkFileExists("1.mp3"));
+        assertFalse(localManager.checkFileExists("2.mp3"));
+    }
+
+    @Test
+    void shouldVerifySignedUrls() throws Exception {
+        UriComponents putUrl = parse(localManager.generatePresignedPutUrl("1.mp3", "audio/mpeg"));
+        assertEquals("/api/local-files/1.mp3", putUrl.getPath());
+        long expires = Long.parseLong(putUrl.getQueryParams().getFirst("expires"));
+        String signature = putUrl.getQueryParams().getFirst("signature");
+        assertEquals(NOW.getEpochSecond() + 1800, expires);
+        assertTrue(localManager.verifySignature("PUT", "1.mp3", expires, null, null, "audio/mpeg", signature));
+        // 方法、文件名、Content-Type 或过期时间不一致时签名无效
+        assertFalse(localManager.verifySignature("GET", "1.mp3", expires, null, null, "audio/mpeg", signature));
+        assertFalse(localManager.verifySignature("PUT", "2.mp3", expires, null, null, "audio/mpeg", signature));
+        assertFalse(localManager.verifySignature("PUT", "1.mp3", expires, null, null, "audio/flac", signature));
+        assertFalse(localManager.verifySignature("PUT", "1.mp3", expires + 1, null, null, "audio/mpeg", signature));
+
+        String uploadId = localManager.createMultipartUpload("1.mp3", "audio/mpeg");
+        UriComponents partUrl = parse(localManager.generatePresignedPartUrls("1.mp3", uploadId, 2).get(1));
+        assertEquals("2", partUrl.getQueryParams().getFirst("partNumber"));
+        assertTrue(localManager.verifySignature("PUT", "1.mp3", expires, uploadId, 2, null,
+                partUrl.getQueryParams().getFirst("signature")));
+        assertFalse(localManager.verifySignature("PUT", "1.mp3", expires, uploadId, 1, null,
+                partUrl.getQueryParams().getFirst("signature")));
+
+        UriComponents getUrl = parse(localManager.getPresignedGetUrl("1.mp3", Duration.ofMinutes(1)));
+        long getExpires = Long.parseLong(getUrl.getQueryParams().getFirst("expires"));
+        String getSignature = getUrl.getQueryParams().getFirst("signature");
+        assertTrue(localManager.verifySignature("GET", "1.mp3", getExpires, null, null, null, getSignature));
+
+        // 过期后签名无效
+        LocalOSSManagerImpl later = createManager(Clock.fixed(NOW.plusSeconds(61), ZoneOffset.UTC));
+        try {
+            assertFalse(later.verifySignature("GET", "1.mp3", getExpires, null, null, null, getSignature));
+        } finally {
+            later.destroy();
+        }
+    }
+
+    private LocalOSSManagerImpl createManager(Clock clock) throws Exception {
+        LocalOSSManagerImpl manager = new LocalOSSManagerImpl(clock);
+        ReflectionTestUtils.setField(manager, "rootDirStr", rootDir.toString());
+        ReflectionTestUtils.setField(manager, "publicUrl", "");
+        ReflectionTestUtils.setField(manager, "signingSecret", "test-secret");
+        ReflectionTestUtils.setField(manager, "presignedUrlExpirationSeconds", 1800);
+        manager.init();
+        return manager;
+    }
+
+    private static UriComponents parse(String url) {
+        return UriComponentsBuilder.fromUriString(url).build();
+    }
+}
@@ -0,0 +1,68 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.common.MockOSSConfig.MockOSSManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PresignedUrlCacheManagerImplTest {
+
+    private final AtomicInteger signCount = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private PresignedUrlCacheManagerImpl cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        MockOSSManager ossManager = new MockOSSManager() {
+            @Override
+            public String getPresignedGetUrl(String fileName, Duration expiration) {
+                return super.getPresignedGetUrl(fileName, expiration) + "?sig=" + signCount.incrementAndGet();
+            }
+        };
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new PresignedUrlCacheManagerImpl(ossManager, meterRegistry);
+        ReflectionTestUtils.setField(cacheManager, "expirationSeconds", 3600L);
+        ReflectionTestUtils.setField(cacheManager, "maxSize", 100L);
+        ReflectionTestUtils.setField(cacheManager, "minRemainingSeconds", 600L);
+        cacheManager.init();
+    }
+
+    @Test
+    void shouldReuseUrlUntilInvalidated() {
+        String first = cacheManager.getPresignedGetUrl("1.mp3");
+        String second = cacheManager.getPresignedGetUrl("1.mp3");
+        assertEquals(first, second);
+        assertEquals(1, signCount.get());
+
+        cacheManager.invalidate("1.mp3");
+        String third = cacheManager.getPresignedGetUrl("1.mp3");
+        assertNotEquals(first, third);
+        assertEquals(2, signCount.get());
+    }
+
+    @Test
+    void shouldRecordHitAndMissMetrics() {
+        cacheManager.getPresignedGetUrl("1.mp3");
+        cacheManager.getPresignedGetUrl("1.mp3");
+        cacheManager.getPresignedGetUrl("2.mp3");
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "songPlayUrl").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "songPlayUrl").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void shouldRejectMinRemainingNotBelowExpiration() {
+        PresignedUrlCacheManagerImpl invalid = new PresignedUrlCacheManagerImpl(new MockOSSManager(), meterRegistry);
+        ReflectionTestUtils.setField(invalid, "expirationSeconds", 600L);
+        ReflectionTestUtils.setField(invalid, "maxSize", 100L);
+        ReflectionTestUtils.setField(invalid, "minRemainingSeconds", 600L);
+        assertThrows(IllegalStateException.class, invalid::init);
+    }
+}
@@ -0,0 +1,110 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SigV4PresignerTest {
+
+    private static final String REGION = "cn-south-1";
+    private static final String BUCKET = "audioflow";
+    private static final String ACCESS_KEY = "AKIDEXAMPLE";
+    private static final String SECRET_KEY = "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY";
+    private static final Pattern AMZ_DATE = Pattern.compile("X-Amz-Date=(\\d{8}T\\d{6}Z)");
+    private static final DateTimeFormatter AMZ_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    @ParameterizedTest
+    @CsvSource({
+            "http://s3.cn-south-1.qiniucs.com, false",
+            "http://s3.cn-south-1.qiniucs.com, true",
+            "https://oss-cn-hangzhou.aliyuncs.com, false",
+            "http://localhost:9000, true"
+    })
+    void shouldMatchSdkForGetAndPut(String endpoint, boolean pathStyle) {
+        try (S3Presigner sdk = sdkPresigner(endpoint, pathStyle)) {
+            SigV4Presigner presigner = new SigV4Presigner(URI.create(endpoint), REGION, BUCKET,
+                    ACCESS_KEY, SECRET_KEY, pathStyle, Clock.systemUTC());
+            for (String key : new String[]{"1234567890.mp3", "a b+c/中文~(1).flac", "dir/sub/x=y&z.ogg"}) {
+                String expectedGet = sdk.presignGetObject(GetObjectPresignRequest.builder()
+                        .signatureDuration(Duration.ofSeconds(3600))
+                        .getObjectRequest(builder -> builder.bucket(BUCKET).key(key))
+                        .build()).url().toString();
+                String actualGet = presigner.presign("GET", key, null, null, null,
+                        Duration.ofSeconds(3600), signedAt(expectedGet));
+                assertEquals(expectedGet, actualGet);
+
+                String expectedPut = sdk.presignPutObject(PutObjectPresignRequest.builder()
+                        .signatureDuration(Duration.ofSeconds(1800))
+                        .putObjectRequest(builder -> builder
+                                .bucket(BUCKET)
+                                .key(key)
+                                .contentType("audio/mpeg")
+                                .contentDisposition("inline")
+                                .ifNoneMatch("*"))
+                        .build()).url().toString();
+                String actualPut = presigner.presign("PUT", key, "audio/mpeg", "inline", "*",
+                        Duration.ofSeconds(1800), signedAt(expectedPut));
+                assertEquals(expectedPut, actualPut);
+            }
+        }
+    }
+
+    @Test
+    void shouldDeriveNewSigningKeyWhenDateChanges() {
+        try (S3Presigner sdk = sdkPresigner("http://s3.cn-south-1.qiniucs.com", false)) {
+            SigV4Presigner presigner = new SigV4Presigner(URI.create("http://s3.cn-south-1.qiniucs.com"), REGION, BUCKET,
+                    ACCESS_KEY, SECRET_KEY, false, Clock.systemUTC());
+            String first = presigner.presign("GET", "1.mp3", null, null, null, Duration.ofSeconds(60), Instant.parse("2026-10-18T23:59:59Z"));
+            String second = presigner.presign("GET", "1.mp3", null, null, null, Duration.ofSeconds(60), Instant.parse("2026-10-19T00:00:01Z"));
+            assertTrue(first.contains("%2F20261018%2F"));
+            assertTrue(second.contains("%2F20261019%2F"));
+
+            // 日期切换后生成的签名仍与 SDK 一致
+            String expected = sdk.presignGetObject(GetObjectPresignRequest.builder()
+                    .signatureDuration(Duration.ofSeconds(60))
+                    .getObjectRequest(builder -> builder.bucket(BUCKET).key("1.mp3"))
+                    .build()).url().toString();
+            assertEquals(expected, presigner.presign("GET", "1.mp3", null, null, null,
+                    Duration.ofSeconds(60), signedAt(expected)));
+        }
+    }
+
+    private static S3Presigner sdkPresigner(String endpoint, boolean pathStyle) {
+        return S3Presigner.builder()
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(ACCESS_KEY, SECRET_KEY)))
+                .serviceConfiguration(S3Configuration.builder()
+                        .pathStyleAccessEnabled(pathStyle)
+                        .chunkedEncodingEnabled(false)
+                        .build())
+                .region(Region.of(REGION))
+                .endpointOverride(URI.create(endpoint))
+                .build();
+    }
+
+    // SDK 使用当前时间签名，从其输出中取回签名时间以便使用相同输入对比
+    private static Instant signedAt(String url) {
+        Matcher matcher = AMZ_DATE.matcher(url);
+        assertTrue(matcher.find());
+        return AMZ_DATE_FORMAT.parse(matcher.group(1), Instant::from);
+    }
+}
@@ -0,0 +1,187 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.entity.Song;
+import top.enderliquid.audioflow.entity.User;
+import top.enderliquid.audioflow.manager.SongManager;
+import top.enderliquid.audioflow.manager.UserManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SongCacheManagerImplTest {
+
+    private SongManager songManager;
+    private UserManager userManager;
+    private StringRedisTemplate redisTemplate;
+    private RedisMessageListenerContainer listenerContainer;
+    private SimpleMeterRegistry meterRegistry;
+    private Map<String, String> redis;
+    private SongCacheManagerImpl cacheManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        songManager = mock(SongManager.class);
+        userManager = mock(UserManager.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        listenerContainer = mock(RedisMessageListenerContainer.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // 使用 Map 模拟 Redis 的读写
+        redis = new HashMap<>();
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> redis.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> redis.remove(invocation.<String>getArgument(0)) != null);
+        when(valueOperations.increment(anyString())).thenAnswer(invocation ->
+                Long.parseLong(redis.merge(invocation.getArgument(0), "1", (a, b) -> String.valueOf(Long.parseLong(a) + 1))));
+        // 模拟 song_cache_set.lua：版本号未变化时写入
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            if (!redis.getOrDefault(keys.get(1), "").equals(invocation.getArgument(2))) {
+                return 0L;
+            }
+            redis.put(keys.get(0), invocation.getArgument(3));
+            return 1L;
+        });
+
+        cacheManager = new SongCacheManagerImpl(songManager, userManager, redisTemplate, listenerContainer, meterRegistry);
+        ReflectionTestUtils.setField(cacheManager, "enabled", true);
+        ReflectionTestUtils.setField(cacheManager, "nearMaxSize", 100L);
+        ReflectionTestUtils.setField(cacheManager, "nearTtlSeconds", 60L);
+        ReflectionTestUtils.setField(cacheManager, "redisTtlSeconds", 600L);
+        cacheManager.init();
+    }
+
+    @Test
+    void shouldLoadSongOnceAndServeFromNearCache() {
+        when(songManager.getById(1L)).thenReturn(song(1L, SongStatus.NORMAL));
+
+        Song first = cacheManager.getSong(1L);
+        first.setName("modified");
+        Song second = cacheManager.getSong(1L);
+
+        assertEquals("song", second.getName());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 12, 0), second.getCreateTime());
+        assertTrue(redis.containsKey("song_cache:1"));
+        verify(songManager, times(1)).getById(1L);
+        assertEquals(1.0, meterRegistry.get("audioflow.cache.redis").tag("cache", "song").tag("result", "miss").counter().count());
+        assertEquals(1L, meterRegistry.get("audioflow.cache.load").tag("cache", "song").tag("source", "database").timer().count());
+    }
+
+    @Test
+    void shouldReadSongWrittenByAnotherNodeFromRedis() {
+        when(songManager.getById(1L)).thenReturn(song(1L, SongStatus.NORMAL));
+        cacheManager.getSong(1L);
+        SongCacheManagerImpl otherNode = new SongCacheManagerImpl(songManager, userManager, redisTemplate,
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(otherNode, "enabled", true);
+        ReflectionTestUtils.setField(otherNode, "nearMaxSize", 100L);
+        ReflectionTestUtils.setField(otherNode, "nearTtlSeconds", 60L);
+        ReflectionTestUtils.setField(otherNode, "redisTtlSeconds", 600L);
+        otherNode.init();
+
+        Song song = otherNode.getSong(1L);
+
+        assertEquals(song(1L, SongStatus.NORMAL), song);
+        verify(songManager, times(1)).getById(1L);
+    }
+
+    @Test
+    void shouldNotCacheSongThatIsNotNormal() {
+        when(songManager.getById(1L)).thenReturn(song(1L, SongStatus.UPLOADING));
+
+        assertEquals(SongStatus.UPLOADING, cacheManager.getSong(1L).getStatus());
+        assertEquals(SongStatus.UPLOADING, cacheManager.getSong(1L).getStatus());
+        assertNull(cacheManager.getSong(2L));
+
+        verify(songManager, times(2)).getById(1L);
+        assertTrue(redis.isEmpty());
+    }
+
+    @Test
+    void shouldEvictSongAndNotifyOtherNodes() {
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(Topic.class));
+        when(songManager.getById(1L)).thenReturn(song(1L, SongStatus.NORMAL));
+        cacheManager.getSong(1L);
+
+        cacheManager.evictSong(1L);
+        assertFalse(redis.containsKey("song_cache:1"));
+        verify(redisTemplate).convertAndSend("cache:song:invalidate", "1");
+        cacheManager.getSong(1L);
+        verify(songManager, times(2)).getById(1L);
+
+        // 收到其他节点的失效通知后重新从 Redis 或数据库读取
+        redis.clear();
+        listener.getValue().onMessage(new DefaultMessage(
+                "cache:song:invalidate".getBytes(StandardCharsets.UTF_8), "1".getBytes(StandardCharsets.UTF_8)), null);
+        cacheManager.getSong(1L);
+        verify(songManager, times(3)).getById(1L);
+    }
+
+    @Test
+    void shouldNotWriteBackSongLoadedBeforeEviction() {
+        // 回源读出 NORMAL 状态后、写回缓存前，歌曲状态变更并完成失效
+        when(songManager.getById(1L)).thenAnswer(invocation -> {
+            cacheManager.evictSong(1L);
+            return song(1L, SongStatus.NORMAL);
+        }).thenReturn(song(1L, SongStatus.DELETING));
+
+        assertEquals(SongStatus.NORMAL, cacheManager.getSong(1L).getStatus());
+
+        assertFalse(redis.containsKey("song_cache:1"));
+        assertEquals(SongStatus.DELETING, cacheManager.getSong(1L).getStatus());
+        verify(songManager, times(2)).getById(1L);
+    }
+
+    @Test
+    void shouldCacheUploaderName() {
+        User user = new User();
+        user.setId(7L);
+        user.setName("alice");
+        when(userManager.getById(7L)).thenReturn(user);
+
+        assertEquals("alice", cacheManager.getUploaderName(7L));
+        assertEquals("alice", cacheManager.getUploaderName(7L));
+        assertNull(cacheManager.getUploaderName(8L));
+
+        assertEquals("alice", redis.get("user_name_cache:7"));
+        verify(userManager, times(1)).getById(7L);
+    }
+
+    private static Song song(Long id, SongStatus status) {
+        Song song = new Song();
+        song.setId(id);
+        song.setName("song");
+        song.setFileName(id + ".mp3");
+        song.setUploaderId(7L);
+        song.setStatus(status);
+        song.setCreateTime(LocalDateTime.of(2026, 1, 1, 12, 0));
+        return song;
+    }
+}
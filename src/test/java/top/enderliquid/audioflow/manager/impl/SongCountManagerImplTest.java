@@ -0,0 +1,88 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SongCountManagerImplTest {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private SongCountManagerImpl countManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        countManager = new SongCountManagerImpl(redisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(countManager, "enabled", true);
+        ReflectionTestUtils.setField(countManager, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(countManager, "maxSize", 100L);
+        ReflectionTestUtils.setField(countManager, "normalCountTtlSeconds", 3600L);
+        countManager.init();
+    }
+
+    @Test
+    void shouldCacheFilteredTotalIgnoringCaseAndSortDirection() {
+        assertNull(countManager.getTotal(dto("Alice", "Sunny", false)));
+
+        countManager.putTotal(dto("Alice", "Sunny", false), 42, false);
+
+        assertEquals(42L, countManager.getTotal(dto("alice", "SUNNY", true)));
+        assertNull(countManager.getTotal(dto("alice", null, false)));
+        assertNull(countManager.getTotal(dto(null, "sunny", false)));
+        verifyNoInteractions(valueOperations);
+    }
+
+    @Test
+    void shouldServeUnfilteredTotalFromRedisCounter() {
+        when(valueOperations.get("song_count:normal")).thenReturn("7");
+        assertEquals(7L, countManager.getTotal(dto(null, null, false)));
+
+        when(valueOperations.get("song_count:normal")).thenReturn("-1");
+        assertEquals(0L, countManager.getTotal(dto(null, null, false)));
+
+        when(valueOperations.get("song_count:normal")).thenReturn("x");
+        assertNull(countManager.getTotal(dto(null, null, false)));
+    }
+
+    @Test
+    void shouldOnlyOverwriteCounterWithExactTotal() {
+        countManager.putTotal(dto(null, null, false), 10, false);
+        verify(valueOperations).setIfAbsent("song_count:normal", "10", Duration.ofSeconds(3600));
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+
+        countManager.putTotal(dto(null, null, false), 11, true);
+        verify(valueOperations).set("song_count:normal", "11", Duration.ofSeconds(3600));
+    }
+
+    @Test
+    void shouldFallBackToCountWhenRedisUnavailableOrDisabled() {
+        when(valueOperations.get(anyString())).thenThrow(new IllegalStateException("connection refused"));
+        assertNull(countManager.getTotal(dto(null, null, false)));
+
+        clearInvocations(redisTemplate);
+        ReflectionTestUtils.setField(countManager, "enabled", false);
+        countManager.putTotal(dto("alice", null, false), 1, false);
+        assertNull(countManager.getTotal(dto("alice", null, false)));
+        countManager.addNormalCount(1);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private static SongPageDTO dto(String uploaderKeyword, String songKeyword, boolean asc) {
+        return new SongPageDTO(uploaderKeyword, songKeyword, asc, 1L, 10L, null);
+    }
+}
@@ -0,0 +1,129 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SongPageResponseCacheManagerImplTest {
+
+    private StringRedisTemplate redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private SongPageResponseCacheManagerImpl cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new SongPageResponseCacheManagerImpl(new ObjectMapper(), redisTemplate,
+                mock(RedisMessageListenerContainer.class), meterRegistry);
+        ReflectionTestUtils.setField(cacheManager, "enabled", true);
+        ReflectionTestUtils.setField(cacheManager, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cacheManager, "maxSize", 100L);
+        cacheManager.init();
+    }
+
+    @Test
+    void shouldServeSerializedBytesForNormalizedKey() {
+        AtomicInteger loads = new AtomicInteger();
+
+        byte[] first = cacheManager.get(dto("Alice", false), () -> Map.of("load", loads.incrementAndGet()));
+        byte[] second = cacheManager.get(dto("alice", false), () -> Map.of("load", loads.incrementAndGet()));
+
+        assertEquals("{\"load\":1}", new String(first, StandardCharsets.UTF_8));
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldBypassCacheForExactTotal() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cacheManager.get(dto(null, true), loads::incrementAndGet);
+        cacheManager.get(dto(null, true), loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        int threads = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> cacheManager.get(dto(null, false), () -> {
+                    loaderStarted.countDown();
+                    try {
+                        releaseLoader.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return loads.incrementAndGet();
+                })));
+            }
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            // 等待其余请求进入等待状态
+            while (meterRegistry.get("audioflow.cache.coalesced").counter().count() < threads - 1) {
+                Thread.onSpinWait();
+            }
+            releaseLoader.countDown();
+            for (Future<byte[]> result : results) {
+                assertEquals("1", new String(result.get(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldPropagateFailureWithoutCaching() {
+        assertThrows(IllegalStateException.class, () -> cacheManager.get(dto(null, false), () -> {
+            throw new IllegalStateException("connection refused");
+        }));
+
+        byte[] body = cacheManager.get(dto(null, false), () -> 1);
+
+        assertEquals("1", new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldInvalidateAndDropLoadStartedBeforeInvalidation() {
+        cacheManager.get(dto(null, false), () -> 1);
+
+        cacheManager.invalidateAll();
+        verify(redisTemplate).convertAndSend("cache:song-page:invalidate", "*");
+        // 加载过程中再次失效，结果不写入缓存
+        byte[] stale = cacheManager.get(dto(null, false), () -> {
+            cacheManager.invalidateAll();
+            return 2;
+        });
+        byte[] fresh = cacheManager.get(dto(null, false), () -> 3);
+
+        assertEquals("2", new String(stale, StandardCharsets.UTF_8));
+        assertEquals("3", new String(fresh, StandardCharsets.UTF_8));
+    }
+
+    private static SongPageDTO dto(String uploaderKeyword, boolean exactTotal) {
+        return new SongPageDTO(uploaderKeyword, null, false, 1L, 10L, exactTotal);
+    }
+}
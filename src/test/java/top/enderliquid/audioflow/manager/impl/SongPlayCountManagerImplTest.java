@@ -0,0 +1,192 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.entity.SongPlayCount;
+import top.enderliquid.audioflow.manager.TrendingManager;
+import top.enderliquid.audioflow.mapper.SongPlayCountMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SongPlayCountManagerImplTest {
+
+    private SongPlayCountMapper mapper;
+    private HashOperations<String, Object, Object> hashOperations;
+    private TrendingManager trendingManager;
+    private SimpleMeterRegistry meterRegistry;
+    private Map<Long, Long> table;
+    private AtomicBoolean databaseDown;
+    private SongPlayCountManagerImpl playCountManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mapper = mock(SongPlayCountMapper.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        // 使用 Map 模拟 song_play_count 表
+        table = new ConcurrentHashMap<>();
+        databaseDown = new AtomicBoolean();
+        when(mapper.upsertAddMultiRow(anyList())).thenAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new IllegalStateException("connection refused");
+            }
+            List<SongPlayCount> counts = invocation.getArgument(0);
+            counts.forEach(c -> table.merge(c.getSongId(), c.getPlayCount(), Long::sum));
+            return counts.size();
+        });
+        when(mapper.selectByIds(any())).thenAnswer(invocation -> {
+            List<SongPlayCount> rows = new ArrayList<>();
+            for (Object id : invocation.<Collection<?>>getArgument(0)) {
+                rows.add(new SongPlayCount((Long) id, table.get((Long) id), null, null));
+            }
+            return rows;
+        });
+
+        trendingManager = mock(TrendingManager.class);
+        playCountManager = new SongPlayCountManagerImpl(mapper, redisTemplate, trendingManager, meterRegistry);
+        ReflectionTestUtils.setField(playCountManager, "enabled", true);
+        ReflectionTestUtils.setField(playCountManager, "maxPendingSongs", 1000);
+        ReflectionTestUtils.setField(playCountManager, "batchSize", 3);
+        playCountManager.init();
+    }
+
+    @Test
+    void shouldAggregatePlaysAndFlushInBatches() {
+        for (long songId = 1; songId <= 5; songId++) {
+            for (int i = 0; i < songId; i++) {
+                playCountManager.recordPlay(songId);
+            }
+        }
+
+        assertEquals(5, playCountManager.flush());
+        assertEquals(Map.of(1L, 1L, 2L, 2L, 3L, 3L, 4L, 4L, 5L, 5L), table);
+        // 5 首歌按每批 3 首分两批写入
+        verify(mapper, times(2)).upsertAddMultiRow(anyList());
+        verify(hashOperations).putAll(eq("song_play_count"), eq(Map.of("1", "1", "2", "2", "3", "3")));
+        // 热门排行在每次刷新时收到一次聚合后的增量
+        verify(trendingManager).addPlays(Map.of(1L, 1L, 2L, 2L, 3L, 3L, 4L, 4L, 5L, 5L));
+        assertEquals(0, playCountManager.flush());
+    }
+
+    @Test
+    void shouldNotLoseCountsWhileFlushingConcurrently() throws Exception {
+        int threads = 8;
+        int playsPerThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads + 1)) {
+            List<Future<?>> players = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                players.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < playsPerThread; i++) {
+                        playCountManager.recordPlay((long) (i % 4));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                while (!finished.get()) {
+                    playCountManager.flush();
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> player : players) {
+                player.get();
+            }
+            finished.set(true);
+            flusher.get();
+        }
+        playCountManager.flush();
+
+        long total = table.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals((long) threads * playsPerThread, total);
+    }
+
+    @Test
+    void shouldKeepCountsWhenDatabaseWriteFails() {
+        playCountManager.recordPlay(1L);
+        playCountManager.recordPlay(1L);
+        databaseDown.set(true);
+
+        assertEquals(0, playCountManager.flush());
+        verify(hashOperations, never()).putAll(any(), anyMap());
+        verify(trendingManager).addPlays(Map.of());
+
+        databaseDown.set(false);
+        playCountManager.recordPlay(1L);
+        assertEquals(1, playCountManager.flush());
+        assertEquals(3L, table.get(1L));
+    }
+
+    @Test
+    void shouldDropNewSongsBeyondHardLimit() {
+        ReflectionTestUtils.setField(playCountManager, "maxPendingSongs", 2);
+        // 视为提前刷新正在执行，避免后台刷新取出计数后又放回，使待刷新歌曲数在断言时不确定
+        ((AtomicBoolean) ReflectionTestUtils.getField(playCountManager, "earlyFlushRunning")).set(true);
+        databaseDown.set(true);
+        for (long songId = 1; songId <= 6; songId++) {
+            playCountManager.recordPlay(songId);
+        }
+        // 已在内存中的歌曲继续累加
+        playCountManager.recordPlay(1L);
+
+        assertEquals(4, meterRegistry.get("audioflow.song.play.pending").gauge().value());
+        assertEquals(2, meterRegistry.get("audioflow.song.play.dropped").counter().count());
+    }
+
+    @Test
+    void shouldCacheZeroForSongWithoutPlays() {
+        assertEquals(0L, playCountManager.getPlayCount(7L));
+
+        verify(hashOperations).putIfAbsent("song_play_count", "7", "0");
+    }
+
+    @Test
+    void shouldDropCountsOfRemovedSongs() {
+        playCountManager.recordPlay(1L);
+        playCountManager.recordPlay(2L);
+
+        playCountManager.removePlayCounts(List.of(1L));
+
+        verify(mapper).deleteByIds(List.of(1L));
+        verify(hashOperations).delete("song_play_count", "1");
+        // 已删除歌曲的待刷新计数不再写回数据库
+        assertEquals(1, playCountManager.flush());
+        assertEquals(Map.of(2L, 1L), table);
+    }
+
+    @Test
+    void shouldFlushOnShutdown() {
+        playCountManager.recordPlay(9L);
+
+        playCountManager.destroy();
+
+        assertEquals(1L, table.get(9L));
+    }
+}
@@ -0,0 +1,168 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.common.enums.SongStatus;
+import top.enderliquid.audioflow.common.util.id.SnowflakeIdConverter;
+import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongSearchResultBO;
+import top.enderliquid.audioflow.dto.request.song.SongPageDTO;
+import top.enderliquid.audioflow.entity.Song;
+import top.enderliquid.audioflow.entity.User;
+import top.enderliquid.audioflow.mapper.SongMapper;
+import top.enderliquid.audioflow.mapper.UserMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SongSearchIndexManagerImplTest {
+
+    private static final LocalDateTime CREATE_TIME_BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final List<SongBO> songTable = new ArrayList<>();
+    private SongMapper songMapper;
+    private UserMapper userMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private SongSearchIndexManagerImpl indexManager;
+
+    @BeforeEach
+    void setUp() {
+        songMapper = mock(SongMapper.class);
+        userMapper = mock(UserMapper.class);
+        when(songMapper.selectNormalSearchFieldsAfterId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return songTable.stream().filter(song -> song.getId() > afterId).limit(limit).toList();
+        });
+        songTable.add(songBO(1L, "晴天", 100L, "周杰伦", 1));
+        songTable.add(songBO(2L, "七里香", 100L, "周杰伦", 2));
+        songTable.add(songBO(3L, "晴天 (Live)", 200L, "Cover Band", 3));
+        songTable.add(songBO(4L, "Sunny Day", 200L, "Cover Band", 4));
+        songTable.add(songBO(5L, "天", 300L, "晴天娃娃", 5));
+        meterRegistry = new SimpleMeterRegistry();
+        indexManager = createManager("64MB");
+    }
+
+    @Test
+    void shouldFallBackBeforeFirstRebuild() {
+        assertNull(indexManager.search(pageDTO(null, "晴天", false)));
+        assertEquals(1.0, meterRegistry.get("audioflow.song.search.index.queries").tag("source", "database").counter().count());
+    }
+
+    @Test
+    void shouldRankExactMatchesBeforeContainingMatches() {
+        assertTrue(indexManager.rebuild());
+
+        // 完全一致排在包含之前，上传者名不参与歌曲关键字匹配
+        assertEquals(List.of(1L, 3L), indexManager.search(pageDTO(null, "晴天", false)).getSongIds());
+        // 单字关键字同样按包含匹配，完全一致排在最前
+        assertEquals(List.of(5L, 3L, 1L), indexManager.search(pageDTO(null, "天", false)).getSongIds());
+        // 大小写不敏感
+        assertEquals(List.of(4L), indexManager.search(pageDTO(null, "SUNNY", false)).getSongIds());
+        assertEquals(List.of(), indexManager.search(pageDTO(null, "不存在", false)).getSongIds());
+    }
+
+    @Test
+    void shouldFilterByUploaderNameOrIdAndIntersectWithSongKeyword() {
+        assertTrue(indexManager.rebuild());
+
+        assertEquals(List.of(2L, 1L), indexManager.search(pageDTO("周杰", null, false)).getSongIds());
+        assertEquals(List.of(3L, 4L), indexManager.search(pageDTO("200", null, true)).getSongIds());
+        assertEquals(List.of(3L), indexManager.search(pageDTO("cover", "晴天", false)).getSongIds());
+        // 按ID精确匹配歌曲
+        assertEquals(List.of(4L), indexManager.search(pageDTO(null, "4", false)).getSongIds());
+    }
+
+    @Test
+    void shouldPageByCreateTimeWithoutKeyword() {
+        assertTrue(indexManager.rebuild());
+
+        SongPageDTO dto = pageDTO(null, null, false);
+        dto.setPageIndex(2L);
+        dto.setPageSize(2L);
+        SongSearchResultBO result = indexManager.search(dto);
+        assertEquals(List.of(3L, 2L), result.getSongIds());
+        assertEquals(5, result.getTotal());
+    }
+
+    @Test
+    void shouldApplyIncrementalUpdates() {
+        assertTrue(indexManager.rebuild());
+        when(userMapper.selectById(400L)).thenReturn(user(400L, "新用户"));
+
+        indexManager.indexSong(song(6L, "晴天", 400L, SongStatus.NORMAL, 6));
+        assertEquals(List.of(6L, 1L, 3L), indexManager.search(pageDTO(null, "晴天", false)).getSongIds());
+        assertEquals(List.of(6L), indexManager.search(pageDTO("新用户", null, false)).getSongIds());
+
+        // 改名后旧名称不再命中
+        indexManager.indexSong(song(6L, "雨天", 400L, SongStatus.NORMAL, 6));
+        assertEquals(List.of(1L, 3L), indexManager.search(pageDTO(null, "晴天", false)).getSongIds());
+
+        // 非 NORMAL 状态与删除均从索引中移除
+        indexManager.indexSong(song(6L, "雨天", 400L, SongStatus.DELETING, 6));
+        assertEquals(List.of(), indexManager.search(pageDTO("新用户", null, false)).getSongIds());
+        indexManager.removeSong(1L);
+        assertEquals(List.of(3L), indexManager.search(pageDTO(null, "晴天", false)).getSongIds());
+        assertEquals(4.0, meterRegistry.get("audioflow.song.search.index.songs").gauge().value());
+    }
+
+    @Test
+    void shouldDisableIndexWhenOverMemoryBudget() {
+        SongSearchIndexManagerImpl smallManager = createManager("1KB");
+        for (long id = 6; id <= 100; id++) {
+            songTable.add(songBO(id, "歌曲" + id, 100L, "周杰伦", (int) id));
+        }
+
+        assertFalse(smallManager.rebuild());
+        assertNull(smallManager.search(pageDTO(null, "歌曲", false)));
+    }
+
+    private SongSearchIndexManagerImpl createManager(String maxMemory) {
+        SongSearchIndexManagerImpl manager = new SongSearchIndexManagerImpl(songMapper, userMapper,
+                new SnowflakeIdConverter(), meterRegistry);
+        ReflectionTestUtils.setField(manager, "enabled", true);
+        ReflectionTestUtils.setField(manager, "maxMemoryStr", maxMemory);
+        manager.init();
+        return manager;
+    }
+
+    private static SongPageDTO pageDTO(String uploaderKeyword, String songKeyword, boolean asc) {
+        return new SongPageDTO(uploaderKeyword, songKeyword, asc, 1L, 10L, null);
+    }
+
+    private static SongBO songBO(Long id, String name, Long uploaderId, String uploaderName, int minutes) {
+        SongBO song = new SongBO();
+        song.setId(id);
+        song.setName(name);
+        song.setUploaderId(uploaderId);
+        song.setUploaderName(uploaderName);
+        song.setCreateTime(CREATE_TIME_BASE.plusMinutes(minutes));
+        return song;
+    }
+
+    private static Song song(Long id, String name, Long uploaderId, SongStatus status, int minutes) {
+        Song song = new Song();
+        song.setId(id);
+        song.setName(name);
+        song.setUploaderId(uploaderId);
+        song.setStatus(status);
+        song.setCreateTime(CREATE_TIME_BASE.plusMinutes(minutes));
+        return song;
+    }
+
+    private static User user(Long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        return user;
+    }
+}
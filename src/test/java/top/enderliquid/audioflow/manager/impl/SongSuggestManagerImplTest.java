@@ -0,0 +1,155 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.common.enums.SuggestionType;
+import top.enderliquid.audioflow.dto.bo.SongBO;
+import top.enderliquid.audioflow.dto.bo.SongSuggestionBO;
+import top.enderliquid.audioflow.entity.SongPlayCount;
+import top.enderliquid.audioflow.mapper.SongMapper;
+import top.enderliquid.audioflow.mapper.SongPlayCountMapper;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SongSuggestManagerImplTest {
+
+    private final List<SongBO> songs = new ArrayList<>();
+    private final Map<Long, Long> playCounts = new HashMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private SongSuggestManagerImpl suggestManager;
+
+    @BeforeEach
+    void setUp() {
+        SongMapper songMapper = mock(SongMapper.class);
+        SongPlayCountMapper playCountMapper = mock(SongPlayCountMapper.class);
+        // 模拟按ID分批读取
+        when(songMapper.selectNormalSearchFieldsAfterId(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return songs.stream().filter(song -> song.getId() > afterId).limit(limit).toList();
+        });
+        when(playCountMapper.selectByIds(any())).thenAnswer(invocation -> {
+            List<SongPlayCount> rows = new ArrayList<>();
+            for (Object id : invocation.<Collection<?>>getArgument(0)) {
+                Long count = playCounts.get((Long) id);
+                if (count != null) rows.add(new SongPlayCount((Long) id, count, null, null));
+            }
+            return rows;
+        });
+        meterRegistry = new SimpleMeterRegistry();
+        suggestManager = new SongSuggestManagerImpl(songMapper, playCountMapper, meterRegistry);
+        ReflectionTestUtils.setField(suggestManager, "enabled", true);
+        ReflectionTestUtils.setField(suggestManager, "maxMemoryStr", "32MB");
+        suggestManager.init();
+    }
+
+    @Test
+    void shouldReturnEmptyBeforeFirstRebuild() {
+        assertTrue(suggestManager.suggest("a", 10).isEmpty());
+    }
+
+    @Test
+    void shouldSuggestByPrefixOrderedByPlayCount() {
+        addSong(1, "Hello World", 1, "Alice", 5);
+        addSong(2, "hello world", 2, "Bob", 7);
+        addSong(3, "Help", 2, "Bob", 20);
+        addSong(4, "Hero", 3, "hero", 1);
+        addSong(5, "晴天", 1, "Alice", 3);
+        addSong(6, "Other", 1, "Alice", 100);
+
+        assertTrue(suggestManager.rebuild());
+
+        List<SongSuggestionBO> suggestions = suggestManager.suggest("HE", 10);
+        // 同名歌曲合并，播放次数累加；歌名与上传者名分别列出
+        assertEquals(List.of(
+                new SongSuggestionBO("Help", SuggestionType.SONG, 20),
+                new SongSuggestionBO("Hello World", SuggestionType.SONG, 12),
+                new SongSuggestionBO("Hero", SuggestionType.SONG, 1),
+                new SongSuggestionBO("hero", SuggestionType.UPLOADER, 1)), suggestions);
+        assertEquals(2, suggestManager.suggest("he", 2).size());
+        assertEquals(List.of(new SongSuggestionBO("晴天", SuggestionType.SONG, 3)), suggestManager.suggest("晴", 5));
+        assertEquals(List.of(new SongSuggestionBO("Alice", SuggestionType.UPLOADER, 108)), suggestManager.suggest("al", 5));
+        assertTrue(suggestManager.suggest("hex", 5).isEmpty());
+        assertTrue(suggestManager.suggest("zzz", 5).isEmpty());
+        assertEquals(8.0, meterRegistry.get("audioflow.song.suggest.terms").gauge().value());
+        assertTrue(meterRegistry.get("audioflow.song.suggest.memory").gauge().value() > 0);
+    }
+
+    @Test
+    void shouldMatchBruteForceTopK() {
+        Random random = new Random(42);
+        String alphabet = "abc";
+        for (int i = 1; i <= 5000; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = 1 + random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            addSong(i, name.toString(), 0, null, random.nextInt(50));
+        }
+        suggestManager.rebuild();
+
+        Map<String, Long> expectedWeights = new HashMap<>();
+        for (SongBO song : songs) {
+            expectedWeights.merge(song.getName(), playCounts.getOrDefault(song.getId(), 0L), Long::sum);
+        }
+        for (String prefix : List.of("a", "ab", "abc", "cba", "c", "bbbb")) {
+            List<Long> expected = expectedWeights.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .map(Map.Entry::getValue)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(10)
+                    .toList();
+            List<SongSuggestionBO> suggestions = suggestManager.suggest(prefix, 10);
+            assertEquals(expected, suggestions.stream().map(SongSuggestionBO::getPlayCount).toList(), prefix);
+            assertTrue(suggestions.stream().allMatch(suggestion -> suggestion.getText().startsWith(prefix)));
+        }
+    }
+
+    @Test
+    void shouldKeepMostPlayedTermsWithinMemoryBudget() {
+        for (int i = 1; i <= 100; i++) {
+            addSong(i, "song-" + i, 0, null, i);
+        }
+        // 每个词项约 25 字节固定占用加键与文本
+        ReflectionTestUtils.setField(suggestManager, "maxMemoryBytes", 1000L);
+
+        suggestManager.rebuild();
+
+        assertTrue(meterRegistry.get("audioflow.song.suggest.memory").gauge().value() <= 1200);
+        List<SongSuggestionBO> suggestions = suggestManager.suggest("song-", 3);
+        assertEquals(List.of("song-100", "song-99", "song-98"), suggestions.stream().map(SongSuggestionBO::getText).toList());
+        assertTrue(suggestManager.suggest("song-1", 100).size() < 12);
+    }
+
+    @Test
+    void shouldKeepOldIndexWhenRebuildFails() {
+        addSong(1, "Hello", 1, "Alice", 1);
+        suggestManager.rebuild();
+        songs.add(null);
+
+        assertFalse(suggestManager.rebuild());
+
+        assertEquals(1, suggestManager.suggest("hel", 5).size());
+    }
+
+    private void addSong(long id, String name, long uploaderId, String uploaderName, long playCount) {
+        SongBO song = new SongBO();
+        song.setId(id);
+        song.setName(name);
+        song.setUploaderId(uploaderId);
+        song.setUploaderName(uploaderName);
+        songs.add(song);
+        if (playCount > 0) {
+            playCounts.put(id, playCount);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package top.enderliquid.audioflow.manager.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.enderliquid.audioflow.common.enums.TrendingWindow;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class TrendingManagerImplTest {
+
+    // 位于当前10分钟桶开始后 5 分钟
+    private static final Instant NOW = Instant.parse("2026-01-01T00:05:00Z");
+    private static final long CURRENT_BUCKET = NOW.getEpochSecond() / 60 / 10;
+
+    private StringRedisTemplate redisTemplate;
+    private ZSetOperations<String, String> zSetOperations;
+    private TrendingManagerImpl trendingManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        zSetOperations = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        trendingManager = new TrendingManagerImpl(redisTemplate, Clock.fixed(NOW, ZoneOffset.UTC));
+        ReflectionTestUtils.setField(trendingManager, "enabled", true);
+        ReflectionTestUtils.setField(trendingManager, "rankingSize", 3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAddPlaysToCurrentBucketInOnePipeline() {
+        trendingManager.addPlays(Map.of(42L, 3L, 7L, 1L));
+        trendingManager.addPlays(Map.of());
+
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate, times(1)).executePipelined(callback.capture());
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        callback.getValue().doInRedis(connection);
+        String key = "song_trending:bucket:" + CURRENT_BUCKET;
+        verify(connection).zIncrBy(key, 3.0, "42");
+        verify(connection).zIncrBy(key, 1.0, "7");
+        verify(connection).expire(key, 1009 * 600L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMergeBucketsWithDecayedWeightsAndTrim() {
+        when(zSetOperations.unionAndStore(anyString(), anyList(), anyString(), any(Aggregate.class), any(Weights.class)))
+                .thenReturn(5L);
+
+        trendingManager.refreshRankings();
+
+        ArgumentCaptor<List<String>> otherKeys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<String> tempKey = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Weights> weights = ArgumentCaptor.forClass(Weights.class);
+        // 三个窗口都以当前桶为首个键
+        verify(zSetOperations, times(3)).unionAndStore(eq("song_trending:bucket:" + CURRENT_BUCKET), otherKeys.capture(),
+                tempKey.capture(), eq(Aggregate.SUM), weights.capture());
+
+        // 小时窗口: 6 个桶，半衰期 30 分钟，当前桶年龄 5 分钟，上一个桶 15 分钟
+        assertEquals(5, otherKeys.getAllValues().getFirst().size());
+        assertEquals("song_trending:bucket:" + (CURRENT_BUCKET - 1), otherKeys.getAllValues().getFirst().getFirst());
+        Weights hourWeights = weights.getAllValues().getFirst();
+        assertEquals(6, hourWeights.size());
+        assertEquals(Math.pow(0.5, 5 / 30.0), hourWeights.getWeight(0), 1e-9);
+        assertEquals(Math.pow(0.5, 15 / 30.0), hourWeights.getWeight(1), 1e-9);
+        assertEquals(1008, weights.getAllValues().get(2).size());
+
+        // 只保留前 3 名，替换排行键
+        String hourTempKey = tempKey.getAllValues().getFirst();
+        assertTrue(hourTempKey.startsWith("song_trending:rank:HOUR:tmp:"));
+        verify(zSetOperations).removeRange(hourTempKey, 0, 1);
+        verify(redisTemplate).expire(hourTempKey, Duration.ofDays(1));
+        verify(redisTemplate).rename(hourTempKey, "song_trending:rank:HOUR");
+    }
+
+    @Test
+    void shouldDeleteRankingWhenNoPlays() {
+        when(zSetOperations.unionAndStore(anyString(), anyList(), anyString(), any(Aggregate.class), any(Weights.class)))
+                .thenReturn(0L);
+
+        trendingManager.refreshRankings();
+
+        verify(redisTemplate).delete("song_trending:rank:DAY");
+        verify(redisTemplate, never()).rename(anyString(), anyString());
+    }
+
+    @Test
+    void shouldListTopSongIdsInRankOrder() {
+        when(zSetOperations.reverseRange("song_trending:rank:WEEK", 0, 2))
+                .thenReturn(new LinkedHashSet<>(List.of("3", "x", "1")));
+
+        assertEquals(List.of(3L, 1L), trendingManager.listTopSongIds(TrendingWindow.WEEK, 3));
+
+        when(zSetOperations.reverseRange(startsWith("song_trending:rank:"), anyLong(), anyLong()))
+                .thenThrow(new IllegalStateException("connection refused"));
+        assertEquals(List.of(), trendingManager.listTopSongIds(TrendingWindow.DAY, 3));
+    }
+}